@@ -24,6 +24,7 @@ package com.pentaho.big.data.bundles.impl.shim.hbase;
 
 import com.pentaho.big.data.bundles.impl.shim.hbase.connectionPool.HBaseConnectionHandle;
 import com.pentaho.big.data.bundles.impl.shim.hbase.connectionPool.HBaseConnectionPool;
+import com.pentaho.big.data.bundles.impl.shim.hbase.connectionPool.HBaseConnectionPoolStats;
 import com.pentaho.big.data.bundles.impl.shim.hbase.mapping.MappingFactoryImpl;
 import com.pentaho.big.data.bundles.impl.shim.hbase.meta.HBaseValueMetaInterfaceFactoryImpl;
 import com.pentaho.big.data.bundles.impl.shim.hbase.table.HBaseTableImpl;
@@ -89,6 +90,10 @@ public class HBaseConnectionImpl implements HBaseConnection {
     return new ByteConversionUtilImpl( hBaseBytesUtilShim );
   }
 
+  public HBaseConnectionPoolStats getPoolStats() {
+    return hBaseConnectionPool.getStats();
+  }
+
   @Override public void close() throws IOException {
     hBaseConnectionPool.close();
   }
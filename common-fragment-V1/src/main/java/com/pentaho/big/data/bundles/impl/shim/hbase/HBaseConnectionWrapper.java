@@ -29,6 +29,7 @@ import org.pentaho.hadoop.shim.api.cluster.NamedCluster;
 import org.pentaho.hadoop.shim.api.internal.hbase.ColumnFilter;
 import org.pentaho.hadoop.shim.api.internal.hbase.HBaseBytesUtilShim;
 import org.pentaho.hadoop.shim.api.internal.hbase.HBaseValueMeta;
+import org.pentaho.hadoop.shim.api.internal.hbase.TargetTableMutation;
 import org.pentaho.hadoop.shim.spi.HBaseConnection;
 
 import java.lang.reflect.Field;
@@ -114,10 +115,22 @@ public class HBaseConnectionWrapper implements HBaseConnection {
     return delegate.sourceTableRowExists( bytes );
   }
 
+  @Override public List<Object> getSourceTableRows( List<byte[]> rowKeys ) throws Exception {
+    return delegate.getSourceTableRows( rowKeys );
+  }
+
+  @Override public boolean[] sourceTableRowsExist( List<byte[]> rowKeys ) throws Exception {
+    return delegate.sourceTableRowsExist( rowKeys );
+  }
+
   @Override public void newSourceTableScan( byte[] bytes, byte[] bytes1, int i ) throws Exception {
     delegate.newSourceTableScan( bytes, bytes1, i );
   }
 
+  @Override public List<byte[]> getSourceTableRegionStartKeys() throws Exception {
+    return delegate.getSourceTableRegionStartKeys();
+  }
+
   @Override public void newTargetTablePut( byte[] bytes, boolean b ) throws Exception {
     delegate.newTargetTablePut( bytes, b );
   }
@@ -130,6 +143,11 @@ public class HBaseConnectionWrapper implements HBaseConnection {
     delegate.executeTargetTablePut();
   }
 
+  @Override public List<Integer> executeTargetTableMutations( List<TargetTableMutation> mutations )
+    throws Exception {
+    return delegate.executeTargetTableMutations( mutations );
+  }
+
   @Override public void flushCommitsTargetTable() throws Exception {
     delegate.flushCommitsTargetTable();
   }
@@ -138,6 +156,11 @@ public class HBaseConnectionWrapper implements HBaseConnection {
     delegate.addColumnToTargetPut( s, s1, b, bytes );
   }
 
+  @Override public void addColumnToTargetPut( byte[] columnFamily, byte[] columnName, byte[] colValue )
+    throws Exception {
+    delegate.addColumnToTargetPut( columnFamily, columnName, colValue );
+  }
+
   @Override public void addColumnFilterToScan( ColumnFilter columnFilter,
                                                HBaseValueMeta hBaseValueMeta,
                                                VariableSpace variableSpace, boolean b ) throws Exception {
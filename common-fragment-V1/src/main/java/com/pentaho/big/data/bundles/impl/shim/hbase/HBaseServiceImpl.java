@@ -22,6 +22,7 @@
 
 package com.pentaho.big.data.bundles.impl.shim.hbase;
 
+import com.pentaho.big.data.bundles.impl.shim.hbase.connectionPool.HBaseConnectionPool;
 import com.pentaho.big.data.bundles.impl.shim.hbase.mapping.ColumnFilterFactoryImpl;
 import com.pentaho.big.data.bundles.impl.shim.hbase.mapping.MappingFactoryImpl;
 import com.pentaho.big.data.bundles.impl.shim.hbase.meta.HBaseValueMetaInterfaceFactoryImpl;
@@ -84,6 +85,13 @@ public class HBaseServiceImpl implements HBaseService {
     if ( !Const.isEmpty( defaultConfig ) ) {
       connProps.setProperty( org.pentaho.hadoop.shim.spi.HBaseConnection.DEFAULTS_KEY, defaultConfig );
     }
+    for ( String poolKey : new String[] { HBaseConnectionPool.MAX_SIZE_KEY, HBaseConnectionPool.MAX_WAIT_MILLIS_KEY,
+      HBaseConnectionPool.MAX_IDLE_MILLIS_KEY } ) {
+      String value = variableSpace.getVariable( poolKey );
+      if ( !Const.isEmpty( value ) ) {
+        connProps.setProperty( poolKey, value );
+      }
+    }
     return new HBaseConnectionImpl( hBaseShim, bytesUtil, connProps, logChannelInterface, namedCluster );
   }
 
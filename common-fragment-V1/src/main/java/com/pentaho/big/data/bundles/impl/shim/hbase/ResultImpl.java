@@ -23,6 +23,7 @@
 package com.pentaho.big.data.bundles.impl.shim.hbase;
 
 import org.pentaho.hadoop.shim.api.hbase.Result;
+import org.pentaho.hadoop.shim.api.hbase.meta.HBaseColumnHandle;
 import org.pentaho.hadoop.shim.api.internal.hbase.HBaseBytesUtilShim;
 
 import java.util.NavigableMap;
@@ -56,6 +57,10 @@ public class ResultImpl implements Result {
       colNameIsBinary ? hBaseBytesUtilShim.toBytesBinary( colName ) : hBaseBytesUtilShim.toBytes( colName ) );
   }
 
+  @Override public byte[] getValue( HBaseColumnHandle column ) {
+    return result.getValue( column.getColumnFamilyBytes(), column.getColumnNameBytes() );
+  }
+
   @Override public boolean isEmpty() {
     return result.isEmpty();
   }
@@ -30,105 +30,177 @@ import org.pentaho.hbase.shim.common.CommonHBaseConnection;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 /**
  * Created by bryan on 1/25/16.
+ * <p/>
+ * Available connections are indexed by source table, target table and both, so that finding the best match for a
+ * checkout doesn't scan the whole pool. The pool can be bounded with {@link #MAX_SIZE_KEY}: a checkout that finds
+ * neither an available connection nor room for a new one waits up to {@link #MAX_WAIT_MILLIS_KEY} (forever if
+ * negative, failing right away if 0). Connections left available for longer than {@link #MAX_IDLE_MILLIS_KEY} are
+ * closed. Once the pool is closed, checkouts fail, including those already waiting.
  */
 public class HBaseConnectionPool implements Closeable {
+  public static final String MAX_SIZE_KEY = "pentaho.hbase.pool.maxSize";
+  public static final String MAX_WAIT_MILLIS_KEY = "pentaho.hbase.pool.maxWaitMillis";
+  public static final String MAX_IDLE_MILLIS_KEY = "pentaho.hbase.pool.maxIdleMillis";
+  public static final long DEFAULT_MAX_IDLE_MILLIS = TimeUnit.MINUTES.toMillis( 5 );
+
+  // in release order, so the connections idle for the longest come first
   private final Set<HBaseConnectionPoolConnection> availableConnections;
+  private final Map<String, Set<HBaseConnectionPoolConnection>> availableBySourceTable;
+  private final Map<String, Set<HBaseConnectionPoolConnection>> availableByTargetTable;
+  private final Map<List<String>, Set<HBaseConnectionPoolConnection>> availableBySourceAndTargetTable;
   private final Set<HBaseConnectionPoolConnection> inUseConnections;
   private final HBaseShim hBaseShim;
   protected final Properties connectionProps;
   protected final LogChannelInterface logChannelInterface;
   protected final NamedCluster namedCluster;
+  private final int maxSize;
+  private final long maxWaitMillis;
+  private final long maxIdleMillis;
+  private int pendingCreates;
+  private boolean closed;
+
+  private final AtomicLong checkouts = new AtomicLong();
+  private final AtomicLong waits = new AtomicLong();
+  private final AtomicLong waitNanos = new AtomicLong();
+  private final AtomicLong creates = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
 
   public HBaseConnectionPool( HBaseShim hBaseShim, Properties connectionProps,
                               LogChannelInterface logChannelInterface, NamedCluster namedCluster ) {
+    this( hBaseShim, connectionProps, logChannelInterface, namedCluster,
+      (int) getLong( connectionProps, MAX_SIZE_KEY, 0 ), getLong( connectionProps, MAX_WAIT_MILLIS_KEY, -1 ),
+      getLong( connectionProps, MAX_IDLE_MILLIS_KEY, DEFAULT_MAX_IDLE_MILLIS ) );
+  }
+
+  /**
+   * @param maxSize       the maximum number of connections, unbounded if not positive
+   * @param maxWaitMillis how long a checkout waits for a connection when the pool is full, forever if negative
+   * @param maxIdleMillis how long a connection may stay available before being closed, forever if not positive
+   */
+  public HBaseConnectionPool( HBaseShim hBaseShim, Properties connectionProps,
+                              LogChannelInterface logChannelInterface, NamedCluster namedCluster,
+                              int maxSize, long maxWaitMillis, long maxIdleMillis ) {
     this.hBaseShim = hBaseShim;
     this.connectionProps = connectionProps;
     this.logChannelInterface = logChannelInterface;
-    availableConnections = new HashSet<>();
+    availableConnections = new LinkedHashSet<>();
+    availableBySourceTable = new HashMap<>();
+    availableByTargetTable = new HashMap<>();
+    availableBySourceAndTargetTable = new HashMap<>();
     inUseConnections = new HashSet<>();
     this.namedCluster = namedCluster;
+    this.maxSize = maxSize;
+    this.maxWaitMillis = maxWaitMillis;
+    this.maxIdleMillis = maxIdleMillis;
   }
 
-  private HBaseConnectionPoolConnection findBestMatch( String sourceTable ) {
-    HBaseConnectionPoolConnection match = null;
-    for ( HBaseConnectionPoolConnection availableConnection : availableConnections ) {
-      String availableConnectionSourceTable = availableConnection.getSourceTable();
-      if ( sourceTable == null ) {
-        if ( availableConnectionSourceTable == null ) {
-          return availableConnection;
-        }
-      } else {
-        if ( availableConnectionSourceTable == null ) {
-          match = availableConnection;
-        } else if ( sourceTable.equals( availableConnectionSourceTable ) ) {
-          return availableConnection;
-        }
-      }
+  private static long getLong( Properties properties, String key, long defaultValue ) {
+    String value = properties == null ? null : properties.getProperty( key );
+    if ( value == null || value.trim().isEmpty() ) {
+      return defaultValue;
     }
-    if ( match == null && availableConnections.size() > 0 ) {
-      return availableConnections.iterator().next();
-    } else {
-      return match;
+    try {
+      return Long.parseLong( value.trim() );
+    } catch ( NumberFormatException e ) {
+      return defaultValue;
+    }
+  }
+
+  private static <K> HBaseConnectionPoolConnection first( Map<K, Set<HBaseConnectionPoolConnection>> index, K key ) {
+    Set<HBaseConnectionPoolConnection> connections = index.get( key );
+    return connections == null ? null : connections.iterator().next();
+  }
+
+  private static <K> void index( Map<K, Set<HBaseConnectionPoolConnection>> index, K key,
+                                 HBaseConnectionPoolConnection connection ) {
+    index.computeIfAbsent( key, k -> new LinkedHashSet<>() ).add( connection );
+  }
+
+  private static <K> void unindex( Map<K, Set<HBaseConnectionPoolConnection>> index, K key,
+                                   HBaseConnectionPoolConnection connection ) {
+    Set<HBaseConnectionPoolConnection> connections = index.get( key );
+    if ( connections != null && connections.remove( connection ) && connections.isEmpty() ) {
+      index.remove( key );
+    }
+  }
+
+  private void addAvailable( HBaseConnectionPoolConnection connection ) {
+    availableConnections.add( connection );
+    index( availableBySourceTable, connection.getSourceTable(), connection );
+    index( availableByTargetTable, connection.getTargetTable(), connection );
+    index( availableBySourceAndTargetTable,
+      Arrays.asList( connection.getSourceTable(), connection.getTargetTable() ), connection );
+  }
+
+  private void removeAvailable( HBaseConnectionPoolConnection connection ) {
+    availableConnections.remove( connection );
+    unindex( availableBySourceTable, connection.getSourceTable(), connection );
+    unindex( availableByTargetTable, connection.getTargetTable(), connection );
+    unindex( availableBySourceAndTargetTable,
+      Arrays.asList( connection.getSourceTable(), connection.getTargetTable() ), connection );
+  }
+
+  private HBaseConnectionPoolConnection anyAvailable() {
+    return availableConnections.isEmpty() ? null : availableConnections.iterator().next();
+  }
+
+  private HBaseConnectionPoolConnection findBestMatch( String sourceTable ) {
+    HBaseConnectionPoolConnection match = first( availableBySourceTable, sourceTable );
+    if ( match == null && sourceTable != null ) {
+      match = first( availableBySourceTable, null );
     }
+    return match == null ? anyAvailable() : match;
   }
 
   private HBaseConnectionPoolConnection findBestMatch( String targetTable, Properties targetTableProps ) {
-    HBaseConnectionPoolConnection match = null;
-    for ( HBaseConnectionPoolConnection availableConnection : availableConnections ) {
-      String availableConnectionTargetTable = availableConnection.getTargetTable();
-      if ( targetTable == null ) {
-        if ( availableConnectionTargetTable == null ) {
-          return availableConnection;
-        }
-      } else {
-        if ( availableConnectionTargetTable == null ) {
-          match = availableConnection;
-        } else if ( targetTable.equals( availableConnectionTargetTable ) ) {
-          Properties availableConnectionTargetTableProperties = availableConnection.getTargetTableProperties();
-          if ( targetTableProps == null ) {
-            if ( availableConnectionTargetTableProperties == null ) {
-              return availableConnection;
-            }
-          } else if ( targetTableProps.equals( availableConnectionTargetTableProperties ) ) {
+    if ( targetTable == null ) {
+      HBaseConnectionPoolConnection match = first( availableByTargetTable, null );
+      return match == null ? anyAvailable() : match;
+    }
+    Set<HBaseConnectionPoolConnection> sameTable = availableByTargetTable.get( targetTable );
+    if ( sameTable != null ) {
+      for ( HBaseConnectionPoolConnection availableConnection : sameTable ) {
+        Properties availableConnectionTargetTableProperties = availableConnection.getTargetTableProperties();
+        if ( targetTableProps == null ) {
+          if ( availableConnectionTargetTableProperties == null ) {
             return availableConnection;
           }
+        } else if ( targetTableProps.equals( availableConnectionTargetTableProperties ) ) {
+          return availableConnection;
         }
       }
     }
-    if ( match == null && availableConnections.size() > 0 ) {
-      return availableConnections.iterator().next();
-    } else {
-      return match;
-    }
+    HBaseConnectionPoolConnection match = first( availableByTargetTable, null );
+    return match == null ? anyAvailable() : match;
   }
 
   private HBaseConnectionPoolConnection findBestMatch() {
-    HBaseConnectionPoolConnection match = null;
-    for ( HBaseConnectionPoolConnection availableConnection : availableConnections ) {
-      String sourceTable = availableConnection.getSourceTable();
-      String targetTable = availableConnection.getTargetTable();
-      if ( targetTable == null ) {
-        if ( sourceTable == null ) {
-          return availableConnection;
-        }
-        match = availableConnection;
-      } else if ( sourceTable == null && match == null ) {
-        match = availableConnection;
-      }
+    HBaseConnectionPoolConnection match = first( availableBySourceAndTargetTable, Arrays.<String>asList( null, null ) );
+    if ( match == null ) {
+      match = first( availableByTargetTable, null );
     }
-    if ( match == null && availableConnections.size() > 0 ) {
-      return availableConnections.iterator().next();
-    } else {
-      return match;
+    if ( match == null ) {
+      match = first( availableBySourceTable, null );
     }
+    return match == null ? anyAvailable() : match;
   }
 
   protected HBaseConnectionPoolConnection create() throws IOException {
@@ -148,6 +220,86 @@ public class HBaseConnectionPool implements Closeable {
     return new HBaseConnectionPoolConnection( hBaseConnection );
   }
 
+  /**
+   * Checks out the best available connection, or a new one if none is available and the pool isn't full. Creating the
+   * connection happens outside of the pool lock so that other checkouts and releases aren't held up by it.
+   */
+  private HBaseConnectionPoolConnection checkout( Supplier<HBaseConnectionPoolConnection> bestMatch )
+    throws IOException {
+    HBaseConnectionPoolConnection result;
+    List<HBaseConnectionPoolConnection> evicted = Collections.emptyList();
+    long waitStart = 0;
+    try {
+      synchronized ( this ) {
+        evicted = evictIdleConnections( System.currentTimeMillis() );
+        while ( true ) {
+          checkNotClosed();
+          result = bestMatch.get();
+          if ( result != null ) {
+            removeAvailable( result );
+            inUseConnections.add( result );
+            break;
+          }
+          if ( maxSize <= 0 || inUseConnections.size() + pendingCreates < maxSize ) {
+            pendingCreates++;
+            break;
+          }
+          if ( waitStart == 0 ) {
+            waitStart = System.nanoTime();
+            waits.incrementAndGet();
+          }
+          long waitedMillis = TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - waitStart );
+          if ( maxWaitMillis >= 0 && waitedMillis >= maxWaitMillis ) {
+            throw new IOException( "No HBase connection became available within " + maxWaitMillis
+              + "ms, the pool is limited to " + maxSize + " connections" );
+          }
+          try {
+            wait( maxWaitMillis < 0 ? 0 : maxWaitMillis - waitedMillis );
+          } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException( "Interrupted while waiting for an HBase connection" );
+          }
+        }
+      }
+    } finally {
+      if ( waitStart != 0 ) {
+        waitNanos.addAndGet( System.nanoTime() - waitStart );
+      }
+      closeConnections( evicted );
+    }
+    checkouts.incrementAndGet();
+    if ( result != null ) {
+      return result;
+    }
+    boolean closedWhileCreating = false;
+    try {
+      result = create();
+      creates.incrementAndGet();
+    } finally {
+      synchronized ( this ) {
+        pendingCreates--;
+        if ( result != null && !closed ) {
+          inUseConnections.add( result );
+        } else {
+          closedWhileCreating = result != null;
+          notifyAll();
+        }
+      }
+    }
+    if ( closedWhileCreating ) {
+      // nothing would ever close it once the pool is closed
+      closeConnections( Collections.singletonList( result ) );
+      throw new IOException( "HBase connection pool was closed" );
+    }
+    return result;
+  }
+
+  private void checkNotClosed() throws IOException {
+    if ( closed ) {
+      throw new IOException( "HBase connection pool is closed" );
+    }
+  }
+
   /**
    * Gets an available connection with the given source table (changing to this source table if necessary)
    * <p/>
@@ -158,21 +310,16 @@ public class HBaseConnectionPool implements Closeable {
    * @return
    * @throws IOException
    */
-  public synchronized HBaseConnectionHandle getConnectionHandle( String sourceTable ) throws IOException {
-    HBaseConnectionPoolConnection result = findBestMatch( sourceTable );
-    if ( result != null ) {
-      availableConnections.remove( result );
-    } else {
-      result = create();
-    }
+  public HBaseConnectionHandle getConnectionHandle( String sourceTable ) throws IOException {
+    HBaseConnectionPoolConnection result = checkout( () -> findBestMatch( sourceTable ) );
     if ( sourceTable != null && !sourceTable.equals( result.getSourceTable() ) ) {
       try {
         result.newSourceTableInternal( sourceTable );
       } catch ( Exception e ) {
+        releaseConnection( result );
         throw new IOException( e );
       }
     }
-    inUseConnections.add( result );
     return new HBaseConnectionHandleImpl( this, result );
   }
 
@@ -187,30 +334,25 @@ public class HBaseConnectionPool implements Closeable {
    * @return
    * @throws IOException
    */
-  public synchronized HBaseConnectionHandle getConnectionHandle( String targetTable, Properties targetTableProps )
+  public HBaseConnectionHandle getConnectionHandle( String targetTable, Properties targetTableProps )
     throws IOException {
-    HBaseConnectionPoolConnection result = findBestMatch( targetTable, targetTableProps );
-    if ( result != null ) {
-      availableConnections.remove( result );
-    } else {
-      result = create();
-    }
+    HBaseConnectionPoolConnection result = checkout( () -> findBestMatch( targetTable, targetTableProps ) );
     boolean targetTableDifferent = targetTable != null && !targetTable.equals( result.getTargetTable() );
     boolean propsDifferent = false;
     Properties resultTargetTableProperties = result.getTargetTableProperties();
     if ( targetTableProps == null ) {
       propsDifferent = resultTargetTableProperties != null;
     } else {
-      propsDifferent = targetTableProps.equals( resultTargetTableProperties );
+      propsDifferent = !targetTableProps.equals( resultTargetTableProperties );
     }
     if ( targetTableDifferent || propsDifferent ) {
       try {
         result.newTargetTableInternal( targetTable, targetTableProps );
       } catch ( Exception e ) {
+        releaseConnection( result );
         throw new IOException( e );
       }
     }
-    inUseConnections.add( result );
     return new HBaseConnectionHandleImpl( this, result );
   }
 
@@ -222,23 +364,73 @@ public class HBaseConnectionPool implements Closeable {
    * @return
    * @throws IOException
    */
-  public synchronized HBaseConnectionHandle getConnectionHandle() throws IOException {
-    HBaseConnectionPoolConnection result = findBestMatch();
-    if ( result != null ) {
-      availableConnections.remove( result );
-    } else {
-      result = create();
+  public HBaseConnectionHandle getConnectionHandle() throws IOException {
+    return new HBaseConnectionHandleImpl( this, checkout( this::findBestMatch ) );
+  }
+
+  protected void releaseConnection( HBaseConnectionPoolConnection hBaseConnection ) {
+    List<HBaseConnectionPoolConnection> evicted;
+    synchronized ( this ) {
+      if ( !inUseConnections.remove( hBaseConnection ) ) {
+        // released after the pool was closed
+        return;
+      }
+      long now = System.currentTimeMillis();
+      hBaseConnection.setIdleSince( now );
+      addAvailable( hBaseConnection );
+      evicted = evictIdleConnections( now );
+      notifyAll();
     }
-    inUseConnections.add( result );
-    return new HBaseConnectionHandleImpl( this, result );
+    closeConnections( evicted );
   }
 
-  protected synchronized void releaseConnection( HBaseConnectionPoolConnection hBaseConnection ) {
-    inUseConnections.remove( hBaseConnection );
-    availableConnections.add( hBaseConnection );
+  /**
+   * Removes the connections that have been available for longer than the max idle time. They must be closed by the
+   * caller, outside of the pool lock.
+   */
+  private List<HBaseConnectionPoolConnection> evictIdleConnections( long now ) {
+    if ( maxIdleMillis <= 0 || availableConnections.isEmpty() ) {
+      return Collections.emptyList();
+    }
+    List<HBaseConnectionPoolConnection> evicted = new ArrayList<>();
+    Iterator<HBaseConnectionPoolConnection> iterator = availableConnections.iterator();
+    while ( iterator.hasNext() ) {
+      HBaseConnectionPoolConnection connection = iterator.next();
+      if ( now - connection.getIdleSince() < maxIdleMillis ) {
+        break;
+      }
+      evicted.add( connection );
+    }
+    for ( HBaseConnectionPoolConnection connection : evicted ) {
+      removeAvailable( connection );
+    }
+    evictions.addAndGet( evicted.size() );
+    return evicted;
+  }
+
+  private void closeConnections( List<HBaseConnectionPoolConnection> connections ) {
+    for ( HBaseConnectionPoolConnection connection : connections ) {
+      try {
+        connection.closeInternal();
+      } catch ( Exception e ) {
+        if ( logChannelInterface != null ) {
+          logChannelInterface.logError( e.getMessage(), e );
+        }
+      }
+    }
+  }
+
+  /**
+   * @return a snapshot of the pool counters and gauges
+   */
+  public synchronized HBaseConnectionPoolStats getStats() {
+    return new HBaseConnectionPoolStats( checkouts.get(), waits.get(),
+      TimeUnit.NANOSECONDS.toMillis( waitNanos.get() ), creates.get(), evictions.get(),
+      availableConnections.size(), inUseConnections.size(), maxSize );
   }
 
   @Override public synchronized void close() throws IOException {
+    closed = true;
     for ( HBaseConnectionPoolConnection inUseConnection : inUseConnections ) {
       try {
         inUseConnection.closeInternal();
@@ -255,5 +447,9 @@ public class HBaseConnectionPool implements Closeable {
     }
     inUseConnections.clear();
     availableConnections.clear();
+    availableBySourceTable.clear();
+    availableByTargetTable.clear();
+    availableBySourceAndTargetTable.clear();
+    notifyAll();
   }
 }
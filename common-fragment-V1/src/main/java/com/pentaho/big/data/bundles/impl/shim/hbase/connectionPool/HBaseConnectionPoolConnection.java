@@ -34,6 +34,7 @@ public class HBaseConnectionPoolConnection extends HBaseConnectionWrapper {
   private String sourceTable;
   private String targetTable;
   private Properties targetTableProperties;
+  private long idleSince;
 
   public HBaseConnectionPoolConnection( HBaseConnection delegate ) {
     super( delegate );
@@ -71,6 +72,14 @@ public class HBaseConnectionPoolConnection extends HBaseConnectionWrapper {
     return sourceTable;
   }
 
+  long getIdleSince() {
+    return idleSince;
+  }
+
+  void setIdleSince( long idleSince ) {
+    this.idleSince = idleSince;
+  }
+
   protected void closeInternal() throws Exception {
     closeSourceTableInternal();
     closeTargetTableInternal();
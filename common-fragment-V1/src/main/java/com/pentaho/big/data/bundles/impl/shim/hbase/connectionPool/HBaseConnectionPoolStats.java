@@ -0,0 +1,105 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package com.pentaho.big.data.bundles.impl.shim.hbase.connectionPool;
+
+/**
+ * Snapshot of the counters and gauges of an {@link HBaseConnectionPool}.
+ */
+public class HBaseConnectionPoolStats {
+  private final long checkouts;
+  private final long waits;
+  private final long waitTimeMillis;
+  private final long creates;
+  private final long evictions;
+  private final int available;
+  private final int inUse;
+  private final int maxSize;
+
+  public HBaseConnectionPoolStats( long checkouts, long waits, long waitTimeMillis, long creates, long evictions,
+                                   int available, int inUse, int maxSize ) {
+    this.checkouts = checkouts;
+    this.waits = waits;
+    this.waitTimeMillis = waitTimeMillis;
+    this.creates = creates;
+    this.evictions = evictions;
+    this.available = available;
+    this.inUse = inUse;
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * @return the number of connections handed out
+   */
+  public long getCheckouts() {
+    return checkouts;
+  }
+
+  /**
+   * @return the number of checkouts that had to wait for a connection to be released
+   */
+  public long getWaits() {
+    return waits;
+  }
+
+  /**
+   * @return the total time checkouts spent waiting
+   */
+  public long getWaitTimeMillis() {
+    return waitTimeMillis;
+  }
+
+  /**
+   * @return the number of connections created
+   */
+  public long getCreates() {
+    return creates;
+  }
+
+  /**
+   * @return the number of idle connections closed
+   */
+  public long getEvictions() {
+    return evictions;
+  }
+
+  public int getAvailable() {
+    return available;
+  }
+
+  public int getInUse() {
+    return inUse;
+  }
+
+  /**
+   * @return the maximum number of connections, not positive if unbounded
+   */
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  @Override public String toString() {
+    return "HBaseConnectionPoolStats{checkouts=" + checkouts + ", waits=" + waits + ", waitTimeMillis="
+      + waitTimeMillis + ", creates=" + creates + ", evictions=" + evictions + ", available=" + available
+      + ", inUse=" + inUse + ", maxSize=" + maxSize + "}";
+  }
+}
@@ -23,6 +23,7 @@
 package com.pentaho.big.data.bundles.impl.shim.hbase.mapping;
 
 import com.google.common.collect.Maps;
+import com.pentaho.big.data.bundles.impl.shim.hbase.meta.HBaseColumnHandleImpl;
 import com.pentaho.big.data.bundles.impl.shim.hbase.meta.HBaseValueMetaInterfaceFactoryImpl;
 
 import org.pentaho.di.core.exception.KettleException;
@@ -30,6 +31,7 @@ import org.pentaho.di.core.exception.KettleXMLException;
 import org.pentaho.di.repository.ObjectId;
 import org.pentaho.di.repository.Repository;
 import org.pentaho.hadoop.shim.api.hbase.mapping.Mapping;
+import org.pentaho.hadoop.shim.api.hbase.meta.HBaseColumnHandle;
 import org.pentaho.hadoop.shim.api.hbase.meta.HBaseValueMetaInterface;
 import org.pentaho.hadoop.shim.api.internal.hbase.HBaseBytesUtilShim;
 import org.pentaho.hadoop.shim.api.internal.hbase.HBaseValueMeta;
@@ -180,6 +182,11 @@ public class MappingImpl implements Mapping {
     return HBaseValueMeta.decodeKeyValue( rawval, delegate, hBaseBytesUtilShim );
   }
 
+  @Override
+  public HBaseColumnHandle createColumnHandle( String columnFamily, String columnName, boolean colNameIsBinary ) {
+    return new HBaseColumnHandleImpl( columnFamily, columnName, colNameIsBinary, hBaseBytesUtilShim );
+  }
+
   @Override public String toString() {
     return delegate.toString();
   }
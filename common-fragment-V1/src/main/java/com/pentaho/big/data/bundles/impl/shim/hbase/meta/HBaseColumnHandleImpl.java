@@ -0,0 +1,66 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package com.pentaho.big.data.bundles.impl.shim.hbase.meta;
+
+import org.pentaho.hadoop.shim.api.hbase.meta.HBaseColumnHandle;
+import org.pentaho.hadoop.shim.api.internal.hbase.HBaseBytesUtilShim;
+
+public class HBaseColumnHandleImpl implements HBaseColumnHandle {
+  private final String columnFamily;
+  private final String columnName;
+  private final byte[] columnFamilyBytes;
+  private final byte[] columnNameBytes;
+
+  public HBaseColumnHandleImpl( String columnFamily, String columnName, boolean colNameIsBinary,
+                                HBaseBytesUtilShim hBaseBytesUtilShim ) {
+    this.columnFamily = columnFamily;
+    this.columnName = columnName;
+    columnFamilyBytes = columnFamily == null ? null : hBaseBytesUtilShim.toBytes( columnFamily );
+    if ( columnName == null ) {
+      columnNameBytes = null;
+    } else {
+      columnNameBytes =
+        colNameIsBinary ? hBaseBytesUtilShim.toBytesBinary( columnName ) : hBaseBytesUtilShim.toBytes( columnName );
+    }
+  }
+
+  @Override public String getColumnFamily() {
+    return columnFamily;
+  }
+
+  @Override public String getColumnName() {
+    return columnName;
+  }
+
+  @Override public byte[] getColumnFamilyBytes() {
+    return columnFamilyBytes;
+  }
+
+  @Override public byte[] getColumnNameBytes() {
+    return columnNameBytes;
+  }
+
+  @Override public String toString() {
+    return columnFamily + ":" + columnName;
+  }
+}
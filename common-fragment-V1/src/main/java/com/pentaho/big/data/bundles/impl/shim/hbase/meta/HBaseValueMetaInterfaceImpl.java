@@ -28,16 +28,20 @@ import org.pentaho.di.core.row.ValueMetaInterface;
 import org.pentaho.di.core.xml.XMLHandler;
 import org.pentaho.di.repository.ObjectId;
 import org.pentaho.di.repository.Repository;
+import org.pentaho.hadoop.shim.api.hbase.meta.HBaseColumnHandle;
 import org.pentaho.hadoop.shim.api.hbase.meta.HBaseValueMetaInterface;
 import org.pentaho.hadoop.shim.api.internal.hbase.HBaseBytesUtilShim;
 import org.pentaho.hadoop.shim.api.internal.hbase.HBaseValueMeta;
 
+import java.util.Objects;
+
 
 /**
  * Created by bryan on 1/22/16.
  */
 public class HBaseValueMetaInterfaceImpl extends HBaseValueMeta implements HBaseValueMetaInterface {
   private final HBaseBytesUtilShim hBaseBytesUtilShim;
+  private HBaseColumnHandleImpl columnHandle;
 
   public HBaseValueMetaInterfaceImpl( String name, int type, int length, int precision,
                                       HBaseBytesUtilShim hBaseBytesUtilShim )
@@ -46,6 +50,17 @@ public class HBaseValueMetaInterfaceImpl extends HBaseValueMeta implements HBase
     this.hBaseBytesUtilShim = hBaseBytesUtilShim;
   }
 
+  @Override public HBaseColumnHandle getColumnHandle() {
+    HBaseColumnHandleImpl handle = columnHandle;
+    // the family or the name may have been changed since the handle was created
+    if ( handle == null || !Objects.equals( handle.getColumnFamily(), getColumnFamily() )
+      || !Objects.equals( handle.getColumnName(), getColumnName() ) ) {
+      handle = new HBaseColumnHandleImpl( getColumnFamily(), getColumnName(), false, hBaseBytesUtilShim );
+      columnHandle = handle;
+    }
+    return handle;
+  }
+
   @Override public Object decodeColumnValue( byte[] rawColValue ) throws KettleException {
     return HBaseValueMeta.decodeColumnValue( rawColValue, this, hBaseBytesUtilShim );
   }
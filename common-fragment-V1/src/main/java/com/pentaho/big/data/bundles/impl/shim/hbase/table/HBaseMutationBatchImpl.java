@@ -0,0 +1,227 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package com.pentaho.big.data.bundles.impl.shim.hbase.table;
+
+import com.pentaho.big.data.bundles.impl.shim.hbase.connectionPool.HBaseConnectionHandle;
+import org.pentaho.hadoop.shim.api.hbase.meta.HBaseColumnHandle;
+import org.pentaho.hadoop.shim.api.hbase.table.HBaseDelete;
+import org.pentaho.hadoop.shim.api.hbase.table.HBaseMutationBatch;
+import org.pentaho.hadoop.shim.api.hbase.table.HBasePut;
+import org.pentaho.hadoop.shim.api.internal.hbase.TargetTableMutation;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Queues mutations as {@link TargetTableMutation}s and applies them through
+ * {@link com.pentaho.big.data.bundles.impl.shim.hbase.HBaseConnectionWrapper#executeTargetTableMutations(List)} on a
+ * background executor shared with the rest of the write operation manager, so the caller keeps building the next batch
+ * while the previous one is sent and the connection is never used by two background threads at once. At most
+ * {@link #MAX_PENDING_BATCHES} batches are submitted or waiting at any time; queuing more blocks the caller.
+ * {@link #flushAsync()} lets the caller go on producing rows while the final batches are applied.
+ */
+public class HBaseMutationBatchImpl implements HBaseMutationBatch {
+  static final int MAX_PENDING_BATCHES = 2;
+
+  private final HBaseConnectionHandle hBaseConnectionHandle;
+  private final int maxMutations;
+  private final long maxBytes;
+  private final Listener listener;
+  private final ExecutorService executor;
+  private final Semaphore pendingBatches = new Semaphore( MAX_PENDING_BATCHES );
+  private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+  private List<TargetTableMutation> queued = new ArrayList<>();
+  private long queuedBytes;
+  private boolean closed;
+
+  public HBaseMutationBatchImpl( HBaseConnectionHandle hBaseConnectionHandle, ExecutorService executor,
+                                 int maxMutations, long maxBytes, Listener listener ) {
+    if ( maxMutations < 1 || maxBytes < 1 ) {
+      throw new IllegalArgumentException( "Batch thresholds must be positive" );
+    }
+    this.hBaseConnectionHandle = hBaseConnectionHandle;
+    this.maxMutations = maxMutations;
+    this.maxBytes = maxBytes;
+    this.listener = listener;
+    this.executor = executor;
+  }
+
+  @Override public HBasePut createPut( byte[] key ) {
+    return new BatchedPut( TargetTableMutation.put( key ) );
+  }
+
+  @Override public HBaseDelete createDelete( byte[] key ) {
+    final TargetTableMutation mutation = TargetTableMutation.delete( key );
+    return () -> add( mutation );
+  }
+
+  void add( TargetTableMutation mutation ) throws IOException {
+    if ( closed ) {
+      throw new IOException( "Mutation batch is closed" );
+    }
+    checkFailure();
+    queued.add( mutation );
+    queuedBytes += mutation.getEstimatedSize();
+    if ( queued.size() >= maxMutations || queuedBytes >= maxBytes ) {
+      submit();
+    }
+  }
+
+  private void submit() throws IOException {
+    if ( queued.isEmpty() ) {
+      return;
+    }
+    final List<TargetTableMutation> batch = queued;
+    final long bytes = queuedBytes;
+    queued = new ArrayList<>( batch.size() );
+    queuedBytes = 0;
+    acquire( 1 );
+    try {
+      executor.execute( () -> {
+        try {
+          apply( batch, bytes );
+        } catch ( Throwable t ) {
+          failure.compareAndSet( null, t );
+        } finally {
+          pendingBatches.release();
+        }
+      } );
+    } catch ( RejectedExecutionException e ) {
+      pendingBatches.release();
+      throw new IOException( e );
+    }
+  }
+
+  private void apply( List<TargetTableMutation> batch, long bytes ) throws Exception {
+    long start = System.nanoTime();
+    List<Integer> failed = hBaseConnectionHandle.getConnection().executeTargetTableMutations( batch );
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - start );
+    List<byte[]> failedKeys = new ArrayList<>( failed.size() );
+    for ( Integer index : failed ) {
+      failedKeys.add( batch.get( index ).getRowKey() );
+    }
+    if ( listener != null ) {
+      listener.batchCompleted( batch.size(), bytes, elapsedMillis, failedKeys );
+    } else if ( !failedKeys.isEmpty() ) {
+      throw new IOException( failedKeys.size() + " of " + batch.size() + " mutations could not be applied" );
+    }
+  }
+
+  private void acquire( int permits ) throws IOException {
+    try {
+      pendingBatches.acquire( permits );
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException( "Interrupted while waiting for pending HBase batches" );
+    }
+  }
+
+  private void checkFailure() throws IOException {
+    Throwable t = failure.get();
+    if ( t instanceof IOException ) {
+      throw (IOException) t;
+    } else if ( t != null ) {
+      throw new IOException( t );
+    }
+  }
+
+  @Override public void flush() throws IOException {
+    checkFailure();
+    submit();
+    // every pending batch holds a permit until it has been applied
+    acquire( MAX_PENDING_BATCHES );
+    pendingBatches.release( MAX_PENDING_BATCHES );
+    checkFailure();
+  }
+
+  @Override public CompletableFuture<Void> flushAsync() {
+    final CompletableFuture<Void> completion = new CompletableFuture<>();
+    try {
+      checkFailure();
+      submit();
+      // the executor has a single thread, so this runs after every batch submitted so far
+      executor.execute( () -> {
+        Throwable t = failure.get();
+        if ( t == null ) {
+          completion.complete( null );
+        } else {
+          completion.completeExceptionally( t instanceof IOException ? t : new IOException( t ) );
+        }
+      } );
+    } catch ( IOException e ) {
+      completion.completeExceptionally( e );
+    } catch ( RejectedExecutionException e ) {
+      completion.completeExceptionally( new IOException( e ) );
+    }
+    return completion;
+  }
+
+  @Override public void close() throws IOException {
+    if ( closed ) {
+      return;
+    }
+    try {
+      flush();
+    } finally {
+      closed = true;
+    }
+  }
+
+  private class BatchedPut implements HBasePut {
+    private final TargetTableMutation mutation;
+
+    BatchedPut( TargetTableMutation mutation ) {
+      this.mutation = mutation;
+    }
+
+    @Override public void setWriteToWAL( boolean writeToWAL ) {
+      mutation.setWriteToWAL( writeToWAL );
+    }
+
+    @Override public void addColumn( String columnFamily, String columnName, boolean colNameIsBinary,
+                                     byte[] colValue ) {
+      mutation.addColumn( columnFamily, columnName, colNameIsBinary, colValue );
+    }
+
+    @Override public void addColumn( HBaseColumnHandle column, byte[] colValue ) {
+      mutation.addColumn( column.getColumnFamilyBytes(), column.getColumnNameBytes(), colValue );
+    }
+
+    @Override public String createColumnName( String... parts ) {
+      return HBasePutImpl.joinColumnName( parts );
+    }
+
+    @Override public void execute() throws IOException {
+      add( mutation );
+    }
+  }
+}
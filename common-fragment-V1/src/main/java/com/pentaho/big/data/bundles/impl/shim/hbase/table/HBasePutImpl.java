@@ -26,6 +26,7 @@ import com.pentaho.big.data.bundles.impl.shim.hbase.BatchHBaseConnectionOperatio
 import com.pentaho.big.data.bundles.impl.shim.hbase.HBaseConnectionOperation;
 import com.pentaho.big.data.bundles.impl.shim.hbase.HBaseConnectionWrapper;
 import com.pentaho.big.data.bundles.impl.shim.hbase.connectionPool.HBaseConnectionHandle;
+import org.pentaho.hadoop.shim.api.hbase.meta.HBaseColumnHandle;
 import org.pentaho.hadoop.shim.api.hbase.table.HBasePut;
 import org.pentaho.hadoop.shim.api.internal.hbase.HBaseValueMeta;
 
@@ -71,7 +72,25 @@ public class HBasePutImpl implements HBasePut {
     } );
   }
 
+  @Override public void addColumn( HBaseColumnHandle column, final byte[] colValue ) throws IOException {
+    final byte[] columnFamily = column.getColumnFamilyBytes();
+    final byte[] columnName = column.getColumnNameBytes();
+    batchHBaseConnectionOperation.addOperation( new HBaseConnectionOperation() {
+      @Override public void perform( HBaseConnectionWrapper hBaseConnectionWrapper ) throws IOException {
+        try {
+          hBaseConnectionWrapper.addColumnToTargetPut( columnFamily, columnName, colValue );
+        } catch ( Exception e ) {
+          throw new IOException( e );
+        }
+      }
+    } );
+  }
+
   @Override public String createColumnName( String... parts ) {
+    return joinColumnName( parts );
+  }
+
+  static String joinColumnName( String... parts ) {
     StringBuilder result = new StringBuilder();
     for ( String part : parts ) {
       result.append( part );
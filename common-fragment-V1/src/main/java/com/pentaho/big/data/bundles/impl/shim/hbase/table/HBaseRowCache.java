@@ -0,0 +1,120 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package com.pentaho.big.data.bundles.impl.shim.hbase.table;
+
+import org.pentaho.hadoop.shim.api.hbase.Result;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded LRU cache of recently fetched rows. A key without a row is cached too, so repeated lookups of missing keys
+ * are answered as well. A key only known to exist, from an existence check, is cached as a marker which answers later
+ * existence checks but not row lookups.
+ */
+class HBaseRowCache {
+  private final long ttlMillis;
+  private final LongSupplier clock;
+  private final Map<ByteBuffer, Entry> entries;
+
+  HBaseRowCache( int maxRows, long ttlMillis ) {
+    this( maxRows, ttlMillis, System::currentTimeMillis );
+  }
+
+  HBaseRowCache( final int maxRows, long ttlMillis, LongSupplier clock ) {
+    this.ttlMillis = ttlMillis;
+    this.clock = clock;
+    entries = new LinkedHashMap<ByteBuffer, Entry>( 16, 0.75f, true ) {
+      @Override protected boolean removeEldestEntry( Map.Entry<ByteBuffer, Entry> eldest ) {
+        return size() > maxRows;
+      }
+    };
+  }
+
+  /**
+   * @return the cached entry of the key, or null if the key is not cached or its entry expired
+   */
+  synchronized Entry get( byte[] key ) {
+    ByteBuffer cacheKey = ByteBuffer.wrap( key );
+    Entry entry = entries.get( cacheKey );
+    if ( entry != null && ttlMillis > 0 && clock.getAsLong() - entry.fetchedAt >= ttlMillis ) {
+      entries.remove( cacheKey );
+      return null;
+    }
+    return entry;
+  }
+
+  /**
+   * @param row the fetched row, null if the table has no row with that key
+   */
+  synchronized void put( byte[] key, Result row ) {
+    // callers may reuse their key arrays
+    entries.put( ByteBuffer.wrap( key.clone() ), new Entry( row, row != null, clock.getAsLong() ) );
+  }
+
+  /**
+   * Records the outcome of an existence check. A fetched row still cached for the key is kept.
+   */
+  synchronized void putExists( byte[] key, boolean exists ) {
+    Entry entry = get( key );
+    if ( entry == null || !entry.isRowKnown() || !exists ) {
+      entries.put( ByteBuffer.wrap( key.clone() ), new Entry( null, exists, clock.getAsLong() ) );
+    }
+  }
+
+  synchronized int size() {
+    return entries.size();
+  }
+
+  static class Entry {
+    private final Result row;
+    private final boolean exists;
+    private final long fetchedAt;
+
+    private Entry( Result row, boolean exists, long fetchedAt ) {
+      this.row = row;
+      this.exists = exists;
+      this.fetchedAt = fetchedAt;
+    }
+
+    /**
+     * @return the cached row, null if the key has no row or only its existence is known
+     */
+    Result getRow() {
+      return row;
+    }
+
+    boolean exists() {
+      return exists;
+    }
+
+    /**
+     * @return false for a marker of a row which exists but hasn't been fetched
+     */
+    boolean isRowKnown() {
+      return row != null || !exists;
+    }
+  }
+}
@@ -22,6 +22,7 @@
 
 package com.pentaho.big.data.bundles.impl.shim.hbase.table;
 
+import com.pentaho.big.data.bundles.impl.shim.hbase.ResultImpl;
 import com.pentaho.big.data.bundles.impl.shim.hbase.connectionPool.HBaseConnectionHandle;
 import com.pentaho.big.data.bundles.impl.shim.hbase.connectionPool.HBaseConnectionPool;
 import com.pentaho.big.data.bundles.impl.shim.hbase.meta.HBaseValueMetaInterfaceFactoryImpl;
@@ -31,6 +32,7 @@ import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.logging.LogChannelInterface;
 import org.pentaho.di.core.variables.VariableSpace;
 import org.pentaho.di.i18n.BaseMessages;
+import org.pentaho.hadoop.shim.api.hbase.Result;
 import org.pentaho.hadoop.shim.api.hbase.mapping.Mapping;
 import org.pentaho.hadoop.shim.api.hbase.table.HBaseTable;
 import org.pentaho.hadoop.shim.api.hbase.table.HBaseTableWriteOperationManager;
@@ -42,6 +44,8 @@ import java.io.IOException;
 import java.text.DecimalFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Properties;
@@ -55,6 +59,7 @@ public class HBaseTableImpl implements HBaseTable {
   private final HBaseValueMetaInterfaceFactoryImpl hBaseValueMetaInterfaceFactory;
   private final HBaseBytesUtilShim hBaseBytesUtilShim;
   private final String name;
+  private volatile HBaseRowCache rowCache;
 
   public HBaseTableImpl( HBaseConnectionPool hBaseConnectionPool,
                          HBaseValueMetaInterfaceFactoryImpl hBaseValueMetaInterfaceFactory,
@@ -269,6 +274,9 @@ public class HBaseTableImpl implements HBaseTable {
   }
 
   @Override public boolean keyExists( byte[] key ) throws IOException {
+    if ( rowCache != null ) {
+      return existsAll( Collections.singletonList( key ) )[ 0 ];
+    }
     try ( HBaseConnectionHandle hBaseConnectionHandle = hBaseConnectionPool.getConnectionHandle( name ) ) {
       return hBaseConnectionHandle.getConnection().sourceTableRowExists( key );
     } catch ( Exception e ) {
@@ -276,6 +284,76 @@ public class HBaseTableImpl implements HBaseTable {
     }
   }
 
+  @Override public List<Result> get( List<byte[]> keys ) throws IOException {
+    HBaseRowCache cache = rowCache;
+    List<Result> results = new ArrayList<>( keys.size() );
+    List<byte[]> keysToFetch = new ArrayList<>();
+    List<Integer> indexesToFetch = new ArrayList<>();
+    for ( int i = 0; i < keys.size(); i++ ) {
+      HBaseRowCache.Entry entry = cache == null ? null : cache.get( keys.get( i ) );
+      if ( entry == null || !entry.isRowKnown() ) {
+        keysToFetch.add( keys.get( i ) );
+        indexesToFetch.add( i );
+      }
+      results.add( entry == null ? null : entry.getRow() );
+    }
+    if ( keysToFetch.isEmpty() ) {
+      return results;
+    }
+    List<Object> rows;
+    try ( HBaseConnectionHandle hBaseConnectionHandle = hBaseConnectionPool.getConnectionHandle( name ) ) {
+      rows = hBaseConnectionHandle.getConnection().getSourceTableRows( keysToFetch );
+    } catch ( Exception e ) {
+      throw new IOException( e );
+    }
+    for ( int i = 0; i < rows.size(); i++ ) {
+      Object row = rows.get( i );
+      Result result =
+        row == null ? null : new ResultImpl( (org.apache.hadoop.hbase.client.Result) row, hBaseBytesUtilShim );
+      results.set( indexesToFetch.get( i ), result );
+      if ( cache != null ) {
+        cache.put( keysToFetch.get( i ), result );
+      }
+    }
+    return results;
+  }
+
+  @Override public boolean[] existsAll( List<byte[]> keys ) throws IOException {
+    HBaseRowCache cache = rowCache;
+    boolean[] exist = new boolean[ keys.size() ];
+    List<byte[]> keysToCheck = new ArrayList<>();
+    List<Integer> indexesToCheck = new ArrayList<>();
+    for ( int i = 0; i < keys.size(); i++ ) {
+      HBaseRowCache.Entry entry = cache == null ? null : cache.get( keys.get( i ) );
+      if ( entry == null ) {
+        keysToCheck.add( keys.get( i ) );
+        indexesToCheck.add( i );
+      } else {
+        exist[ i ] = entry.exists();
+      }
+    }
+    if ( keysToCheck.isEmpty() ) {
+      return exist;
+    }
+    boolean[] checked;
+    try ( HBaseConnectionHandle hBaseConnectionHandle = hBaseConnectionPool.getConnectionHandle( name ) ) {
+      checked = hBaseConnectionHandle.getConnection().sourceTableRowsExist( keysToCheck );
+    } catch ( Exception e ) {
+      throw new IOException( e );
+    }
+    for ( int i = 0; i < checked.length; i++ ) {
+      exist[ indexesToCheck.get( i ) ] = checked[ i ];
+      if ( cache != null ) {
+        cache.putExists( keysToCheck.get( i ), checked[ i ] );
+      }
+    }
+    return exist;
+  }
+
+  @Override public void setRowCache( int maxRows, long ttlMillis ) {
+    rowCache = maxRows > 0 ? new HBaseRowCache( maxRows, ttlMillis ) : null;
+  }
+
   @Override public HBaseTableWriteOperationManager createWriteOperationManager( Long writeBufferSize )
     throws IOException {
     Properties targetTableProps = new Properties();
@@ -24,11 +24,19 @@ package com.pentaho.big.data.bundles.impl.shim.hbase.table;
 
 import com.pentaho.big.data.bundles.impl.shim.hbase.connectionPool.HBaseConnectionHandle;
 import org.pentaho.hadoop.shim.api.hbase.table.HBaseDelete;
+import org.pentaho.hadoop.shim.api.hbase.table.HBaseMutationBatch;
 import org.pentaho.hadoop.shim.api.hbase.table.HBasePut;
 import org.pentaho.hadoop.shim.api.hbase.table.HBaseTableWriteOperationManager;
 
-
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Created by bryan on 1/26/16.
@@ -36,6 +44,14 @@ import java.io.IOException;
 public class HBaseTableWriteOperationManagerImpl implements HBaseTableWriteOperationManager {
   private final HBaseConnectionHandle hBaseConnectionHandle;
   private final boolean autoFlush;
+  /**
+   * Runs asynchronous flushes and the batches of every mutation batch created here, so the pooled connection is
+   * never used by more than one background thread at a time
+   */
+  private ExecutorService executor;
+  private final List<HBaseMutationBatchImpl> mutationBatches = new ArrayList<>();
+  private CompletableFuture<Void> pendingFlush;
+  private CompletableFuture<Void> lastFlush = CompletableFuture.completedFuture( null );
 
   public HBaseTableWriteOperationManagerImpl( HBaseConnectionHandle hBaseConnectionHandle, boolean autoFlush ) {
     this.hBaseConnectionHandle = hBaseConnectionHandle;
@@ -62,7 +78,93 @@ public class HBaseTableWriteOperationManagerImpl implements HBaseTableWriteOpera
     }
   }
 
+  @Override public synchronized CompletableFuture<Void> flushCommitsAsync() {
+    if ( pendingFlush != null ) {
+      // not started yet, so it will also flush everything written since it was requested
+      return pendingFlush;
+    }
+    final CompletableFuture<Void> flush = new CompletableFuture<>();
+    try {
+      getExecutor().execute( () -> {
+        synchronized ( this ) {
+          if ( pendingFlush == flush ) {
+            pendingFlush = null;
+          }
+        }
+        try {
+          flushCommits();
+          flush.complete( null );
+        } catch ( IOException e ) {
+          flush.completeExceptionally( e );
+        }
+      } );
+    } catch ( RejectedExecutionException e ) {
+      flush.completeExceptionally( new IOException( e ) );
+      return flush;
+    }
+    pendingFlush = flush;
+    lastFlush = flush;
+    return flush;
+  }
+
+  private ExecutorService getExecutor() {
+    if ( executor == null ) {
+      final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+      executor = Executors.newSingleThreadExecutor( runnable -> {
+        Thread thread = new Thread( runnable, "hbase-table-writes" );
+        thread.setDaemon( true );
+        thread.setContextClassLoader( contextClassLoader );
+        return thread;
+      } );
+    }
+    return executor;
+  }
+
+  @Override public synchronized HBaseMutationBatch createMutationBatch( int maxMutations, long maxBytes,
+                                                                       HBaseMutationBatch.Listener listener ) {
+    HBaseMutationBatchImpl mutationBatch =
+      new HBaseMutationBatchImpl( hBaseConnectionHandle, getExecutor(), maxMutations, maxBytes, listener );
+    mutationBatches.add( mutationBatch );
+    return mutationBatch;
+  }
+
   @Override public void close() throws IOException {
-    hBaseConnectionHandle.close();
+    List<HBaseMutationBatchImpl> batches;
+    CompletableFuture<Void> outstanding;
+    ExecutorService executor;
+    synchronized ( this ) {
+      batches = new ArrayList<>( mutationBatches );
+      mutationBatches.clear();
+      outstanding = lastFlush;
+      executor = this.executor;
+      this.executor = null;
+    }
+    IOException failure = null;
+    try {
+      // queued mutations have to be applied before the connection goes back to the pool
+      for ( HBaseMutationBatchImpl batch : batches ) {
+        try {
+          batch.close();
+        } catch ( IOException e ) {
+          if ( failure == null ) {
+            failure = e;
+          }
+        }
+      }
+      if ( executor != null ) {
+        executor.shutdown();
+        outstanding.get();
+      }
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      failure = new InterruptedIOException( "Interrupted while waiting for an HBase flush" );
+    } catch ( ExecutionException e ) {
+      // already reported through the future returned by flushCommitsAsync
+    } finally {
+      hBaseConnectionHandle.close();
+    }
+    if ( failure != null ) {
+      throw failure;
+    }
   }
 }
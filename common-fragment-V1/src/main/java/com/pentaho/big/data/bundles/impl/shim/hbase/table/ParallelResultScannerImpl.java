@@ -0,0 +1,147 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package com.pentaho.big.data.bundles.impl.shim.hbase.table;
+
+import com.pentaho.big.data.bundles.impl.shim.hbase.HBaseConnectionWrapper;
+import com.pentaho.big.data.bundles.impl.shim.hbase.ResultImpl;
+import com.pentaho.big.data.bundles.impl.shim.hbase.connectionPool.HBaseConnectionHandle;
+import org.pentaho.hadoop.shim.api.hbase.table.ResultScanner;
+import org.pentaho.hadoop.shim.api.internal.hbase.HBaseBytesUtilShim;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Scans a list of disjoint key ranges with several region scanners at once and merges their results into one
+ * scanner. Unordered, every range feeds one shared queue and rows are returned as soon as any scanner produces them.
+ * Key ordered, every range has its own queue and the queues are drained in range order, while the scanners of the
+ * following ranges prefetch into theirs.
+ */
+public class ParallelResultScannerImpl implements ResultScanner {
+  static final int QUEUE_CAPACITY = 1000;
+  private static final Object END_OF_RANGE = new Object();
+
+  /**
+   * Opens a pooled connection with a source table scan executed over a key range.
+   */
+  interface RangeScannerFactory {
+    HBaseConnectionHandle open( byte[] keyLowerBound, byte[] keyUpperBound ) throws IOException;
+  }
+
+  private final HBaseBytesUtilShim hBaseBytesUtilShim;
+  private final ExecutorService executor;
+  private final List<BlockingQueue<Object>> queues;
+  private final int rangesPerQueue;
+  private int currentQueue;
+  private int finishedRanges;
+  private volatile boolean closed;
+
+  /**
+   * @param ranges the key ranges to scan, in key order, as {lower bound, upper bound} pairs
+   */
+  public ParallelResultScannerImpl( RangeScannerFactory rangeScannerFactory, List<byte[][]> ranges, int parallelism,
+                                    boolean keyOrdered, HBaseBytesUtilShim hBaseBytesUtilShim ) {
+    this.hBaseBytesUtilShim = hBaseBytesUtilShim;
+    queues = new ArrayList<>();
+    if ( keyOrdered ) {
+      for ( int i = 0; i < ranges.size(); i++ ) {
+        queues.add( new LinkedBlockingQueue<>( QUEUE_CAPACITY ) );
+      }
+      rangesPerQueue = 1;
+    } else {
+      queues.add( new LinkedBlockingQueue<>( QUEUE_CAPACITY * parallelism ) );
+      rangesPerQueue = ranges.size();
+    }
+    final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+    executor = Executors.newFixedThreadPool( Math.max( 1, Math.min( parallelism, ranges.size() ) ), runnable -> {
+      Thread thread = new Thread( runnable, "hbase-region-scan" );
+      thread.setDaemon( true );
+      thread.setContextClassLoader( contextClassLoader );
+      return thread;
+    } );
+    // the executor starts the ranges in order, so a key ordered scan never waits on a range that is not running
+    for ( int i = 0; i < ranges.size(); i++ ) {
+      byte[][] range = ranges.get( i );
+      BlockingQueue<Object> queue = queues.get( keyOrdered ? i : 0 );
+      executor.execute( () -> scan( rangeScannerFactory, range[ 0 ], range[ 1 ], queue ) );
+    }
+    executor.shutdown();
+  }
+
+  private void scan( RangeScannerFactory rangeScannerFactory, byte[] keyLowerBound, byte[] keyUpperBound,
+                     BlockingQueue<Object> queue ) {
+    Object last = END_OF_RANGE;
+    try ( HBaseConnectionHandle hBaseConnectionHandle = rangeScannerFactory.open( keyLowerBound, keyUpperBound ) ) {
+      HBaseConnectionWrapper hBaseConnectionWrapper = hBaseConnectionHandle.getConnection();
+      while ( !closed && hBaseConnectionWrapper.resultSetNextRow() ) {
+        queue.put( new ResultImpl( hBaseConnectionWrapper.getCurrentResult(), hBaseBytesUtilShim ) );
+      }
+    } catch ( InterruptedException e ) {
+      // the scanner was closed
+      return;
+    } catch ( Exception e ) {
+      last = e;
+    }
+    try {
+      queue.put( last );
+    } catch ( InterruptedException e ) {
+      // the scanner was closed
+    }
+  }
+
+  @Override public ResultImpl next() throws IOException {
+    while ( currentQueue < queues.size() ) {
+      Object item;
+      try {
+        item = queues.get( currentQueue ).take();
+      } catch ( InterruptedException e ) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException( "Interrupted while waiting for HBase region scanners" );
+      }
+      if ( item == END_OF_RANGE ) {
+        if ( ++finishedRanges == rangesPerQueue ) {
+          finishedRanges = 0;
+          currentQueue++;
+        }
+      } else if ( item instanceof Exception ) {
+        close();
+        throw item instanceof IOException ? (IOException) item : new IOException( (Exception) item );
+      } else {
+        return (ResultImpl) item;
+      }
+    }
+    return null;
+  }
+
+  @Override public void close() throws IOException {
+    closed = true;
+    // interrupts the scanners blocked on a full queue, they release their connections on the way out
+    executor.shutdownNow();
+  }
+}
@@ -39,6 +39,8 @@ import org.pentaho.hadoop.shim.api.hbase.table.ResultScannerBuilder;
 import org.pentaho.hadoop.shim.api.internal.hbase.HBaseBytesUtilShim;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Created by bryan on 1/25/16.
@@ -47,9 +49,14 @@ public class ResultScannerBuilderImpl implements ResultScannerBuilder {
   private final HBaseConnectionPool hBaseConnectionPool;
   private final HBaseValueMetaInterfaceFactoryImpl hBaseValueMetaInterfaceFactory;
   private final HBaseBytesUtilShim hBaseBytesUtilShim;
+  private static final byte[] EMPTY_KEY = new byte[ 0 ];
   private final BatchHBaseConnectionOperation batchHBaseConnectionOperation;
+  private final byte[] keyLowerBound;
+  private final byte[] keyUpperBound;
   private int caching = 0;
   private String tableName;
+  private int parallelism = 1;
+  private boolean keyOrdered;
 
   public ResultScannerBuilderImpl( HBaseConnectionPool hBaseConnectionPool,
                                    HBaseValueMetaInterfaceFactoryImpl hBaseValueMetaInterfaceFactory,
@@ -63,16 +70,8 @@ public class ResultScannerBuilderImpl implements ResultScannerBuilder {
     this.batchHBaseConnectionOperation = new BatchHBaseConnectionOperation();
     this.tableName = tableName;
     this.caching = caching;
-    batchHBaseConnectionOperation.addOperation( new HBaseConnectionOperation() {
-      @Override public void perform( HBaseConnectionWrapper hBaseConnectionWrapper ) throws IOException {
-        try {
-          hBaseConnectionWrapper
-            .newSourceTableScan( keyLowerBound, keyUpperBound, ResultScannerBuilderImpl.this.caching );
-        } catch ( Exception e ) {
-          throw new IOException( e );
-        }
-      }
-    } );
+    this.keyLowerBound = keyLowerBound;
+    this.keyUpperBound = keyUpperBound;
   }
 
   @Override
@@ -118,19 +117,78 @@ public class ResultScannerBuilderImpl implements ResultScannerBuilder {
     this.caching = cacheSize;
   }
 
+  @Override public void setParallelism( int parallelism, boolean keyOrdered ) {
+    this.parallelism = parallelism;
+    this.keyOrdered = keyOrdered;
+  }
+
   @VisibleForTesting
   int getCaching() {
     return caching;
   }
 
   @Override public ResultScanner build() throws IOException {
+    if ( parallelism > 1 ) {
+      List<byte[][]> ranges;
+      try ( HBaseConnectionHandle connectionHandle = hBaseConnectionPool.getConnectionHandle( tableName ) ) {
+        ranges = splitKeyRange( keyLowerBound, keyUpperBound,
+          connectionHandle.getConnection().getSourceTableRegionStartKeys() );
+      } catch ( IOException e ) {
+        throw e;
+      } catch ( Exception e ) {
+        throw new IOException( e );
+      }
+      if ( ranges.size() > 1 ) {
+        return new ParallelResultScannerImpl( this::openScanner, ranges, parallelism, keyOrdered,
+          hBaseBytesUtilShim );
+      }
+    }
+    return new ResultScannerImpl( openScanner( keyLowerBound, keyUpperBound ), hBaseBytesUtilShim );
+  }
+
+  private HBaseConnectionHandle openScanner( byte[] lowerBound, byte[] upperBound ) throws IOException {
     HBaseConnectionHandle connectionHandle = hBaseConnectionPool.getConnectionHandle( tableName );
-    batchHBaseConnectionOperation.perform( connectionHandle.getConnection() );
     try {
-      connectionHandle.getConnection().executeSourceTableScan();
+      HBaseConnectionWrapper hBaseConnectionWrapper = connectionHandle.getConnection();
+      hBaseConnectionWrapper.newSourceTableScan( lowerBound, upperBound, caching );
+      batchHBaseConnectionOperation.perform( hBaseConnectionWrapper );
+      hBaseConnectionWrapper.executeSourceTableScan();
     } catch ( Exception e ) {
-      throw new IOException( e );
+      connectionHandle.close();
+      throw e instanceof IOException ? (IOException) e : new IOException( e );
+    }
+    return connectionHandle;
+  }
+
+  /**
+   * Splits the scanned key range at the region start keys that fall inside it. An empty key stands for the start or
+   * the end of the table. As with a sequential scan, an upper bound without a lower bound is ignored.
+   *
+   * @return the {lower bound, upper bound} pairs of the sub ranges, in key order
+   */
+  @VisibleForTesting
+  static List<byte[][]> splitKeyRange( byte[] keyLowerBound, byte[] keyUpperBound, List<byte[]> regionStartKeys ) {
+    byte[] lower = keyLowerBound == null ? EMPTY_KEY : keyLowerBound;
+    byte[] upper = keyLowerBound == null || keyUpperBound == null ? EMPTY_KEY : keyUpperBound;
+    List<byte[][]> ranges = new ArrayList<>();
+    for ( byte[] startKey : regionStartKeys ) {
+      if ( compareKeys( startKey, lower ) > 0 && ( upper.length == 0 || compareKeys( startKey, upper ) < 0 ) ) {
+        ranges.add( new byte[][] { lower, startKey } );
+        lower = startKey;
+      }
+    }
+    ranges.add( new byte[][] { lower, upper } );
+    return ranges;
+  }
+
+  private static int compareKeys( byte[] left, byte[] right ) {
+    int length = Math.min( left.length, right.length );
+    for ( int i = 0; i < length; i++ ) {
+      int diff = ( left[ i ] & 0xff ) - ( right[ i ] & 0xff );
+      if ( diff != 0 ) {
+        return diff;
+      }
     }
-    return new ResultScannerImpl( connectionHandle, hBaseBytesUtilShim );
+    return left.length - right.length;
   }
 }
@@ -74,18 +74,24 @@ import org.pentaho.metastore.api.exceptions.MetaStoreException;
 import org.pentaho.metastore.stores.xml.XmlMetaStore;
 import org.pentaho.metastore.stores.xml.XmlUtil;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Created by bryan on 1/8/16.
@@ -101,6 +107,7 @@ public class PentahoMapReduceJobBuilderImpl extends MapReduceJobBuilderImpl impl
   public static final String PENTAHO_MAPREDUCE_PROPERTY_KETTLE_INSTALLATION_ID = "pmr.kettle.installation.id";
   public static final String PENTAHO_MAPREDUCE_PROPERTY_ADDITIONAL_PLUGINS = "pmr.kettle.additional.plugins";
   public static final String PENTAHO_MAPREDUCE_PROPERTY_EXCLUDE_FILES = "pmr.kettle.exclude.plugin.files";
+  public static final String PENTAHO_MAPREDUCE_PROPERTY_STAGE_TRANSFORMATIONS = "pmr.stage.transformations";
   public static final String PENTAHO_MAP_REDUCE_JOB_BUILDER_IMPL_INPUT_STEP_NOT_SPECIFIED =
     "PentahoMapReduceJobBuilderImpl.InputStepNotSpecified";
   public static final String PENTAHO_MAP_REDUCE_JOB_BUILDER_IMPL_INPUT_STEP_NOT_FOUND =
@@ -154,6 +161,16 @@ public class PentahoMapReduceJobBuilderImpl extends MapReduceJobBuilderImpl impl
   private static final String KEYTAB_IMPERSONATION_LOCATION =
     "pentaho.authentication.default.mapping.server.credentials.kerberos.keytabLocation";
   public static final String VARIABLE_SPACE = "variableSpace";
+  public static final String STAGED_TRANSFORMATIONS = "pmr.staged.transformations";
+  public static final String STAGED_TRANSFORMATIONS_FILE = "pmr-transformations.gz";
+  public static final String STAGED_TRANSFORMATIONS_FOLDER = "pmr-transformations";
+  public static final int STAGED_TRANSFORMATIONS_VERSION = 1;
+  /**
+   * Local files the job submission copies to the job's staging directory and adds to the distributed cache
+   */
+  static final String TMP_FILES = "tmpfiles";
+  private static final String[] STAGED_PROPERTIES =
+    { TRANSFORMATION_MAP_XML, TRANSFORMATION_COMBINER_XML, TRANSFORMATION_REDUCE_XML, VARIABLE_SPACE };
   private final HadoopShim hadoopShim;
   private final LogChannelInterface log;
   private final FileObject vfsPluginDirectory;
@@ -560,7 +577,20 @@ public class PentahoMapReduceJobBuilderImpl extends MapReduceJobBuilderImpl impl
     }
     JobConf jobConf = conf.getAsDelegateConf( JobConf.class );
     jobConf.getCredentials().addAll( UserGroupInformation.getCurrentUser().getCredentials() );
-    return super.submit( conf, shimIdentifier );
+    java.nio.file.Path stagedTransformations = null;
+    if ( Boolean.parseBoolean( getProperty( conf, pmrProperties, PENTAHO_MAPREDUCE_PROPERTY_STAGE_TRANSFORMATIONS,
+      Boolean.toString( false ) ) ) ) {
+      stagedTransformations = stageTransformationsForHadoop( conf );
+    }
+    try {
+      return super.submit( conf, shimIdentifier );
+    } finally {
+      if ( stagedTransformations != null ) {
+        // copied to the job's staging directory by the submission
+        Files.deleteIfExists( stagedTransformations );
+        Files.deleteIfExists( stagedTransformations.getParent() );
+      }
+    }
   }
 
   protected void stageMetaStoreForHadoop( Configuration conf, FileSystem fs, String installPath )
@@ -581,6 +611,62 @@ public class PentahoMapReduceJobBuilderImpl extends MapReduceJobBuilderImpl impl
     hadoopShim.getDistributedCacheUtil().addCachedFiles( conf, fs, hdfsMetaStoreDirForCurrentJobPath, null );
   }
 
+  /**
+   * Moves the transformations and the variable space out of the job configuration into one compressed file, which the
+   * tasks load back into their configuration with MRUtil.loadStagedTransformations. The file is listed in the job's
+   * {@value #TMP_FILES}, so the submission copies it to the job's own staging directory and the distributed cache, and
+   * it is removed with the staging directory when the job finishes.
+   *
+   * @return the local file, to be deleted once the job has been submitted
+   */
+  protected java.nio.file.Path stageTransformationsForHadoop( Configuration conf ) throws IOException {
+    Map<String, String> properties = new LinkedHashMap<>();
+    for ( String name : STAGED_PROPERTIES ) {
+      String value = conf.get( name );
+      if ( value != null ) {
+        properties.put( name, value );
+      }
+    }
+    byte[] staged = writeStagedTransformations( properties );
+
+    // the file keeps its name in the task's working directory, so it is written to a directory of its own
+    java.nio.file.Path localStagedTransformations =
+      Files.createTempDirectory( STAGED_TRANSFORMATIONS_FOLDER ).resolve( STAGED_TRANSFORMATIONS_FILE );
+    Files.write( localStagedTransformations, staged );
+    String tmpFiles = conf.get( TMP_FILES );
+    String stagedUri = localStagedTransformations.toUri().toString();
+    conf.set( TMP_FILES, Utils.isEmpty( tmpFiles ) ? stagedUri : tmpFiles + "," + stagedUri );
+
+    JobConf jobConf = conf.getAsDelegateConf( JobConf.class );
+    for ( String name : properties.keySet() ) {
+      jobConf.unset( name );
+    }
+    conf.set( STAGED_TRANSFORMATIONS, STAGED_TRANSFORMATIONS_FILE );
+    log.logDetailed( "Staged transformations (" + staged.length + " bytes) with the job files" );
+    return localStagedTransformations;
+  }
+
+  /**
+   * Writes the staged properties as a gzip compressed stream of: format version, number of properties and, for each
+   * property, its name followed by the length and UTF-8 bytes of its value. Tasks don't have this class, so
+   * MRUtil.loadStagedTransformations reads the same format on its own.
+   */
+  @VisibleForTesting
+  static byte[] writeStagedTransformations( Map<String, String> properties ) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try ( DataOutputStream out = new DataOutputStream( new GZIPOutputStream( bytes ) ) ) {
+      out.writeInt( STAGED_TRANSFORMATIONS_VERSION );
+      out.writeInt( properties.size() );
+      for ( Map.Entry<String, String> property : properties.entrySet() ) {
+        byte[] value = property.getValue().getBytes( StandardCharsets.UTF_8 );
+        out.writeUTF( property.getKey() );
+        out.writeInt( value.length );
+        out.write( value );
+      }
+    }
+    return bytes.toByteArray();
+  }
+
   private void snapshotMetaStore( String metaStoreSnapshotDir ) throws MetaStoreException {
     IMetaStore snapshot = new XmlMetaStore( metaStoreSnapshotDir );
     try {
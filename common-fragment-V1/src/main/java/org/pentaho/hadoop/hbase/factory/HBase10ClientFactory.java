@@ -43,6 +43,7 @@ public class HBase10ClientFactory implements HBaseClientFactory {
   protected final Configuration conf;
   protected Connection conn = null;
   protected NamedCluster namedCluster;
+  private HBaseConnectionCache.Lease connectionLease;
 
   public HBase10ClientFactory( Configuration conf ) throws IOException {
     this.conf = conf;
@@ -53,6 +54,17 @@ public class HBase10ClientFactory implements HBaseClientFactory {
     }
   }
 
+  /**
+   * Creates a factory on the connection shared under the given key, opening it with this configuration if it isn't
+   * open yet. Closing the factory releases the connection instead of closing it.
+   */
+  public HBase10ClientFactory( Configuration conf, Object connectionKey ) throws IOException {
+    this.conf = conf;
+    connectionLease = HBaseConnectionCache.getInstance()
+      .acquire( connectionKey, () -> ConnectionFactory.createConnection( conf ) );
+    conn = connectionLease.getConnection();
+  }
+
   public synchronized Connection getConnection() throws IOException {
     if ( conn == null ) {
       conn = ConnectionFactory.createConnection( conf );
@@ -80,6 +92,10 @@ public class HBase10ClientFactory implements HBaseClientFactory {
   }
 
   @Override public void close() {
+    if ( connectionLease != null ) {
+      connectionLease.close();
+      return;
+    }
     try {
       conn.close();
     } catch ( IOException e ) {
@@ -22,8 +22,12 @@
 package org.pentaho.hadoop.hbase.factory;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
 
+import org.apache.hadoop.hbase.HConstants;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.BufferedMutator;
 import org.apache.hadoop.hbase.client.BufferedMutatorParams;
@@ -31,8 +35,11 @@ import org.apache.hadoop.hbase.client.Connection;
 import org.apache.hadoop.hbase.client.Delete;
 import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.RegionLocator;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.RetriesExhaustedWithDetailsException;
+import org.apache.hadoop.hbase.client.Row;
 import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.client.Table;
 import org.pentaho.hbase.factory.HBasePut;
@@ -40,7 +47,8 @@ import org.pentaho.hbase.factory.HBaseTable;
 
 class HBase10Table implements HBaseTable {
   private final Table tab;
-  private BufferedMutator mutator = null;
+  // read by batch() on the background thread of a mutation batch
+  private volatile BufferedMutator mutator = null;
   private boolean autoFlush = true;
   private final Connection conn;
 
@@ -94,11 +102,32 @@ class HBase10Table implements HBaseTable {
     return tab.getScanner( s );
   }
 
+  @Override
+  public byte[][] getStartKeys() throws IOException {
+    if ( conn == null ) {
+      // no region information without the connection, the whole table is treated as one region
+      return new byte[][] { HConstants.EMPTY_START_ROW };
+    }
+    try ( RegionLocator locator = conn.getRegionLocator( tab.getName() ) ) {
+      return locator.getStartKeys();
+    }
+  }
+
   @Override
   public Result get( Get toGet ) throws IOException {
     return tab.get( toGet );
   }
 
+  @Override
+  public Result[] get( List<Get> gets ) throws IOException {
+    return tab.get( gets );
+  }
+
+  @Override
+  public boolean[] existsAll( List<Get> gets ) throws IOException {
+    return tab.existsAll( gets );
+  }
+
   @Override
   public void flushCommits() throws IOException {
     getBufferedMutator().flush();
@@ -112,6 +141,34 @@ class HBase10Table implements HBaseTable {
     }
   }
 
+  @Override
+  public Object[] batch( List<?> mutations ) throws IOException {
+    List<Row> actions = new ArrayList<>( mutations.size() );
+    for ( Object mutation : mutations ) {
+      if ( mutation instanceof HBase10Put ) {
+        actions.add( ( (HBase10Put) mutation ).getPut() );
+      } else if ( mutation instanceof Delete ) {
+        actions.add( (Delete) mutation );
+      } else {
+        throw new IllegalArgumentException( "Unexpected mutation type passed:" + mutation );
+      }
+    }
+    if ( mutator != null ) {
+      // keep the order with writes still sitting in the write buffer
+      mutator.flush();
+    }
+    Object[] results = new Object[ actions.size() ];
+    try {
+      tab.batch( actions, results );
+    } catch ( RetriesExhaustedWithDetailsException e ) {
+      // the failed actions are reported through results
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException( "Interrupted while applying a batch to " + tab.getName() );
+    }
+    return results;
+  }
+
   @Override
   public void close() throws IOException {
     tab.close();
@@ -0,0 +1,198 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.pentaho.hadoop.hbase.factory;
+
+import org.apache.hadoop.hbase.client.Connection;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reference counted cache of HBase {@link Connection}s. A connection holds a ZooKeeper session and the region location
+ * cache, so every client configured for the same cluster shares one and only opens lightweight tables and admins on
+ * it. A connection nobody holds any more is closed after an idle timeout, unless it is acquired again before.
+ */
+public class HBaseConnectionCache {
+  public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis( 1 );
+
+  private static final HBaseConnectionCache INSTANCE = new HBaseConnectionCache( DEFAULT_IDLE_TIMEOUT_MILLIS );
+
+  @FunctionalInterface
+  public interface ConnectionSupplier {
+    Connection create() throws IOException;
+  }
+
+  private final Map<Object, Entry> entries = new HashMap<>();
+  private final long idleTimeoutMillis;
+  private ScheduledExecutorService idleCloser;
+
+  HBaseConnectionCache( long idleTimeoutMillis ) {
+    this.idleTimeoutMillis = idleTimeoutMillis;
+  }
+
+  public static HBaseConnectionCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Returns a lease on the connection cached under the key, creating the connection if there is none or it was
+   * closed. The lease must be closed when the connection is no longer needed.
+   */
+  public Lease acquire( Object key, ConnectionSupplier supplier ) throws IOException {
+    Entry entry;
+    synchronized ( this ) {
+      entry = entries.get( key );
+      if ( entry == null ) {
+        entry = new Entry( key );
+        entries.put( key, entry );
+      }
+      entry.references++;
+      if ( entry.idleClose != null ) {
+        entry.idleClose.cancel( false );
+        entry.idleClose = null;
+      }
+    }
+    try {
+      // created outside of the cache lock so that opening a slow cluster doesn't block the others
+      synchronized ( entry ) {
+        if ( entry.connection == null || entry.connection.isClosed() ) {
+          entry.connection = supplier.create();
+        }
+      }
+    } catch ( IOException | RuntimeException e ) {
+      release( entry );
+      throw e;
+    }
+    return new Lease( entry );
+  }
+
+  private void release( Entry entry ) {
+    boolean closeNow = false;
+    synchronized ( this ) {
+      entry.references--;
+      if ( entry.references == 0 ) {
+        if ( idleTimeoutMillis > 0 ) {
+          entry.idleClose = getIdleCloser().schedule( () -> closeIdle( entry ), idleTimeoutMillis,
+            TimeUnit.MILLISECONDS );
+        } else {
+          entries.remove( entry.key );
+          closeNow = true;
+        }
+      }
+    }
+    if ( closeNow ) {
+      entry.close();
+    }
+  }
+
+  private void closeIdle( Entry entry ) {
+    synchronized ( this ) {
+      if ( entry.references > 0 || entries.get( entry.key ) != entry ) {
+        return;
+      }
+      entries.remove( entry.key );
+    }
+    entry.close();
+  }
+
+  private synchronized ScheduledExecutorService getIdleCloser() {
+    if ( idleCloser == null ) {
+      ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor( 1, runnable -> {
+        Thread thread = new Thread( runnable, "hbase-connection-idle-closer" );
+        thread.setDaemon( true );
+        return thread;
+      } );
+      executor.setRemoveOnCancelPolicy( true );
+      idleCloser = executor;
+    }
+    return idleCloser;
+  }
+
+  /**
+   * @return the number of open connections, each one being a ZooKeeper session to a cluster
+   */
+  public synchronized int getLiveConnectionCount() {
+    int live = 0;
+    for ( Entry entry : entries.values() ) {
+      Connection connection = entry.connection;
+      if ( connection != null && !connection.isClosed() ) {
+        live++;
+      }
+    }
+    return live;
+  }
+
+  private static class Entry {
+    private final Object key;
+    private volatile Connection connection;
+    private int references;
+    private ScheduledFuture<?> idleClose;
+
+    Entry( Object key ) {
+      this.key = key;
+    }
+
+    @SuppressWarnings( "squid:S1148" )
+    void close() {
+      synchronized ( this ) {
+        if ( connection != null ) {
+          try {
+            connection.close();
+          } catch ( IOException e ) {
+            e.printStackTrace();
+          }
+          connection = null;
+        }
+      }
+    }
+  }
+
+  /**
+   * A reference to a cached connection, released by {@link #close()}.
+   */
+  public class Lease implements Closeable {
+    private final Entry entry;
+    private boolean released;
+
+    Lease( Entry entry ) {
+      this.entry = entry;
+    }
+
+    public Connection getConnection() {
+      return entry.connection;
+    }
+
+    @Override public synchronized void close() {
+      if ( !released ) {
+        released = true;
+        release( entry );
+      }
+    }
+  }
+}
@@ -30,7 +30,10 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.pentaho.di.core.Const;
 import org.pentaho.di.core.exception.KettleException;
@@ -76,6 +79,22 @@ public class HBaseValueMeta extends ValueMeta {
    */
   protected boolean m_isLongOrDouble = true;
 
+  /**
+   * Lookup from trimmed indexed value to its position, built lazily from the index of an indexed string column
+   */
+  private transient volatile IndexLookup m_indexLookup;
+
+  /**
+   * Leading byte that marks a big decimal encoded by {@link #encodeBigDecimal(BigDecimal)}. Neither the string nor the
+   * serialized form of a big decimal can start with this byte.
+   */
+  public static final byte SORTABLE_BIG_DECIMAL_MARKER = 0x00;
+
+  private static final byte BIG_DECIMAL_NEGATIVE = 0x01;
+  private static final byte BIG_DECIMAL_ZERO = 0x02;
+  private static final byte BIG_DECIMAL_POSITIVE = 0x03;
+  private static final byte BIG_DECIMAL_NEGATIVE_TERMINATOR = (byte) 0xFF;
+
   public HBaseValueMeta( String name, int type, int length, int precision )
     throws IllegalArgumentException {
 
@@ -572,6 +591,50 @@ public class HBaseValueMeta extends ValueMeta {
       "HBaseValueMeta.Error.UnknownTableKeyType" ) );
   }
 
+  /**
+   * Get the position of a value in the index of an indexed string column. Values are compared after trimming, and the
+   * first matching position wins. The lookup is hashed and rebuilt only when a different index is set on this meta.
+   *
+   * @param value the value to look up
+   * @return the position of the value in the index, or -1 if the value is not in the index (or there is no index)
+   */
+  public int lookupIndexedValue( String value ) {
+    Object[] index = getIndex();
+    if ( index == null || value == null ) {
+      return -1;
+    }
+
+    IndexLookup lookup = m_indexLookup;
+    if ( lookup == null || lookup.m_source != index ) {
+      lookup = new IndexLookup( index );
+      m_indexLookup = lookup;
+    }
+
+    Integer position = lookup.m_positions.get( value.trim() );
+    return position != null ? position : -1;
+  }
+
+  /**
+   * Hash lookup over the trimmed values of a column index, tied to the index array it was built from
+   */
+  private static final class IndexLookup {
+    private final Object[] m_source;
+    private final Map<String, Integer> m_positions;
+
+    IndexLookup( Object[] source ) {
+      m_source = source;
+      m_positions = new HashMap<String, Integer>( source.length * 2 );
+      for ( int i = 0; i < source.length; i++ ) {
+        if ( source[ i ] != null ) {
+          String key = source[ i ].toString().trim();
+          if ( !m_positions.containsKey( key ) ) {
+            m_positions.put( key, i );
+          }
+        }
+      }
+    }
+  }
+
   public static byte[] encodeColumnValue( Object columnValue,
                                           ValueMetaInterface colMeta, HBaseValueMeta mappingColMeta,
                                           HBaseBytesUtilShim bytesUtil ) throws KettleException {
@@ -654,14 +717,7 @@ public class HBaseValueMeta extends ValueMeta {
       String convertedString = bytesUtil.toString( rawColValue );
       if ( columnMeta.getStorageType() == ValueMetaInterface.STORAGE_TYPE_INDEXED ) {
         // need to return the integer index of this value
-        Object[] legalVals = columnMeta.getIndex();
-        int foundIndex = -1;
-        for ( int i = 0; i < legalVals.length; i++ ) {
-          if ( legalVals[ i ].toString().trim().equals( convertedString.trim() ) ) {
-            foundIndex = i;
-            break;
-          }
-        }
+        int foundIndex = columnMeta.lookupIndexedValue( convertedString );
         if ( foundIndex >= 0 ) {
           return new Integer( foundIndex );
         }
@@ -789,8 +845,9 @@ public class HBaseValueMeta extends ValueMeta {
   }
 
   /**
-   * Decode/deserialize a big decimal. Tries the raw value as a string first. If this fails then it tries to decode the
-   * big decimal as a serialized object.
+   * Decode/deserialize a big decimal. Values written by {@link #encodeBigDecimal(BigDecimal)} are recognised by their
+   * leading marker byte and decoded directly. Otherwise tries the raw value as a string first. If this fails then it
+   * tries to decode the big decimal as a serialized object.
    *
    * @param rawEncoded the encoded big decimal as an array of bytes
    * @return the big decimal as a BigDecimal object
@@ -798,6 +855,14 @@ public class HBaseValueMeta extends ValueMeta {
   public static BigDecimal decodeBigDecimal( byte[] rawEncoded,
                                              HBaseBytesUtilShim bytesUtil ) {
 
+    if ( rawEncoded != null && rawEncoded.length > 1 && rawEncoded[ 0 ] == SORTABLE_BIG_DECIMAL_MARKER ) {
+      try {
+        return decodeSortableBigDecimal( rawEncoded );
+      } catch ( IllegalArgumentException e ) {
+        //ignored
+      }
+    }
+
     // try string first
     String tempString = bytesUtil.toString( rawEncoded );
     try {
@@ -840,15 +905,124 @@ public class HBaseValueMeta extends ValueMeta {
   }
 
   /**
-   * Encodes a big decimal by serialization
+   * Encodes a big decimal into a compact binary form whose unsigned byte-wise order matches the numeric order of the
+   * values. The layout is a marker byte, a sign byte and, for non-zero values, the decimal exponent followed by the
+   * significant digits packed two to a byte (all bits inverted for negative values). Trailing zeros are not kept, so
+   * values that are equal by {@link BigDecimal#compareTo(BigDecimal)} encode identically. Values written in the older
+   * serialized form can still be read by {@link #decodeBigDecimal(byte[], HBaseBytesUtilShim)}. A null value is still
+   * written as a serialized null, which decodes back to null.
    *
    * @param decimal the big decimal to encode
-   * @return an array of bytes containing the serialized big decimal
-   * @throws IOException if serialization fails
+   * @return an array of bytes containing the encoded big decimal
+   * @throws IOException if the value can't be encoded
    */
   public static byte[] encodeBigDecimal( BigDecimal decimal ) throws IOException {
-    // serialize it as an object
-    return encodeObject( decimal );
+    if ( decimal == null ) {
+      return encodeObject( null );
+    }
+
+    int signum = decimal.signum();
+    if ( signum == 0 ) {
+      return new byte[] { SORTABLE_BIG_DECIMAL_MARKER, BIG_DECIMAL_ZERO };
+    }
+
+    BigDecimal normalized = decimal.abs().stripTrailingZeros();
+    String digits = normalized.unscaledValue().toString();
+    long exponent = (long) digits.length() - normalized.scale();
+    if ( exponent < Integer.MIN_VALUE || exponent > Integer.MAX_VALUE ) {
+      throw new IOException( "Exponent of big decimal out of range: " + decimal );
+    }
+
+    int pairs = ( digits.length() + 1 ) / 2;
+    boolean negative = signum < 0;
+    byte[] encoded = new byte[ 6 + pairs + ( negative ? 1 : 0 ) ];
+    encoded[ 0 ] = SORTABLE_BIG_DECIMAL_MARKER;
+    encoded[ 1 ] = negative ? BIG_DECIMAL_NEGATIVE : BIG_DECIMAL_POSITIVE;
+
+    // flip the sign bit so that the exponent sorts correctly as unsigned bytes
+    int e = (int) exponent ^ ( 1 << 31 );
+    for ( int i = 0; i < 4; i++ ) {
+      encoded[ 2 + i ] = (byte) ( e >>> ( 24 - 8 * i ) );
+    }
+
+    // digit pairs are stored offset by one so that a pair of zeros never clashes with the negative terminator
+    for ( int i = 0; i < pairs; i++ ) {
+      int high = digits.charAt( 2 * i ) - '0';
+      int low = 2 * i + 1 < digits.length() ? digits.charAt( 2 * i + 1 ) - '0' : 0;
+      encoded[ 6 + i ] = (byte) ( high * 10 + low + 1 );
+    }
+
+    if ( negative ) {
+      for ( int i = 2; i < 6 + pairs; i++ ) {
+        encoded[ i ] = (byte) ~encoded[ i ];
+      }
+      // a shorter digit string is the larger negative value, so it must sort after any longer one
+      encoded[ encoded.length - 1 ] = BIG_DECIMAL_NEGATIVE_TERMINATOR;
+    }
+
+    return encoded;
+  }
+
+  /**
+   * Decodes a big decimal written by {@link #encodeBigDecimal(BigDecimal)}
+   *
+   * @param rawEncoded the encoded big decimal, including the leading marker byte
+   * @return the big decimal as a BigDecimal object
+   * @throws IllegalArgumentException if the supplied bytes are not a valid encoding
+   */
+  public static BigDecimal decodeSortableBigDecimal( byte[] rawEncoded ) {
+    if ( rawEncoded == null || rawEncoded.length < 2 || rawEncoded[ 0 ] != SORTABLE_BIG_DECIMAL_MARKER ) {
+      throw new IllegalArgumentException( "Not an encoded big decimal" );
+    }
+
+    byte sign = rawEncoded[ 1 ];
+    if ( sign == BIG_DECIMAL_ZERO && rawEncoded.length == 2 ) {
+      return BigDecimal.ZERO;
+    }
+
+    boolean negative = sign == BIG_DECIMAL_NEGATIVE;
+    if ( !negative && sign != BIG_DECIMAL_POSITIVE ) {
+      throw new IllegalArgumentException( "Unknown sign in encoded big decimal" );
+    }
+
+    int end = rawEncoded.length;
+    if ( negative ) {
+      if ( rawEncoded[ end - 1 ] != BIG_DECIMAL_NEGATIVE_TERMINATOR ) {
+        throw new IllegalArgumentException( "Missing terminator in encoded big decimal" );
+      }
+      end--;
+    }
+    if ( end < 7 ) {
+      throw new IllegalArgumentException( "Encoded big decimal is too short" );
+    }
+
+    int mask = negative ? 0xFF : 0;
+    int e = 0;
+    for ( int i = 2; i < 6; i++ ) {
+      e = ( e << 8 ) | ( ( rawEncoded[ i ] ^ mask ) & 0xFF );
+    }
+    int exponent = e ^ ( 1 << 31 );
+
+    char[] digits = new char[ 2 * ( end - 6 ) ];
+    for ( int i = 6; i < end; i++ ) {
+      int pair = ( ( rawEncoded[ i ] ^ mask ) & 0xFF ) - 1;
+      if ( pair < 0 || pair > 99 ) {
+        throw new IllegalArgumentException( "Illegal digits in encoded big decimal" );
+      }
+      digits[ 2 * ( i - 6 ) ] = (char) ( '0' + pair / 10 );
+      digits[ 2 * ( i - 6 ) + 1 ] = (char) ( '0' + pair % 10 );
+    }
+
+    long scale = (long) digits.length - exponent;
+    if ( scale < Integer.MIN_VALUE || scale > Integer.MAX_VALUE ) {
+      throw new IllegalArgumentException( "Scale of encoded big decimal out of range" );
+    }
+    BigDecimal result = new BigDecimal( new BigInteger( new String( digits ) ), (int) scale ).stripTrailingZeros();
+    if ( result.scale() < 0 ) {
+      // whole numbers are returned as 100 rather than 1E+2, like the string and serialized forms
+      result = result.setScale( 0 );
+    }
+    return negative ? result.negate() : result;
   }
 
   /**
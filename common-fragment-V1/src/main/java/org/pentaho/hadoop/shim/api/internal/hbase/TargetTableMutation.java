@@ -0,0 +1,165 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.pentaho.hadoop.shim.api.internal.hbase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A put or delete of one row of the target table, described without any HBase client type so that it can be built
+ * ahead of time and submitted together with other mutations.
+ */
+public class TargetTableMutation {
+  /**
+   * Rough per-cell bookkeeping cost added to the key and value lengths when estimating the size of a mutation.
+   */
+  static final int CELL_OVERHEAD = 24;
+
+  private final byte[] rowKey;
+  private final boolean delete;
+  private final List<Column> columns;
+  private boolean writeToWAL;
+  private long estimatedSize;
+
+  private TargetTableMutation( byte[] rowKey, boolean delete ) {
+    this.rowKey = rowKey;
+    this.delete = delete;
+    this.columns = delete ? Collections.<Column>emptyList() : new ArrayList<Column>();
+    this.estimatedSize = rowKey.length + CELL_OVERHEAD;
+  }
+
+  public static TargetTableMutation put( byte[] rowKey ) {
+    return new TargetTableMutation( rowKey, false );
+  }
+
+  public static TargetTableMutation delete( byte[] rowKey ) {
+    return new TargetTableMutation( rowKey, true );
+  }
+
+  public void addColumn( String columnFamily, String columnName, boolean colNameIsBinary, byte[] colValue ) {
+    if ( delete ) {
+      throw new IllegalStateException( "Columns can't be added to a delete" );
+    }
+    columns.add( new Column( columnFamily, columnName, colNameIsBinary, colValue ) );
+    estimatedSize += rowKey.length + columnFamily.length() + columnName.length()
+      + ( colValue == null ? 0 : colValue.length ) + CELL_OVERHEAD;
+  }
+
+  /**
+   * Adds a column whose family and name are already encoded
+   */
+  public void addColumn( byte[] columnFamily, byte[] columnName, byte[] colValue ) {
+    if ( delete ) {
+      throw new IllegalStateException( "Columns can't be added to a delete" );
+    }
+    columns.add( new Column( columnFamily, columnName, colValue ) );
+    estimatedSize += rowKey.length + columnFamily.length + columnName.length
+      + ( colValue == null ? 0 : colValue.length ) + CELL_OVERHEAD;
+  }
+
+  public byte[] getRowKey() {
+    return rowKey;
+  }
+
+  public boolean isDelete() {
+    return delete;
+  }
+
+  public boolean isWriteToWAL() {
+    return writeToWAL;
+  }
+
+  public void setWriteToWAL( boolean writeToWAL ) {
+    this.writeToWAL = writeToWAL;
+  }
+
+  public List<Column> getColumns() {
+    return columns;
+  }
+
+  /**
+   * @return the approximate number of bytes this mutation takes on the wire
+   */
+  public long getEstimatedSize() {
+    return estimatedSize;
+  }
+
+  public static class Column {
+    private final String columnFamily;
+    private final String columnName;
+    private final boolean colNameIsBinary;
+    private final byte[] columnFamilyBytes;
+    private final byte[] columnNameBytes;
+    private final byte[] colValue;
+
+    Column( String columnFamily, String columnName, boolean colNameIsBinary, byte[] colValue ) {
+      this.columnFamily = columnFamily;
+      this.columnName = columnName;
+      this.colNameIsBinary = colNameIsBinary;
+      this.columnFamilyBytes = null;
+      this.columnNameBytes = null;
+      this.colValue = colValue;
+    }
+
+    Column( byte[] columnFamilyBytes, byte[] columnNameBytes, byte[] colValue ) {
+      this.columnFamily = null;
+      this.columnName = null;
+      this.colNameIsBinary = false;
+      this.columnFamilyBytes = columnFamilyBytes;
+      this.columnNameBytes = columnNameBytes;
+      this.colValue = colValue;
+    }
+
+    /**
+     * @return true if the family and name are given as encoded bytes rather than as strings
+     */
+    public boolean isEncoded() {
+      return columnFamilyBytes != null;
+    }
+
+    public byte[] getColumnFamilyBytes() {
+      return columnFamilyBytes;
+    }
+
+    public byte[] getColumnNameBytes() {
+      return columnNameBytes;
+    }
+
+    public String getColumnFamily() {
+      return columnFamily;
+    }
+
+    public String getColumnName() {
+      return columnName;
+    }
+
+    public boolean isColNameIsBinary() {
+      return colNameIsBinary;
+    }
+
+    public byte[] getColValue() {
+      return colValue;
+    }
+  }
+}
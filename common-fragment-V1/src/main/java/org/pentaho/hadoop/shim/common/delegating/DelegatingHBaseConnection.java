@@ -28,6 +28,7 @@ import org.pentaho.hadoop.shim.api.internal.Configuration;
 import org.pentaho.hadoop.shim.api.internal.hbase.ColumnFilter;
 import org.pentaho.hadoop.shim.api.internal.hbase.HBaseBytesUtilShim;
 import org.pentaho.hadoop.shim.api.internal.hbase.HBaseValueMeta;
+import org.pentaho.hadoop.shim.api.internal.hbase.TargetTableMutation;
 import org.pentaho.hadoop.shim.spi.HBaseConnection;
 import org.pentaho.hbase.shim.common.wrapper.HBaseConnectionInterface;
 
@@ -59,6 +60,11 @@ public class DelegatingHBaseConnection implements HBaseConnection, HBaseConnecti
     delegate.addColumnToTargetPut( columnFamily, columnName, colNameIsBinary, colValue );
   }
 
+  @Override
+  public void addColumnToTargetPut( byte[] columnFamily, byte[] columnName, byte[] colValue ) throws Exception {
+    delegate.addColumnToTargetPut( columnFamily, columnName, colValue );
+  }
+
   @Override
   public boolean checkForHBaseRow( Object rowToCheck ) {
     return delegate.checkForHBaseRow( rowToCheck );
@@ -129,6 +135,11 @@ public class DelegatingHBaseConnection implements HBaseConnection, HBaseConnecti
     delegate.executeTargetTablePut();
   }
 
+  @Override
+  public List<Integer> executeTargetTableMutations( List<TargetTableMutation> mutations ) throws Exception {
+    return delegate.executeTargetTableMutations( mutations );
+  }
+
   @Override
   public void flushCommitsTargetTable() throws Exception {
     delegate.flushCommitsTargetTable();
@@ -248,6 +259,11 @@ public class DelegatingHBaseConnection implements HBaseConnection, HBaseConnecti
     delegate.newSourceTableScan( keyLowerBound, keyUpperBound, cacheSize );
   }
 
+  @Override
+  public List<byte[]> getSourceTableRegionStartKeys() throws Exception {
+    return delegate.getSourceTableRegionStartKeys();
+  }
+
   @Override
   public void newTargetTable( String tableName, Properties props ) throws Exception {
     delegate.newTargetTable( tableName, props );
@@ -268,6 +284,16 @@ public class DelegatingHBaseConnection implements HBaseConnection, HBaseConnecti
     return delegate.sourceTableRowExists( rowKey );
   }
 
+  @Override
+  public List<Object> getSourceTableRows( List<byte[]> rowKeys ) throws Exception {
+    return delegate.getSourceTableRows( rowKeys );
+  }
+
+  @Override
+  public boolean[] sourceTableRowsExist( List<byte[]> rowKeys ) throws Exception {
+    return delegate.sourceTableRowsExist( rowKeys );
+  }
+
   @Override
   public boolean tableExists( String tableName ) throws Exception {
     return delegate.tableExists( tableName );
@@ -0,0 +1,264 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+package org.pentaho.hadoop.shim.common.format;
+
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoInputSplit;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoRecordReader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToLongFunction;
+
+/**
+ * Reads the splits of an input format on a bounded pool of threads and merges the records into a single reader.
+ * <p>
+ * Workers take splits in order and hand rows over in batches through bounded queues, so a slow consumer holds the
+ * workers back instead of buffering whole splits. When ordered, there is a queue per split and rows come out in the
+ * order of the splits; otherwise all workers share one queue and rows come out as soon as they are read.
+ * <p>
+ * Rows, bytes and elapsed time are recorded for every split which has been read completely.
+ */
+public class ParallelSplitReader implements IPentahoRecordReader {
+  static final int BATCH_SIZE = 1000;
+  static final int QUEUE_BATCHES = 4;
+  private static final Object END_OF_SPLIT = new Object();
+  private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+
+  private final IPentahoInputFormat inputFormat;
+  private final List<IPentahoInputSplit> splits;
+  private final boolean ordered;
+  private final List<BlockingQueue<Object>> queues = new ArrayList<>();
+  private final AtomicInteger nextSplit = new AtomicInteger();
+  private final ExecutorService executor;
+  private final ToLongFunction<IPentahoInputSplit> splitLength;
+  private final List<SplitMetrics> metrics = Collections.synchronizedList( new ArrayList<>() );
+  private volatile boolean closed;
+
+  public ParallelSplitReader( IPentahoInputFormat inputFormat, List<IPentahoInputSplit> splits, int threads,
+                              boolean ordered ) {
+    this( inputFormat, splits, threads, ordered, split -> -1L );
+  }
+
+  /**
+   * @param splitLength gives the size in bytes of a split for its metrics, or -1 when it isn't known
+   */
+  public ParallelSplitReader( IPentahoInputFormat inputFormat, List<IPentahoInputSplit> splits, int threads,
+                              boolean ordered, ToLongFunction<IPentahoInputSplit> splitLength ) {
+    if ( threads < 1 ) {
+      throw new IllegalArgumentException( "Parallel reader requires at least one thread" );
+    }
+    this.inputFormat = inputFormat;
+    this.splits = splits;
+    this.ordered = ordered;
+    this.splitLength = splitLength;
+    if ( ordered ) {
+      for ( int i = 0; i < splits.size(); i++ ) {
+        queues.add( new ArrayBlockingQueue<>( QUEUE_BATCHES ) );
+      }
+    } else {
+      queues.add( new ArrayBlockingQueue<>( QUEUE_BATCHES * threads ) );
+    }
+    int poolSize = Math.max( 1, Math.min( threads, splits.size() ) );
+    executor = Executors.newFixedThreadPool( poolSize, new ReaderThreadFactory() );
+    for ( int i = 0; i < poolSize; i++ ) {
+      executor.execute( this::readSplits );
+    }
+    executor.shutdown();
+  }
+
+  private BlockingQueue<Object> queueFor( int splitIndex ) {
+    return ordered ? queues.get( splitIndex ) : queues.get( 0 );
+  }
+
+  private void readSplits() {
+    int index;
+    while ( !closed && ( index = nextSplit.getAndIncrement() ) < splits.size() ) {
+      BlockingQueue<Object> queue = queueFor( index );
+      long startTime = System.nanoTime();
+      long rows = 0;
+      try {
+        try ( IPentahoRecordReader reader = inputFormat.createRecordReader( splits.get( index ) ) ) {
+          List<RowMetaAndData> batch = new ArrayList<>( BATCH_SIZE );
+          for ( RowMetaAndData row : reader ) {
+            rows++;
+            batch.add( row );
+            if ( batch.size() == BATCH_SIZE ) {
+              queue.put( batch );
+              batch = new ArrayList<>( BATCH_SIZE );
+            }
+          }
+          if ( !batch.isEmpty() ) {
+            queue.put( batch );
+          }
+          metrics.add( new SplitMetrics( index, rows, splitLength.applyAsLong( splits.get( index ) ),
+            TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - startTime ) ) );
+        } catch ( InterruptedException e ) {
+          throw e;
+        } catch ( Exception e ) {
+          queue.put( e );
+        }
+        queue.put( END_OF_SPLIT );
+      } catch ( InterruptedException e ) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  @Override
+  public Iterator<RowMetaAndData> iterator() {
+    return new Iterator<RowMetaAndData>() {
+      private List<RowMetaAndData> batch;
+      private int position;
+      private int finishedSplits;
+
+      @Override
+      public boolean hasNext() {
+        while ( batch == null || position >= batch.size() ) {
+          if ( !fetchBatch() ) {
+            return false;
+          }
+        }
+        return true;
+      }
+
+      @Override
+      public RowMetaAndData next() {
+        if ( !hasNext() ) {
+          throw new NoSuchElementException();
+        }
+        return batch.get( position++ );
+      }
+
+      @SuppressWarnings( "unchecked" )
+      private boolean fetchBatch() {
+        if ( finishedSplits >= splits.size() ) {
+          return false;
+        }
+        Object message;
+        try {
+          message = queueFor( finishedSplits ).take();
+        } catch ( InterruptedException e ) {
+          Thread.currentThread().interrupt();
+          close();
+          throw new IllegalStateException( "Interrupted while waiting for split data", e );
+        }
+        if ( message == END_OF_SPLIT ) {
+          finishedSplits++;
+          return true;
+        }
+        if ( message instanceof Exception ) {
+          close();
+          throw new IllegalStateException( "Error reading split", (Exception) message );
+        }
+        batch = (List<RowMetaAndData>) message;
+        position = 0;
+        return true;
+      }
+    };
+  }
+
+  /**
+   * Metrics of the splits read completely so far, in the order they finished.
+   */
+  public List<SplitMetrics> getSplitMetrics() {
+    synchronized ( metrics ) {
+      return new ArrayList<>( metrics );
+    }
+  }
+
+  @Override
+  public void close() {
+    if ( !closed ) {
+      closed = true;
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Rows and bytes read from one split, and the time it took including any wait for the consumer.
+   */
+  public static class SplitMetrics {
+    private final int split;
+    private final long rows;
+    private final long bytes;
+    private final long elapsedMillis;
+
+    SplitMetrics( int split, long rows, long bytes, long elapsedMillis ) {
+      this.split = split;
+      this.rows = rows;
+      this.bytes = bytes;
+      this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Index of the split in the list the reader was created with.
+     */
+    public int getSplit() {
+      return split;
+    }
+
+    public long getRows() {
+      return rows;
+    }
+
+    /**
+     * Size of the split in bytes, or -1 when the input format doesn't report it.
+     */
+    public long getBytes() {
+      return bytes;
+    }
+
+    public long getElapsedMillis() {
+      return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+      return "split " + split + ": " + rows + " rows, " + bytes + " bytes, " + elapsedMillis + " ms";
+    }
+  }
+
+  private static class ReaderThreadFactory implements ThreadFactory {
+    private final int poolNumber = POOL_NUMBER.incrementAndGet();
+    private final AtomicInteger threadNumber = new AtomicInteger();
+
+    @Override
+    public Thread newThread( Runnable r ) {
+      Thread thread = new Thread( r, "split-reader-" + poolNumber + "-" + threadNumber.incrementAndGet() );
+      thread.setDaemon( true );
+      return thread;
+    }
+  }
+}
@@ -0,0 +1,51 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+package org.pentaho.hadoop.shim.common.format.avro;
+
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.file.SeekableInput;
+import org.apache.avro.io.DatumReader;
+
+import java.io.IOException;
+
+/**
+ * Reads the blocks of an Avro container file which start in a split: it moves to the first sync marker after the
+ * start of the split and stops once a block starts past its end, like Hadoop's Avro record reader.
+ */
+class AvroSplitReader<D> extends DataFileReader<D> {
+  private final long end;
+
+  AvroSplitReader( SeekableInput input, DatumReader<D> datumReader, long start, long end ) throws IOException {
+    super( input, datumReader );
+    this.end = end;
+    sync( start );
+  }
+
+  @Override
+  public boolean hasNext() {
+    try {
+      return super.hasNext() && !pastSync( end );
+    } catch ( IOException e ) {
+      throw new IllegalStateException( e );
+    }
+  }
+}
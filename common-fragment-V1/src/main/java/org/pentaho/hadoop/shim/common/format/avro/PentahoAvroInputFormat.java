@@ -40,9 +40,12 @@ import org.pentaho.hadoop.shim.api.format.AvroSpec;
 import org.pentaho.hadoop.shim.api.format.IAvroInputField;
 import org.pentaho.hadoop.shim.api.format.IAvroLookupField;
 import org.pentaho.hadoop.shim.api.format.IPentahoAvroInputFormat;
+import org.pentaho.hadoop.shim.common.format.ParallelSplitReader;
 
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 
 public class PentahoAvroInputFormat implements IPentahoAvroInputFormat {
@@ -56,6 +59,7 @@ public class PentahoAvroInputFormat implements IPentahoAvroInputFormat {
   private boolean useFieldAsSchema;
   private boolean isDataBinaryEncoded;
   private InputStream inputStream;
+  private long splitSize;
   private NamedCluster namedCluster;
   private VariableSpace variableSpace;
   private Object[] incomingFields = null;
@@ -71,6 +75,13 @@ public class PentahoAvroInputFormat implements IPentahoAvroInputFormat {
 
   @Override
   public IPentahoRecordReader createRecordReader( IPentahoInputSplit split ) throws Exception {
+    if ( split instanceof PentahoAvroInputSplit ) {
+      return createSplitRecordReader( (PentahoAvroInputSplit) split );
+    }
+    if ( readsFiles() && listAvroFiles().length > 1 ) {
+      // all files of the directory, one after another
+      return createParallelRecordReader( 1, true );
+    }
 
     DataFileStream<Object> nestedDfs = null;
     if ( !this.isDatum ) {
@@ -88,6 +99,84 @@ public class PentahoAvroInputFormat implements IPentahoAvroInputFormat {
 
   }
 
+  private IPentahoRecordReader createSplitRecordReader( PentahoAvroInputSplit split ) throws Exception {
+    FileObject fileObject = KettleVFS.getFileObject( split.getFileName(), variableSpace );
+    DatumReader<Object> datumReader = createDatumReader();
+    DataFileStream<Object> dataFileStream;
+    if ( split.isWholeFile() ) {
+      dataFileStream = new DataFileStream<>( fileObject.getContent().getInputStream(), datumReader );
+    } else {
+      dataFileStream = new AvroSplitReader<>( new VfsSeekableInput( fileObject ), datumReader, split.getStart(),
+        split.getStart() + split.getLength() );
+    }
+    Schema avroSchema = schemaFileName != null && schemaFileName.length() > 0
+      ? readAvroSchema() : dataFileStream.getSchema();
+    return new AvroNestedRecordReader( dataFileStream, avroSchema, getFields(), variableSpace, incomingRowMeta,
+      incomingFields, outputRowMeta, split.getFileName(), isDataBinaryEncoded, -1, false );
+  }
+
+  /**
+   * One split per file, or splits of the split size for files on file systems which can seek. Splits are in file name
+   * and offset order. There are no splits when the data doesn't come from files.
+   */
+  @Override
+  public List<IPentahoInputSplit> getSplits() {
+    List<IPentahoInputSplit> splits = new ArrayList<>();
+    if ( !readsFiles() ) {
+      return splits;
+    }
+    try {
+      for ( FileObject avroFile : listAvroFiles() ) {
+        String name = avroFile.getName().getURI();
+        long size = avroFile.getContent().getSize();
+        if ( splitSize <= 0 || size <= splitSize || !VfsSeekableInput.isSupported( avroFile ) ) {
+          splits.add( new PentahoAvroInputSplit( name, 0, size, true ) );
+        } else {
+          for ( long start = 0; start < size; start += splitSize ) {
+            splits.add( new PentahoAvroInputSplit( name, start, Math.min( splitSize, size - start ), false ) );
+          }
+        }
+      }
+    } catch ( Exception e ) {
+      throw new IllegalStateException( "Unable to split " + fileName, e );
+    }
+    return splits;
+  }
+
+  @Override
+  public IPentahoRecordReader createParallelRecordReader( int threads, boolean ordered ) {
+    return new ParallelSplitReader( this, getSplits(), threads, ordered,
+      split -> ( (PentahoAvroInputSplit) split ).getLength() );
+  }
+
+  private boolean readsFiles() {
+    return !isDatum && !useFieldAsInputStream && fileName != null && fileName.length() > 0;
+  }
+
+  /**
+   * The file itself, or the avro files of a directory sorted by name.
+   */
+  private FileObject[] listAvroFiles() throws Exception {
+    FileObject fileObject = KettleVFS.getFileObject( fileName, variableSpace );
+    if ( fileObject.isFile() ) {
+      return new FileObject[] { fileObject };
+    }
+    FileObject[] avroFiles = fileObject.findFiles( new FileExtensionSelector( "avro" ) );
+    if ( avroFiles == null ) {
+      return new FileObject[ 0 ];
+    }
+    Arrays.sort( avroFiles, Comparator.comparing( avroFile -> avroFile.getName().getURI() ) );
+    return avroFiles;
+  }
+
+  private DatumReader<Object> createDatumReader() throws Exception {
+    if ( schemaFileName != null && schemaFileName.length() > 0 ) {
+      Schema schema = new Schema.Parser().parse( KettleVFS.getInputStream( schemaFileName, variableSpace ) );
+      return new GenericDatumReader<Object>( schema );
+    }
+    return new GenericDatumReader<Object>();
+  }
+
   @VisibleForTesting
   public Schema readAvroSchema() throws Exception {
     if ( useFieldAsSchema ) {
@@ -165,7 +254,7 @@ public class PentahoAvroInputFormat implements IPentahoAvroInputFormat {
 
   @Override
   public void setSplitSize( long blockSize ) throws Exception {
-    //do nothing 
+    this.splitSize = blockSize;
   }
 
   private DataFileStream<GenericRecord> createDataFileStream() throws Exception {
@@ -181,18 +270,12 @@ public class PentahoAvroInputFormat implements IPentahoAvroInputFormat {
     } else {
       datumReader = new GenericDatumReader<GenericRecord>();
     }
-    FileObject fileObject = KettleVFS.getFileObject( fileName, variableSpace );
-    if ( fileObject.isFile() ) {
-      this.inputStream = fileObject.getContent().getInputStream();
+    FileObject[] avroFiles = listAvroFiles();
+    if ( !Utils.isEmpty( avroFiles ) ) {
+      this.inputStream = avroFiles[ 0 ].getContent().getInputStream();
       return new DataFileStream<>( inputStream, datumReader );
-    } else {
-      FileObject[] avroFiles = fileObject.findFiles( new FileExtensionSelector( "avro" ) );
-      if ( !Utils.isEmpty( avroFiles ) ) {
-        this.inputStream = avroFiles[ 0 ].getContent().getInputStream();
-        return new DataFileStream<>( inputStream, datumReader );
-      }
-      return null;
     }
+    return null;
   }
 
   private DataFileStream<Object> createNestedDataFileStream() throws Exception {
@@ -208,18 +291,12 @@ public class PentahoAvroInputFormat implements IPentahoAvroInputFormat {
     } else {
       datumReader = new GenericDatumReader<Object>();
     }
-    FileObject fileObject = KettleVFS.getFileObject( fileName, variableSpace );
-    if ( fileObject.isFile() ) {
-      this.inputStream = fileObject.getContent().getInputStream();
+    FileObject[] avroFiles = listAvroFiles();
+    if ( !Utils.isEmpty( avroFiles ) ) {
+      this.inputStream = avroFiles[ 0 ].getContent().getInputStream();
       return new DataFileStream<>( inputStream, datumReader );
-    } else {
-      FileObject[] avroFiles = fileObject.findFiles( new FileExtensionSelector( "avro" ) );
-      if ( !Utils.isEmpty( avroFiles ) ) {
-        this.inputStream = avroFiles[ 0 ].getContent().getInputStream();
-        return new DataFileStream<>( inputStream, datumReader );
-      }
-      return null;
     }
+    return null;
   }
 
   public List<? extends IAvroInputField> getDefaultFields() throws Exception {
@@ -0,0 +1,66 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+package org.pentaho.hadoop.shim.common.format.avro;
+
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoInputSplit;
+
+/**
+ * A byte range of an Avro container file. The split holds the blocks whose sync marker follows a position inside the
+ * range, so neighbouring splits never share a record.
+ */
+public class PentahoAvroInputSplit implements IPentahoInputSplit {
+  private final String fileName;
+  private final long start;
+  private final long length;
+  private final boolean wholeFile;
+
+  public PentahoAvroInputSplit( String fileName, long start, long length, boolean wholeFile ) {
+    this.fileName = fileName;
+    this.start = start;
+    this.length = length;
+    this.wholeFile = wholeFile;
+  }
+
+  public String getFileName() {
+    return fileName;
+  }
+
+  public long getStart() {
+    return start;
+  }
+
+  public long getLength() {
+    return length;
+  }
+
+  /**
+   * Whole files are read as a stream, without seeking.
+   */
+  public boolean isWholeFile() {
+    return wholeFile;
+  }
+
+  @Override
+  public String toString() {
+    return fileName + ":" + start + "+" + length;
+  }
+}
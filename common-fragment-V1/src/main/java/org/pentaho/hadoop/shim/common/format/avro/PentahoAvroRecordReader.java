@@ -29,10 +29,14 @@ import org.apache.avro.LogicalTypes;
 import org.apache.avro.Schema;
 import org.apache.avro.file.DataFileStream;
 import org.apache.avro.generic.GenericRecord;
-import org.apache.avro.util.Utf8;
 import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.exception.KettlePluginException;
+import org.pentaho.di.core.row.RowDataUtil;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.core.row.ValueMetaInterface;
 import org.pentaho.di.core.row.value.ValueMetaBase;
+import org.pentaho.di.core.row.value.ValueMetaFactory;
 import org.pentaho.hadoop.shim.api.format.AvroSpec;
 import org.pentaho.hadoop.shim.api.format.IAvroInputField;
 import org.pentaho.hadoop.shim.api.format.IPentahoAvroInputFormat;
@@ -45,6 +49,7 @@ import java.sql.Timestamp;
 import java.text.SimpleDateFormat;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
@@ -53,12 +58,17 @@ import java.util.List;
  * Created by rmansoor on 10/5/2017.
  */
 public class PentahoAvroRecordReader implements IPentahoAvroInputFormat.IPentahoRecordReader {
+  private static final Conversions.DecimalConversion DECIMAL_CONVERSION = new Conversions.DecimalConversion();
 
   private final DataFileStream<GenericRecord> nativeAvroRecordReader;
   private final Schema avroSchema;
   private final List<? extends IAvroInputField> fields;
   private boolean legacySchema;
 
+  private Schema compiledSchema;
+  private FieldAccessor[] accessors;
+  private RowMetaInterface rowMeta;
+
   public PentahoAvroRecordReader( DataFileStream<GenericRecord> nativeAvroRecordReader,
                                   Schema avroSchema, List<? extends IAvroInputField> fields ) {
     this.nativeAvroRecordReader = nativeAvroRecordReader;
@@ -73,155 +83,196 @@ public class PentahoAvroRecordReader implements IPentahoAvroInputFormat.IPentaho
 
   @Override public Iterator<RowMetaAndData> iterator() {
     return new Iterator<RowMetaAndData>() {
+      private GenericRecord reuse;
 
       @Override public boolean hasNext() {
         return nativeAvroRecordReader.hasNext();
       }
 
       @Override public RowMetaAndData next() {
-        return getRowMetaAndData( nativeAvroRecordReader.next() );
+        try {
+          // every value is copied out of the record, so the same instance can be filled again by the next read
+          reuse = nativeAvroRecordReader.next( reuse );
+        } catch ( IOException e ) {
+          throw new IllegalStateException( e );
+        }
+        return getRowMetaAndData( reuse );
       }
     };
   }
 
   @VisibleForTesting
   public RowMetaAndData getRowMetaAndData( GenericRecord avroRecord ) {
-    RowMetaAndData rowMetaAndData = new RowMetaAndData();
-    Schema.Field avroField = null;
-    String avroFieldName = null;
-    String metaFieldName = null;
+    Schema recordSchema = avroRecord.getSchema();
+    if ( recordSchema != compiledSchema ) {
+      compile( recordSchema );
+    }
+    Object[] row = RowDataUtil.allocateRowData( accessors.length );
+    for ( int i = 0; i < accessors.length; i++ ) {
+      row[ i ] = accessors[ i ].read( avroRecord );
+    }
+    return new RowMetaAndData( rowMeta, row );
+  }
+
+  /**
+   * Resolves every input field against the schema once: the field position, its Avro type and the conversion to
+   * the PDI type. Fields missing from the schema are left out of the row, as before.
+   */
+  private void compile( Schema schema ) {
+    List<FieldAccessor> compiled = new ArrayList<>();
+    RowMetaInterface compiledRowMeta = new RowMeta();
     for ( IAvroInputField metaField : fields ) {
-      // Check if the schema is generated using 8.0. If it is, then properly read the schema fields
-      if ( legacySchema ) {
-        metaFieldName = metaField.getAvroFieldName();
-        if ( !metaFieldName.contains( PentahoAvroInputFormat.FieldName.FIELDNAME_DELIMITER ) ) {
-          // First we will attempt to read it with allowsNull value of false.
-          PentahoAvroInputFormat.FieldName fieldName = new PentahoAvroInputFormat.FieldName( metaFieldName,
-            metaField.getPentahoType(), false );
-          avroFieldName = fieldName.getLegacyFieldName();
-          avroField = avroSchema.getField( avroFieldName );
-          if ( avroField == null ) {
-            // We were not able to find the field with allowsNull value of false. Trying true now.
-            fieldName = new PentahoAvroInputFormat.FieldName( metaFieldName,
-              metaField.getPentahoType(), true );
-            avroFieldName = fieldName.getLegacyFieldName();
-            avroField = avroSchema.getField( avroFieldName );
-          }
-        } else {
-          avroFieldName = metaField.getAvroFieldName();
-          avroField = avroSchema.getField( avroFieldName );
-        }
-      } else {
-        // Schema was not generated using 8.0. Getting the field from the schema
-        avroFieldName = metaField.getAvroFieldName();
-        avroField = avroSchema.getField( avroFieldName );
+      if ( metaField == null ) {
+        continue;
       }
-
+      Schema.Field avroField = resolveField( schema, metaField );
       if ( avroField == null ) {
         continue;
       }
+      compiled.add( new FieldAccessor( avroField, metaField ) );
+      compiledRowMeta.addValueMeta( createValueMeta( metaField ) );
+    }
+    accessors = compiled.toArray( new FieldAccessor[ 0 ] );
+    rowMeta = compiledRowMeta;
+    compiledSchema = schema;
+  }
 
-      if ( metaField != null ) {
-        AvroSpec.DataType avroDataType = null;
-        LogicalType logicalType = null;
-        Schema.Type primitiveAvroType = null;
+  private Schema.Field resolveField( Schema schema, IAvroInputField metaField ) {
+    // Check if the schema is generated using 8.0. If it is, then properly read the schema fields
+    String metaFieldName = metaField.getAvroFieldName();
+    if ( legacySchema && !metaFieldName.contains( PentahoAvroInputFormat.FieldName.FIELDNAME_DELIMITER ) ) {
+      // First we will attempt to read it with allowsNull value of false.
+      PentahoAvroInputFormat.FieldName fieldName = new PentahoAvroInputFormat.FieldName( metaFieldName,
+        metaField.getPentahoType(), false );
+      Schema.Field avroField = schema.getField( fieldName.getLegacyFieldName() );
+      if ( avroField == null ) {
+        // We were not able to find the field with allowsNull value of false. Trying true now.
+        fieldName = new PentahoAvroInputFormat.FieldName( metaFieldName, metaField.getPentahoType(), true );
+        avroField = schema.getField( fieldName.getLegacyFieldName() );
+      }
+      return avroField;
+    }
+    return schema.getField( metaFieldName );
+  }
 
-        if ( avroField.schema().getType().equals( Schema.Type.UNION ) ) {
-          for ( Schema typeSchema : avroField.schema().getTypes() ) {
-            if ( !typeSchema.getType().equals( Schema.Type.NULL ) ) {
-              logicalType = typeSchema.getLogicalType();
-              primitiveAvroType = typeSchema.getType();
-              break;
-            }
-          }
-        } else {
-          logicalType = avroField.schema().getLogicalType();
-          primitiveAvroType = avroField.schema().getType();
-        }
+  private static ValueMetaInterface createValueMeta( IAvroInputField metaField ) {
+    try {
+      ValueMetaInterface valueMeta =
+        ValueMetaFactory.createValueMeta( metaField.getPentahoFieldName(), metaField.getPentahoType() );
+      String stringFormat = metaField.getStringFormat();
+      if ( ( stringFormat != null ) && ( stringFormat.trim().length() > 0 ) ) {
+        valueMeta.setConversionMask( stringFormat );
+      }
+      return valueMeta;
+    } catch ( KettlePluginException e ) {
+      throw new IllegalArgumentException( "Unable to create value meta for " + metaField.getPentahoFieldName(), e );
+    }
+  }
 
-        if ( logicalType != null ) {
-          for ( AvroSpec.DataType tmpType : AvroSpec.DataType.values() ) {
-            if ( !tmpType.isPrimitiveType() && tmpType.getType().equals( logicalType.getName() ) ) {
-              avroDataType = tmpType;
-              break;
-            }
-          }
-        } else {
-          switch ( primitiveAvroType ) {
-            case INT:
-              avroDataType = AvroSpec.DataType.INTEGER;
-              break;
-            case LONG:
-              avroDataType = AvroSpec.DataType.LONG;
-              break;
-            case BYTES:
-              avroDataType = AvroSpec.DataType.BYTES;
-              break;
-            case FLOAT:
-              avroDataType = AvroSpec.DataType.FLOAT;
-              break;
-            case DOUBLE:
-              avroDataType = AvroSpec.DataType.DOUBLE;
-              break;
-            case STRING:
-              avroDataType = AvroSpec.DataType.STRING;
-              break;
-            case BOOLEAN:
-              avroDataType = AvroSpec.DataType.BOOLEAN;
-              break;
-          }
+  private static Schema nonNullSchema( Schema schema ) {
+    if ( schema.getType().equals( Schema.Type.UNION ) ) {
+      for ( Schema typeSchema : schema.getTypes() ) {
+        if ( !typeSchema.getType().equals( Schema.Type.NULL ) ) {
+          return typeSchema;
         }
+      }
+    }
+    return schema;
+  }
 
-        Object avroData = avroRecord.get( avroFieldName );
-        Object pentahoData = null;
+  private static AvroSpec.DataType resolveDataType( Schema schema ) {
+    LogicalType logicalType = schema.getLogicalType();
+    if ( logicalType != null ) {
+      for ( AvroSpec.DataType tmpType : AvroSpec.DataType.values() ) {
+        if ( !tmpType.isPrimitiveType() && tmpType.getType().equals( logicalType.getName() ) ) {
+          return tmpType;
+        }
+      }
+      return null;
+    }
+    switch ( schema.getType() ) {
+      case INT:
+        return AvroSpec.DataType.INTEGER;
+      case LONG:
+        return AvroSpec.DataType.LONG;
+      case BYTES:
+        return AvroSpec.DataType.BYTES;
+      case FLOAT:
+        return AvroSpec.DataType.FLOAT;
+      case DOUBLE:
+        return AvroSpec.DataType.DOUBLE;
+      case STRING:
+        return AvroSpec.DataType.STRING;
+      case BOOLEAN:
+        return AvroSpec.DataType.BOOLEAN;
+      default:
+        return null;
+    }
+  }
 
-        if ( avroData != null ) {
-          if ( avroData instanceof Utf8 ) {
-            avroData = avroData.toString();
-          }
+  /**
+   * Reads one field of a record by position and converts it to the PDI type of the input field.
+   */
+  private class FieldAccessor {
+    private final int position;
+    private final AvroSpec.DataType avroDataType;
+    private final int pentahoType;
+    private final LogicalTypes.Decimal decimalType;
+    private final SimpleDateFormat dateFormat;
 
-          int pentahoType = metaField.getPentahoType();
-          switch ( avroDataType ) {
-            case BOOLEAN:
-              pentahoData = convertToPentahoType( pentahoType, (Boolean) avroData );
-              break;
-            case DATE:
-              pentahoData = convertToPentahoType( pentahoType, (Integer) avroData );
-              break;
-            case FLOAT:
-              pentahoData = convertToPentahoType( pentahoType, (Float) avroData );
-              break;
-            case DOUBLE:
-              pentahoData = convertToPentahoType( pentahoType, (Double) avroData );
-              break;
-            case LONG:
-              pentahoData = convertToPentahoType( pentahoType, (Long) avroData );
-              break;
-            case DECIMAL:
-              pentahoData = convertToPentahoType( pentahoType, (ByteBuffer) avroData, avroField );
-              break;
-            case INTEGER:
-              pentahoData = convertToPentahoType( pentahoType, (Integer) avroData );
-              break;
-            case STRING:
-              pentahoData = convertToPentahoType( pentahoType, (String) avroData, metaField );
-              break;
-            case BYTES:
-              pentahoData = convertToPentahoType( pentahoType, (ByteBuffer) avroData, avroField );
-              break;
-            case TIMESTAMP_MILLIS:
-              pentahoData = convertToPentahoType( pentahoType, (Long) avroData );
-              break;
-          }
-        }
-        rowMetaAndData.addValue( metaField.getPentahoFieldName(), metaField.getPentahoType(), pentahoData );
-        String stringFormat = metaField.getStringFormat();
-        if ( ( stringFormat != null ) && ( stringFormat.trim().length() > 0 ) ) {
-          rowMetaAndData.getValueMeta( rowMetaAndData.size() - 1 ).setConversionMask( stringFormat );
+    FieldAccessor( Schema.Field avroField, IAvroInputField metaField ) {
+      Schema fieldSchema = nonNullSchema( avroField.schema() );
+      position = avroField.pos();
+      avroDataType = resolveDataType( fieldSchema );
+      pentahoType = metaField.getPentahoType();
+      decimalType = pentahoType == ValueMetaInterface.TYPE_BIGNUMBER ? decimalType( fieldSchema ) : null;
+      if ( avroDataType == AvroSpec.DataType.STRING && pentahoType == ValueMetaInterface.TYPE_DATE ) {
+        String dateFormatStr = metaField.getStringFormat();
+        if ( ( dateFormatStr == null ) || ( dateFormatStr.trim().length() == 0 ) ) {
+          dateFormatStr = ValueMetaBase.DEFAULT_DATE_FORMAT_MASK;
         }
+        dateFormat = new SimpleDateFormat( dateFormatStr );
+      } else {
+        dateFormat = null;
+      }
+    }
+
+    Object read( GenericRecord avroRecord ) {
+      Object avroData = avroRecord.get( position );
+      if ( avroData == null || avroDataType == null ) {
+        return null;
       }
+      switch ( avroDataType ) {
+        case BOOLEAN:
+          return convertToPentahoType( pentahoType, (Boolean) avroData );
+        case DATE:
+        case INTEGER:
+          return convertToPentahoType( pentahoType, (Integer) avroData );
+        case FLOAT:
+          return convertToPentahoType( pentahoType, (Float) avroData );
+        case DOUBLE:
+          return convertToPentahoType( pentahoType, (Double) avroData );
+        case LONG:
+        case TIMESTAMP_MILLIS:
+          return convertToPentahoType( pentahoType, (Long) avroData );
+        case DECIMAL:
+        case BYTES:
+          return convertToPentahoType( pentahoType, (ByteBuffer) avroData, decimalType );
+        case STRING:
+          return convertToPentahoType( pentahoType, avroData.toString(), dateFormat );
+        default:
+          return null;
+      }
+    }
+  }
+
+  private static LogicalTypes.Decimal decimalType( Schema schema ) {
+    Object precision = schema.getObjectProp( AvroSpec.DECIMAL_PRECISION );
+    Object scale = schema.getObjectProp( AvroSpec.DECIMAL_SCALE );
+    if ( precision == null || scale == null ) {
+      return null;
     }
-    return rowMetaAndData;
+    return LogicalTypes.decimal( Integer.parseInt( precision.toString() ), Integer.parseInt( scale.toString() ) );
   }
 
   private Object convertToPentahoType( int pentahoType, Float avroData ) {
@@ -258,28 +309,13 @@ public class PentahoAvroRecordReader implements IPentahoAvroInputFormat.IPentaho
     return pentahoData;
   }
 
-  private Object convertToPentahoType( int pentahoType, ByteBuffer avroData, Schema.Field field ) {
+  private Object convertToPentahoType( int pentahoType, ByteBuffer avroData, LogicalTypes.Decimal decimalType ) {
     Object pentahoData = null;
     if ( avroData != null ) {
       try {
         switch ( pentahoType ) {
           case ValueMetaInterface.TYPE_BIGNUMBER:
-            Conversions.DecimalConversion converter = new Conversions.DecimalConversion();
-            Schema schema = field.schema();
-            if ( schema.getType().equals( Schema.Type.UNION ) ) {
-              List<Schema> schemas = field.schema().getTypes();
-              for ( Schema s : schemas ) {
-                if ( !s.getName().equalsIgnoreCase( "null" ) ) {
-                  schema = s;
-                  break;
-                }
-              }
-            }
-            Object precision = schema.getObjectProp( AvroSpec.DECIMAL_PRECISION );
-            Object scale = schema.getObjectProp( AvroSpec.DECIMAL_SCALE );
-            LogicalTypes.Decimal decimalType =
-              LogicalTypes.decimal( Integer.parseInt( precision.toString() ), Integer.parseInt( scale.toString() ) );
-            pentahoData = converter.fromBytes( avroData, avroSchema, decimalType );
+            pentahoData = DECIMAL_CONVERSION.fromBytes( avroData.duplicate(), avroSchema, decimalType );
             break;
           case ValueMetaInterface.TYPE_BINARY:
             pentahoData = new byte[ avroData.remaining() ];
@@ -425,7 +461,7 @@ public class PentahoAvroRecordReader implements IPentahoAvroInputFormat.IPentaho
     return pentahoData;
   }
 
-  private Object convertToPentahoType( int pentahoType, String avroData, IAvroInputField avroInputField ) {
+  private Object convertToPentahoType( int pentahoType, String avroData, SimpleDateFormat datePattern ) {
     Object pentahoData = null;
     if ( avroData != null ) {
       try {
@@ -449,11 +485,6 @@ public class PentahoAvroRecordReader implements IPentahoAvroInputFormat.IPentaho
             pentahoData = new Timestamp( Long.parseLong( avroData ) );
             break;
           case ValueMetaInterface.TYPE_DATE:
-            String dateFormatStr = avroInputField.getStringFormat();
-            if ( ( dateFormatStr == null ) || ( dateFormatStr.trim().length() == 0 ) ) {
-              dateFormatStr = ValueMetaBase.DEFAULT_DATE_FORMAT_MASK;
-            }
-            SimpleDateFormat datePattern = new SimpleDateFormat( dateFormatStr );
             pentahoData = datePattern.parse( avroData );
             break;
           case ValueMetaInterface.TYPE_BOOLEAN:
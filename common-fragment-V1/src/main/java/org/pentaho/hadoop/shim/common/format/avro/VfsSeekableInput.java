@@ -0,0 +1,89 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+package org.pentaho.hadoop.shim.common.format.avro;
+
+import org.apache.avro.file.SeekableInput;
+import org.apache.commons.vfs2.Capability;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.RandomAccessContent;
+import org.apache.commons.vfs2.util.RandomAccessMode;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Avro {@link SeekableInput} over the random access content of a VFS file, so a container file can be read from any
+ * sync marker.
+ */
+class VfsSeekableInput implements SeekableInput {
+  private final RandomAccessContent content;
+  private final long length;
+  private InputStream stream;
+  private long position;
+
+  VfsSeekableInput( FileObject fileObject ) throws IOException {
+    content = fileObject.getContent().getRandomAccessContent( RandomAccessMode.READ );
+    length = content.length();
+  }
+
+  /**
+   * Whether the file system of the file can seek, otherwise the file can only be read as a whole.
+   */
+  static boolean isSupported( FileObject fileObject ) {
+    return fileObject.getFileSystem().hasCapability( Capability.RANDOM_ACCESS_READ );
+  }
+
+  @Override
+  public void seek( long p ) throws IOException {
+    content.seek( p );
+    // the stream of random access content has to be fetched again after seeking
+    stream = null;
+    position = p;
+  }
+
+  @Override
+  public long tell() {
+    return position;
+  }
+
+  @Override
+  public long length() {
+    return length;
+  }
+
+  @Override
+  public int read( byte[] b, int off, int len ) throws IOException {
+    if ( stream == null ) {
+      stream = content.getInputStream();
+    }
+    int read = stream.read( b, off, len );
+    if ( read > 0 ) {
+      position += read;
+    }
+    return read;
+  }
+
+  @Override
+  public void close() throws IOException {
+    content.close();
+  }
+}
@@ -0,0 +1,245 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+package org.pentaho.hadoop.shim.common.format.orc;
+
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.ColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DecimalColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DoubleColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.TimestampColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.log4j.Logger;
+import org.pentaho.di.core.exception.KettlePluginException;
+import org.pentaho.di.core.row.RowDataUtil;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaBase;
+import org.pentaho.di.core.row.value.ValueMetaConversionException;
+import org.pentaho.di.core.row.value.ValueMetaConverter;
+import org.pentaho.di.core.row.value.ValueMetaFactory;
+import org.pentaho.hadoop.shim.api.format.IOrcInputField;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts a whole {@link VectorizedRowBatch} into a block of rows, one column at a time.
+ * <p>
+ * Unlike {@link OrcConverter#convertFromOrc}, which resolves fields, column numbers and conversions again for every
+ * row, the output row meta, the column of each field, the typed value extractor and the conversion to the requested
+ * PDI type are resolved once when the converter is built. All rows share the same row meta.
+ */
+public class OrcBatchConverter {
+  private static final Logger logger = Logger.getLogger( OrcBatchConverter.class );
+  private static final Object[][] EMPTY = new Object[ 0 ][];
+
+  private final RowMeta rowMeta = new RowMeta();
+  private final ColumnConversion[] columns;
+
+  public OrcBatchConverter( List<? extends IOrcInputField> dialogInputFields,
+                            Map<String, Integer> schemaToOrcSubcripts,
+                            List<? extends IOrcInputField> orcInputFields ) {
+    OrcConverter orcConverter = new OrcConverter();
+    ZoneId zoneId = ZoneId.systemDefault();
+    columns = dialogInputFields.stream()
+      .filter( inputField -> inputField != null )
+      .map( inputField -> {
+        IOrcInputField orcField = orcConverter.getFormatField( inputField.getFormatFieldName(), orcInputFields );
+        rowMeta.addValueMeta( createValueMeta( inputField ) );
+        return new ColumnConversion( schemaToOrcSubcripts.get( inputField.getPentahoFieldName() ),
+          orcField.getPentahoType(), inputField, zoneId );
+      } )
+      .toArray( ColumnConversion[]::new );
+  }
+
+  private static ValueMetaInterface createValueMeta( IOrcInputField inputField ) {
+    try {
+      ValueMetaInterface valueMeta =
+        ValueMetaFactory.createValueMeta( inputField.getPentahoFieldName(), inputField.getPentahoType() );
+      String stringFormat = inputField.getStringFormat();
+      if ( ( stringFormat != null ) && ( stringFormat.trim().length() > 0 ) ) {
+        valueMeta.setConversionMask( stringFormat );
+      }
+      return valueMeta;
+    } catch ( KettlePluginException e ) {
+      throw new IllegalArgumentException( "Unable to create value meta for " + inputField.getPentahoFieldName(), e );
+    }
+  }
+
+  /**
+   * Row meta shared by all rows converted by this converter.
+   */
+  public RowMetaInterface getRowMeta() {
+    return rowMeta;
+  }
+
+  /**
+   * Converts all rows of the batch. Rows are allocated with {@link RowDataUtil#allocateRowData(int)}.
+   */
+  public Object[][] convert( VectorizedRowBatch batch ) {
+    if ( batch.size == 0 ) {
+      return EMPTY;
+    }
+    Object[][] rows = new Object[ batch.size ][];
+    for ( int i = 0; i < batch.size; i++ ) {
+      rows[ i ] = RowDataUtil.allocateRowData( columns.length );
+    }
+    for ( int c = 0; c < columns.length; c++ ) {
+      columns[ c ].convert( batch, rows, c );
+    }
+    return rows;
+  }
+
+  @FunctionalInterface
+  private interface ValueExtractor {
+    Object extract( ColumnVector columnVector, int row );
+  }
+
+  /**
+   * Extractor of one column, with the conversion to the requested type resolved once.
+   */
+  private static class ColumnConversion {
+    private final int column;
+    private final int sourceType;
+    private final int targetType;
+    private final ValueExtractor extractor;
+    private final ValueMetaConverter valueMetaConverter;
+    private final boolean immutable;
+
+    ColumnConversion( int column, int sourceType, IOrcInputField inputField, ZoneId zoneId ) {
+      this.column = column;
+      this.sourceType = sourceType;
+      this.targetType = inputField.getPentahoType();
+      this.extractor = extractorFor( sourceType, zoneId );
+      if ( sourceType == targetType ) {
+        valueMetaConverter = null;
+      } else {
+        String dateFormatStr = inputField.getStringFormat();
+        if ( ( dateFormatStr == null ) || ( dateFormatStr.trim().length() == 0 ) ) {
+          dateFormatStr = ValueMetaBase.DEFAULT_DATE_FORMAT_MASK;
+        }
+        valueMetaConverter = new ValueMetaConverter();
+        valueMetaConverter.setDatePattern( new SimpleDateFormat( dateFormatStr ) );
+      }
+      // values of these types can be shared by all rows of a repeating vector
+      immutable = targetType != ValueMetaInterface.TYPE_DATE && targetType != ValueMetaInterface.TYPE_TIMESTAMP
+        && targetType != ValueMetaInterface.TYPE_BINARY;
+    }
+
+    void convert( VectorizedRowBatch batch, Object[][] rows, int field ) {
+      ColumnVector columnVector = batch.cols[ column ];
+      if ( columnVector.isRepeating ) {
+        if ( !columnVector.noNulls && columnVector.isNull[ 0 ] ) {
+          return;
+        }
+        Object value = immutable ? convert( extractor.extract( columnVector, 0 ) ) : null;
+        for ( int i = 0; i < batch.size; i++ ) {
+          rows[ i ][ field ] = immutable ? value : convert( extractor.extract( columnVector, 0 ) );
+        }
+      } else if ( columnVector.noNulls ) {
+        for ( int i = 0; i < batch.size; i++ ) {
+          rows[ i ][ field ] = convert( extractor.extract( columnVector, rowIndex( batch, i ) ) );
+        }
+      } else {
+        for ( int i = 0; i < batch.size; i++ ) {
+          int row = rowIndex( batch, i );
+          rows[ i ][ field ] = columnVector.isNull[ row ] ? null : convert( extractor.extract( columnVector, row ) );
+        }
+      }
+    }
+
+    private static int rowIndex( VectorizedRowBatch batch, int i ) {
+      return batch.selectedInUse ? batch.selected[ i ] : i;
+    }
+
+    private Object convert( Object value ) {
+      if ( valueMetaConverter == null || value == null ) {
+        return value;
+      }
+      try {
+        return valueMetaConverter.convertFromSourceToTargetDataType( sourceType, targetType, value );
+      } catch ( ValueMetaConversionException e ) {
+        logger.error( e );
+        return null;
+      }
+    }
+
+    private static ValueExtractor extractorFor( int sourceType, ZoneId zoneId ) {
+      switch ( sourceType ) {
+        case ValueMetaInterface.TYPE_INET:
+          return ( columnVector, row ) -> {
+            try {
+              return InetAddress.getByName( stringValue( (BytesColumnVector) columnVector, row ) );
+            } catch ( UnknownHostException e ) {
+              logger.error( e );
+              return null;
+            }
+          };
+        case ValueMetaInterface.TYPE_STRING:
+          return ( columnVector, row ) -> stringValue( (BytesColumnVector) columnVector, row );
+        case ValueMetaInterface.TYPE_INTEGER:
+          return ( columnVector, row ) -> ( (LongColumnVector) columnVector ).vector[ row ];
+        case ValueMetaInterface.TYPE_NUMBER:
+          return ( columnVector, row ) -> ( (DoubleColumnVector) columnVector ).vector[ row ];
+        case ValueMetaInterface.TYPE_BIGNUMBER:
+          return ( columnVector, row ) ->
+            ( (DecimalColumnVector) columnVector ).vector[ row ].getHiveDecimal().bigDecimalValue();
+        case ValueMetaInterface.TYPE_TIMESTAMP:
+          return ( columnVector, row ) -> {
+            TimestampColumnVector timestampVector = (TimestampColumnVector) columnVector;
+            Timestamp timestamp = new Timestamp( timestampVector.time[ row ] );
+            timestamp.setNanos( timestampVector.nanos[ row ] );
+            return timestamp;
+          };
+        case ValueMetaInterface.TYPE_DATE:
+          return ( columnVector, row ) -> Date.from( LocalDate.ofEpochDay(
+            ( (LongColumnVector) columnVector ).vector[ row ] ).atStartOfDay( zoneId ).toInstant() );
+        case ValueMetaInterface.TYPE_BOOLEAN:
+          return ( columnVector, row ) -> ( (LongColumnVector) columnVector ).vector[ row ] != 0;
+        case ValueMetaInterface.TYPE_BINARY:
+          return ( columnVector, row ) -> {
+            BytesColumnVector bytesVector = (BytesColumnVector) columnVector;
+            int start = bytesVector.start[ row ];
+            return Arrays.copyOfRange( bytesVector.vector[ row ], start, start + bytesVector.length[ row ] );
+          };
+        default:
+          return ( columnVector, row ) -> null;
+      }
+    }
+
+    private static String stringValue( BytesColumnVector bytesVector, int row ) {
+      return new String( bytesVector.vector[ row ], bytesVector.start[ row ], bytesVector.length[ row ],
+        StandardCharsets.UTF_8 );
+    }
+  }
+}
@@ -0,0 +1,218 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+package org.pentaho.hadoop.shim.common.format.orc;
+
+import org.apache.hadoop.hive.common.type.HiveDecimal;
+import org.apache.hadoop.hive.ql.io.sarg.PredicateLeaf;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgumentFactory;
+import org.apache.hadoop.hive.serde2.io.HiveDecimalWritable;
+import org.apache.log4j.Logger;
+import org.apache.orc.TypeDescription;
+import org.pentaho.hadoop.shim.api.format.InputFieldPredicate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Translates {@link InputFieldPredicate}s into an ORC {@link SearchArgument}, so stripes and row groups are skipped by
+ * their statistics and bloom filters. ORC doesn't filter single rows, so every row of a row group which may match is
+ * still returned.
+ */
+public class OrcSearchArgumentBuilder {
+  private static final Logger logger = Logger.getLogger( OrcSearchArgumentBuilder.class );
+
+  private OrcSearchArgumentBuilder() {
+    // static methods only
+  }
+
+  /**
+   * Combines all supported predicates with AND, or returns null when none of them can be pushed down. Column types are
+   * taken from the file schema, since the ORC type chosen in the dialog may differ from the stored one.
+   */
+  public static SearchArgument build( List<InputFieldPredicate> predicates, TypeDescription schema ) {
+    if ( predicates == null || predicates.isEmpty() ) {
+      return null;
+    }
+    List<Leaf> leaves = new ArrayList<>();
+    for ( InputFieldPredicate predicate : predicates ) {
+      Leaf leaf = toLeaf( predicate, schema );
+      if ( leaf == null ) {
+        logger.warn( "Predicate can't be pushed down to orc reader: " + predicate );
+      } else {
+        leaves.add( leaf );
+      }
+    }
+    if ( leaves.isEmpty() ) {
+      return null;
+    }
+    SearchArgument.Builder builder = SearchArgumentFactory.newBuilder().startAnd();
+    leaves.forEach( leaf -> leaf.addTo( builder ) );
+    return builder.end().build();
+  }
+
+  /**
+   * Column names indexed by ORC column id, as expected by {@code Reader.Options.searchArgument}.
+   */
+  public static String[] columnNames( TypeDescription schema ) {
+    String[] names = new String[ schema.getMaximumId() + 1 ];
+    List<String> fieldNames = schema.getFieldNames();
+    List<TypeDescription> children = schema.getChildren();
+    for ( int i = 0; i < fieldNames.size(); i++ ) {
+      names[ children.get( i ).getId() ] = fieldNames.get( i );
+    }
+    return names;
+  }
+
+  private static Leaf toLeaf( InputFieldPredicate predicate, TypeDescription schema ) {
+    String column = predicate.getField().getFormatFieldName();
+    int index = schema.getFieldNames().indexOf( column );
+    if ( index < 0 ) {
+      return null;
+    }
+    PredicateLeaf.Type type = leafType( schema.getChildren().get( index ).getCategory() );
+    if ( type == null ) {
+      return null;
+    }
+    List<Object> literals = new ArrayList<>();
+    for ( Object value : predicate.getValues() ) {
+      Object literal = toLiteral( type, value );
+      if ( literal == null ) {
+        return null;
+      }
+      literals.add( literal );
+    }
+    return new Leaf( column, type, predicate.getOperator(), literals );
+  }
+
+  private static PredicateLeaf.Type leafType( TypeDescription.Category category ) {
+    switch ( category ) {
+      case BYTE:
+      case SHORT:
+      case INT:
+      case LONG:
+        return PredicateLeaf.Type.LONG;
+      case FLOAT:
+      case DOUBLE:
+        return PredicateLeaf.Type.FLOAT;
+      case STRING:
+      case CHAR:
+      case VARCHAR:
+        return PredicateLeaf.Type.STRING;
+      case BOOLEAN:
+        return PredicateLeaf.Type.BOOLEAN;
+      case DATE:
+        return PredicateLeaf.Type.DATE;
+      case TIMESTAMP:
+        return PredicateLeaf.Type.TIMESTAMP;
+      case DECIMAL:
+        return PredicateLeaf.Type.DECIMAL;
+      default:
+        return null;
+    }
+  }
+
+  static Object toLiteral( PredicateLeaf.Type type, Object value ) {
+    if ( value == null ) {
+      return null;
+    }
+    switch ( type ) {
+      case LONG:
+        return value instanceof Number ? ( (Number) value ).longValue() : null;
+      case FLOAT:
+        return value instanceof Number ? ( (Number) value ).doubleValue() : null;
+      case STRING:
+        return value.toString();
+      case BOOLEAN:
+        return value instanceof Boolean ? value : null;
+      case DATE:
+        return value instanceof Date ? new java.sql.Date( ( (Date) value ).getTime() ) : null;
+      case TIMESTAMP:
+        if ( value instanceof Timestamp ) {
+          return value;
+        }
+        return value instanceof Date ? new Timestamp( ( (Date) value ).getTime() ) : null;
+      case DECIMAL:
+        if ( value instanceof BigDecimal ) {
+          return new HiveDecimalWritable( HiveDecimal.create( (BigDecimal) value ) );
+        }
+        return value instanceof Number ? new HiveDecimalWritable( HiveDecimal.create( value.toString() ) ) : null;
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * A converted predicate, kept apart from the builder so unsupported predicates can be dropped before anything is
+   * added to the search argument.
+   */
+  private static class Leaf {
+    private final String column;
+    private final PredicateLeaf.Type type;
+    private final InputFieldPredicate.Operator operator;
+    private final List<Object> literals;
+
+    Leaf( String column, PredicateLeaf.Type type, InputFieldPredicate.Operator operator, List<Object> literals ) {
+      this.column = column;
+      this.type = type;
+      this.operator = operator;
+      this.literals = literals;
+    }
+
+    void addTo( SearchArgument.Builder builder ) {
+      switch ( operator ) {
+        case EQ:
+          builder.equals( column, type, literals.get( 0 ) );
+          break;
+        case NE:
+          builder.startNot().equals( column, type, literals.get( 0 ) ).end();
+          break;
+        case LT:
+          builder.lessThan( column, type, literals.get( 0 ) );
+          break;
+        case LE:
+          builder.lessThanEquals( column, type, literals.get( 0 ) );
+          break;
+        case GT:
+          builder.startNot().lessThanEquals( column, type, literals.get( 0 ) ).end();
+          break;
+        case GE:
+          builder.startNot().lessThan( column, type, literals.get( 0 ) ).end();
+          break;
+        case IN:
+          builder.in( column, type, literals.toArray() );
+          break;
+        case IS_NULL:
+          builder.isNull( column, type );
+          break;
+        case IS_NOT_NULL:
+          builder.startNot().isNull( column, type ).end();
+          break;
+        default:
+          throw new IllegalStateException( "Unknown operator " + operator );
+      }
+    }
+  }
+}
@@ -22,18 +22,23 @@
 package org.pentaho.hadoop.shim.common.format.orc;
 
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
 import org.apache.orc.Reader;
+import org.apache.orc.StripeInformation;
 import org.apache.orc.TypeDescription;
 import org.pentaho.hadoop.shim.ShimConfigsLoader;
 import org.pentaho.hadoop.shim.api.cluster.NamedCluster;
 import org.pentaho.hadoop.shim.api.format.IOrcInputField;
 import org.pentaho.hadoop.shim.api.format.IOrcMetaData;
 import org.pentaho.hadoop.shim.api.format.IPentahoOrcInputFormat;
+import org.pentaho.hadoop.shim.api.format.InputFieldPredicate;
 import org.pentaho.hadoop.shim.common.ConfigurationProxy;
 import org.pentaho.hadoop.shim.common.format.HadoopFormatBase;
+import org.pentaho.hadoop.shim.common.format.ParallelSplitReader;
 import org.pentaho.hadoop.shim.common.format.S3NCredentialUtils;
 
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.BiConsumer;
 
@@ -47,6 +52,8 @@ public class PentahoOrcInputFormat extends HadoopFormatBase implements IPentahoO
   private static final String NOT_NULL_MSG = "filename and inputfields must not be null";
   private String fileName;
   private List<? extends IOrcInputField> inputFields;
+  private List<InputFieldPredicate> predicates;
+  private long splitSize;
 
   private final Configuration conf;
 
@@ -64,11 +71,63 @@ public class PentahoOrcInputFormat extends HadoopFormatBase implements IPentahoO
     }
   }
 
+  /**
+   * Reads the split, or the whole input when the split is null. All files of a directory are read one after another.
+   */
   @Override
   public IPentahoRecordReader createRecordReader( IPentahoInputSplit split ) {
     requireNonNull( fileName, NOT_NULL_MSG );
     requireNonNull( inputFields, NOT_NULL_MSG );
-    return inClassloader( () -> new PentahoOrcRecordReader( fileName, conf, inputFields ) );
+    if ( split instanceof PentahoOrcInputSplit ) {
+      return inClassloader(
+        () -> new PentahoOrcRecordReader( (PentahoOrcInputSplit) split, conf, inputFields, predicates ) );
+    }
+    if ( inClassloader( () -> PentahoOrcRecordReader.listFiles( fileName, conf ).size() ) > 1 ) {
+      return createParallelRecordReader( 1, true );
+    }
+    return inClassloader( () -> new PentahoOrcRecordReader( fileName, conf, inputFields, predicates ) );
+  }
+
+  /**
+   * One split for each group of consecutive stripes up to the split size, or for each stripe when no split size is
+   * set. Splits are in file name and offset order, and files without stripes have none.
+   */
+  @Override
+  public List<IPentahoInputSplit> getSplits() {
+    requireNonNull( fileName, NOT_NULL_MSG );
+    return inClassloader( () -> {
+      List<IPentahoInputSplit> splits = new ArrayList<>();
+      for ( Path file : PentahoOrcRecordReader.listFiles( fileName, conf ) ) {
+        Reader reader = PentahoOrcRecordReader.getReader( file, conf );
+        long start = -1;
+        long end = -1;
+        for ( StripeInformation stripe : reader.getStripes() ) {
+          if ( start >= 0 && stripe.getOffset() + stripe.getLength() - start > splitSize ) {
+            splits.add( new PentahoOrcInputSplit( file, start, end - start ) );
+            start = -1;
+          }
+          if ( start < 0 ) {
+            start = stripe.getOffset();
+          }
+          end = stripe.getOffset() + stripe.getLength();
+        }
+        if ( start >= 0 ) {
+          splits.add( new PentahoOrcInputSplit( file, start, end - start ) );
+        }
+      }
+      return splits;
+    } );
+  }
+
+  @Override
+  public void setSplitSize( long splitSize ) {
+    this.splitSize = splitSize;
+  }
+
+  @Override
+  public IPentahoRecordReader createParallelRecordReader( int threads, boolean ordered ) {
+    return new ParallelSplitReader( this, getSplits(), threads, ordered,
+      split -> ( (PentahoOrcInputSplit) split ).getLength() );
   }
 
   @Override
@@ -106,5 +165,10 @@ public class PentahoOrcInputFormat extends HadoopFormatBase implements IPentahoO
     this.fileName = S3NCredentialUtils.scrubFilePathIfNecessary( fileName );
   }
 
+  @Override
+  public void setFilter( List<InputFieldPredicate> predicates ) {
+    this.predicates = predicates == null || predicates.isEmpty() ? null : new ArrayList<>( predicates );
+  }
+
 
 }
@@ -0,0 +1,60 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+package org.pentaho.hadoop.shim.common.format.orc;
+
+import org.apache.hadoop.fs.Path;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoInputSplit;
+
+/**
+ * A range of whole stripes of one ORC file.
+ */
+public class PentahoOrcInputSplit implements IPentahoInputSplit {
+  private final Path path;
+  private final long start;
+  private final long length;
+
+  public PentahoOrcInputSplit( Path path, long start, long length ) {
+    this.path = path;
+    this.start = start;
+    this.length = length;
+  }
+
+  public Path getPath() {
+    return path;
+  }
+
+  /**
+   * Offset of the first stripe in the split.
+   */
+  public long getStart() {
+    return start;
+  }
+
+  public long getLength() {
+    return length;
+  }
+
+  @Override
+  public String toString() {
+    return path + ":" + start + "+" + length;
+  }
+}
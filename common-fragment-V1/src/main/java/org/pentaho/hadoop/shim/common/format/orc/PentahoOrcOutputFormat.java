@@ -53,6 +53,7 @@ public class PentahoOrcOutputFormat extends HadoopFormatBase implements IPentaho
   private COMPRESSION compression = COMPRESSION.NONE;
   private int compressSize = 0;
   private int stripeSize = DEFAULT_STRIPE_SIZE;
+  private int batchSize = DEFAULT_BATCH_SIZE;
   private List<? extends IOrcOutputField> fields;
 
   public PentahoOrcOutputFormat() {
@@ -83,7 +84,7 @@ public class PentahoOrcOutputFormat extends HadoopFormatBase implements IPentaho
     OrcSchemaConverter converter = new OrcSchemaConverter();
     TypeDescription schema = converter.buildTypeDescription( fields );
 
-    return new PentahoOrcRecordWriter( fields, schema, outputFilename, conf );
+    return new PentahoOrcRecordWriter( fields, schema, outputFilename, conf, batchSize );
   }
 
   @Override
@@ -131,13 +132,37 @@ public class PentahoOrcOutputFormat extends HadoopFormatBase implements IPentaho
   public void setRowIndexStride( int numRows ) {
     if ( numRows > 0 ) {
       conf.set( CREATE_INDEX_KEY, "true" );
-      conf.set( ROW_INDEX_STRIDE_KEY, Integer.toString( 1024 * 1024 * numRows ) );
+      conf.set( ROW_INDEX_STRIDE_KEY, Integer.toString( numRows ) );
     } else if ( numRows == 0 ) {
       conf.set( CREATE_INDEX_KEY, "false" );
       conf.unset( ROW_INDEX_STRIDE_KEY );
     }
   }
 
+  @Override
+  public void setBloomFilterColumns( List<String> columns ) {
+    if ( columns == null || columns.isEmpty() ) {
+      conf.unset( BLOOM_FILTER_COLUMNS_KEY );
+    } else {
+      conf.set( BLOOM_FILTER_COLUMNS_KEY, String.join( ",", columns ) );
+    }
+  }
+
+  @Override
+  public void setBloomFilterFpp( double fpp ) {
+    if ( fpp <= 0 || fpp >= 1 ) {
+      throw new IllegalArgumentException( "Bloom filter false positive probability must be between 0 and 1" );
+    }
+    conf.set( BLOOM_FILTER_FPP_KEY, Double.toString( fpp ) );
+  }
+
+  @Override
+  public void setBatchSize( int rows ) {
+    if ( rows > 0 ) {
+      batchSize = rows;
+    }
+  }
+
   @Override
   public void setCompressSize( int kilobytes ) {
     if ( kilobytes > 0 ) {
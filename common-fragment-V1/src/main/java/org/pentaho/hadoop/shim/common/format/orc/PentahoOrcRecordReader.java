@@ -28,23 +28,30 @@ import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.fs.PathFilter;
 import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument;
 import org.apache.log4j.Logger;
 import org.apache.orc.OrcFile;
 import org.apache.orc.Reader;
 import org.apache.orc.RecordReader;
 import org.apache.orc.TypeDescription;
 import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.hadoop.shim.api.format.IOrcInputField;
 import org.pentaho.hadoop.shim.api.format.IOrcMetaData;
 import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat;
+import org.pentaho.hadoop.shim.api.format.InputFieldPredicate;
 import org.pentaho.hadoop.shim.common.format.S3NCredentialUtils;
 
 import java.io.IOException;
 import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 /**
  * Created by tkafalas on 11/7/2017.
@@ -58,19 +65,38 @@ public class PentahoOrcRecordReader implements IPentahoInputFormat.IPentahoRecor
   private int currentBatchRow;
   private TypeDescription typeDescription;
   private Map<String, Integer> schemaToOrcSubcripts;
-  private OrcConverter orcConverter = new OrcConverter();
+  private OrcBatchConverter batchConverter;
+  private Object[][] block;
 
   PentahoOrcRecordReader( String fileName, Configuration conf,
                           List<? extends IOrcInputField> dialogInputFields ) {
+    this( fileName, conf, dialogInputFields, null );
+  }
+
+  PentahoOrcRecordReader( String fileName, Configuration conf,
+                          List<? extends IOrcInputField> dialogInputFields, List<InputFieldPredicate> predicates ) {
+    this( getReader( fileName, conf ), fileName, dialogInputFields, predicates, 0, Long.MAX_VALUE );
+  }
+
+  /**
+   * Reads only the stripes of the split.
+   */
+  PentahoOrcRecordReader( PentahoOrcInputSplit split, Configuration conf,
+                          List<? extends IOrcInputField> dialogInputFields, List<InputFieldPredicate> predicates ) {
+    this( getReader( split.getPath(), conf ), split.toString(), dialogInputFields, predicates, split.getStart(),
+      split.getLength() );
+  }
+
+  private PentahoOrcRecordReader( Reader reader, String fileName, List<? extends IOrcInputField> dialogInputFields,
+                                  List<InputFieldPredicate> predicates, long start, long length ) {
     this.dialogInputFields = dialogInputFields;
 
-    Reader reader = getReader( fileName, conf );
+    typeDescription = reader.getSchema();
     try {
-      recordReader = reader.rows();
+      recordReader = reader.rows( buildReadOptions( reader, dialogInputFields, predicates ).range( start, length ) );
     } catch ( IOException e ) {
       throw new IllegalArgumentException( "Unable to get record reader for file " + fileName, e );
     }
-    typeDescription = reader.getSchema();
     OrcSchemaConverter orcSchemaConverter = new OrcSchemaConverter();
     orcInputFields = orcSchemaConverter.buildInputFields( typeDescription );
     IOrcMetaData.Reader orcMetaDataReader = new OrcMetaDataReader( reader );
@@ -99,6 +125,8 @@ public class PentahoOrcRecordReader implements IPentahoInputFormat.IPentahoRecor
       }
     }
 
+    batchConverter = new OrcBatchConverter( dialogInputFields, schemaToOrcSubcripts, orcInputFields );
+
     try {
       setNextBatch();
     } catch ( IOException e ) {
@@ -106,8 +134,26 @@ public class PentahoOrcRecordReader implements IPentahoInputFormat.IPentahoRecor
     }
   }
 
+  /**
+   * Reader of the file, or of the first file of a directory, which is enough to read the schema.
+   */
   static Reader getReader( String fileName, Configuration conf ) {
+    return getReader( listFiles( fileName, conf ).get( 0 ), conf );
+  }
+
+  static Reader getReader( Path filePath, Configuration conf ) {
+    try {
+      return OrcFile.createReader( filePath,
+        OrcFile.readerOptions( conf ).filesystem( filePath.getFileSystem( conf ) ) );
+    } catch ( IOException e ) {
+      throw new IllegalArgumentException( "Unable to read data from file " + filePath, e );
+    }
+  }
 
+  /**
+   * The file itself, or all the orc files of a directory sorted by name.
+   */
+  static List<Path> listFiles( String fileName, Configuration conf ) {
     try {
       S3NCredentialUtils util = new S3NCredentialUtils();
       util.applyS3CredentialsToHadoopConfigurationIfNecessary( fileName, conf );
@@ -116,54 +162,123 @@ public class PentahoOrcRecordReader implements IPentahoInputFormat.IPentahoRecor
       if ( !fs.exists( filePath ) ) {
         throw new NoSuchFileException( fileName );
       }
-      if ( fs.getFileStatus( filePath ).isDirectory() ) {
-        PathFilter pathFilter = file -> file.getName().endsWith( ".orc" );
+      if ( !fs.getFileStatus( filePath ).isDirectory() ) {
+        return Collections.singletonList( fs.makeQualified( filePath ) );
+      }
+      PathFilter pathFilter = file -> file.getName().endsWith( ".orc" );
 
-        FileStatus[] fileStatuses = fs.listStatus( filePath, pathFilter );
-        if ( fileStatuses.length == 0 ) {
-          throw new NoSuchFileException( fileName );
+      List<Path> files = new ArrayList<>();
+      for ( FileStatus fileStatus : fs.listStatus( filePath, pathFilter ) ) {
+        if ( fileStatus.isFile() ) {
+          files.add( fileStatus.getPath() );
         }
-        filePath = fileStatuses[ 0 ].getPath();
       }
-      return OrcFile.createReader( filePath,
-        OrcFile.readerOptions( conf ).filesystem( fs ) );
+      if ( files.isEmpty() ) {
+        throw new NoSuchFileException( fileName );
+      }
+      Collections.sort( files );
+      return files;
     } catch ( IOException e ) {
       throw new IllegalArgumentException( "Unable to read data from file " + fileName, e );
     }
   }
 
 
+  /**
+   * Only the columns selected in the dialog, and the ones used by predicates, are read and decompressed. Predicates
+   * become a search argument so stripes and row groups which can't match are skipped.
+   */
+  static Reader.Options buildReadOptions( Reader reader, List<? extends IOrcInputField> dialogInputFields,
+                                          List<InputFieldPredicate> predicates ) {
+    TypeDescription schema = reader.getSchema();
+    boolean[] include = new boolean[ schema.getMaximumId() + 1 ];
+    include[ 0 ] = true;
+    for ( IOrcInputField inputField : dialogInputFields ) {
+      if ( inputField != null ) {
+        includeColumn( schema, inputField.getFormatFieldName(), include );
+      }
+    }
+    SearchArgument searchArgument = OrcSearchArgumentBuilder.build( predicates, schema );
+    if ( searchArgument == null ) {
+      return reader.options().include( include );
+    }
+    predicates.forEach( predicate -> includeColumn( schema, predicate.getField().getFormatFieldName(), include ) );
+    return reader.options().include( include )
+      .searchArgument( searchArgument, OrcSearchArgumentBuilder.columnNames( schema ) );
+  }
+
+  private static void includeColumn( TypeDescription schema, String fieldName, boolean[] include ) {
+    int index = schema.getFieldNames().indexOf( fieldName );
+    if ( index >= 0 ) {
+      TypeDescription column = schema.getChildren().get( index );
+      for ( int id = column.getId(); id <= column.getMaximumId(); id++ ) {
+        include[ id ] = true;
+      }
+    }
+  }
+
   private boolean setNextBatch() throws IOException {
     currentBatchRow = 0;
-    return recordReader.nextBatch( batch );
+    boolean hasRows = recordReader.nextBatch( batch );
+    block = batchConverter.convert( batch );
+    return hasRows;
+  }
+
+  private boolean hasNextRow() {
+    if ( currentBatchRow < block.length ) {
+      return true;
+    }
+    try {
+      return setNextBatch();
+    } catch ( IOException e ) {
+      logger.error( e.getMessage(), e );
+      return false;
+    }
   }
 
   @Override public void close() throws IOException {
     recordReader.close();
   }
 
+  /**
+   * Row meta shared by all rows returned by this reader.
+   */
+  public RowMetaInterface getRowMeta() {
+    return batchConverter.getRowMeta();
+  }
+
+  /**
+   * Iterates over the rows a batch at a time, with each batch converted column by column. The rows of all blocks share
+   * {@link #getRowMeta()}. Rows already returned by {@link #iterator()} aren't returned again.
+   */
+  public Iterator<Object[][]> blockIterator() {
+    return new Iterator<Object[][]>() {
+
+      @Override public boolean hasNext() {
+        return hasNextRow();
+      }
+
+      @Override public Object[][] next() {
+        if ( !hasNextRow() ) {
+          throw new NoSuchElementException();
+        }
+        Object[][] rows = currentBatchRow == 0 ? block : Arrays.copyOfRange( block, currentBatchRow, block.length );
+        currentBatchRow = block.length;
+        return rows;
+      }
+    };
+  }
+
 
   @Override public Iterator<RowMetaAndData> iterator() {
     return new Iterator<RowMetaAndData>() {
 
       @Override public boolean hasNext() {
-        if ( currentBatchRow < batch.size ) {
-          return true;
-        }
-        try {
-          return setNextBatch();
-        } catch ( IOException e ) {
-          logger.error( e.getMessage(), e );
-          return false;
-        }
+        return hasNextRow();
       }
 
       @Override public RowMetaAndData next() {
-        RowMetaAndData rowMeta =
-          orcConverter.convertFromOrc( batch, currentBatchRow, dialogInputFields, typeDescription, schemaToOrcSubcripts,
-            orcInputFields );
-        currentBatchRow++;
-        return rowMeta;
+        return new RowMetaAndData( batchConverter.getRowMeta(), block[ currentBatchRow++ ] );
       }
     };
   }
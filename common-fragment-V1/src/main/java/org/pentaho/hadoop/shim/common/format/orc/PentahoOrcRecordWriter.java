@@ -38,22 +38,11 @@ import org.apache.orc.Writer;
 import org.pentaho.di.core.RowMetaAndData;
 import org.apache.hadoop.conf.Configuration;
 import org.pentaho.di.core.exception.KettleValueException;
-import org.pentaho.di.core.plugins.IValueMetaConverter;
-import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.core.row.ValueMetaInterface;
 import org.pentaho.di.core.row.value.ValueMetaBase;
-import org.pentaho.di.core.row.value.ValueMetaBigNumber;
-import org.pentaho.di.core.row.value.ValueMetaBinary;
-import org.pentaho.di.core.row.value.ValueMetaBoolean;
-import org.pentaho.di.core.row.value.ValueMetaConversionException;
-import org.pentaho.di.core.row.value.ValueMetaConverter;
-import org.pentaho.di.core.row.value.ValueMetaDate;
-import org.pentaho.di.core.row.value.ValueMetaInteger;
-import org.pentaho.di.core.row.value.ValueMetaInternetAddress;
-import org.pentaho.di.core.row.value.ValueMetaNumber;
-import org.pentaho.di.core.row.value.ValueMetaString;
-import org.pentaho.di.core.row.value.ValueMetaTimestamp;
 import org.pentaho.hadoop.shim.api.format.IOrcOutputField;
+import org.pentaho.hadoop.shim.api.format.IPentahoOrcOutputFormat;
 import org.pentaho.hadoop.shim.api.format.IPentahoOutputFormat;
 import org.pentaho.hadoop.shim.common.format.S3NCredentialUtils;
 
@@ -61,16 +50,14 @@ import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.math.BigDecimal;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.sql.Timestamp;
-import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
-import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
+import java.time.ZoneId;
 import java.util.Date;
 import java.util.List;
 import java.util.TimeZone;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Created by tkafalas on 11/3/2017.
@@ -80,21 +67,23 @@ public class PentahoOrcRecordWriter implements IPentahoOutputFormat.IPentahoReco
   private VectorizedRowBatch batch;
   private int batchRowNumber;
   private Writer writer;
-  private final IValueMetaConverter valueMetaConverter = new ValueMetaConverter();
-  private final String dateFormatString = ValueMetaBase.DEFAULT_DATE_FORMAT_MASK; //TODO: Get this from UI
-  private SimpleDateFormat datePattern = new SimpleDateFormat( dateFormatString );
-  private RowMeta outputRowMeta = new RowMeta();
-  private RowMetaAndData outputRowMetaAndData;
   private static final Logger logger = Logger.getLogger( PentahoOrcRecordWriter.class );
   private List<? extends IOrcOutputField> fields;
+  private RowMetaInterface boundRowMeta;
+  private FieldBinding[] bindings;
 
   public PentahoOrcRecordWriter( List<? extends IOrcOutputField> fields, TypeDescription schema, String filePath,
                                  Configuration conf ) {
+    this( fields, schema, filePath, conf, IPentahoOrcOutputFormat.DEFAULT_BATCH_SIZE );
+  }
+
+  /**
+   * @param batchSize number of rows buffered in the row batch before it is handed to the ORC writer
+   */
+  public PentahoOrcRecordWriter( List<? extends IOrcOutputField> fields, TypeDescription schema, String filePath,
+                                 Configuration conf, int batchSize ) {
     this.fields = fields;
     this.schema = schema;
-    final AtomicInteger fieldNumber = new AtomicInteger();  //Mutable field count
-    fields.forEach( field -> setOutputMeta( fieldNumber, field ) );
-    outputRowMetaAndData = new RowMetaAndData( outputRowMeta, new Object[ fieldNumber.get() ] );
 
     try {
       S3NCredentialUtils util = new S3NCredentialUtils();
@@ -103,7 +92,7 @@ public class PentahoOrcRecordWriter implements IPentahoOutputFormat.IPentahoReco
       writer = OrcFile.createWriter( outputFile,
         OrcFile.writerOptions( conf )
           .setSchema( schema ) );
-      batch = schema.createRowBatch();
+      batch = schema.createRowBatch( batchSize );
     } catch ( IOException e ) {
       logger.error( e );
     }
@@ -112,29 +101,118 @@ public class PentahoOrcRecordWriter implements IPentahoOutputFormat.IPentahoReco
     // new OrcMetaDataWriter( writer ).write( fields );
   }
 
-  private void setOutputMeta( AtomicInteger fieldNumber, IOrcOutputField field ) {
-    outputRowMeta.addValueMeta( getValueMetaInterface( field.getPentahoFieldName(), field.getOrcType().getPdiType() ) );
-    fieldNumber.getAndIncrement();
+  /**
+   * Column, row index and typed default value of each output field, resolved once per row meta instead of once per
+   * value.
+   */
+  private static class FieldBinding {
+    private final IOrcOutputField field;
+    private final int column;
+    private final int rowIndex;
+    private final ValueMetaInterface valueMeta;
+    private final Object defaultValue;
+    private final ZoneId zoneId;
+
+    FieldBinding( IOrcOutputField field, int column, RowMetaInterface rowMeta ) {
+      this.field = field;
+      this.column = column;
+      this.rowIndex = rowMeta.indexOfValue( field.getPentahoFieldName() );
+      if ( rowIndex < 0 ) {
+        throw new IllegalArgumentException( "Field " + field.getPentahoFieldName() + " not found in the input row" );
+      }
+      this.valueMeta = rowMeta.getValueMeta( rowIndex );
+      TimeZone timeZone = valueMeta.getDateFormatTimeZone();
+      this.zoneId = timeZone == null ? ZoneId.systemDefault() : timeZone.toZoneId();
+      this.defaultValue = parseDefaultValue( field, valueMeta );
+    }
+
+    private static Object parseDefaultValue( IOrcOutputField field, ValueMetaInterface valueMeta ) {
+      String defaultValue = field.getDefaultValue();
+      switch ( field.getOrcType() ) {
+        case BOOLEAN:
+          return defaultValue != null ? Boolean.valueOf( defaultValue ) : Boolean.FALSE;
+        case TINYINT:
+        case SMALLINT:
+        case INTEGER:
+        case BIGINT:
+          return defaultValue != null ? Long.valueOf( defaultValue ) : 0L;
+        case BINARY:
+          return defaultValue != null ? defaultValue.getBytes() : new byte[ 0 ];
+        case FLOAT:
+        case DOUBLE:
+          return defaultValue != null ? Double.valueOf( defaultValue ) : 0d;
+        case DECIMAL:
+          return defaultValue != null ? new BigDecimal( defaultValue ) : BigDecimal.ZERO;
+        case CHAR:
+        case VARCHAR:
+        case STRING:
+          return defaultValue != null ? defaultValue : "";
+        case DATE:
+        case TIMESTAMP:
+          if ( defaultValue == null ) {
+            return new Date( 0 );
+          }
+          String conversionMask = valueMeta.getConversionMask();
+          if ( conversionMask == null ) {
+            conversionMask = ValueMetaBase.DEFAULT_DATE_PARSE_MASK;
+          }
+          try {
+            return new SimpleDateFormat( conversionMask ).parse( defaultValue );
+          } catch ( ParseException e ) {
+            logger.error( e );
+            return new Date( 0 );
+          }
+        default:
+          throw new RuntimeException(
+            "Field: " + field.getDefaultValue() + "  Undefined type: " + field.getOrcType().getName() );
+      }
+    }
+  }
+
+  private FieldBinding[] bind( RowMetaInterface rowMeta ) {
+    if ( rowMeta != boundRowMeta ) {
+      FieldBinding[] fieldBindings = new FieldBinding[ fields.size() ];
+      for ( int i = 0; i < fieldBindings.length; i++ ) {
+        fieldBindings[ i ] = new FieldBinding( fields.get( i ), i, rowMeta );
+      }
+      bindings = fieldBindings;
+      boundRowMeta = rowMeta;
+    }
+    return bindings;
   }
 
   @Override public void write( RowMetaAndData row ) throws Exception {
-    final AtomicInteger fieldNumber = new AtomicInteger();  //Mutable field count
-    batchRowNumber = batch.size++;
+    writeRow( bind( row.getRowMeta() ), row.getData() );
+  }
 
-    fields.forEach( field -> setFieldValue( fieldNumber, field, row ) );
-    if ( batch.size == batch.getMaxSize() - 1 ) {
+  @Override public void writeBatch( RowMetaInterface rowMeta, Object[][] rows ) throws Exception {
+    FieldBinding[] fieldBindings = bind( rowMeta );
+    for ( Object[] row : rows ) {
+      writeRow( fieldBindings, row );
+    }
+  }
+
+  private void writeRow( FieldBinding[] fieldBindings, Object[] data ) throws IOException {
+    batchRowNumber = batch.size++;
+    for ( FieldBinding binding : fieldBindings ) {
+      try {
+        setFieldValue( binding, data );
+      } catch ( KettleValueException e ) {
+        logger.error( e );
+      }
+    }
+    if ( batch.size == batch.getMaxSize() ) {
       writer.addRowBatch( batch );
       batch.reset();
     }
   }
 
-  private void setFieldValue( AtomicInteger fieldNumber, IOrcOutputField field,
-                              RowMetaAndData rowMetaAndData ) {
-    int fieldNo = fieldNumber.getAndIncrement();
-    ColumnVector columnVector = batch.cols[ fieldNo ];
-    int rowMetaIndex = rowMetaAndData.getRowMeta().indexOfValue( field.getPentahoFieldName() );
+  private void setFieldValue( FieldBinding binding, Object[] data ) throws KettleValueException {
+    IOrcOutputField field = binding.field;
+    ColumnVector columnVector = batch.cols[ binding.column ];
+    Object value = data[ binding.rowIndex ];
 
-    if ( rowMetaAndData.getData()[ rowMetaIndex ] == null ) {
+    if ( value == null ) {
       if ( field.getAllowNull() ) {
         columnVector.isNull[ batchRowNumber ] = true;
         columnVector.noNulls = false;
@@ -143,111 +221,54 @@ public class PentahoOrcRecordWriter implements IPentahoOutputFormat.IPentahoReco
     }
 
     columnVector.isNull[ batchRowNumber ] = false;
-    int inlineType = rowMetaAndData.getRowMeta().getValueMeta( rowMetaIndex ).getType();
-    Object inlineValue = rowMetaAndData.getData()[ rowMetaIndex ];
-    Object setValue = null;
-
-    try {
-      setValue = valueMetaConverter
-        .convertFromSourceToTargetDataType( inlineType, field.getOrcType().getPdiType(), inlineValue );
-    } catch ( ValueMetaConversionException e ) {
-      logger.error( e );
-    }
-    //Set the final converted value
-    outputRowMetaAndData.getData()[ rowMetaIndex ] = setValue;
+    ValueMetaInterface valueMeta = binding.valueMeta;
 
     switch ( field.getOrcType() ) {
       case BOOLEAN:
-        try {
-          ( (LongColumnVector) columnVector ).vector[ batchRowNumber ] =
-            rowMetaAndData.getBoolean( field.getPentahoFieldName(),
-              field.getDefaultValue() != null ? Boolean.valueOf( field.getDefaultValue() ) : false ) ? 1L : 0L;
-        } catch ( KettleValueException e ) {
-          logger.error( e );
-        }
+        Boolean booleanValue = valueMeta.getBoolean( value );
+        ( (LongColumnVector) columnVector ).vector[ batchRowNumber ] =
+          ( booleanValue != null ? booleanValue : (Boolean) binding.defaultValue ) ? 1L : 0L;
         break;
       case TINYINT:
       case SMALLINT:
       case INTEGER:
       case BIGINT:
-        try {
-          ( (LongColumnVector) columnVector ).vector[ batchRowNumber ] =
-            rowMetaAndData.getInteger( field.getPentahoFieldName(),
-              field.getDefaultValue() != null ? Long.valueOf( field.getDefaultValue() ) : 0 );
-        } catch ( KettleValueException e ) {
-          logger.error( e );
-        }
+        Long longValue = valueMeta.getInteger( value );
+        ( (LongColumnVector) columnVector ).vector[ batchRowNumber ] =
+          longValue != null ? longValue : (Long) binding.defaultValue;
         break;
       case BINARY:
-        try {
-          setBytesColumnVector( ( (BytesColumnVector) columnVector ),
-            rowMetaAndData.getBinary( field.getPentahoFieldName(),
-              field.getDefaultValue() != null ? field.getDefaultValue().getBytes() : new byte[ 0 ] ) );
-        } catch ( KettleValueException e ) {
-          logger.error( e );
-        }
+        byte[] binaryValue = valueMeta.getBinary( value );
+        setBytesColumnVector( ( (BytesColumnVector) columnVector ),
+          binaryValue != null ? binaryValue : (byte[]) binding.defaultValue );
         break;
       case FLOAT:
       case DOUBLE:
-        try {
-          double number = rowMetaAndData.getNumber( field.getPentahoFieldName(),
-            field.getDefaultValue() != null ? new Double( field.getDefaultValue() ) : new Double( 0 ) );
-          number = applyScale( number, field );
-          ( (DoubleColumnVector) columnVector ).vector[ batchRowNumber ] = number;
-        } catch ( KettleValueException e ) {
-          logger.error( e );
-        }
+        Double numberValue = valueMeta.getNumber( value );
+        ( (DoubleColumnVector) columnVector ).vector[ batchRowNumber ] =
+          applyScale( numberValue != null ? numberValue : (Double) binding.defaultValue, field );
         break;
       case DECIMAL:
-        try {
-          ( (DecimalColumnVector) columnVector ).vector[ batchRowNumber ] = new HiveDecimalWritable( HiveDecimal.create(
-            rowMetaAndData.getBigNumber( field.getPentahoFieldName(),
-              field.getDefaultValue() != null ? new BigDecimal( field.getDefaultValue() ) : new BigDecimal( 0 ) ) ) );
-        } catch ( KettleValueException e ) {
-          logger.error( e );
-        }
+        BigDecimal bigNumberValue = valueMeta.getBigNumber( value );
+        ( (DecimalColumnVector) columnVector ).vector[ batchRowNumber ] = new HiveDecimalWritable( HiveDecimal.create(
+          bigNumberValue != null ? bigNumberValue : (BigDecimal) binding.defaultValue ) );
         break;
       case CHAR:
       case VARCHAR:
       case STRING:
-        try {
-          setBytesColumnVector( ( (BytesColumnVector) columnVector ),
-            rowMetaAndData.getString( field.getPentahoFieldName(),
-              field.getDefaultValue() != null ? field.getDefaultValue() : "" ) );
-        } catch ( KettleValueException e ) {
-          logger.error( e );
-        }
+        String stringValue = valueMeta.getString( value );
+        setBytesColumnVector( ( (BytesColumnVector) columnVector ),
+          stringValue != null ? stringValue : (String) binding.defaultValue );
         break;
       case DATE:
-        try {
-          String conversionMask = rowMetaAndData.getValueMeta( rowMetaIndex ).getConversionMask();
-          if ( conversionMask == null ) {
-            conversionMask = ValueMetaBase.DEFAULT_DATE_PARSE_MASK;
-          }
-          DateFormat dateFormat = new SimpleDateFormat( conversionMask );
-          Date defaultDate =
-            field.getDefaultValue() != null ? dateFormat.parse( field.getDefaultValue() ) : new Date( 0 );
-          Date date = rowMetaAndData.getDate( field.getPentahoFieldName(), defaultDate );
-          ( (LongColumnVector) columnVector ).vector[ batchRowNumber ] =
-            getOrcDate( date, rowMetaAndData.getValueMeta( rowMetaIndex ).getDateFormatTimeZone() );
-        } catch ( KettleValueException | ParseException e ) {
-          logger.error( e );
-        }
+        Date date = valueMeta.getDate( value );
+        ( (LongColumnVector) columnVector ).vector[ batchRowNumber ] =
+          getOrcDate( date != null ? date : (Date) binding.defaultValue, binding.zoneId );
         break;
       case TIMESTAMP:
-        try {
-          String conversionMask = rowMetaAndData.getValueMeta( rowMetaIndex ).getConversionMask();
-          if ( conversionMask == null ) {
-            conversionMask = ValueMetaBase.DEFAULT_DATE_PARSE_MASK;
-          }
-          DateFormat dateFormat = new SimpleDateFormat( conversionMask );
-          ( (TimestampColumnVector) columnVector ).set( batchRowNumber,
-            new Timestamp( rowMetaAndData.getDate( field.getPentahoFieldName(),
-              field.getDefaultValue() != null ? ( dateFormat.parse( field.getDefaultValue() ) ) : new Date( 0 ) )
-              .getTime() ) );
-        } catch ( KettleValueException | ParseException e ) {
-          logger.error( e );
-        }
+        Date timestamp = valueMeta.getDate( value );
+        ( (TimestampColumnVector) columnVector ).set( batchRowNumber,
+          new Timestamp( ( timestamp != null ? timestamp : (Date) binding.defaultValue ).getTime() ) );
         break;
       default:
         throw new RuntimeException(
@@ -265,20 +286,12 @@ public class PentahoOrcRecordWriter implements IPentahoOutputFormat.IPentahoReco
   }
 
 
-  private int getOrcDate( Date date, TimeZone timeZone ) {
-    if ( timeZone == null ) {
-      timeZone = TimeZone.getDefault();
-    }
-    LocalDate rowDate = date.toInstant().atZone( timeZone.toZoneId() ).toLocalDate();
-    return Math.toIntExact( ChronoUnit.DAYS.between( LocalDate.ofEpochDay( 0 ), rowDate ) );
+  private long getOrcDate( Date date, ZoneId zoneId ) {
+    return date.toInstant().atZone( zoneId ).toLocalDate().toEpochDay();
   }
 
   private void setBytesColumnVector( BytesColumnVector bytesColumnVector, String value ) {
-    if ( value == null ) {
-      setBytesColumnVector( bytesColumnVector, new byte[ 0 ] );
-    } else {
-      setBytesColumnVector( bytesColumnVector, value.getBytes() );
-    }
+    setBytesColumnVector( bytesColumnVector, value.getBytes( StandardCharsets.UTF_8 ) );
   }
 
   private void setBytesColumnVector( BytesColumnVector bytesColumnVector, byte[] value ) {
@@ -305,28 +318,4 @@ public class PentahoOrcRecordWriter implements IPentahoOutputFormat.IPentahoReco
   private ByteBuffer toByteBuffer( boolean b ) throws UnsupportedEncodingException {
     return ByteBuffer.wrap( String.valueOf( b ).getBytes( "UTF-8" ) );
   }
-
-  private ValueMetaInterface getValueMetaInterface( String fieldName, int fieldType ) {
-    switch ( fieldType ) {
-      case ValueMetaInterface.TYPE_INET:
-        return new ValueMetaInternetAddress( fieldName );
-      case ValueMetaInterface.TYPE_STRING:
-        return new ValueMetaString( fieldName );
-      case ValueMetaInterface.TYPE_INTEGER:
-        return new ValueMetaInteger( fieldName );
-      case ValueMetaInterface.TYPE_NUMBER:
-        return new ValueMetaNumber( fieldName );
-      case ValueMetaInterface.TYPE_BIGNUMBER:
-        return new ValueMetaBigNumber( fieldName );
-      case ValueMetaInterface.TYPE_TIMESTAMP:
-        return new ValueMetaTimestamp( fieldName );
-      case ValueMetaInterface.TYPE_DATE:
-        return new ValueMetaDate( fieldName );
-      case ValueMetaInterface.TYPE_BOOLEAN:
-        return new ValueMetaBoolean( fieldName );
-      case ValueMetaInterface.TYPE_BINARY:
-        return new ValueMetaBinary( fieldName );
-    }
-    return null;
-  }
 }
@@ -0,0 +1,69 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+package org.pentaho.hadoop.shim.common.format.parquet;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Decides from a file footer whether a Parquet file can be split between readers.
+ * <p>
+ * parquet-mr before 1.8.0 wrote DELTA_BYTE_ARRAY pages which can only be decoded by reading the file sequentially
+ * (PARQUET-246). This mirrors CorruptDeltaByteArrays.requiresSequentialReads(), which isn't available in every
+ * Parquet version the shims are built against.
+ */
+public class ParquetSplitValidator {
+  private static final Pattern PARQUET_MR_VERSION =
+    Pattern.compile( "^parquet-mr(?: version)? (\\d+)\\.(\\d+)\\.(\\d+).*" );
+  private static final String PARQUET_MR = "parquet-mr";
+  private static final int FIXED_MAJOR = 1;
+  private static final int FIXED_MINOR = 8;
+
+  private ParquetSplitValidator() {
+    // static methods only
+  }
+
+  /**
+   * @param createdBy          the footer's created_by value
+   * @param usesDeltaByteArray whether any column chunk in the file uses DELTA_BYTE_ARRAY encoding
+   */
+  public static boolean requiresSequentialReads( String createdBy, boolean usesDeltaByteArray ) {
+    if ( !usesDeltaByteArray ) {
+      return false;
+    }
+    if ( createdBy == null || createdBy.trim().isEmpty() ) {
+      // unknown writer, assume the worst
+      return true;
+    }
+    String writer = createdBy.trim();
+    if ( !writer.startsWith( PARQUET_MR ) ) {
+      return false;
+    }
+    Matcher matcher = PARQUET_MR_VERSION.matcher( writer );
+    if ( !matcher.matches() ) {
+      return true;
+    }
+    int major = Integer.parseInt( matcher.group( 1 ) );
+    int minor = Integer.parseInt( matcher.group( 2 ) );
+    return major < FIXED_MAJOR || ( major == FIXED_MAJOR && minor < FIXED_MINOR );
+  }
+}
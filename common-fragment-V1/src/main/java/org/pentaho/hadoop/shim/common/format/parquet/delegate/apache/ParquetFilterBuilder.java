@@ -0,0 +1,216 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+package org.pentaho.hadoop.shim.common.format.parquet.delegate.apache;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.mapreduce.lib.input.FileSplit;
+import org.apache.log4j.Logger;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.compat.RowGroupFilter;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.Operators;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.io.api.Binary;
+import org.pentaho.hadoop.shim.api.format.IParquetInputField;
+import org.pentaho.hadoop.shim.api.format.InputFieldPredicate;
+import org.pentaho.hadoop.shim.api.format.ParquetSpec;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Translates {@link InputFieldPredicate}s into Parquet filter2 predicates, so row groups are pruned by their
+ * statistics (and dictionaries, where the Parquet version supports it) and rows are filtered by the record reader.
+ */
+public class ParquetFilterBuilder {
+  private static final Logger logger = Logger.getLogger( ParquetFilterBuilder.class );
+
+  /**
+   * Dictionary filtering isn't available in every Parquet version, so it's switched on by key rather than through a
+   * constant which may not exist.
+   */
+  static final String STATS_FILTERING_ENABLED = "parquet.filter.statistics.enabled";
+  static final String DICTIONARY_FILTERING_ENABLED = "parquet.filter.dictionary.enabled";
+
+  private ParquetFilterBuilder() {
+    // static methods only
+  }
+
+  /**
+   * Combines all supported predicates with AND, or returns null when none of them can be pushed down.
+   */
+  public static FilterPredicate build( List<InputFieldPredicate> predicates ) {
+    FilterPredicate result = null;
+    if ( predicates == null ) {
+      return null;
+    }
+    for ( InputFieldPredicate predicate : predicates ) {
+      FilterPredicate converted = convert( predicate );
+      if ( converted == null ) {
+        logger.warn( "Predicate can't be pushed down to parquet reader: " + predicate );
+        continue;
+      }
+      result = result == null ? converted : FilterApi.and( result, converted );
+    }
+    return result;
+  }
+
+  static FilterPredicate convert( InputFieldPredicate predicate ) {
+    if ( !( predicate.getField() instanceof IParquetInputField ) ) {
+      return null;
+    }
+    IParquetInputField field = (IParquetInputField) predicate.getField();
+    String column = field.getFormatFieldName();
+    ParquetSpec.DataType type = field.getParquetType();
+    if ( type == null ) {
+      return null;
+    }
+    switch ( type ) {
+      case INT_8:
+      case INT_16:
+      case INT_32:
+      case UINT_8:
+      case UINT_16:
+      case TIME_MILLIS:
+        return compare( FilterApi.intColumn( column ), predicate, v -> ( (Number) v ).intValue() );
+      case DATE:
+        return compare( FilterApi.intColumn( column ), predicate, ParquetFilterBuilder::toEpochDay );
+      case UINT_32:
+      case UINT_64:
+        // stored with the sign bit set above the signed maximum, while filters compare signed values row by row
+        return null;
+      case INT_64:
+        return compare( FilterApi.longColumn( column ), predicate, v -> ( (Number) v ).longValue() );
+      case TIMESTAMP_MILLIS:
+        return compare( FilterApi.longColumn( column ), predicate, ParquetFilterBuilder::toEpochMillis );
+      case DOUBLE:
+        return compare( FilterApi.doubleColumn( column ), predicate, v -> ( (Number) v ).doubleValue() );
+      case FLOAT:
+        return compare( FilterApi.floatColumn( column ), predicate, v -> ( (Number) v ).floatValue() );
+      case BOOLEAN:
+        return equality( FilterApi.booleanColumn( column ), predicate, v -> (Boolean) v );
+      case UTF8:
+      case ENUM:
+        return compare( FilterApi.binaryColumn( column ), predicate, v -> Binary.fromString( v.toString() ) );
+      default:
+        return null;
+    }
+  }
+
+  private static <T extends Comparable<T>, C extends Operators.Column<T> & Operators.SupportsLtGt> FilterPredicate
+    compare( C column, InputFieldPredicate predicate, Function<Object, T> toValue ) {
+    T value;
+    switch ( predicate.getOperator() ) {
+      case LT:
+        value = valueOf( predicate.getValue(), toValue );
+        return value == null ? null : FilterApi.lt( column, value );
+      case LE:
+        value = valueOf( predicate.getValue(), toValue );
+        return value == null ? null : FilterApi.ltEq( column, value );
+      case GT:
+        value = valueOf( predicate.getValue(), toValue );
+        return value == null ? null : FilterApi.gt( column, value );
+      case GE:
+        value = valueOf( predicate.getValue(), toValue );
+        return value == null ? null : FilterApi.gtEq( column, value );
+      default:
+        return equality( column, predicate, toValue );
+    }
+  }
+
+  private static <T extends Comparable<T>, C extends Operators.Column<T> & Operators.SupportsEqNotEq> FilterPredicate
+    equality( C column, InputFieldPredicate predicate, Function<Object, T> toValue ) {
+    switch ( predicate.getOperator() ) {
+      case EQ:
+        return FilterApi.eq( column, valueOf( predicate.getValue(), toValue ) );
+      case NE:
+        return FilterApi.notEq( column, valueOf( predicate.getValue(), toValue ) );
+      case IS_NULL:
+        return FilterApi.eq( column, (T) null );
+      case IS_NOT_NULL:
+        return FilterApi.notEq( column, (T) null );
+      case IN:
+        FilterPredicate result = null;
+        for ( Object v : predicate.getValues() ) {
+          FilterPredicate eq = FilterApi.eq( column, valueOf( v, toValue ) );
+          result = result == null ? eq : FilterApi.or( result, eq );
+        }
+        return result;
+      default:
+        return null;
+    }
+  }
+
+  private static <T> T valueOf( Object value, Function<Object, T> toValue ) {
+    return value == null ? null : toValue.apply( value );
+  }
+
+  private static Integer toEpochDay( Object value ) {
+    if ( value instanceof Date ) {
+      return (int) Instant.ofEpochMilli( ( (Date) value ).getTime() ).atZone( ZoneId.systemDefault() ).toLocalDate()
+        .toEpochDay();
+    }
+    return ( (Number) value ).intValue();
+  }
+
+  private static Long toEpochMillis( Object value ) {
+    if ( value instanceof Date ) {
+      return ( (Date) value ).getTime();
+    }
+    return ( (Number) value ).longValue();
+  }
+
+  /**
+   * Counts the row groups of the split which the filter drops. Like Parquet's own split assignment, a row group belongs
+   * to the split holding its midpoint, so the count matches the row groups the split's reader filters. Returns 0 when
+   * no filter is set.
+   */
+  public static long countSkippedRowGroups( Configuration conf, FileSplit split, FilterCompat.Filter filter )
+    throws IOException {
+    if ( !( filter instanceof FilterCompat.FilterPredicateCompat ) ) {
+      return 0;
+    }
+    ParquetMetadata footer =
+      ParquetFileReader.readFooter( conf, split.getPath(), ParquetMetadataConverter.NO_FILTER );
+    long start = split.getStart();
+    long end = start + split.getLength();
+    List<BlockMetaData> blocks = new ArrayList<>();
+    for ( BlockMetaData block : footer.getBlocks() ) {
+      long mid = block.getStartingPos() + block.getCompressedSize() / 2;
+      if ( mid >= start && mid < end ) {
+        blocks.add( block );
+      }
+    }
+    List<BlockMetaData> kept =
+      RowGroupFilter.filterRowGroups( filter, blocks, footer.getFileMetaData().getSchema() );
+    return (long) blocks.size() - kept.size();
+  }
+}
@@ -28,12 +28,20 @@ import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.mapreduce.InputSplit;
 import org.apache.hadoop.mapreduce.Job;
 import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.input.FileSplit;
 import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
+import org.apache.parquet.column.Encoding;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
 import org.apache.parquet.hadoop.Footer;
 import org.apache.parquet.hadoop.ParquetFileReader;
 import org.apache.parquet.hadoop.ParquetInputFormat;
+import org.apache.parquet.hadoop.ParquetInputSplit;
 import org.apache.parquet.hadoop.ParquetRecordReader;
 import org.apache.parquet.hadoop.api.ReadSupport;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
 import org.apache.parquet.hadoop.metadata.ParquetMetadata;
 import org.apache.parquet.schema.MessageType;
 import org.pentaho.di.core.RowMetaAndData;
@@ -43,17 +51,22 @@ import org.pentaho.hadoop.shim.ShimConfigsLoader;
 import org.pentaho.hadoop.shim.api.cluster.NamedCluster;
 import org.pentaho.hadoop.shim.api.format.IParquetInputField;
 import org.pentaho.hadoop.shim.api.format.IPentahoParquetInputFormat;
+import org.pentaho.hadoop.shim.api.format.InputFieldPredicate;
 import org.pentaho.hadoop.shim.common.ConfigurationProxy;
 import org.pentaho.hadoop.shim.common.format.HadoopFormatBase;
+import org.pentaho.hadoop.shim.common.format.ParallelSplitReader;
 import org.pentaho.hadoop.shim.common.format.ReadFileFilter;
 import org.pentaho.hadoop.shim.common.format.ReadFilesFilter;
 import org.pentaho.hadoop.shim.common.format.S3NCredentialUtils;
 import org.pentaho.hadoop.shim.common.format.parquet.ParquetInputFieldList;
+import org.pentaho.hadoop.shim.common.format.parquet.ParquetSplitValidator;
 import org.pentaho.hadoop.shim.common.format.parquet.PentahoInputSplitImpl;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.NoSuchFileException;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
@@ -70,6 +83,8 @@ public class PentahoApacheInputFormat extends HadoopFormatBase implements IPenta
 
   private ParquetInputFormat<RowMetaAndData> nativeParquetInputFormat;
   private Job job;
+  private boolean splitFiles;
+  private long splitSize;
 
   public PentahoApacheInputFormat( NamedCluster namedCluster ) {
     logger.logBasic( "We are initializing parquet input format" );
@@ -156,6 +171,7 @@ public class PentahoApacheInputFormat extends HadoopFormatBase implements IPenta
 
   @Override @SuppressWarnings( "squid:CommentedOutCodeLine" ) public void setSplitSize( long blockSize )
       throws Exception {
+    splitSize = blockSize;
     inClassloader( () ->
         /**
          * TODO Files splitting is temporary disabled. We need some UI checkbox for allow it, because some parquet files
@@ -169,13 +185,80 @@ public class PentahoApacheInputFormat extends HadoopFormatBase implements IPenta
         job.getConfiguration().setBoolean( ParquetInputFormat.SPLIT_FILES, false ) );
   }
 
+  @Override public void setFilter( List<InputFieldPredicate> predicates ) throws Exception {
+    inClassloader( () -> {
+      Configuration conf = job.getConfiguration();
+      FilterPredicate filterPredicate = ParquetFilterBuilder.build( predicates );
+      if ( filterPredicate == null ) {
+        conf.unset( ParquetInputFormat.FILTER_PREDICATE );
+      } else {
+        ParquetInputFormat.setFilterPredicate( conf, filterPredicate );
+        conf.setBoolean( ParquetFilterBuilder.STATS_FILTERING_ENABLED, true );
+        conf.setBoolean( ParquetFilterBuilder.DICTIONARY_FILTERING_ENABLED, true );
+      }
+    } );
+  }
+
+  @Override public void setSplitFiles( boolean splitFiles ) {
+    this.splitFiles = splitFiles;
+  }
+
   @Override public List<IPentahoInputSplit> getSplits() {
     return inClassloader( () -> {
-      List<InputSplit> splits = nativeParquetInputFormat.getSplits( job );
+      List<? extends InputSplit> splits = splitFiles ? getValidatedSplits() : nativeParquetInputFormat.getSplits( job );
       return splits.stream().map( PentahoInputSplitImpl::new ).collect( Collectors.toList() );
     } );
   }
 
+  /**
+   * Splits the files whose footers allow it by the split size, and keeps one split for each of the others.
+   */
+  private List<ParquetInputSplit> getValidatedSplits() throws IOException {
+    List<Footer> splittable = new ArrayList<>();
+    List<Footer> sequential = new ArrayList<>();
+    for ( Footer footer : nativeParquetInputFormat.getFooters( job ) ) {
+      if ( requiresSequentialReads( footer.getParquetMetadata() ) ) {
+        logger.logBasic( "Parquet file " + footer.getFile() + " can't be split safely, it will be read sequentially" );
+        sequential.add( footer );
+      } else {
+        splittable.add( footer );
+      }
+    }
+
+    List<ParquetInputSplit> splits = new ArrayList<>();
+    if ( !splittable.isEmpty() ) {
+      Configuration conf = new Configuration( job.getConfiguration() );
+      if ( splitSize > 0 ) {
+        conf.setLong( FileInputFormat.SPLIT_MAXSIZE, splitSize );
+      }
+      splits.addAll( nativeParquetInputFormat.getSplits( conf, splittable ) );
+    }
+    if ( !sequential.isEmpty() ) {
+      Configuration conf = new Configuration( job.getConfiguration() );
+      conf.setLong( FileInputFormat.SPLIT_MAXSIZE, Long.MAX_VALUE );
+      conf.setLong( FileInputFormat.SPLIT_MINSIZE, Long.MAX_VALUE );
+      splits.addAll( nativeParquetInputFormat.getSplits( conf, sequential ) );
+    }
+    splits.sort( Comparator.comparing( ( ParquetInputSplit split ) -> split.getPath().toString() )
+      .thenComparingLong( ParquetInputSplit::getStart ) );
+    return splits;
+  }
+
+  private static boolean requiresSequentialReads( ParquetMetadata metadata ) {
+    boolean usesDeltaByteArray = false;
+    for ( BlockMetaData block : metadata.getBlocks() ) {
+      for ( ColumnChunkMetaData column : block.getColumns() ) {
+        usesDeltaByteArray |= column.getEncodings().contains( Encoding.DELTA_BYTE_ARRAY );
+      }
+    }
+    return ParquetSplitValidator
+      .requiresSequentialReads( metadata.getFileMetaData().getCreatedBy(), usesDeltaByteArray );
+  }
+
+  @Override public IPentahoRecordReader createParallelRecordReader( int threads, boolean ordered ) {
+    return new ParallelSplitReader( this, getSplits(), threads, ordered );
+  }
+
   // for parquet not actual to point split
   @Override public IPentahoRecordReader createRecordReader( IPentahoInputSplit split ) throws Exception {
     return inClassloader( () -> {
@@ -184,13 +267,18 @@ public class PentahoApacheInputFormat extends HadoopFormatBase implements IPenta
 
       ReadSupport<RowMetaAndData> readSupport = new PentahoParquetReadSupport();
 
+      FilterCompat.Filter filter = ParquetInputFormat.getFilter( job.getConfiguration() );
       ParquetRecordReader<RowMetaAndData>
           nativeRecordReader =
-          new ParquetRecordReader<>( readSupport, ParquetInputFormat.getFilter( job.getConfiguration() ) );
+          new ParquetRecordReader<>( readSupport, filter );
       TaskAttemptContextImpl task = new TaskAttemptContextImpl( job.getConfiguration(), new TaskAttemptID() );
       nativeRecordReader.initialize( inputSplit, task );
 
-      return new PentahoParquetRecordReader( nativeRecordReader );
+      if ( !( inputSplit instanceof FileSplit ) ) {
+        return new PentahoParquetRecordReader( nativeRecordReader );
+      }
+      return new PentahoParquetRecordReader( nativeRecordReader, () -> inClassloader(
+        () -> ParquetFilterBuilder.countSkippedRowGroups( job.getConfiguration(), (FileSplit) inputSplit, filter ) ) );
     } );
   }
 
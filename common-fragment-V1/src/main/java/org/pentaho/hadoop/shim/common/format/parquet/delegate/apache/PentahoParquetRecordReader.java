@@ -23,20 +23,41 @@ package org.pentaho.hadoop.shim.common.format.parquet.delegate.apache;
 
 import java.io.IOException;
 import java.util.Iterator;
+import java.util.function.LongSupplier;
 
 import org.apache.parquet.hadoop.ParquetRecordReader;
 import org.pentaho.di.core.RowMetaAndData;
-import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoRecordReader;
+import org.pentaho.hadoop.shim.api.format.IPentahoParquetInputFormat.IPentahoParquetRecordReader;
 
 /**
  * Created by Vasilina_Terehova on 7/29/2017.
  */
-public class PentahoParquetRecordReader implements IPentahoRecordReader {
+public class PentahoParquetRecordReader implements IPentahoParquetRecordReader {
 
   private final ParquetRecordReader<RowMetaAndData> nativeParquetRecordReader;
+  private final LongSupplier skippedRowGroupsCounter;
+  private long skippedRowGroups = -1;
 
   public PentahoParquetRecordReader( ParquetRecordReader<RowMetaAndData> parquetReader ) {
+    this( parquetReader, () -> 0L );
+  }
+
+  /**
+   * @param skippedRowGroupsCounter counts the row groups skipped by the filter, called the first time the count is
+   *                                asked for since it has to read the footer again
+   */
+  public PentahoParquetRecordReader( ParquetRecordReader<RowMetaAndData> parquetReader,
+                                     LongSupplier skippedRowGroupsCounter ) {
     this.nativeParquetRecordReader = parquetReader;
+    this.skippedRowGroupsCounter = skippedRowGroupsCounter;
+  }
+
+  @Override
+  public long getSkippedRowGroups() {
+    if ( skippedRowGroups < 0 ) {
+      skippedRowGroups = skippedRowGroupsCounter.getAsLong();
+    }
+    return skippedRowGroups;
   }
 
   @Override
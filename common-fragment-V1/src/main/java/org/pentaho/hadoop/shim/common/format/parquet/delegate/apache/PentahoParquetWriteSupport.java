@@ -29,12 +29,8 @@ import java.nio.ByteOrder;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.time.Instant;
 import java.time.ZoneId;
-import java.time.ZonedDateTime;
-import java.time.temporal.ChronoUnit;
-import java.time.temporal.JulianFields;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
@@ -61,7 +57,10 @@ import org.pentaho.hadoop.shim.api.format.ParquetSpec;
 public class PentahoParquetWriteSupport extends WriteSupport<RowMetaAndData> {
   private RecordConsumer consumer;
   private List<? extends IParquetOutputField> outputFields;
-  byte[] timestampBuffer = new byte[ 12 ];
+  private static final long MILLIS_PER_DAY = 24L * 60L * 60L * 1000L;
+  private final ByteBuffer timestampBuffer = ByteBuffer.allocate( 12 ).order( ByteOrder.LITTLE_ENDIAN );
+  private RowMetaInterface boundRowMeta;
+  private FieldBinding[] bindings;
 
   public PentahoParquetWriteSupport( List<? extends IParquetOutputField> outputFields ) {
     this.outputFields = outputFields;
@@ -100,16 +99,47 @@ public class PentahoParquetWriteSupport extends WriteSupport<RowMetaAndData> {
     return new MessageType( "parquet-schema", types );
   }
 
+  /**
+   * Output field resolved against the row meta of incoming rows, so the per row path does no name lookups.
+   */
+  private static class FieldBinding {
+    private final IParquetOutputField field;
+    private final int index;
+    private final int rowIndex;
+    private final ValueMetaInterface valueMeta;
+    private final ZoneId zoneId;
+
+    FieldBinding( IParquetOutputField field, int index, RowMetaInterface rowMeta ) {
+      this.field = field;
+      this.index = index;
+      this.rowIndex = rowMeta.indexOfValue( field.getPentahoFieldName() );
+      this.valueMeta = rowIndex < 0 ? null : rowMeta.getValueMeta( rowIndex );
+      TimeZone timeZone = valueMeta == null ? null : valueMeta.getDateFormatTimeZone();
+      this.zoneId = timeZone == null ? TimeZone.getDefault().toZoneId() : timeZone.toZoneId();
+    }
+  }
+
+  private FieldBinding[] bind( RowMetaInterface rowMeta ) {
+    if ( rowMeta != boundRowMeta ) {
+      List<FieldBinding> fieldBindings = new ArrayList<>();
+      int index = 0;
+      for ( IParquetOutputField f : outputFields ) {
+        if ( f.getFormatFieldName() != null ) {
+          fieldBindings.add( new FieldBinding( f, index++, rowMeta ) );
+        }
+      }
+      bindings = fieldBindings.toArray( new FieldBinding[ 0 ] );
+      boundRowMeta = rowMeta;
+    }
+    return bindings;
+  }
+
   public void writeRow( RowMetaAndData row, RecordConsumer consumer ) {
+    FieldBinding[] fieldBindings = bind( row.getRowMeta() );
     consumer.startMessage();
-    int index = 0;
-    for ( IParquetOutputField f : outputFields ) {
-      if ( f.getFormatFieldName() == null ) {
-        continue;
-      }
+    for ( FieldBinding binding : fieldBindings ) {
       try {
-        writeField( f, index, row, consumer );
-        index++;
+        writeField( binding, row, consumer );
       } catch ( KettleValueException ex ) {
         throw new RuntimeException( ex );
       }
@@ -117,16 +147,15 @@ public class PentahoParquetWriteSupport extends WriteSupport<RowMetaAndData> {
     consumer.endMessage();
   }
 
-  private void writeField( IParquetOutputField field, int index, RowMetaAndData row, RecordConsumer consumer )
+  private void writeField( FieldBinding binding, RowMetaAndData row, RecordConsumer consumer )
     throws KettleValueException {
-    RowMetaInterface rmi = row.getRowMeta();
-    int fieldIndex = row.getRowMeta().indexOfValue( field.getPentahoFieldName() );
-    ValueMetaInterface vmi = rmi.getValueMeta( fieldIndex );
+    IParquetOutputField field = binding.field;
+    int index = binding.index;
+    int fieldIndex = binding.rowIndex;
+    ValueMetaInterface vmi = binding.valueMeta;
     String conversionMask = null;
     String defaultValue = null;
     DateFormat dateFormat = null;
-    TimeZone timeZone = null;
-    LocalDate localDate = null;
 
     if ( fieldIndex < 0 ) {
       if ( field.getAllowNull() ) {
@@ -135,7 +164,7 @@ public class PentahoParquetWriteSupport extends WriteSupport<RowMetaAndData> {
         throw new KettleValueException( "Required field '" + field.getPentahoFieldName() + "' not found in rowset" );
       }
     }
-    if ( row.isEmptyValue( field.getPentahoFieldName() ) ) {
+    if ( isEmptyValue( vmi, row.getData()[ fieldIndex ] ) ) {
       if ( field.getAllowNull() ) {
         return;
       } else {
@@ -178,26 +207,7 @@ public class PentahoParquetWriteSupport extends WriteSupport<RowMetaAndData> {
               } catch ( ParseException pe ) {
                 date = new Date( 0 );
               }
-
-              timeZone = vmi.getDateFormatTimeZone();
-              if ( timeZone == null ) {
-                timeZone = TimeZone.getDefault();
-              }
-
-              localDate = date.toInstant().atZone( timeZone.toZoneId() ).toLocalDate();
-              long julianDay = JulianFields.JULIAN_DAY.getFrom( localDate );
-
-              LocalDateTime ldt = LocalDateTime.ofInstant( date.toInstant(), timeZone.toZoneId() );
-              ZonedDateTime zdt = ldt.atZone( timeZone.toZoneId() );
-              ZonedDateTime utc = zdt.withZoneSameInstant( ZoneId.of( "UTC" ) );
-
-              long timeOfDayNanos =
-                utc.toInstant().toEpochMilli() * 1000000L - ( ( julianDay - ParquetSpec.JULIAN_DAY_OF_EPOCH ) * 24L
-                  * 60L * 60L * 1000L * 1000000L );
-              ByteBuffer buf = ByteBuffer.wrap( timestampBuffer );
-
-              buf.order( ByteOrder.LITTLE_ENDIAN ).putLong( timeOfDayNanos ).putInt( (int) julianDay );
-              consumer.addBinary( Binary.fromReusedByteArray( timestampBuffer ) );
+              addInt96( date, binding.zoneId, consumer );
               break;
             case DECIMAL:
               bigDecimal = new BigDecimal( field.getDefaultValue() );
@@ -234,13 +244,7 @@ public class PentahoParquetWriteSupport extends WriteSupport<RowMetaAndData> {
               } catch ( ParseException pe ) {
                 // Do nothing
               }
-              timeZone = vmi.getDateFormatTimeZone();
-              if ( timeZone == null ) {
-                timeZone = TimeZone.getDefault();
-              }
-              localDate = defaultDate.toInstant().atZone( timeZone.toZoneId() ).toLocalDate();
-              Integer dateInDays = Math.toIntExact( ChronoUnit.DAYS.between( LocalDate.ofEpochDay( 0 ), localDate ) );
-              consumer.addInteger( dateInDays );
+              consumer.addInteger( Math.toIntExact( epochDay( defaultDate.getTime(), binding.zoneId ) ) );
               break;
             default:
               throw new RuntimeException( "Undefined type: " + field.getPentahoType() );
@@ -269,8 +273,7 @@ public class PentahoParquetWriteSupport extends WriteSupport<RowMetaAndData> {
         consumer.addBoolean( row.getBoolean( fieldIndex, false ) );
         break;
       case INT_32:
-        Long tmpLong = row.getInteger( fieldIndex, 0 );
-        consumer.addInteger( tmpLong.intValue() );
+        consumer.addInteger( (int) row.getInteger( fieldIndex, 0 ) );
         break;
       case TIMESTAMP_MILLIS:
         Date timeStamp = row.getDate( fieldIndex, null );
@@ -280,25 +283,7 @@ public class PentahoParquetWriteSupport extends WriteSupport<RowMetaAndData> {
         consumer.addLong( row.getInteger( fieldIndex, 0 ) );
         break;
       case INT_96:
-        Date date = row.getDate( fieldIndex, null );
-        timeZone = vmi.getDateFormatTimeZone();
-        if ( timeZone == null ) {
-          timeZone = TimeZone.getDefault();
-        }
-
-        localDate = date.toInstant().atZone( timeZone.toZoneId() ).toLocalDate();
-        long julianDay = JulianFields.JULIAN_DAY.getFrom( localDate );
-
-        LocalDateTime ldt = LocalDateTime.ofInstant( date.toInstant(), timeZone.toZoneId() );
-        ZonedDateTime zdt = ldt.atZone( timeZone.toZoneId() );
-        ZonedDateTime utc = zdt.withZoneSameInstant( ZoneId.of( "UTC" ) );
-
-        long timeOfDayNanos =
-          utc.toInstant().toEpochMilli() * 1000000L - ( ( julianDay - ParquetSpec.JULIAN_DAY_OF_EPOCH ) * 24L * 60L
-            * 60L * 1000L * 1000000L );
-        ByteBuffer buf = ByteBuffer.wrap( timestampBuffer );
-        buf.order( ByteOrder.LITTLE_ENDIAN ).putLong( timeOfDayNanos ).putInt( (int) julianDay );
-        consumer.addBinary( Binary.fromReusedByteArray( timestampBuffer ) );
+        addInt96( row.getDate( fieldIndex, null ), binding.zoneId, consumer );
         break;
       case DECIMAL:
         BigDecimal bigDecimal = row.getBigNumber( fieldIndex, null );
@@ -326,13 +311,7 @@ public class PentahoParquetWriteSupport extends WriteSupport<RowMetaAndData> {
         break;
       case DATE:
         Date dateFromRow = row.getDate( fieldIndex, null );
-        timeZone = vmi.getDateFormatTimeZone();
-        if ( timeZone == null ) {
-          timeZone = TimeZone.getDefault();
-        }
-        localDate = dateFromRow.toInstant().atZone( timeZone.toZoneId() ).toLocalDate();
-        Integer dateInDays = Math.toIntExact( ChronoUnit.DAYS.between( LocalDate.ofEpochDay( 0 ), localDate ) );
-        consumer.addInteger( dateInDays );
+        consumer.addInteger( Math.toIntExact( epochDay( dateFromRow.getTime(), binding.zoneId ) ) );
         break;
       default:
         throw new RuntimeException( "Undefined type: " + field.getPentahoType() );
@@ -341,6 +320,50 @@ public class PentahoParquetWriteSupport extends WriteSupport<RowMetaAndData> {
     consumer.endField( field.getFormatFieldName(), index );
   }
 
+  /**
+   * Same check as {@link RowMetaAndData#isEmptyValue(String)}, without looking the field up by name.
+   */
+  private static boolean isEmptyValue( ValueMetaInterface vmi, Object value ) throws KettleValueException {
+    switch ( vmi.getType() ) {
+      case ValueMetaInterface.TYPE_STRING:
+      case ValueMetaInterface.TYPE_INET:
+        return vmi.getString( value ) == null;
+      case ValueMetaInterface.TYPE_BOOLEAN:
+        return vmi.getBoolean( value ) == null;
+      case ValueMetaInterface.TYPE_INTEGER:
+        return vmi.getInteger( value ) == null;
+      case ValueMetaInterface.TYPE_NUMBER:
+        return vmi.getNumber( value ) == null;
+      case ValueMetaInterface.TYPE_BIGNUMBER:
+        return vmi.getBigNumber( value ) == null;
+      case ValueMetaInterface.TYPE_BINARY:
+        return vmi.getBinary( value ) == null;
+      case ValueMetaInterface.TYPE_DATE:
+      case ValueMetaInterface.TYPE_TIMESTAMP:
+        return vmi.getDate( value ) == null;
+      default:
+        throw new KettleValueException( "Unknown source type: " + vmi.getTypeDesc() );
+    }
+  }
+
+  /**
+   * Days since the epoch of the local date of the instant in the given zone.
+   */
+  private static long epochDay( long epochMillis, ZoneId zoneId ) {
+    long offsetMillis = zoneId.getRules().getOffset( Instant.ofEpochMilli( epochMillis ) ).getTotalSeconds() * 1000L;
+    return Math.floorDiv( epochMillis + offsetMillis, MILLIS_PER_DAY );
+  }
+
+  private void addInt96( Date date, ZoneId zoneId, RecordConsumer consumer ) {
+    long epochMillis = date.getTime();
+    long julianDay = epochDay( epochMillis, zoneId ) + ParquetSpec.JULIAN_DAY_OF_EPOCH;
+    long timeOfDayNanos =
+      epochMillis * 1000000L - ( ( julianDay - ParquetSpec.JULIAN_DAY_OF_EPOCH ) * MILLIS_PER_DAY * 1000000L );
+    timestampBuffer.clear();
+    timestampBuffer.putLong( timeOfDayNanos ).putInt( (int) julianDay );
+    consumer.addBinary( Binary.fromReusedByteArray( timestampBuffer.array() ) );
+  }
+
   private double applyScale( double number, IParquetOutputField outputField ) {
     if ( outputField.getScale() > 0 ) {
       BigDecimal bd = new BigDecimal( number );
@@ -225,300 +225,310 @@ public class ParquetConverter {
     return field;
   }
 
-  public static class MyRecordMaterializer extends RecordMaterializer<RowMetaAndData> {
-    private final MyGroupConverter root;
+  /**
+   * Builds the conversion plan for the configured input fields. The plan is meant to be built once per read (see
+   * {@code PentahoParquetReadSupport.prepareForRead}) and shared by all records materialized from it.
+   */
+  public ConversionPlan buildConversionPlan() {
+    return new ConversionPlan( inputFields );
+  }
 
-    public MyRecordMaterializer( ParquetConverter converter ) {
-      root = new MyGroupConverter( converter );
-    }
+  /**
+   * Precompiled per-field conversion plan. Resolves the output row meta, the conversion masks and the source to
+   * target type conversions once, so the per-value path only decodes the Parquet value.
+   */
+  public static class ConversionPlan {
+    private final RowMeta fields = new RowMeta();
+    private final List<FieldConversion> conversions = new ArrayList<>();
+    private final ZoneId zoneId = ZoneId.systemDefault();
 
-    @Override
-    public RowMetaAndData getCurrentRecord() {
-      return root.getCurrentRecord();
+    ConversionPlan( List<? extends IParquetInputField> inputFields ) {
+      for ( IParquetInputField f : inputFields ) {
+        if ( f.getFormatFieldName() == null ) {
+          continue;
+        }
+        ValueMetaInterface valueMeta = createValueMeta( f.getPentahoType(), f.getPentahoFieldName() );
+        String stringFormat = f.getStringFormat();
+        if ( valueMeta != null && stringFormat != null && stringFormat.trim().length() > 0 ) {
+          valueMeta.setConversionMask( stringFormat );
+        }
+        if ( valueMeta != null ) {
+          fields.addValueMeta( valueMeta );
+        }
+        conversions.add( new FieldConversion( f ) );
+      }
     }
 
-    @Override
-    public GroupConverter getRootConverter() {
-      return root;
+    public RowMeta getRowMeta() {
+      return fields;
     }
-  }
 
-  public static class MyGroupConverter extends GroupConverter {
-    private final RowMeta fields = new RowMeta();
-    protected RowMetaAndData current;
-    private final Converter[] converters;
-    private int count;
-    private final IValueMetaConverter valueMetaConverter = new ValueMetaConverter();
-    private static final Logger logger = Logger.getLogger( MyGroupConverter.class );
+    public int size() {
+      return conversions.size();
+    }
 
-    private Object convertFromSourceToTargetType( IValueMetaConverter valueMetaConverter, Object stagingValue,
-                                                  IParquetInputField f ) {
-      try {
-        String dateFormatStr = f.getStringFormat();
-        if ( ( dateFormatStr == null ) || ( dateFormatStr.trim().length() == 0 ) ) {
-          dateFormatStr = ValueMetaBase.DEFAULT_DATE_FORMAT_MASK;
-        }
-        valueMetaConverter.setDatePattern( new SimpleDateFormat( dateFormatStr ) );
+    FieldConversion getFieldConversion( int index ) {
+      return conversions.get( index );
+    }
 
-        return valueMetaConverter.convertFromSourceToTargetDataType(
-          f.getParquetType().getPdiType(), f.getPentahoType(), stagingValue );
-      } catch ( ValueMetaConversionException e ) {
-        logger.error( e );
-        return null;
-      }
+    ZoneId getZoneId() {
+      return zoneId;
     }
 
-    private void addValueMeta( int pdiType, String pentahoFieldName ) {
+    private static ValueMetaInterface createValueMeta( int pdiType, String pentahoFieldName ) {
       switch ( pdiType ) {
         case ValueMetaInterface.TYPE_BINARY:
-          fields.addValueMeta( new ValueMetaBinary( pentahoFieldName ) );
-          break;
+          return new ValueMetaBinary( pentahoFieldName );
         case ValueMetaInterface.TYPE_BIGNUMBER:
-          fields.addValueMeta( new ValueMetaBigNumber( pentahoFieldName ) );
-          break;
+          return new ValueMetaBigNumber( pentahoFieldName );
         case ValueMetaInterface.TYPE_BOOLEAN:
-          fields.addValueMeta( new ValueMetaBoolean( pentahoFieldName ) );
-          break;
+          return new ValueMetaBoolean( pentahoFieldName );
         case ValueMetaInterface.TYPE_DATE:
-          fields.addValueMeta( new ValueMetaDate( pentahoFieldName ) );
-          break;
+          return new ValueMetaDate( pentahoFieldName );
         case ValueMetaInterface.TYPE_INET:
-          fields.addValueMeta( new ValueMetaInternetAddress( pentahoFieldName ) );
-          break;
+          return new ValueMetaInternetAddress( pentahoFieldName );
         case ValueMetaInterface.TYPE_INTEGER:
-          fields.addValueMeta( new ValueMetaInteger( pentahoFieldName ) );
-          break;
+          return new ValueMetaInteger( pentahoFieldName );
         case ValueMetaInterface.TYPE_NUMBER:
-          fields.addValueMeta( new ValueMetaNumber( pentahoFieldName ) );
-          break;
+          return new ValueMetaNumber( pentahoFieldName );
         case ValueMetaInterface.TYPE_STRING:
-          fields.addValueMeta( new ValueMetaString( pentahoFieldName ) );
-          break;
+          return new ValueMetaString( pentahoFieldName );
         case ValueMetaInterface.TYPE_TIMESTAMP:
-          fields.addValueMeta( new ValueMetaTimestamp( pentahoFieldName ) );
-          break;
+          return new ValueMetaTimestamp( pentahoFieldName );
+        default:
+          return null;
       }
     }
+  }
 
-    public MyGroupConverter( ParquetConverter converter ) {
-      count = 0;
-      for ( IParquetInputField f : converter.inputFields ) {
-        if ( f.getFormatFieldName() != null ) {
-          count++;
+  /**
+   * Conversion of a single field from the PDI type of its Parquet type to the requested PDI type. Identical types
+   * are passed through untouched; otherwise the field owns a converter with its date pattern already set.
+   */
+  static class FieldConversion {
+    private static final Logger logger = Logger.getLogger( FieldConversion.class );
+
+    private final IParquetInputField field;
+    private final int sourceType;
+    private final int targetType;
+    private final IValueMetaConverter valueMetaConverter;
+
+    FieldConversion( IParquetInputField field ) {
+      this.field = field;
+      this.sourceType = field.getParquetType().getPdiType();
+      this.targetType = field.getPentahoType();
+      if ( sourceType == targetType ) {
+        valueMetaConverter = null;
+      } else {
+        String dateFormatStr = field.getStringFormat();
+        if ( ( dateFormatStr == null ) || ( dateFormatStr.trim().length() == 0 ) ) {
+          dateFormatStr = ValueMetaBase.DEFAULT_DATE_FORMAT_MASK;
         }
+        valueMetaConverter = new ValueMetaConverter();
+        valueMetaConverter.setDatePattern( new SimpleDateFormat( dateFormatStr ) );
       }
-      converters = new Converter[ count ];
-      int i = 0;
-      for ( IParquetInputField f : converter.inputFields ) {
-        if ( f.getFormatFieldName() == null ) {
-          continue;
-        }
+    }
 
-        final int index = i;
-        addValueMeta( f.getPentahoType(), f.getPentahoFieldName() );
-
-        switch ( f.getParquetType().getPdiType() ) {
-          case ValueMetaInterface.TYPE_NUMBER:
-            converters[ i ] = new PrimitiveConverter() {
-              @Override
-              public void addDouble( double value ) {
-                current.getData()[ index ] = value;
-                current.getData()[ index ] =
-                  convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
-                updateValueMeta( index, f );
-              }
+    IParquetInputField getField() {
+      return field;
+    }
 
-              @Override
-              public void addFloat( float value ) {
-                current.getData()[ index ] = new BigDecimal( String.valueOf( value ) ).doubleValue();
-                current.getData()[ index ] =
-                  convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
-                updateValueMeta( index, f );
-              }
-            };
-            break;
-          case ValueMetaInterface.TYPE_INTEGER:
-            converters[ i ] = new PrimitiveConverter() {
-              @Override
-              public void addInt( int value ) {
-                current.getData()[ index ] = (long) value;
-                current.getData()[ index ] =
-                  convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
-              }
+    int getSourceType() {
+      return sourceType;
+    }
 
-              @Override
-              public void addLong( long value ) {
-                current.getData()[ index ] = value;
-                current.getData()[ index ] =
-                  convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
-                updateValueMeta( index, f );
-              }
-            };
-            break;
-          case ValueMetaInterface.TYPE_BIGNUMBER:
-            converters[ i ] = new PrimitiveConverter() {
-              @Override
-              public void addBinary( Binary value ) {
-                current.getData()[ index ] = binaryToDecimal( value, f.getPrecision(), f.getScale() );
-                current.getData()[ index ] =
-                  convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
-                updateValueMeta( index, f );
-              }
+    boolean isIdentity() {
+      return valueMetaConverter == null;
+    }
 
-              @Override
-              public void addInt( int value ) {
-                current.getData()[ index ] = new BigDecimal( BigInteger.valueOf( value ), f.getScale() );
-                current.getData()[ index ] =
-                  convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
-                updateValueMeta( index, f );
-              }
+    Object convert( Object stagingValue ) {
+      if ( valueMetaConverter == null ) {
+        return stagingValue;
+      }
+      try {
+        return valueMetaConverter.convertFromSourceToTargetDataType( sourceType, targetType, stagingValue );
+      } catch ( ValueMetaConversionException e ) {
+        logger.error( e );
+        return null;
+      }
+    }
+  }
 
-              @Override
-              public void addLong( long value ) {
-                current.getData()[ index ] = new BigDecimal( BigInteger.valueOf( value ), f.getScale() );
-                current.getData()[ index ] =
-                  convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
-                updateValueMeta( index, f );
-              }
-            };
-            break;
-          case ValueMetaInterface.TYPE_STRING:
-            converters[ i ] = new PrimitiveConverter() {
-              @Override
-              public void addBinary( Binary value ) {
-                current.getData()[ index ] = value.toStringUsingUTF8();
-                current.getData()[ index ] =
-                  convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
-                updateValueMeta( index, f );
-              }
-            };
-            break;
-          case ValueMetaInterface.TYPE_BOOLEAN:
-            converters[ i ] = new PrimitiveConverter() {
-              @Override
-              public void addBoolean( boolean value ) {
-                current.getData()[ index ] = value;
-                current.getData()[ index ] =
-                  convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
-                updateValueMeta( index, f );
-              }
-            };
-            break;
-          case ValueMetaInterface.TYPE_SERIALIZABLE:
-            converters[ i ] = new PrimitiveConverter() {
-              @Override
-              public void addBinary( Binary value ) {
-                current.getData()[ index ] = value.getBytes();
-                current.getData()[ index ] =
-                  convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
-                updateValueMeta( index, f );
-              }
-            };
-            break;
-          case ValueMetaInterface.TYPE_BINARY:
-            converters[ i ] = new PrimitiveConverter() {
-              @Override
-              public void addBinary( Binary value ) {
-                if ( f.getPentahoType() == ValueMetaBase.TYPE_STRING ) {
-                  current.getData()[ index ] = value.toStringUsingUTF8();
-                } else {
-                  current.getData()[ index ] = value.getBytes();
-                  current.getData()[ index ] =
-                    convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
-                  updateValueMeta( index, f );
-                }
-              }
-            };
-            break;
-          case ValueMetaInterface.TYPE_DATE:
-            converters[ i ] = new PrimitiveConverter() {
-              @Override
-              public void addLong( long value ) {
-                current.getData()[ index ] = new Date( value );
-                current.getData()[ index ] =
-                  convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
-                updateValueMeta( index, f );
-              }
+  public static class MyRecordMaterializer extends RecordMaterializer<RowMetaAndData> {
+    private final MyGroupConverter root;
 
-              // the number of days from the Unix epoch, 1 January 1970.
-              @Override
-              public void addInt( int value ) {
-                LocalDate localDate = LocalDate.ofEpochDay( 0 ).plusDays( value );
-                current.getData()[ index ] = Date.from( localDate.atStartOfDay( ZoneId.systemDefault() ).toInstant() );
-                current.getData()[ index ] =
-                  convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
-                updateValueMeta( index, f );
-              }
+    public MyRecordMaterializer( ParquetConverter converter ) {
+      this( converter.buildConversionPlan() );
+    }
 
-              @Override
-              public void addBinary( Binary value ) {
-                current.getData()[ index ] = new Date( dateFromInt96( value ) );
-                current.getData()[ index ] =
-                  convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
-                updateValueMeta( index, f );
-              }
-            };
-            break;
-          case ValueMetaInterface.TYPE_TIMESTAMP:
-            converters[ i ] = new PrimitiveConverter() {
-              @Override
-              public void addLong( long value ) {
-                current.getData()[ index ] = new Timestamp( value );
-                current.getData()[ index ] =
-                  convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
-                updateValueMeta( index, f );
-              }
+    public MyRecordMaterializer( ConversionPlan plan ) {
+      root = new MyGroupConverter( plan );
+    }
 
-              // the number of days from the Unix epoch, 1 January 1970.
-              @Override
-              public void addInt( int value ) {
-                current.getData()[ index ] = new Timestamp( value * 24L * 60L * 60L * 1000L );
-                current.getData()[ index ] =
-                  convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
-                updateValueMeta( index, f );
-              }
+    @Override
+    public RowMetaAndData getCurrentRecord() {
+      return root.getCurrentRecord();
+    }
 
-              @Override
-              public void addBinary( Binary value ) {
-                current.getData()[ index ] = new Timestamp( dateFromInt96( value ) );
-                current.getData()[ index ] =
-                  convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
-                updateValueMeta( index, f );
-              }
-            };
-            break;
-          case ValueMetaInterface.TYPE_INET:
-            converters[ i ] = new PrimitiveConverter() {
-              @Override
-              public void addBinary( Binary value ) {
-                try {
-                  byte[] bytes = value.getBytes();
-                  if ( bytes == null || bytes.length == 0 ) {
-                    current.getData()[ index ] = null;
-                  } else {
-                    current.getData()[ index ] = InetAddress.getByAddress( bytes );
-                    current.getData()[ index ] =
-                      convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
-                  }
-                  updateValueMeta( index, f );
-                } catch ( Exception ex ) {
-                  throw new RuntimeException( ex );
-                }
-              }
-            };
-            break;
-          default:
-            throw new RuntimeException( "Undefined type: " + f.getPentahoFieldName() );
-        }
-        i++;
-      }
+    @Override
+    public GroupConverter getRootConverter() {
+      return root;
+    }
+  }
+
+  public static class MyGroupConverter extends GroupConverter {
+    private final RowMeta fields;
+    protected RowMetaAndData current;
+    private final Converter[] converters;
+    private final int count;
+
+    public MyGroupConverter( ParquetConverter converter ) {
+      this( converter.buildConversionPlan() );
+    }
 
+    public MyGroupConverter( ConversionPlan plan ) {
+      fields = plan.getRowMeta();
+      count = plan.size();
+      converters = new Converter[ count ];
+      for ( int i = 0; i < count; i++ ) {
+        converters[ i ] = createConverter( i, plan.getFieldConversion( i ), plan.getZoneId() );
+      }
     }
 
-    private void updateValueMeta( int index, IParquetInputField inputField ) {
-      String stringFormat = inputField.getStringFormat();
-      if ( ( stringFormat != null ) && ( stringFormat.trim().length() > 0 ) ) {
-        current.getValueMeta( index ).setConversionMask( stringFormat );
+    private Converter createConverter( final int index, final FieldConversion c, final ZoneId zoneId ) {
+      final IParquetInputField f = c.getField();
+      switch ( c.getSourceType() ) {
+        case ValueMetaInterface.TYPE_NUMBER:
+          return new PrimitiveConverter() {
+            @Override
+            public void addDouble( double value ) {
+              current.getData()[ index ] = c.convert( value );
+            }
+
+            @Override
+            public void addFloat( float value ) {
+              current.getData()[ index ] = c.convert( Double.parseDouble( Float.toString( value ) ) );
+            }
+          };
+        case ValueMetaInterface.TYPE_INTEGER:
+          return new PrimitiveConverter() {
+            @Override
+            public void addInt( int value ) {
+              current.getData()[ index ] = c.convert( (long) value );
+            }
+
+            @Override
+            public void addLong( long value ) {
+              current.getData()[ index ] = c.convert( value );
+            }
+          };
+        case ValueMetaInterface.TYPE_BIGNUMBER:
+          final int precision = f.getPrecision();
+          final int scale = f.getScale();
+          return new PrimitiveConverter() {
+            @Override
+            public void addBinary( Binary value ) {
+              current.getData()[ index ] = c.convert( binaryToDecimal( value, precision, scale ) );
+            }
+
+            @Override
+            public void addInt( int value ) {
+              current.getData()[ index ] = c.convert( BigDecimal.valueOf( value, scale ) );
+            }
+
+            @Override
+            public void addLong( long value ) {
+              current.getData()[ index ] = c.convert( BigDecimal.valueOf( value, scale ) );
+            }
+          };
+        case ValueMetaInterface.TYPE_STRING:
+          return new PrimitiveConverter() {
+            @Override
+            public void addBinary( Binary value ) {
+              current.getData()[ index ] = c.convert( value.toStringUsingUTF8() );
+            }
+          };
+        case ValueMetaInterface.TYPE_BOOLEAN:
+          return new PrimitiveConverter() {
+            @Override
+            public void addBoolean( boolean value ) {
+              current.getData()[ index ] = c.convert( value );
+            }
+          };
+        case ValueMetaInterface.TYPE_SERIALIZABLE:
+          return new PrimitiveConverter() {
+            @Override
+            public void addBinary( Binary value ) {
+              current.getData()[ index ] = c.convert( value.getBytes() );
+            }
+          };
+        case ValueMetaInterface.TYPE_BINARY:
+          final boolean asString = f.getPentahoType() == ValueMetaBase.TYPE_STRING;
+          return new PrimitiveConverter() {
+            @Override
+            public void addBinary( Binary value ) {
+              if ( asString ) {
+                current.getData()[ index ] = value.toStringUsingUTF8();
+              } else {
+                current.getData()[ index ] = c.convert( value.getBytes() );
+              }
+            }
+          };
+        case ValueMetaInterface.TYPE_DATE:
+          return new PrimitiveConverter() {
+            @Override
+            public void addLong( long value ) {
+              current.getData()[ index ] = c.convert( new Date( value ) );
+            }
+
+            // the number of days from the Unix epoch, 1 January 1970.
+            @Override
+            public void addInt( int value ) {
+              LocalDate localDate = LocalDate.ofEpochDay( value );
+              current.getData()[ index ] = c.convert( Date.from( localDate.atStartOfDay( zoneId ).toInstant() ) );
+            }
+
+            @Override
+            public void addBinary( Binary value ) {
+              current.getData()[ index ] = c.convert( new Date( dateFromInt96( value ) ) );
+            }
+          };
+        case ValueMetaInterface.TYPE_TIMESTAMP:
+          return new PrimitiveConverter() {
+            @Override
+            public void addLong( long value ) {
+              current.getData()[ index ] = c.convert( new Timestamp( value ) );
+            }
+
+            // the number of days from the Unix epoch, 1 January 1970.
+            @Override
+            public void addInt( int value ) {
+              current.getData()[ index ] = c.convert( new Timestamp( value * 24L * 60L * 60L * 1000L ) );
+            }
+
+            @Override
+            public void addBinary( Binary value ) {
+              current.getData()[ index ] = c.convert( new Timestamp( dateFromInt96( value ) ) );
+            }
+          };
+        case ValueMetaInterface.TYPE_INET:
+          return new PrimitiveConverter() {
+            @Override
+            public void addBinary( Binary value ) {
+              try {
+                byte[] bytes = value.getBytes();
+                if ( bytes == null || bytes.length == 0 ) {
+                  current.getData()[ index ] = null;
+                } else {
+                  current.getData()[ index ] = c.convert( InetAddress.getByAddress( bytes ) );
+                }
+              } catch ( Exception ex ) {
+                throw new RuntimeException( ex );
+              }
+            }
+          };
+        default:
+          throw new RuntimeException( "Undefined type: " + f.getPentahoFieldName() );
       }
     }
 
@@ -70,6 +70,6 @@ public class PentahoParquetReadSupport extends ReadSupport<RowMetaAndData> {
   public RecordMaterializer<RowMetaAndData> prepareForRead( Configuration configuration,
                                                             Map<String, String> keyValueMetaData,
                                                             MessageType fileSchema, ReadContext readContext ) {
-    return new ParquetConverter.MyRecordMaterializer( converter );
+    return new ParquetConverter.MyRecordMaterializer( converter.buildConversionPlan() );
   }
 }
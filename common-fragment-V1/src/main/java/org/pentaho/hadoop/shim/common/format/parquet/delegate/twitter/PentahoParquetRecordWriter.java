@@ -24,6 +24,7 @@ package org.pentaho.hadoop.shim.common.format.parquet.delegate.twitter;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
 import parquet.hadoop.ParquetRecordWriter;
 import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.hadoop.shim.api.format.IPentahoOutputFormat.IPentahoRecordWriter;
 
 import java.io.IOException;
@@ -54,6 +55,19 @@ public class PentahoParquetRecordWriter implements IPentahoRecordWriter {
     }
   }
 
+  /**
+   * Parquet consumes each row as soon as it is written, so one holder is reused for the whole batch.
+   */
+  @Override
+  public void writeBatch( RowMetaInterface rowMeta, Object[][] rows ) {
+    RowMetaAndData holder = new RowMetaAndData();
+    holder.setRowMeta( rowMeta );
+    for ( Object[] row : rows ) {
+      holder.setData( row );
+      write( holder );
+    }
+  }
+
   @Override
   public void close() throws IOException {
     try {
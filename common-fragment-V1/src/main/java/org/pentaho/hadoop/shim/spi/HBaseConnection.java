@@ -34,6 +34,7 @@ import org.pentaho.hadoop.shim.api.internal.Configuration;
 import org.pentaho.hadoop.shim.api.internal.hbase.HBaseBytesUtilShim;
 import org.pentaho.hadoop.shim.api.internal.hbase.ColumnFilter;
 import org.pentaho.hadoop.shim.api.internal.hbase.HBaseValueMeta;
+import org.pentaho.hadoop.shim.api.internal.hbase.TargetTableMutation;
 
 @SuppressWarnings( "squid:S112" )
 public interface HBaseConnection {
@@ -206,6 +207,25 @@ public interface HBaseConnection {
    */
   public abstract boolean sourceTableRowExists( byte[] rowKey ) throws Exception;
 
+  /**
+   * Fetch several rows of the current source table at once. The client groups the gets by region server and sends
+   * them as multi-gets.
+   *
+   * @param rowKeys the keys of the rows to fetch
+   * @return one row per key, in order, or null where the table contains no row with that key
+   * @throws Exception if no source table has been specified or if a problem occurs
+   */
+  public abstract List<Object> getSourceTableRows( List<byte[]> rowKeys ) throws Exception;
+
+  /**
+   * Check the existence of several rows of the current source table at once
+   *
+   * @param rowKeys the keys of the rows to check
+   * @return for each key, in order, whether the source table contains a row with that key
+   * @throws Exception if no source table has been specified or if a problem occurs
+   */
+  public abstract boolean[] sourceTableRowsExist( List<byte[]> rowKeys ) throws Exception;
+
   /**
    * Configure a new source table scan. HBase can do a full table scan if no lower and upper bound are supplied or an
    * open upper-ended scan if a lower bound but no upper bound is specified. An upper bound with no lower bound is not
@@ -219,6 +239,15 @@ public interface HBaseConnection {
   public abstract void newSourceTableScan( byte[] keyLowerBound,
                                            byte[] keyUpperBound, int cacheSize ) throws Exception;
 
+  /**
+   * Get the start keys of the regions of the current source table, in key order. The first region starts with an
+   * empty key.
+   *
+   * @return the region start keys
+   * @throws Exception if no source table has been specified or if a problem occurs
+   */
+  public abstract List<byte[]> getSourceTableRegionStartKeys() throws Exception;
+
   /**
    * Configure a new target table put
    *
@@ -243,6 +272,16 @@ public interface HBaseConnection {
    */
   public abstract void executeTargetTablePut() throws Exception;
 
+  /**
+   * Applies a batch of puts and deletes to the current target table with a single client call. Called from the
+   * background thread of a mutation batch, while puts and deletes may still be made on the caller's thread.
+   *
+   * @param mutations the mutations to apply, in order
+   * @return the indexes in <code>mutations</code> of the mutations that could not be applied
+   * @throws Exception if no target table has been specified or if the batch as a whole fails
+   */
+  public abstract List<Integer> executeTargetTableMutations( List<TargetTableMutation> mutations ) throws Exception;
+
   /**
    * Flush any buffered commits for the target table
    *
@@ -263,6 +302,17 @@ public interface HBaseConnection {
                                              String columnName, boolean colNameIsBinary, byte[] colValue )
     throws Exception;
 
+  /**
+   * Add a column value to the current target table put, with the column family and name already encoded
+   *
+   * @param columnFamily the encoded column family to add the column to
+   * @param columnName   the encoded name of the column to add
+   * @param colValue     the encoded column value to add
+   * @throws Exception if a problem occurs
+   */
+  public abstract void addColumnToTargetPut( byte[] columnFamily, byte[] columnName, byte[] colValue )
+    throws Exception;
+
   /**
    * Add a column filter to the list of filters that the scanner will apply to rows server-side.
    *
@@ -22,6 +22,7 @@
 package org.pentaho.hbase.factory;
 
 import java.io.IOException;
+import java.util.List;
 
 import org.apache.hadoop.hbase.client.Delete;
 import org.apache.hadoop.hbase.client.Get;
@@ -32,14 +33,35 @@ import org.apache.hadoop.hbase.client.Scan;
 public interface HBaseTable {
   Result get( Get toGet ) throws IOException;
 
+  /**
+   * Fetches several rows with multi-gets grouped by region server.
+   *
+   * @return one result per get, in order, empty where the row does not exist
+   */
+  Result[] get( List<Get> gets ) throws IOException;
+
+  boolean[] existsAll( List<Get> gets ) throws IOException;
+
   ResultScanner getScanner( Scan s ) throws IOException;
 
   void put( HBasePut put ) throws IOException;
 
+  /**
+   * @return the start keys of the regions of the table, in key order
+   */
+  byte[][] getStartKeys() throws IOException;
+
   void close() throws IOException;
 
   void delete( Delete toDel ) throws IOException;
 
+  /**
+   * Applies a list of {@link HBasePut}s and {@link Delete}s with one client call.
+   *
+   * @return one entry per mutation, in order: the result of the mutation, or null or a Throwable if it failed
+   */
+  Object[] batch( List<?> mutations ) throws IOException;
+
   void flushCommits() throws IOException;
 
   void setWriteBufferSize( long bufferSize ) throws IOException;
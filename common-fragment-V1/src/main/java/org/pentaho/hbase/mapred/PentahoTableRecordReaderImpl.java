@@ -23,8 +23,9 @@
 package org.pentaho.hbase.mapred;
 
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -52,6 +53,17 @@ public class PentahoTableRecordReaderImpl {
   static final Log LOG = LogFactory.getLog( PentahoTableRecordReaderImpl.class );
   public static final int ZERO = 0;
 
+  /**
+   * parseColumn lives on KeyValue or CellUtil depending on the HBase version; resolved once rather than per column on
+   * every restart
+   */
+  private static final MethodHandle PARSE_COLUMN = findParseColumn();
+
+  /**
+   * Result.copyFrom, for HBase versions where Result is no longer Writable
+   */
+  private static final MethodHandle RESULT_COPY_FROM = findResultCopyFrom();
+
   private byte[] startRow;
   private byte[] endRow;
   private byte[] lastRow;
@@ -115,16 +127,14 @@ public class PentahoTableRecordReaderImpl {
   protected static void configureScanWithInputColumns( Scan scan, byte[][] inputColumns ) {
     for ( byte[] familyAndQualifier : inputColumns ) {
       byte[][] fq = null;
-      try {
-        Method method = KeyValue.class.getMethod( "parseColumn", (Class[]) new Class[] { byte[].class } );
-        fq = (byte[][]) method.invoke( null, familyAndQualifier );
-      } catch ( Exception e1 ) {
+      if ( PARSE_COLUMN != null ) {
         try {
-          Method method = CellUtil.class.getMethod( "parseColumn", (Class[]) new Class[] { byte[].class } );
-          fq = (byte[][]) method.invoke( null, familyAndQualifier );
-        } catch ( Exception e2 ) {
+          fq = (byte[][]) PARSE_COLUMN.invokeExact( familyAndQualifier );
+        } catch ( Throwable t ) {
           LOG.debug( "TIFB.configureScanWithInputColumns: error calling the parseColumn method." );
         }
+      } else {
+        LOG.debug( "TIFB.configureScanWithInputColumns: no parseColumn method available." );
       }
 
       if ( fq == null ) {
@@ -139,6 +149,27 @@ public class PentahoTableRecordReaderImpl {
     }
   }
 
+  private static MethodHandle findParseColumn() {
+    MethodType type = MethodType.methodType( byte[][].class, byte[].class );
+    for ( Class<?> owner : new Class<?>[] { KeyValue.class, CellUtil.class } ) {
+      try {
+        return MethodHandles.publicLookup().findStatic( owner, "parseColumn", type );
+      } catch ( NoSuchMethodException | IllegalAccessException e ) {
+        // try the next location
+      }
+    }
+    return null;
+  }
+
+  private static MethodHandle findResultCopyFrom() {
+    try {
+      return MethodHandles.publicLookup().unreflect( Result.class.getMethod( "copyFrom", Result.class ) )
+        .asType( MethodType.methodType( void.class, Result.class, Result.class ) );
+    } catch ( NoSuchMethodException | IllegalAccessException e ) {
+      return null;
+    }
+  }
+
   public void setScanCacheRowSize( int size ) {
     scanCacheRows = size;
   }
@@ -258,11 +289,13 @@ public class PentahoTableRecordReaderImpl {
         Writables.copyWritable( (Writable) result, (Writable) value );
       } else {
 
+        if ( RESULT_COPY_FROM == null ) {
+          throw new IOException( new NoSuchMethodException( "Result.copyFrom(Result)" ) );
+        }
         try {
-          Method m = result.getClass().getMethod( "copyFrom", Result.class );
-          m.invoke( value, result );
-        } catch ( NoSuchMethodException | SecurityException | IllegalAccessException | InvocationTargetException e ) {
-          throw new IOException( e );
+          RESULT_COPY_FROM.invokeExact( value, result );
+        } catch ( Throwable t ) {
+          throw new IOException( t );
         }
 
       }
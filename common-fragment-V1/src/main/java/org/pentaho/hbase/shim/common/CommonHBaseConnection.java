@@ -40,6 +40,7 @@ import org.apache.hadoop.hbase.filter.SubstringComparator;
 import org.apache.hadoop.hbase.filter.TimestampsFilter;
 import org.apache.hadoop.hbase.filter.ValueFilter;
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.security.UserGroupInformation;
 import org.pentaho.di.core.logging.KettleLogStore;
 import org.pentaho.di.core.logging.LogChannelInterface;
 import org.pentaho.di.core.variables.VariableSpace;
@@ -51,6 +52,7 @@ import org.pentaho.hadoop.shim.api.internal.hbase.ColumnFilter;
 import org.pentaho.hadoop.shim.api.internal.hbase.HBaseBytesUtilShim;
 import org.pentaho.hadoop.shim.api.internal.hbase.HBaseValueMeta;
 import org.pentaho.hadoop.shim.api.internal.hbase.Mapping;
+import org.pentaho.hadoop.shim.api.internal.hbase.TargetTableMutation;
 import org.pentaho.hadoop.shim.spi.HBaseConnection;
 import org.pentaho.hbase.factory.HBaseAdmin;
 import org.pentaho.hbase.factory.HBaseClientFactory;
@@ -59,6 +61,9 @@ import org.pentaho.hbase.factory.HBaseTable;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.net.MalformedURLException;
@@ -66,12 +71,17 @@ import java.text.DecimalFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Properties;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 
 /**
@@ -85,6 +95,7 @@ public class CommonHBaseConnection implements HBaseConnection, IHBaseClientFacto
   protected Configuration m_config = null;
   protected HBaseAdmin m_admin;
   protected HBaseClientFactory m_factory;
+  protected Object m_connectionKey;
 
   protected HBaseTable m_sourceTable;
   protected Scan m_sourceScan;
@@ -95,6 +106,23 @@ public class CommonHBaseConnection implements HBaseConnection, IHBaseClientFacto
 
   protected HBaseBytesUtilShim m_bytesUtil;
 
+  private static final int MAX_ENCODED_NAMES = 1024;
+  // shared with the background thread that applies mutation batches and asynchronous flushes
+  private final Map<String, byte[]> m_encodedNames = new ConcurrentHashMap<String, byte[]>();
+  private final Map<String, byte[]> m_encodedBinaryNames = new ConcurrentHashMap<String, byte[]>();
+
+  @VisibleForTesting
+  static final int MAX_COLUMN_FILTERS = 256;
+  private final Map<List<Object>, Filter> m_columnFilters = new HashMap<List<Object>, Filter>();
+  private Class<?> m_byteArrayComparableClass;
+  private Class<?> m_deserializedNumericComparatorClass;
+  private Class<?> m_deserializedBooleanComparatorClass;
+
+  /**
+   * Scan.setCaching returns void in older HBase versions and Scan in newer ones, so it is bound by name, once per shim
+   */
+  private static final MethodHandle SCAN_SET_CACHING = findScanSetCaching();
+
   protected LogChannelInterface log = KettleLogStore.getLogChannelInterfaceFactory().create( this );
 
   public CommonHBaseConnection() {
@@ -105,6 +133,36 @@ public class CommonHBaseConnection implements HBaseConnection, IHBaseClientFacto
     }
   }
 
+  private static MethodHandle findScanSetCaching() {
+    try {
+      return MethodHandles.publicLookup().unreflect( Scan.class.getMethod( "setCaching", int.class ) )
+        .asType( MethodType.methodType( void.class, Scan.class, int.class ) );
+    } catch ( NoSuchMethodException | IllegalAccessException e ) {
+      return null;
+    }
+  }
+
+  private Class<?> getCachedByteArrayComparableClass() throws ClassNotFoundException {
+    if ( m_byteArrayComparableClass == null ) {
+      m_byteArrayComparableClass = getByteArrayComparableClass();
+    }
+    return m_byteArrayComparableClass;
+  }
+
+  private Class<?> getCachedDeserializedNumericComparatorClass() throws ClassNotFoundException {
+    if ( m_deserializedNumericComparatorClass == null ) {
+      m_deserializedNumericComparatorClass = getDeserializedNumericComparatorClass();
+    }
+    return m_deserializedNumericComparatorClass;
+  }
+
+  private Class<?> getCachedDeserializedBooleanComparatorClass() throws ClassNotFoundException {
+    if ( m_deserializedBooleanComparatorClass == null ) {
+      m_deserializedBooleanComparatorClass = getDeserializedBooleanComparatorClass();
+    }
+    return m_deserializedBooleanComparatorClass;
+  }
+
   @VisibleForTesting
   public static boolean isMapR60OrAboveShim( String shimConfigurationId ) {
     return shimConfigurationId.toUpperCase().contains( "MAPR" )
@@ -204,6 +262,7 @@ public class CommonHBaseConnection implements HBaseConnection, IHBaseClientFacto
         log.logDebug( "Opening HBase connection ..." );
       }
 
+      m_connectionKey = getConnectionKey( connProps, namedCluster );
       m_factory = getHBaseClientFactory( m_config );
       m_factory.setNamedCluster( namedCluster );
 
@@ -273,9 +332,29 @@ public class CommonHBaseConnection implements HBaseConnection, IHBaseClientFacto
     return false;
   }
 
+  /**
+   * Key under which the HBase connection opened for these connection properties is shared with every other client of
+   * the same named cluster and user, or null if it can't be shared.
+   */
+  protected Object getConnectionKey( Properties connProps, NamedCluster namedCluster ) {
+    Map<String, String> properties = new TreeMap<>();
+    for ( String name : connProps.stringPropertyNames() ) {
+      properties.put( name, connProps.getProperty( name ) );
+    }
+    try {
+      return Arrays.asList( namedCluster == null ? null : namedCluster.getName(), properties,
+        UserGroupInformation.getCurrentUser().getUserName() );
+    } catch ( IOException e ) {
+      return null;
+    }
+  }
+
   @SuppressWarnings( "squid:S1148" )
   public HBaseClientFactory getHBaseClientFactory( Configuration configuration ) {
     try {
+      if ( m_connectionKey != null ) {
+        return new HBase10ClientFactory( configuration, m_connectionKey );
+      }
       return new HBase10ClientFactory( configuration );
     } catch ( IOException e ) {
       e.printStackTrace();
@@ -480,6 +559,37 @@ public class CommonHBaseConnection implements HBaseConnection, IHBaseClientFacto
     return ( !r.isEmpty() );
   }
 
+  @Override
+  public List<Object> getSourceTableRows( List<byte[]> rowKeys ) throws Exception {
+
+    checkConfiguration();
+    checkSourceTable();
+    Result[] results = m_sourceTable.get( toGets( rowKeys ) );
+
+    List<Object> rows = new ArrayList<Object>( results.length );
+    for ( Result r : results ) {
+      rows.add( r == null || r.isEmpty() ? null : r );
+    }
+    return rows;
+  }
+
+  @Override
+  public boolean[] sourceTableRowsExist( List<byte[]> rowKeys ) throws Exception {
+
+    checkConfiguration();
+    checkSourceTable();
+
+    return m_sourceTable.existsAll( toGets( rowKeys ) );
+  }
+
+  private static List<Get> toGets( List<byte[]> rowKeys ) {
+    List<Get> gets = new ArrayList<Get>( rowKeys.size() );
+    for ( byte[] rowKey : rowKeys ) {
+      gets.add( new Get( rowKey ) );
+    }
+    return gets;
+  }
+
   @Override
   public void newSourceTableScan( byte[] keyLowerBound, byte[] keyUpperBound, int cacheSize ) throws Exception {
 
@@ -498,10 +608,27 @@ public class CommonHBaseConnection implements HBaseConnection, IHBaseClientFacto
     }
 
     if ( cacheSize > 0 ) {
-      m_sourceScan.getClass().getMethod( "setCaching", int.class ).invoke( m_sourceScan, cacheSize );
+      if ( SCAN_SET_CACHING == null ) {
+        throw new NoSuchMethodException( "Scan.setCaching(int)" );
+      }
+      try {
+        SCAN_SET_CACHING.invokeExact( m_sourceScan, cacheSize );
+      } catch ( Exception | Error e ) {
+        throw e;
+      } catch ( Throwable t ) {
+        throw new Exception( t );
+      }
     }
   }
 
+  @Override
+  public List<byte[]> getSourceTableRegionStartKeys() throws Exception {
+    checkConfiguration();
+    checkSourceTable();
+
+    return Arrays.asList( m_sourceTable.getStartKeys() );
+  }
+
   @Override
   public void addColumnToScan( String colFamilyName, String colName, boolean colNameIsBinary ) throws Exception {
     checkSourceScan();
@@ -534,82 +661,104 @@ public class CommonHBaseConnection implements HBaseConnection, IHBaseClientFacto
 
       FilterList fl = (FilterList) m_sourceScan.getFilter();
 
-      ColumnFilter.ComparisonType op = cf.getComparisonOperator();
-      CompareFilter.CompareOp comp = getCompareOpByComparisonType( op );
-
       String comparisonString = cf.getConstant().trim();
       comparisonString = vars.environmentSubstitute( comparisonString );
-      byte[] comparison = m_bytesUtil.toBytes( comparisonString );
-      Class<?> comparatorClass = getByteArrayComparableClass();
-      Object comparator = null;
 
-      if ( comp != null ) {
-
-        // do the numeric comparison stuff
-        if ( columnMeta.isNumeric() ) {
-          if ( !cf.getSignedComparison() && columnMeta.isInteger() ) {
-            comparatorClass = byte[].class;
-          }
-          comparator = getNumericComparator( cf, columnMeta, vars, comparisonString );
-        } else if ( columnMeta.isDate() ) {
-          comparator = getDateComparator( cf, vars, comparisonString );
-        } else if ( columnMeta.isBoolean() ) {
-
-          // temporarily encode it so that we can use the utility routine in
-          // HBaseValueMeta
-          byte[] tempEncoded = m_bytesUtil.toBytes( comparisonString );
-          Boolean decodedB = HBaseValueMeta.decodeBoolFromString( tempEncoded, m_bytesUtil );
-          // skip if we can't parse the comparison value
-          if ( decodedB == null ) {
-            return;
-          }
-          comparator = getBooleanComparator( decodedB );
-        }
-      } else {
-        comp = CompareFilter.CompareOp.EQUAL;
-        if ( cf.getComparisonOperator() == ColumnFilter.ComparisonType.SUBSTRING ) {
-          comparator = new SubstringComparator( comparisonString );
-        } else if ( cf.getComparisonOperator() == ColumnFilter.ComparisonType.REGEX ) {
-          comparator = new RegexStringComparator( comparisonString );
-        } else /*if ( cf.getComparisonOperator() == ColumnFilter.ComparisonType.PREFIX )*/ {
-          //First of all check if it is Key in this case prefix filter is more appreciable
-          if ( columnMeta.isKey() ) {
-            PrefixFilter scf = new PrefixFilter( comparison );
-            fl.addFilter( scf );
-            return;
-          }
-          comparator = new BinaryPrefixComparator( comparison );
-          // comparator == null means prefix was chosen
+      // lookups re-open short scans with the same filters over and over, so built filters are reused
+      List<Object> key = Arrays.<Object>asList( cf.getFieldAlias(), cf.getComparisonOperator(),
+        cf.getSignedComparison(), vars.environmentSubstitute( cf.getFormat() ), comparisonString,
+        columnMeta.getColumnFamily(), columnMeta.getColumnName(), columnMeta.isKey(), columnMeta.getType(),
+        columnMeta.getIsLongOrDouble() );
+      Filter filter = m_columnFilters.get( key );
+      if ( filter == null ) {
+        filter = createColumnFilter( cf, columnMeta, vars, comparisonString );
+        if ( filter != null && m_columnFilters.size() < MAX_COLUMN_FILTERS ) {
+          m_columnFilters.put( key, filter );
         }
       }
+      if ( filter != null ) {
+        fl.addFilter( filter );
+      }
+    } finally {
+      Thread.currentThread().setContextClassLoader( cl );
+    }
+  }
+
+  /**
+   * Builds the server-side filter for a column filter definition.
+   *
+   * @return the filter, or null if the definition does not result in a filter
+   */
+  protected Filter createColumnFilter( ColumnFilter cf, HBaseValueMeta columnMeta, VariableSpace vars,
+                                       String comparisonString ) throws Exception {
+    ColumnFilter.ComparisonType op = cf.getComparisonOperator();
+    CompareFilter.CompareOp comp = getCompareOpByComparisonType( op );
+
+    byte[] comparison = m_bytesUtil.toBytes( comparisonString );
+    Class<?> comparatorClass = getCachedByteArrayComparableClass();
+    Object comparator = null;
+
+    if ( comp != null ) {
 
-      if ( comparator != null ) {
-        Mapping.TupleMapping tupleMapping;
-        tupleMapping = getTupleMappingByName( cf.getFieldAlias().toUpperCase() );
-        if ( tupleMapping != null ) {
-          addFilterByMapping( fl, comp, comparatorClass, comparator, tupleMapping );
-          return;
+      // do the numeric comparison stuff
+      if ( columnMeta.isNumeric() ) {
+        if ( !cf.getSignedComparison() && columnMeta.isInteger() ) {
+          comparatorClass = byte[].class;
         }
-        byte[] family = m_bytesUtil.toBytes( columnMeta.getColumnFamily() );
-        byte[] qualifier = m_bytesUtil.toBytes( columnMeta.getColumnName() );
-
-        Constructor<SingleColumnValueFilter>
-          scvfCtor =
-          SingleColumnValueFilter.class
-            .getConstructor( byte[].class, byte[].class, CompareFilter.CompareOp.class, comparatorClass );
-        SingleColumnValueFilter scf = scvfCtor.newInstance( family, qualifier, comp, comparator );
-        scf.setFilterIfMissing( true );
-        fl.addFilter( scf );
-      } else {
-        //First of all check if it is Key
+        comparator = getNumericComparator( cf, columnMeta, vars, comparisonString );
+      } else if ( columnMeta.isDate() ) {
+        comparator = getDateComparator( cf, vars, comparisonString );
+      } else if ( columnMeta.isBoolean() ) {
+
+        // temporarily encode it so that we can use the utility routine in
+        // HBaseValueMeta
+        byte[] tempEncoded = m_bytesUtil.toBytes( comparisonString );
+        Boolean decodedB = HBaseValueMeta.decodeBoolFromString( tempEncoded, m_bytesUtil );
+        // skip if we can't parse the comparison value
+        if ( decodedB == null ) {
+          return null;
+        }
+        comparator = getBooleanComparator( decodedB );
+      }
+    } else {
+      comp = CompareFilter.CompareOp.EQUAL;
+      if ( cf.getComparisonOperator() == ColumnFilter.ComparisonType.SUBSTRING ) {
+        comparator = new SubstringComparator( comparisonString );
+      } else if ( cf.getComparisonOperator() == ColumnFilter.ComparisonType.REGEX ) {
+        comparator = new RegexStringComparator( comparisonString );
+      } else /*if ( cf.getComparisonOperator() == ColumnFilter.ComparisonType.PREFIX )*/ {
+        //First of all check if it is Key in this case prefix filter is more appreciable
         if ( columnMeta.isKey() ) {
-          PrefixFilter scf = new PrefixFilter( comparison );
-          fl.addFilter( scf );
+          return new PrefixFilter( comparison );
         }
+        comparator = new BinaryPrefixComparator( comparison );
+        // comparator == null means prefix was chosen
       }
-    } finally {
-      Thread.currentThread().setContextClassLoader( cl );
     }
+
+    if ( comparator != null ) {
+      Mapping.TupleMapping tupleMapping;
+      tupleMapping = getTupleMappingByName( cf.getFieldAlias().toUpperCase() );
+      if ( tupleMapping != null ) {
+        return createFilterByMapping( comp, comparatorClass, comparator, tupleMapping );
+      }
+      byte[] family = m_bytesUtil.toBytes( columnMeta.getColumnFamily() );
+      byte[] qualifier = m_bytesUtil.toBytes( columnMeta.getColumnName() );
+
+      Constructor<SingleColumnValueFilter>
+        scvfCtor =
+        SingleColumnValueFilter.class
+          .getConstructor( byte[].class, byte[].class, CompareFilter.CompareOp.class, comparatorClass );
+      SingleColumnValueFilter scf = scvfCtor.newInstance( family, qualifier, comp, comparator );
+      scf.setFilterIfMissing( true );
+      return scf;
+    }
+
+    //First of all check if it is Key
+    if ( columnMeta.isKey() ) {
+      return new PrefixFilter( comparison );
+    }
+    return null;
   }
 
   protected Object getNumericComparator( ColumnFilter cf, HBaseValueMeta columnMeta, VariableSpace vars,
@@ -644,7 +793,7 @@ public class CommonHBaseConnection implements HBaseConnection, IHBaseClientFacto
   protected Object getBooleanComparator( Boolean decodedB )
     throws ClassNotFoundException, NoSuchMethodException, InstantiationException, IllegalAccessException,
     java.lang.reflect.InvocationTargetException {
-    Class<?> deserializedBooleanComparatorClass = getDeserializedBooleanComparatorClass();
+    Class<?> deserializedBooleanComparatorClass = getCachedDeserializedBooleanComparatorClass();
     Constructor<?> ctor = deserializedBooleanComparatorClass.getConstructor( boolean.class );
     return ctor.newInstance( decodedB );
   }
@@ -665,7 +814,7 @@ public class CommonHBaseConnection implements HBaseConnection, IHBaseClientFacto
       comparator = m_bytesUtil.toBytes( dateAsMillis );
     } else {
       // custom comparator for signed comparison
-      Class<?> deserializedNumericComparatorClass = getDeserializedNumericComparatorClass();
+      Class<?> deserializedNumericComparatorClass = getCachedDeserializedNumericComparatorClass();
       Constructor<?>
         ctor =
         deserializedNumericComparatorClass.getConstructor( boolean.class, boolean.class, long.class );
@@ -676,7 +825,7 @@ public class CommonHBaseConnection implements HBaseConnection, IHBaseClientFacto
 
   protected Object getSignedComparisonComparator( HBaseValueMeta columnMeta, Number num ) throws Exception {
     // custom comparator for signed comparison, specific to each shim due to HBase API changes
-    Class<?> deserializedNumericComparatorClass = getDeserializedNumericComparatorClass();
+    Class<?> deserializedNumericComparatorClass = getCachedDeserializedNumericComparatorClass();
     Object comparator;
     if ( columnMeta.isInteger() ) {
       Constructor<?>
@@ -705,33 +854,40 @@ public class CommonHBaseConnection implements HBaseConnection, IHBaseClientFacto
                            Mapping.TupleMapping tupleMapping )
     throws NoSuchMethodException, InstantiationException, IllegalAccessException,
     java.lang.reflect.InvocationTargetException {
+    Filter filter = createFilterByMapping( comp, comparatorClass, comparator, tupleMapping );
+    if ( filter != null ) {
+      fl.addFilter( filter );
+    }
+  }
+
+  Filter createFilterByMapping( CompareFilter.CompareOp comp, Class<?> comparatorClass, Object comparator,
+                                Mapping.TupleMapping tupleMapping )
+    throws NoSuchMethodException, InstantiationException, IllegalAccessException,
+    java.lang.reflect.InvocationTargetException {
     switch ( tupleMapping ) {
       case KEY: {
-        addFilter( RowFilter.class, fl, comp, comparatorClass, comparator );
-        return;
+        return createFilter( RowFilter.class, comp, comparatorClass, comparator );
       }
       case FAMILY: {
-        addFilter( FamilyFilter.class, fl, comp, comparatorClass, comparator );
-        return;
+        return createFilter( FamilyFilter.class, comp, comparatorClass, comparator );
       }
       case COLUMN: {
         //TODO Check if ColumnPrefixFilter works faster and suit more
 
-        addFilter( QualifierFilter.class, fl, comp, comparatorClass, comparator );
-        return;
+        return createFilter( QualifierFilter.class, comp, comparatorClass, comparator );
       }
       case VALUE: {
-        addFilter( ValueFilter.class, fl, comp, comparatorClass, comparator );
-        return;
+        return createFilter( ValueFilter.class, comp, comparatorClass, comparator );
       }
       case TIMESTAMP: {
-        addFilter( TimestampsFilter.class, fl, comp, comparatorClass, comparator );
         //        Constructor<TimestampsFilter> columnFilterConstructor =
         //          TimestampsFilter.class.getConstructor( CompareFilter.CompareOp.class, comparatorClass );
         //        TimestampsFilter scf = columnFilterConstructor.newInstance( comp, comparator );
         //        fl.addFilter( scf );
-        return;
+        return createFilter( TimestampsFilter.class, comp, comparatorClass, comparator );
       }
+      default:
+        return null;
     }
   }
 
@@ -739,9 +895,15 @@ public class CommonHBaseConnection implements HBaseConnection, IHBaseClientFacto
                                                Class<?> comparatorClass, Object comparator )
     throws NoSuchMethodException, InstantiationException, IllegalAccessException,
     java.lang.reflect.InvocationTargetException {
+    fl.addFilter( createFilter( filterClass, comp, comparatorClass, comparator ) );
+  }
+
+  protected <T extends Filter> T createFilter( Class<T> filterClass, CompareFilter.CompareOp comp,
+                                               Class<?> comparatorClass, Object comparator )
+    throws NoSuchMethodException, InstantiationException, IllegalAccessException,
+    java.lang.reflect.InvocationTargetException {
     Constructor<T> constructor = filterClass.getConstructor( CompareFilter.CompareOp.class, comparatorClass );
-    T scf = constructor.newInstance( comp, comparator );
-    fl.addFilter( scf );
+    return constructor.newInstance( comp, comparator );
   }
 
   protected Mapping.TupleMapping getTupleMappingByName( String name ) {
@@ -896,8 +1058,7 @@ public class CommonHBaseConnection implements HBaseConnection, IHBaseClientFacto
 
     byte[]
       result =
-      ( (Result) aRow ).getValue( m_bytesUtil.toBytes( colFamilyName ),
-        colNameIsBinary ? m_bytesUtil.toBytesBinary( colName ) : m_bytesUtil.toBytes( colName ) );
+      ( (Result) aRow ).getValue( encodeName( colFamilyName, false ), encodeName( colName, colNameIsBinary ) );
 
     return result;
   }
@@ -1007,6 +1168,40 @@ public class CommonHBaseConnection implements HBaseConnection, IHBaseClientFacto
     m_targetTable.put( m_currentTargetPut );
   }
 
+  @Override
+  public List<Integer> executeTargetTableMutations( List<TargetTableMutation> mutations ) throws Exception {
+    checkConfiguration();
+    checkTargetTable();
+
+    List<Object> batch = new ArrayList<Object>( mutations.size() );
+    for ( TargetTableMutation mutation : mutations ) {
+      if ( mutation.isDelete() ) {
+        batch.add( new Delete( mutation.getRowKey() ) );
+      } else {
+        HBasePut put = m_factory.getHBasePut( mutation.getRowKey() );
+        put.setWriteToWAL( mutation.isWriteToWAL() );
+        for ( TargetTableMutation.Column column : mutation.getColumns() ) {
+          if ( column.isEncoded() ) {
+            put.addColumn( column.getColumnFamilyBytes(), column.getColumnNameBytes(), column.getColValue() );
+          } else {
+            put.addColumn( encodeName( column.getColumnFamily(), false ),
+              encodeName( column.getColumnName(), column.isColNameIsBinary() ), column.getColValue() );
+          }
+        }
+        batch.add( put );
+      }
+    }
+
+    Object[] results = m_targetTable.batch( batch );
+    List<Integer> failed = new ArrayList<Integer>();
+    for ( int i = 0; i < results.length; i++ ) {
+      if ( results[ i ] == null || results[ i ] instanceof Throwable ) {
+        failed.add( i );
+      }
+    }
+    return failed;
+  }
+
   @Override
   public void executeTargetTableDelete( byte[] rowKey ) throws Exception {
     checkConfiguration();
@@ -1031,8 +1226,34 @@ public class CommonHBaseConnection implements HBaseConnection, IHBaseClientFacto
     checkTargetTable();
     checkTargetPut();
 
-    m_currentTargetPut.addColumn( m_bytesUtil.toBytes( columnFamily ),
-      colNameIsBinary ? m_bytesUtil.toBytesBinary( columnName ) : m_bytesUtil.toBytes( columnName ), colValue );
+    m_currentTargetPut.addColumn( encodeName( columnFamily, false ), encodeName( columnName, colNameIsBinary ),
+      colValue );
+  }
+
+  @Override
+  public void addColumnToTargetPut( byte[] columnFamily, byte[] columnName, byte[] colValue ) throws Exception {
+
+    checkTargetTable();
+    checkTargetPut();
+
+    m_currentTargetPut.addColumn( columnFamily, columnName, colValue );
+  }
+
+  /**
+   * Encodes a column family or column name. The same few names are encoded for every row read or written, so the
+   * encoded names are remembered, up to a bound for tuple mappings with many distinct column names. Safe to call from
+   * the background thread that applies mutation batches.
+   */
+  protected byte[] encodeName( String name, boolean binary ) {
+    Map<String, byte[]> encodedNames = binary ? m_encodedBinaryNames : m_encodedNames;
+    byte[] encoded = encodedNames.get( name );
+    if ( encoded == null ) {
+      encoded = binary ? m_bytesUtil.toBytesBinary( name ) : m_bytesUtil.toBytes( name );
+      if ( encodedNames.size() < MAX_ENCODED_NAMES ) {
+        encodedNames.put( name, encoded );
+      }
+    }
+    return encoded;
   }
 
   @Override
@@ -1092,6 +1313,14 @@ public class CommonHBaseConnection implements HBaseConnection, IHBaseClientFacto
   }
 
   void closeClientFactory() {
+    if ( m_admin != null ) {
+      try {
+        m_admin.close();
+      } catch ( IOException e ) {
+        log.logDebug( e.getMessage() );
+      }
+      m_admin = null;
+    }
     if ( m_factory != null ) {
       m_factory.close();
     }
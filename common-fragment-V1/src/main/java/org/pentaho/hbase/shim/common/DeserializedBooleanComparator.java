@@ -27,12 +27,8 @@ import org.apache.hadoop.hbase.filter.ByteArrayComparable;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.pentaho.hbase.shim.spi.IDeserializedBooleanComparator;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.DataInput;
-import java.io.DataInputStream;
 import java.io.DataOutput;
-import java.io.DataOutputStream;
 import java.io.IOException;
 
 /**
@@ -46,6 +42,11 @@ import java.io.IOException;
  */
 public class DeserializedBooleanComparator extends ByteArrayComparable implements IDeserializedBooleanComparator {
 
+  /**
+   * Result of decoding a value that is not a recognised boolean representation
+   */
+  static final int UNDECODABLE = -1;
+
   protected Boolean m_value;
 
   // Use the HBaseBytesUtilShim to convert your boolean to bytes
@@ -71,108 +72,137 @@ public class DeserializedBooleanComparator extends ByteArrayComparable implement
   }
 
   public int compareTo( byte[] value ) {
+    return compareTo( value, 0, value.length );
+  }
 
-    Boolean decodedValue = decodeBoolFromString( value );
+  /**
+   * Decodes the cell value in place without creating strings, copies or boxed values for the cells a filter
+   * evaluates.
+   */
+  public int compareTo( byte[] value, int offset, int length ) {
+    int decodedValue = decodeBoolFromString( value, offset, length );
 
-    // if null then try as a number
-    if ( decodedValue == null ) {
-      decodedValue = decodeBoolFromNumber( value );
+    // if not a string then try as a number
+    if ( decodedValue == UNDECODABLE ) {
+      decodedValue = decodeBoolFromNumber( value, offset, length );
     }
 
-    if ( decodedValue != null ) {
-      if ( m_value.equals( decodedValue ) ) {
-        return 0;
-      }
+    if ( decodedValue == UNDECODABLE ) {
+      // doesn't matter what we return here because the step wont be able to
+      // decode this value either so an Exception will be raised
+      return 0;
+    }
 
-      if ( m_value.booleanValue() == false && decodedValue.booleanValue() == true ) {
-        return -1;
-      }
+    // false sorts before true
+    return Integer.compare( m_value.booleanValue() ? 1 : 0, decodedValue );
+  }
 
-      return 1;
-    }
+  public static Boolean decodeBoolFromString( byte[] rawEncoded ) {
+    return toBoolean( decodeBoolFromString( rawEncoded, 0, rawEncoded.length ) );
+  }
 
-    // doesn't matter what we return here because the step wont be able to
-    // decode this value either so an Exception will be raised
-    return 0;
+  public static Boolean decodeBoolFromNumber( byte[] rawEncoded ) {
+    return toBoolean( decodeBoolFromNumber( rawEncoded, 0, rawEncoded.length ) );
   }
 
-  public int compareTo( byte[] value, int offset, int length ) {
-    return compareTo( Bytes.copy( value, offset, length ) );
+  private static Boolean toBoolean( int decoded ) {
+    return decoded == UNDECODABLE ? null : Boolean.valueOf( decoded == 1 );
   }
 
-  public static Boolean decodeBoolFromString( byte[] rawEncoded ) {
-    String tempString = Bytes.toString( rawEncoded );
-    if ( tempString.equalsIgnoreCase( "Y" ) || tempString.equalsIgnoreCase( "N" )
-      || tempString.equalsIgnoreCase( "YES" ) || tempString.equalsIgnoreCase( "NO" )
-      || tempString.equalsIgnoreCase( "TRUE" ) || tempString.equalsIgnoreCase( "FALSE" )
-      || tempString.equalsIgnoreCase( "T" ) || tempString.equalsIgnoreCase( "F" )
-      || tempString.equalsIgnoreCase( "1" ) || tempString.equalsIgnoreCase( "0" ) ) {
-
-      return Boolean.valueOf( tempString.equalsIgnoreCase( "Y" ) || tempString.equalsIgnoreCase( "YES" )
-        || tempString.equalsIgnoreCase( "TRUE" ) || tempString.equalsIgnoreCase( "T" )
-        || tempString.equalsIgnoreCase( "1" ) );
+  /**
+   * Decodes a boolean held as one of the strings Y/N, YES/NO, TRUE/FALSE, T/F or 1/0 (ignoring case).
+   *
+   * @return 1 for true, 0 for false or {@link #UNDECODABLE} if the value is not one of those strings
+   */
+  static int decodeBoolFromString( byte[] rawEncoded, int offset, int length ) {
+    switch ( length ) {
+      case 1:
+        switch ( Character.toUpperCase( (char) rawEncoded[ offset ] ) ) {
+          case 'Y':
+          case 'T':
+          case '1':
+            return 1;
+          case 'N':
+          case 'F':
+          case '0':
+            return 0;
+          default:
+            return UNDECODABLE;
+        }
+      case 2:
+        return matches( rawEncoded, offset, "NO" ) ? 0 : UNDECODABLE;
+      case 3:
+        return matches( rawEncoded, offset, "YES" ) ? 1 : UNDECODABLE;
+      case 4:
+        return matches( rawEncoded, offset, "TRUE" ) ? 1 : UNDECODABLE;
+      case 5:
+        return matches( rawEncoded, offset, "FALSE" ) ? 0 : UNDECODABLE;
+      default:
+        return UNDECODABLE;
     }
+  }
 
-    // not identifiable from a string
-    return null;
+  private static boolean matches( byte[] rawEncoded, int offset, String upperCaseWord ) {
+    for ( int i = 0; i < upperCaseWord.length(); i++ ) {
+      if ( Character.toUpperCase( (char) rawEncoded[ offset + i ] ) != upperCaseWord.charAt( i ) ) {
+        return false;
+      }
+    }
+    return true;
   }
 
-  public static Boolean decodeBoolFromNumber( byte[] rawEncoded ) {
-    if ( rawEncoded.length == Bytes.SIZEOF_BYTE ) {
-      byte val = rawEncoded[ 0 ];
+  /**
+   * Decodes a boolean held as a 0 or 1 byte, short, int, float, long or double.
+   *
+   * @return 1 for true, 0 for false or {@link #UNDECODABLE} if the value is not a 0 or 1 of one of those widths
+   */
+  static int decodeBoolFromNumber( byte[] rawEncoded, int offset, int length ) {
+    if ( length == Bytes.SIZEOF_BYTE ) {
+      byte val = rawEncoded[ offset ];
       if ( val == 0 || val == 1 ) {
-        return new Boolean( val == 1 );
+        return val;
       }
     }
 
-    if ( rawEncoded.length == Bytes.SIZEOF_SHORT ) {
-      short tempShort = Bytes.toShort( rawEncoded );
-
+    if ( length == Bytes.SIZEOF_SHORT ) {
+      short tempShort = Bytes.toShort( rawEncoded, offset );
       if ( tempShort == 0 || tempShort == 1 ) {
-        return new Boolean( tempShort == 1 );
+        return tempShort;
       }
     }
 
-    if ( rawEncoded.length == Bytes.SIZEOF_INT || rawEncoded.length == Bytes.SIZEOF_FLOAT ) {
-      int tempInt = Bytes.toInt( rawEncoded );
+    if ( length == Bytes.SIZEOF_INT || length == Bytes.SIZEOF_FLOAT ) {
+      int tempInt = Bytes.toInt( rawEncoded, offset );
       if ( tempInt == 1 || tempInt == 0 ) {
-        return new Boolean( tempInt == 1 );
+        return tempInt;
       }
 
-      float tempFloat = Bytes.toFloat( rawEncoded );
+      float tempFloat = Float.intBitsToFloat( tempInt );
       if ( tempFloat == 0.0f || tempFloat == 1.0f ) {
-        return new Boolean( tempFloat == 1.0f );
+        return tempFloat == 1.0f ? 1 : 0;
       }
     }
 
-    if ( rawEncoded.length == Bytes.SIZEOF_LONG || rawEncoded.length == Bytes.SIZEOF_DOUBLE ) {
-      long tempLong = Bytes.toLong( rawEncoded );
+    if ( length == Bytes.SIZEOF_LONG || length == Bytes.SIZEOF_DOUBLE ) {
+      long tempLong = Bytes.toLong( rawEncoded, offset );
       if ( tempLong == 0L || tempLong == 1L ) {
-        return new Boolean( tempLong == 1L );
+        return (int) tempLong;
       }
 
-      double tempDouble = Bytes.toDouble( rawEncoded );
+      double tempDouble = Double.longBitsToDouble( tempLong );
       if ( tempDouble == 0.0 || tempDouble == 1.0 ) {
-        return new Boolean( tempDouble == 1.0 );
+        return tempDouble == 1.0 ? 1 : 0;
       }
     }
 
     // not identifiable from a number
-    return null;
+    return UNDECODABLE;
   }
 
   @Override
   public byte[] toByteArray() {
-    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-    DataOutputStream output = new DataOutputStream( byteArrayOutputStream );
-    try {
-      write( output );
-      output.close();
-      byteArrayOutputStream.close();
-      return byteArrayOutputStream.toByteArray();
-    } catch ( IOException e ) {
-      throw new RuntimeException( "Unable to serialize to byte array.", e );
-    }
+    // same layout as write( DataOutput )
+    return new byte[] { (byte) ( m_value.booleanValue() ? 1 : 0 ) };
   }
 
   /**
@@ -181,12 +211,9 @@ public class DeserializedBooleanComparator extends ByteArrayComparable implement
    * @throws java.io.IOException
    */
   public static ByteArrayComparable parseFrom( final byte[] pbBytes ) {
-    DataInput in = new DataInputStream( new ByteArrayInputStream( pbBytes ) );
-    try {
-      boolean m_value = new Boolean( in.readBoolean() );
-      return new DeserializedBooleanComparator( m_value );
-    } catch ( IOException e ) {
-      throw new RuntimeException( "Unable to deserialize byte array", e );
+    if ( pbBytes == null || pbBytes.length < 1 ) {
+      throw new RuntimeException( "Unable to deserialize byte array" );
     }
+    return new DeserializedBooleanComparator( pbBytes[ 0 ] != 0 );
   }
 }
@@ -26,12 +26,8 @@ import org.apache.hadoop.hbase.filter.ByteArrayComparable;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.pentaho.hbase.shim.spi.IDeserializedNumericComparator;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.DataInput;
-import java.io.DataInputStream;
 import java.io.DataOutput;
-import java.io.DataOutputStream;
 import java.io.IOException;
 
 /**
@@ -44,6 +40,11 @@ import java.io.IOException;
  */
 public class DeserializedNumericComparator extends ByteArrayComparable implements IDeserializedNumericComparator {
 
+  /**
+   * Size of the serialized form: the two flags followed by the long and the double value
+   */
+  private static final int SERIALIZED_SIZE = 2 + Bytes.SIZEOF_LONG + Bytes.SIZEOF_DOUBLE;
+
   protected long m_longValue;
 
   protected double m_doubleValue;
@@ -96,47 +97,55 @@ public class DeserializedNumericComparator extends ByteArrayComparable implement
 
   @Override
   public int compareTo( byte[] value ) {
+    return compareTo( value, 0, value.length );
+  }
+
+  /**
+   * Decodes the cell value in place and compares it as a primitive, so no copies or boxed values are created for the
+   * cells a filter evaluates.
+   */
+  @Override
+  public int compareTo( byte[] value, int offset, int length ) {
     if ( m_isInteger ) {
       long compV;
-      if ( value.length == Bytes.SIZEOF_LONG ) {
-        compV = Bytes.toLong( value );
-      } else if ( value.length == Bytes.SIZEOF_INT ) {
-        compV = Bytes.toInt( value );
+      if ( length == Bytes.SIZEOF_LONG ) {
+        compV = Bytes.toLong( value, offset );
+      } else if ( length == Bytes.SIZEOF_INT ) {
+        compV = Bytes.toInt( value, offset );
       } else {
-        compV = Bytes.toShort( value );
+        checkLength( length, Bytes.SIZEOF_SHORT );
+        compV = Bytes.toShort( value, offset );
       }
 
-      Long l = new Long( m_longValue );
-      return l.compareTo( compV );
+      return Long.compare( m_longValue, compV );
     }
 
     double compV;
-    if ( value.length == Bytes.SIZEOF_DOUBLE ) {
-      compV = Bytes.toDouble( value );
+    if ( length == Bytes.SIZEOF_DOUBLE ) {
+      compV = Bytes.toDouble( value, offset );
     } else {
-      compV = Bytes.toFloat( value );
+      checkLength( length, Bytes.SIZEOF_FLOAT );
+      compV = Bytes.toFloat( value, offset );
     }
 
-    Double d = new Double( m_doubleValue );
-    return d.compareTo( compV );
+    return Double.compare( m_doubleValue, compV );
   }
 
-  public int compareTo( byte[] value, int offset, int length ) {
-    return compareTo( Bytes.copy( value, offset, length ) );
+  private static void checkLength( int length, int required ) {
+    if ( length < required ) {
+      throw new IllegalArgumentException( "Numeric value of length " + length + " is too short to decode" );
+    }
   }
 
   @Override
   public byte[] toByteArray() {
-    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-    DataOutputStream output = new DataOutputStream( byteArrayOutputStream );
-    try {
-      write( output );
-      output.close();
-      byteArrayOutputStream.close();
-      return byteArrayOutputStream.toByteArray();
-    } catch ( IOException e ) {
-      throw new RuntimeException( "Unable to serialize to byte array.", e );
-    }
+    // same layout as write( DataOutput ), built without the intermediate streams
+    byte[] result = new byte[ SERIALIZED_SIZE ];
+    result[ 0 ] = (byte) ( m_isInteger ? 1 : 0 );
+    result[ 1 ] = (byte) ( m_isLongOrDouble ? 1 : 0 );
+    Bytes.putLong( result, 2, m_longValue );
+    Bytes.putDouble( result, 2 + Bytes.SIZEOF_LONG, m_doubleValue );
+    return result;
   }
 
   /**
@@ -145,19 +154,16 @@ public class DeserializedNumericComparator extends ByteArrayComparable implement
    * @throws java.io.IOException
    */
   public static ByteArrayComparable parseFrom( final byte[] pbBytes ) {
-    DataInput in = new DataInputStream( new ByteArrayInputStream( pbBytes ) );
-    try {
-      boolean m_isInteger = in.readBoolean();
-      boolean m_isLongOrDouble = in.readBoolean();
-      long m_longValue = in.readLong();
-      double m_doubleValue = in.readDouble();
-      if ( m_isInteger ) {
-        return new DeserializedNumericComparator( m_isInteger, m_isLongOrDouble, m_longValue );
-      } else {
-        return new DeserializedNumericComparator( m_isInteger, m_isLongOrDouble, m_doubleValue );
-      }
-    } catch ( IOException e ) {
-      throw new RuntimeException( "Unable to deserialize byte array", e );
+    if ( pbBytes == null || pbBytes.length < SERIALIZED_SIZE ) {
+      throw new RuntimeException( "Unable to deserialize byte array" );
+    }
+    boolean isInteger = pbBytes[ 0 ] != 0;
+    boolean isLongOrDouble = pbBytes[ 1 ] != 0;
+    if ( isInteger ) {
+      return new DeserializedNumericComparator( isInteger, isLongOrDouble, Bytes.toLong( pbBytes, 2 ) );
+    } else {
+      return new DeserializedNumericComparator( isInteger, isLongOrDouble,
+        Bytes.toDouble( pbBytes, 2 + Bytes.SIZEOF_LONG ) );
     }
   }
 }
@@ -28,6 +28,7 @@ import org.pentaho.hadoop.shim.api.internal.Configuration;
 import org.pentaho.hadoop.shim.api.internal.hbase.ColumnFilter;
 import org.pentaho.hadoop.shim.api.internal.hbase.HBaseBytesUtilShim;
 import org.pentaho.hadoop.shim.api.internal.hbase.HBaseValueMeta;
+import org.pentaho.hadoop.shim.api.internal.hbase.TargetTableMutation;
 
 import java.util.List;
 import java.util.NavigableMap;
@@ -45,6 +46,9 @@ public interface HBaseConnectionInterface {
   public abstract void addColumnToTargetPut( String columnFamily, String columnName, boolean colNameIsBinary,
                                              byte[] colValue ) throws Exception;
 
+  public abstract void addColumnToTargetPut( byte[] columnFamily, byte[] columnName, byte[] colValue )
+    throws Exception;
+
   public abstract boolean checkForHBaseRow( Object rowToCheck );
 
   public abstract void checkHBaseAvailable() throws Exception;
@@ -74,6 +78,8 @@ public interface HBaseConnectionInterface {
 
   public abstract void executeTargetTablePut() throws Exception;
 
+  public abstract List<Integer> executeTargetTableMutations( List<TargetTableMutation> mutations ) throws Exception;
+
   public abstract void flushCommitsTargetTable() throws Exception;
 
   public abstract Class<?> getBloomTypeClass() throws ClassNotFoundException;
@@ -122,6 +128,8 @@ public interface HBaseConnectionInterface {
 
   public abstract void newSourceTableScan( byte[] keyLowerBound, byte[] keyUpperBound, int cacheSize ) throws Exception;
 
+  public abstract List<byte[]> getSourceTableRegionStartKeys() throws Exception;
+
   public abstract void newTargetTable( String tableName, Properties props ) throws Exception;
 
   public abstract void newTargetTablePut( byte[] key, boolean writeToWAL ) throws Exception;
@@ -130,6 +138,10 @@ public interface HBaseConnectionInterface {
 
   public abstract boolean sourceTableRowExists( byte[] rowKey ) throws Exception;
 
+  public abstract List<Object> getSourceTableRows( List<byte[]> rowKeys ) throws Exception;
+
+  public abstract boolean[] sourceTableRowsExist( List<byte[]> rowKeys ) throws Exception;
+
   public abstract boolean tableExists( String tableName ) throws Exception;
 
   public abstract boolean targetTableIsAutoFlush() throws Exception;
@@ -28,6 +28,7 @@ import org.pentaho.hadoop.shim.api.cluster.NamedCluster;
 import org.pentaho.hadoop.shim.api.internal.hbase.ColumnFilter;
 import org.pentaho.hadoop.shim.api.internal.hbase.HBaseBytesUtilShim;
 import org.pentaho.hadoop.shim.api.internal.hbase.HBaseValueMeta;
+import org.pentaho.hadoop.shim.api.internal.hbase.TargetTableMutation;
 import org.pentaho.hadoop.shim.spi.HBaseConnection;
 
 import java.util.ArrayList;
@@ -497,6 +498,13 @@ public class FakeHBaseConnection implements HBaseConnection {
         .toBytes( columnName ), colValue );
   }
 
+  @Override
+  public void addColumnToTargetPut( byte[] columnFamily, byte[] columnName, byte[] colValue ) throws Exception {
+    checkTargetTable();
+    checkTargetPut();
+    m_currentTargetPut.addColumn( columnFamily, columnName, colValue );
+  }
+
   @Override
   public boolean checkForHBaseRow( Object arg0 ) {
     // TODO Auto-generated method stub
@@ -628,6 +636,36 @@ public class FakeHBaseConnection implements HBaseConnection {
     }
   }
 
+  @Override
+  public List<Integer> executeTargetTableMutations( List<TargetTableMutation> mutations ) throws Exception {
+    checkTargetTable();
+
+    List<Integer> failed = new ArrayList<Integer>();
+    for ( int i = 0; i < mutations.size(); i++ ) {
+      TargetTableMutation mutation = mutations.get( i );
+      try {
+        if ( mutation.isDelete() ) {
+          executeTargetTableDelete( mutation.getRowKey() );
+        } else {
+          newTargetTablePut( mutation.getRowKey(), mutation.isWriteToWAL() );
+          for ( TargetTableMutation.Column column : mutation.getColumns() ) {
+            if ( column.isEncoded() ) {
+              addColumnToTargetPut( column.getColumnFamilyBytes(), column.getColumnNameBytes(),
+                column.getColValue() );
+            } else {
+              addColumnToTargetPut( column.getColumnFamily(), column.getColumnName(), column.isColNameIsBinary(),
+                column.getColValue() );
+            }
+          }
+          executeTargetTablePut();
+        }
+      } catch ( Exception e ) {
+        failed.add( i );
+      }
+    }
+    return failed;
+  }
+
   @Override
   public void flushCommitsTargetTable() throws Exception {
   }
@@ -755,6 +793,16 @@ public class FakeHBaseConnection implements HBaseConnection {
     m_sourceScan = new Scan( keyLowerBound, keyUpperBound );
   }
 
+  @Override
+  public List<byte[]> getSourceTableRegionStartKeys() throws Exception {
+    checkSourceTable();
+
+    // a fake table is a single region
+    List<byte[]> startKeys = new ArrayList<byte[]>();
+    startKeys.add( new byte[ 0 ] );
+    return startKeys;
+  }
+
   @Override
   public void newTargetTable( String tableName, Properties arg1 )
     throws Exception {
@@ -794,6 +842,27 @@ public class FakeHBaseConnection implements HBaseConnection {
     return true;
   }
 
+  @Override
+  public List<Object> getSourceTableRows( List<byte[]> rowKeys ) throws Exception {
+    checkSourceTable();
+    FakeTable tab = m_db.get( m_sourceTable );
+
+    List<Object> rows = new ArrayList<Object>();
+    for ( byte[] rowKey : rowKeys ) {
+      rows.add( tab == null ? null : tab.get( rowKey ) );
+    }
+    return rows;
+  }
+
+  @Override
+  public boolean[] sourceTableRowsExist( List<byte[]> rowKeys ) throws Exception {
+    boolean[] exist = new boolean[ rowKeys.size() ];
+    for ( int i = 0; i < exist.length; i++ ) {
+      exist[ i ] = sourceTableRowExists( rowKeys.get( i ) );
+    }
+    return exist;
+  }
+
   @Override
   public boolean tableExists( String tableName ) throws Exception {
     return ( m_db.get( tableName ) != null );
@@ -25,6 +25,7 @@ package com.pentaho.big.data.bundles.impl.shim.hbase;
 import org.apache.hadoop.hbase.client.Result;
 import org.junit.Before;
 import org.junit.Test;
+import org.pentaho.hadoop.shim.api.hbase.meta.HBaseColumnHandle;
 import org.pentaho.hadoop.shim.api.internal.hbase.HBaseBytesUtilShim;
 
 import java.nio.charset.Charset;
@@ -76,6 +77,18 @@ public class ResultImplTest {
     assertEquals( navigableMap, result.getFamilyMap( familyName ) );
   }
 
+  @Test
+  public void testGetValueColumnHandle() {
+    byte[] family = "family".getBytes( UTF_8 );
+    byte[] column = "column".getBytes( UTF_8 );
+    byte[] value = "value".getBytes( UTF_8 );
+    HBaseColumnHandle columnHandle = mock( HBaseColumnHandle.class );
+    when( columnHandle.getColumnFamilyBytes() ).thenReturn( family );
+    when( columnHandle.getColumnNameBytes() ).thenReturn( column );
+    when( delegate.getValue( family, column ) ).thenReturn( value );
+    assertArrayEquals( value, result.getValue( columnHandle ) );
+  }
+
   @Test
   public void testGetValueBinary() {
     String colFamilyName = "colFamilyName";
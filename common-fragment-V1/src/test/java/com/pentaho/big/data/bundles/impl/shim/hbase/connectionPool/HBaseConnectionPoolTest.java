@@ -38,6 +38,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.*;
 import static org.mockito.Matchers.anyList;
@@ -402,4 +404,159 @@ public class HBaseConnectionPoolTest {
     verify( logChannelInterface ).logError( e1Msg, exception1 );
     verify( logChannelInterface ).logError( e2Msg, exception2 );
   }
+
+  @Test
+  public void testGetConnectionHandleTargetTableSamePropsKeepsTargetTable() throws Exception {
+    String table = "table";
+    Properties properties = new Properties();
+    properties.setProperty( "key", "value" );
+    hBaseConnectionPool.getConnectionHandle( table, properties ).close();
+    Properties sameProperties = new Properties();
+    sameProperties.setProperty( "key", "value" );
+    hBaseConnectionPool.getConnectionHandle( table, sameProperties ).close();
+    assertEquals( 1, mockConnections.size() );
+    verify( mockConnections.get( 0 ), times( 1 ) ).newTargetTable( eq( table ), any( Properties.class ) );
+
+    Properties otherProperties = new Properties();
+    otherProperties.setProperty( "key", "other" );
+    hBaseConnectionPool.getConnectionHandle( table, otherProperties ).close();
+    verify( mockConnections.get( 0 ) ).newTargetTable( table, otherProperties );
+  }
+
+  @Test
+  public void testCheckoutAfterCloseFails() throws IOException {
+    hBaseConnectionPool.close();
+    try {
+      hBaseConnectionPool.getConnectionHandle();
+      fail( "Expected the closed pool to refuse the checkout" );
+    } catch ( IOException e ) {
+      // expected
+    }
+    assertEquals( 0, mockConnections.size() );
+  }
+
+  @Test
+  public void testWaitingCheckoutFailsWhenPoolIsClosed() throws Exception {
+    hBaseConnectionPool = new HBaseConnectionPool( hBaseShim, props, logChannelInterface, namedCluster, 1, -1, 0 );
+    hBaseConnectionPool.getConnectionHandle();
+    final AtomicReference<Throwable> failure = new AtomicReference<>();
+    Thread waiter = new Thread( () -> {
+      try {
+        hBaseConnectionPool.getConnectionHandle();
+      } catch ( Throwable t ) {
+        failure.set( t );
+      }
+    } );
+    waiter.start();
+    while ( waiter.getState() != Thread.State.WAITING ) {
+      assertTrue( waiter.isAlive() );
+      Thread.sleep( 5 );
+    }
+    hBaseConnectionPool.close();
+    waiter.join( 10000 );
+    assertFalse( waiter.isAlive() );
+    assertTrue( failure.get() instanceof IOException );
+    assertEquals( 1, mockConnections.size() );
+    verify( mockConnections.get( 0 ) ).close();
+  }
+
+  @Test
+  public void testConnectionCreatedWhileClosingIsClosed() throws Exception {
+    final CountDownLatch creating = new CountDownLatch( 1 );
+    final CountDownLatch closed = new CountDownLatch( 1 );
+    hBaseConnectionPool = new HBaseConnectionPool( hBaseShim, props, logChannelInterface, namedCluster ) {
+      @Override protected HBaseConnectionPoolConnection create() throws IOException {
+        creating.countDown();
+        try {
+          closed.await();
+        } catch ( InterruptedException e ) {
+          throw new IOException( e );
+        }
+        return super.create();
+      }
+    };
+    final AtomicReference<Throwable> failure = new AtomicReference<>();
+    Thread creator = new Thread( () -> {
+      try {
+        hBaseConnectionPool.getConnectionHandle();
+      } catch ( Throwable t ) {
+        failure.set( t );
+      }
+    } );
+    creator.start();
+    creating.await();
+    hBaseConnectionPool.close();
+    closed.countDown();
+    creator.join( 10000 );
+    assertTrue( failure.get() instanceof IOException );
+    assertEquals( 1, mockConnections.size() );
+    verify( mockConnections.get( 0 ) ).close();
+    assertEquals( 0, hBaseConnectionPool.getStats().getInUse() );
+  }
+
+  @Test
+  public void testBoundedPoolFailsFastWhenFull() throws IOException {
+    hBaseConnectionPool = new HBaseConnectionPool( hBaseShim, props, logChannelInterface, namedCluster, 1, 0, 0 );
+    HBaseConnectionHandle connectionHandle = hBaseConnectionPool.getConnectionHandle();
+    HBaseConnectionWrapper connection = connectionHandle.getConnection();
+    try {
+      hBaseConnectionPool.getConnectionHandle();
+      fail( "Expected the full pool to refuse the checkout" );
+    } catch ( IOException e ) {
+      // expected
+    }
+    connectionHandle.close();
+    assertEquals( connection, hBaseConnectionPool.getConnectionHandle().getConnection() );
+    assertEquals( 1, mockConnections.size() );
+  }
+
+  @Test
+  public void testBoundedPoolWaitsForRelease() throws Exception {
+    hBaseConnectionPool = new HBaseConnectionPool( hBaseShim, props, logChannelInterface, namedCluster, 1, 10000, 0 );
+    final HBaseConnectionHandle connectionHandle = hBaseConnectionPool.getConnectionHandle();
+    HBaseConnectionWrapper connection = connectionHandle.getConnection();
+    Thread releaser = new Thread( () -> {
+      try {
+        Thread.sleep( 100 );
+        connectionHandle.close();
+      } catch ( Exception e ) {
+        throw new RuntimeException( e );
+      }
+    } );
+    releaser.start();
+    assertEquals( connection, hBaseConnectionPool.getConnectionHandle().getConnection() );
+    releaser.join();
+    HBaseConnectionPoolStats stats = hBaseConnectionPool.getStats();
+    assertEquals( 1, stats.getWaits() );
+    assertEquals( 1, stats.getCreates() );
+    assertEquals( 2, stats.getCheckouts() );
+  }
+
+  @Test
+  public void testIdleConnectionsAreEvicted() throws Exception {
+    hBaseConnectionPool = new HBaseConnectionPool( hBaseShim, props, logChannelInterface, namedCluster, 0, -1, 1 );
+    hBaseConnectionPool.getConnectionHandle().close();
+    Thread.sleep( 20 );
+    hBaseConnectionPool.getConnectionHandle();
+    assertEquals( 2, mockConnections.size() );
+    verify( mockConnections.get( 0 ) ).close();
+    verify( mockConnections.get( 1 ), never() ).close();
+    assertEquals( 1, hBaseConnectionPool.getStats().getEvictions() );
+  }
+
+  @Test
+  public void testStats() throws IOException {
+    HBaseConnectionHandle connectionHandle = hBaseConnectionPool.getConnectionHandle();
+    hBaseConnectionPool.getConnectionHandle().close();
+    HBaseConnectionPoolStats stats = hBaseConnectionPool.getStats();
+    assertEquals( 2, stats.getCheckouts() );
+    assertEquals( 2, stats.getCreates() );
+    assertEquals( 0, stats.getWaits() );
+    assertEquals( 0, stats.getEvictions() );
+    assertEquals( 1, stats.getAvailable() );
+    assertEquals( 1, stats.getInUse() );
+    connectionHandle.close();
+    assertEquals( 2, hBaseConnectionPool.getStats().getAvailable() );
+    assertEquals( 0, hBaseConnectionPool.getStats().getInUse() );
+  }
 }
@@ -24,6 +24,7 @@ package com.pentaho.big.data.bundles.impl.shim.hbase.meta;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -45,6 +46,7 @@ import org.pentaho.di.core.xml.XMLHandler;
 import org.pentaho.di.repository.AbstractRepository;
 import org.pentaho.di.repository.ObjectId;
 import org.pentaho.di.repository.Repository;
+import org.pentaho.hadoop.shim.api.hbase.meta.HBaseColumnHandle;
 import org.pentaho.hadoop.shim.api.internal.hbase.HBaseBytesUtilShim;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
@@ -84,6 +86,24 @@ public class HBaseValueMetaInterfaceImplTest {
     hBaseValueMetaInterface = new HBaseValueMetaInterfaceImpl( name, type, length, precision, hBaseBytesUtilShim );
   }
 
+  @Test
+  public void testGetColumnHandle() {
+    byte[] family = "columnFamily".getBytes( Charset.forName( "UTF-8" ) );
+    byte[] column = "column".getBytes( Charset.forName( "UTF-8" ) );
+    byte[] otherColumn = "otherColumn".getBytes( Charset.forName( "UTF-8" ) );
+    when( hBaseBytesUtilShim.toBytes( "columnFamily" ) ).thenReturn( family );
+    when( hBaseBytesUtilShim.toBytes( "column" ) ).thenReturn( column );
+    when( hBaseBytesUtilShim.toBytes( "otherColumn" ) ).thenReturn( otherColumn );
+    HBaseColumnHandle columnHandle = hBaseValueMetaInterface.getColumnHandle();
+    assertEquals( family, columnHandle.getColumnFamilyBytes() );
+    assertEquals( column, columnHandle.getColumnNameBytes() );
+    assertSame( columnHandle, hBaseValueMetaInterface.getColumnHandle() );
+    verify( hBaseBytesUtilShim, times( 1 ) ).toBytes( "column" );
+
+    hBaseValueMetaInterface.setColumnName( "otherColumn" );
+    assertEquals( otherColumn, hBaseValueMetaInterface.getColumnHandle().getColumnNameBytes() );
+  }
+
   @Test
   public void testDecodeColumnValue() throws KettleException {
     String result = "result";
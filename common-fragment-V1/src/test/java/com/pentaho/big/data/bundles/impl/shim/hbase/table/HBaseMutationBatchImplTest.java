@@ -0,0 +1,176 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package com.pentaho.big.data.bundles.impl.shim.hbase.table;
+
+import com.pentaho.big.data.bundles.impl.shim.hbase.HBaseConnectionWrapper;
+import com.pentaho.big.data.bundles.impl.shim.hbase.connectionPool.HBaseConnectionHandle;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.pentaho.hadoop.shim.api.hbase.table.HBaseMutationBatch;
+import org.pentaho.hadoop.shim.api.hbase.table.HBasePut;
+import org.pentaho.hadoop.shim.api.internal.hbase.TargetTableMutation;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class HBaseMutationBatchImplTest {
+  private HBaseConnectionHandle hBaseConnectionHandle;
+  private HBaseConnectionWrapper hBaseConnectionWrapper;
+  private List<List<byte[]>> reportedFailures;
+  private ExecutorService executor;
+
+  @Before
+  public void setup() throws Exception {
+    hBaseConnectionHandle = mock( HBaseConnectionHandle.class );
+    hBaseConnectionWrapper = mock( HBaseConnectionWrapper.class );
+    when( hBaseConnectionHandle.getConnection() ).thenReturn( hBaseConnectionWrapper );
+    when( hBaseConnectionWrapper.executeTargetTableMutations( anyListOf( TargetTableMutation.class ) ) )
+      .thenReturn( Collections.<Integer>emptyList() );
+    reportedFailures = Collections.synchronizedList( new ArrayList<List<byte[]>>() );
+    executor = Executors.newSingleThreadExecutor();
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  private static byte[] bytes( String value ) {
+    return value.getBytes( StandardCharsets.UTF_8 );
+  }
+
+  private HBaseMutationBatch.Listener listener() {
+    return ( mutations, bytes, elapsedMillis, failedKeys ) -> reportedFailures.add( failedKeys );
+  }
+
+  @SuppressWarnings( "unchecked" )
+  @Test
+  public void testMutationsAreSubmittedInBatchesOfMaxMutations() throws Exception {
+    try ( HBaseMutationBatch batch = new HBaseMutationBatchImpl( hBaseConnectionHandle, executor, 2, Long.MAX_VALUE,
+      listener() ) ) {
+      for ( int i = 0; i < 4; i++ ) {
+        HBasePut put = batch.createPut( bytes( "key" + i ) );
+        put.setWriteToWAL( true );
+        put.addColumn( "family", "column", false, bytes( "value" + i ) );
+        put.execute();
+      }
+      batch.createDelete( bytes( "deleted" ) ).execute();
+      batch.flush();
+    }
+
+    ArgumentCaptor<List> captor = ArgumentCaptor.forClass( List.class );
+    verify( hBaseConnectionWrapper, times( 3 ) ).executeTargetTableMutations( captor.capture() );
+    List<List> batches = captor.getAllValues();
+    assertEquals( 2, batches.get( 0 ).size() );
+    assertEquals( 2, batches.get( 1 ).size() );
+    assertEquals( 1, batches.get( 2 ).size() );
+    TargetTableMutation first = (TargetTableMutation) batches.get( 0 ).get( 0 );
+    assertArrayEquals( bytes( "key0" ), first.getRowKey() );
+    assertTrue( first.isWriteToWAL() );
+    assertEquals( "column", first.getColumns().get( 0 ).getColumnName() );
+    assertTrue( ( (TargetTableMutation) batches.get( 2 ).get( 0 ) ).isDelete() );
+    assertEquals( 3, reportedFailures.size() );
+  }
+
+  @Test
+  public void testByteThresholdTriggersSubmission() throws Exception {
+    try ( HBaseMutationBatch batch = new HBaseMutationBatchImpl( hBaseConnectionHandle, executor, Integer.MAX_VALUE, 1,
+      listener() ) ) {
+      batch.createDelete( bytes( "a" ) ).execute();
+      batch.createDelete( bytes( "b" ) ).execute();
+      batch.flush();
+    }
+    verify( hBaseConnectionWrapper, times( 2 ) ).executeTargetTableMutations( anyListOf( TargetTableMutation.class ) );
+  }
+
+  @Test
+  public void testFailedMutationsAreReported() throws Exception {
+    when( hBaseConnectionWrapper.executeTargetTableMutations( anyListOf( TargetTableMutation.class ) ) )
+      .thenReturn( Collections.singletonList( 1 ) );
+    try ( HBaseMutationBatch batch = new HBaseMutationBatchImpl( hBaseConnectionHandle, executor, 10, Long.MAX_VALUE,
+      listener() ) ) {
+      batch.createDelete( bytes( "a" ) ).execute();
+      batch.createDelete( bytes( "b" ) ).execute();
+    }
+    assertEquals( 1, reportedFailures.size() );
+    assertArrayEquals( bytes( "b" ), reportedFailures.get( 0 ).get( 0 ) );
+  }
+
+  @Test
+  public void testFailedMutationsFailFlushWithoutListener() throws Exception {
+    when( hBaseConnectionWrapper.executeTargetTableMutations( anyListOf( TargetTableMutation.class ) ) )
+      .thenReturn( Collections.singletonList( 0 ) );
+    HBaseMutationBatch batch = new HBaseMutationBatchImpl( hBaseConnectionHandle, executor, 10, Long.MAX_VALUE, null );
+    batch.createDelete( bytes( "a" ) ).execute();
+    try {
+      batch.flush();
+      fail( "expected the failed mutation to be reported" );
+    } catch ( IOException e ) {
+      assertFalse( e.getMessage().isEmpty() );
+    }
+  }
+
+  @Test
+  public void testFlushAsyncCompletesAfterQueuedMutationsAreApplied() throws Exception {
+    try ( HBaseMutationBatch batch = new HBaseMutationBatchImpl( hBaseConnectionHandle, executor, 10, Long.MAX_VALUE,
+      listener() ) ) {
+      batch.createDelete( bytes( "a" ) ).execute();
+      batch.flushAsync().get();
+      verify( hBaseConnectionWrapper ).executeTargetTableMutations( anyListOf( TargetTableMutation.class ) );
+      assertEquals( 1, reportedFailures.size() );
+    }
+  }
+
+  @Test
+  public void testFailedMutationsFailFlushAsyncWithoutListener() throws Exception {
+    when( hBaseConnectionWrapper.executeTargetTableMutations( anyListOf( TargetTableMutation.class ) ) )
+      .thenReturn( Collections.singletonList( 0 ) );
+    HBaseMutationBatch batch = new HBaseMutationBatchImpl( hBaseConnectionHandle, executor, 10, Long.MAX_VALUE, null );
+    batch.createDelete( bytes( "a" ) ).execute();
+    try {
+      batch.flushAsync().get();
+      fail( "expected the failed mutation to be reported" );
+    } catch ( ExecutionException e ) {
+      assertTrue( e.getCause() instanceof IOException );
+    }
+  }
+}
@@ -26,6 +26,7 @@ import com.pentaho.big.data.bundles.impl.shim.hbase.HBaseConnectionWrapper;
 import com.pentaho.big.data.bundles.impl.shim.hbase.connectionPool.HBaseConnectionHandle;
 import org.junit.Before;
 import org.junit.Test;
+import org.pentaho.hadoop.shim.api.hbase.meta.HBaseColumnHandle;
 import org.pentaho.hadoop.shim.api.internal.hbase.HBaseValueMeta;
 
 import java.io.IOException;
@@ -80,6 +81,21 @@ public class HBasePutImplTest {
     verify( hBaseConnectionWrapper ).executeTargetTablePut();
   }
 
+  @Test
+  public void testFullPutColumnHandle() throws Exception {
+    byte[] family = "testFamily".getBytes( Charset.forName( "UTF-8" ) );
+    byte[] column = "testName".getBytes( Charset.forName( "UTF-8" ) );
+    byte[] colValue = "testColVal".getBytes( Charset.forName( "UTF-8" ) );
+    HBaseColumnHandle columnHandle = mock( HBaseColumnHandle.class );
+    when( columnHandle.getColumnFamilyBytes() ).thenReturn( family );
+    when( columnHandle.getColumnNameBytes() ).thenReturn( column );
+    hBasePut.addColumn( columnHandle, colValue );
+    hBasePut.execute();
+    verify( hBaseConnectionWrapper ).newTargetTablePut( testKey, false );
+    verify( hBaseConnectionWrapper ).addColumnToTargetPut( family, column, colValue );
+    verify( hBaseConnectionWrapper ).executeTargetTablePut();
+  }
+
   @Test( expected = IOException.class )
   public void testNewTargetPutException() throws Exception {
     Exception exception = new Exception();
@@ -0,0 +1,117 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package com.pentaho.big.data.bundles.impl.shim.hbase.table;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.pentaho.hadoop.shim.api.hbase.Result;
+
+import java.nio.charset.Charset;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+public class HBaseRowCacheTest {
+  private static final Charset UTF_8 = Charset.forName( "UTF-8" );
+  private AtomicLong now;
+  private HBaseRowCache rowCache;
+
+  @Before
+  public void setup() {
+    now = new AtomicLong( 1000L );
+    rowCache = new HBaseRowCache( 2, 100L, now::get );
+  }
+
+  @Test
+  public void testHitByKeyContent() {
+    Result row = mock( Result.class );
+    byte[] key = bytes( "a" );
+    rowCache.put( key, row );
+    key[ 0 ] = 'z';
+    assertSame( row, rowCache.get( bytes( "a" ) ).getRow() );
+    assertNull( rowCache.get( bytes( "z" ) ) );
+  }
+
+  @Test
+  public void testMissingRowIsCached() {
+    rowCache.put( bytes( "a" ), null );
+    assertNotNull( rowCache.get( bytes( "a" ) ) );
+    assertNull( rowCache.get( bytes( "a" ) ).getRow() );
+  }
+
+  @Test
+  public void testExistenceIsCached() {
+    rowCache.putExists( bytes( "a" ), true );
+    rowCache.putExists( bytes( "b" ), false );
+    assertTrue( rowCache.get( bytes( "a" ) ).exists() );
+    assertFalse( rowCache.get( bytes( "a" ) ).isRowKnown() );
+    assertFalse( rowCache.get( bytes( "b" ) ).exists() );
+    assertTrue( rowCache.get( bytes( "b" ) ).isRowKnown() );
+  }
+
+  @Test
+  public void testExistenceKeepsFetchedRow() {
+    Result row = mock( Result.class );
+    rowCache.put( bytes( "a" ), row );
+    rowCache.putExists( bytes( "a" ), true );
+    assertSame( row, rowCache.get( bytes( "a" ) ).getRow() );
+    rowCache.putExists( bytes( "a" ), false );
+    assertNull( rowCache.get( bytes( "a" ) ).getRow() );
+    assertFalse( rowCache.get( bytes( "a" ) ).exists() );
+  }
+
+  @Test
+  public void testLeastRecentlyUsedIsEvicted() {
+    rowCache.put( bytes( "a" ), mock( Result.class ) );
+    rowCache.put( bytes( "b" ), mock( Result.class ) );
+    assertNotNull( rowCache.get( bytes( "a" ) ) );
+    rowCache.put( bytes( "c" ), mock( Result.class ) );
+    assertEquals( 2, rowCache.size() );
+    assertNotNull( rowCache.get( bytes( "a" ) ) );
+    assertNull( rowCache.get( bytes( "b" ) ) );
+    assertNotNull( rowCache.get( bytes( "c" ) ) );
+  }
+
+  @Test
+  public void testExpiredEntryIsDropped() {
+    rowCache.put( bytes( "a" ), mock( Result.class ) );
+    now.addAndGet( 99L );
+    assertNotNull( rowCache.get( bytes( "a" ) ) );
+    now.addAndGet( 1L );
+    assertNull( rowCache.get( bytes( "a" ) ) );
+    assertEquals( 0, rowCache.size() );
+  }
+
+  @Test
+  public void testNoTtl() {
+    rowCache = new HBaseRowCache( 2, 0L, now::get );
+    rowCache.put( bytes( "a" ), mock( Result.class ) );
+    now.addAndGet( Long.MAX_VALUE / 2 );
+    assertNotNull( rowCache.get( bytes( "a" ) ) );
+  }
+
+  private static byte[] bytes( String key ) {
+    return key.getBytes( UTF_8 );
+  }
+}
@@ -32,12 +32,14 @@ import org.mockito.stubbing.OngoingStubbing;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.logging.LogChannelInterface;
 import org.pentaho.di.core.variables.VariableSpace;
+import org.pentaho.hadoop.shim.api.hbase.Result;
 import org.pentaho.hadoop.shim.api.hbase.mapping.Mapping;
 import org.pentaho.hadoop.shim.api.internal.hbase.HBaseBytesUtilShim;
 
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
 
@@ -341,6 +343,96 @@ public class HBaseTableImplTest {
       keyExistsRunnable );
   }
 
+  @Test
+  public void testGetRows() throws Exception {
+    byte[] missingKey = "missing".getBytes( Charset.forName( "UTF-8" ) );
+    org.apache.hadoop.hbase.client.Result row = mock( org.apache.hadoop.hbase.client.Result.class );
+    when( row.getRow() ).thenReturn( testBytes );
+    when( hBaseConnectionPool.getConnectionHandle( testName ) ).thenReturn( hBaseConnectionHandle );
+    when( hBaseConnectionWrapper.getSourceTableRows( Arrays.asList( testBytes, missingKey ) ) )
+      .thenReturn( Arrays.<Object>asList( row, null ) );
+    List<Result> results = hBaseTable.get( Arrays.asList( testBytes, missingKey ) );
+    assertEquals( 2, results.size() );
+    assertArrayEquals( testBytes, results.get( 0 ).getRow() );
+    assertNull( results.get( 1 ) );
+    verify( hBaseConnectionHandle ).close();
+  }
+
+  @Test
+  public void testGetRowsUsesRowCache() throws Exception {
+    byte[] otherKey = "other".getBytes( Charset.forName( "UTF-8" ) );
+    org.apache.hadoop.hbase.client.Result row = mock( org.apache.hadoop.hbase.client.Result.class );
+    when( row.getRow() ).thenReturn( testBytes );
+    when( hBaseConnectionPool.getConnectionHandle( testName ) ).thenReturn( hBaseConnectionHandle );
+    when( hBaseConnectionWrapper.getSourceTableRows( Arrays.asList( testBytes ) ) )
+      .thenReturn( Arrays.<Object>asList( row ) );
+    when( hBaseConnectionWrapper.getSourceTableRows( Arrays.asList( otherKey ) ) )
+      .thenReturn( Arrays.<Object>asList( (Object) null ) );
+    hBaseTable.setRowCache( 10, 0L );
+    hBaseTable.get( Arrays.asList( testBytes ) );
+    List<Result> results = hBaseTable.get( Arrays.asList( otherKey, testBytes ) );
+    assertNull( results.get( 0 ) );
+    assertArrayEquals( testBytes, results.get( 1 ).getRow() );
+    verify( hBaseConnectionWrapper ).getSourceTableRows( Arrays.asList( testBytes ) );
+    verify( hBaseConnectionWrapper ).getSourceTableRows( Arrays.asList( otherKey ) );
+    assertTrue( Arrays.equals( new boolean[] { true, false },
+      hBaseTable.existsAll( Arrays.asList( testBytes, otherKey ) ) ) );
+    assertTrue( hBaseTable.keyExists( testBytes ) );
+    verify( hBaseConnectionWrapper, never() ).sourceTableRowsExist( anyListOf( byte[].class ) );
+    verify( hBaseConnectionWrapper, never() ).sourceTableRowExists( any( byte[].class ) );
+  }
+
+  @Test
+  public void testKeyExistsUsesRowCache() throws Exception {
+    byte[] missingKey = "missing".getBytes( Charset.forName( "UTF-8" ) );
+    org.apache.hadoop.hbase.client.Result row = mock( org.apache.hadoop.hbase.client.Result.class );
+    when( row.getRow() ).thenReturn( testBytes );
+    when( hBaseConnectionPool.getConnectionHandle( testName ) ).thenReturn( hBaseConnectionHandle );
+    when( hBaseConnectionWrapper.sourceTableRowsExist( Arrays.asList( testBytes ) ) )
+      .thenReturn( new boolean[] { true } );
+    when( hBaseConnectionWrapper.sourceTableRowsExist( Arrays.asList( missingKey ) ) )
+      .thenReturn( new boolean[] { false } );
+    when( hBaseConnectionWrapper.getSourceTableRows( Arrays.asList( testBytes ) ) )
+      .thenReturn( Arrays.<Object>asList( row ) );
+    hBaseTable.setRowCache( 10, 0L );
+
+    assertTrue( hBaseTable.keyExists( testBytes ) );
+    assertTrue( hBaseTable.keyExists( testBytes ) );
+    assertFalse( hBaseTable.keyExists( missingKey ) );
+    assertFalse( hBaseTable.keyExists( missingKey ) );
+    verify( hBaseConnectionWrapper ).sourceTableRowsExist( Arrays.asList( testBytes ) );
+    verify( hBaseConnectionWrapper ).sourceTableRowsExist( Arrays.asList( missingKey ) );
+
+    // only the existence of the row is known, so it is still fetched, while the missing key needs no round trip
+    List<Result> results = hBaseTable.get( Arrays.asList( testBytes, missingKey ) );
+    assertArrayEquals( testBytes, results.get( 0 ).getRow() );
+    assertNull( results.get( 1 ) );
+    verify( hBaseConnectionWrapper ).getSourceTableRows( Arrays.asList( testBytes ) );
+    verify( hBaseConnectionWrapper, never() ).sourceTableRowExists( any( byte[].class ) );
+  }
+
+  @Test
+  public void testExistsAll() throws Exception {
+    byte[] missingKey = "missing".getBytes( Charset.forName( "UTF-8" ) );
+    when( hBaseConnectionPool.getConnectionHandle( testName ) ).thenReturn( hBaseConnectionHandle );
+    when( hBaseConnectionWrapper.sourceTableRowsExist( Arrays.asList( testBytes, missingKey ) ) )
+      .thenReturn( new boolean[] { true, false } );
+    assertTrue( Arrays.equals( new boolean[] { true, false },
+      hBaseTable.existsAll( Arrays.asList( testBytes, missingKey ) ) ) );
+    verify( hBaseConnectionHandle ).close();
+  }
+
+  @Test( expected = IOException.class )
+  public void testGetRowsHandleClosedWhenException() throws Exception {
+    when( hBaseConnectionPool.getConnectionHandle( testName ) ).thenReturn( hBaseConnectionHandle );
+    when( hBaseConnectionWrapper.getSourceTableRows( anyListOf( byte[].class ) ) ).thenThrow( new Exception() );
+    try {
+      hBaseTable.get( Arrays.asList( testBytes ) );
+    } finally {
+      verify( hBaseConnectionHandle ).close();
+    }
+  }
+
   @Test
   public void testCreateWriteOperationManagerSuccessNullBufferSize() throws IOException {
     assertNotNull( hBaseTable.createWriteOperationManager( null ) );
@@ -26,11 +26,21 @@ import com.pentaho.big.data.bundles.impl.shim.hbase.HBaseConnectionWrapper;
 import com.pentaho.big.data.bundles.impl.shim.hbase.connectionPool.HBaseConnectionHandle;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.InOrder;
+import org.pentaho.hadoop.shim.api.hbase.table.HBaseMutationBatch;
+import org.pentaho.hadoop.shim.api.internal.hbase.TargetTableMutation;
 
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 
 import static org.junit.Assert.*;
+import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Mockito.*;
 
 /**
@@ -98,6 +108,106 @@ public class HBaseTableWriteOperationManagerImplTest {
     }
   }
 
+  @Test
+  public void testFlushCommitsAsync() throws Exception {
+    hBaseTableWriteOperationManager.flushCommitsAsync().get();
+    verify( hBaseConnectionWrapper ).flushCommitsTargetTable();
+  }
+
+  @Test
+  public void testFlushCommitsAsyncException() throws Exception {
+    Exception exception = new Exception();
+    doThrow( exception ).when( hBaseConnectionWrapper ).flushCommitsTargetTable();
+    try {
+      hBaseTableWriteOperationManager.flushCommitsAsync().get();
+      fail( "expected the flush failure to be reported" );
+    } catch ( ExecutionException e ) {
+      assertTrue( e.getCause() instanceof IOException );
+      assertEquals( exception, e.getCause().getCause() );
+    }
+  }
+
+  @Test
+  public void testFlushCommitsAsyncSharesPendingFlush() throws Exception {
+    final CountDownLatch started = new CountDownLatch( 1 );
+    final CountDownLatch release = new CountDownLatch( 1 );
+    doAnswer( invocation -> {
+      started.countDown();
+      release.await();
+      return null;
+    } ).doNothing().when( hBaseConnectionWrapper ).flushCommitsTargetTable();
+
+    CompletableFuture<Void> running = hBaseTableWriteOperationManager.flushCommitsAsync();
+    started.await();
+    CompletableFuture<Void> pending = hBaseTableWriteOperationManager.flushCommitsAsync();
+    assertNotSame( running, pending );
+    assertSame( pending, hBaseTableWriteOperationManager.flushCommitsAsync() );
+
+    release.countDown();
+    hBaseTableWriteOperationManager.close();
+    assertTrue( running.isDone() );
+    assertTrue( pending.isDone() );
+    verify( hBaseConnectionWrapper, times( 2 ) ).flushCommitsTargetTable();
+    verify( hBaseConnectionHandle ).close();
+  }
+
+  @Test
+  public void testCreateMutationBatch() throws Exception {
+    byte[] bytes = "deleteKey".getBytes( Charset.forName( "UTF-8" ) );
+    try ( HBaseMutationBatch batch = hBaseTableWriteOperationManager.createMutationBatch( 10, 1024, null ) ) {
+      batch.createDelete( bytes ).execute();
+    }
+    verify( hBaseConnectionWrapper ).executeTargetTableMutations( anyListOf( TargetTableMutation.class ) );
+    verify( hBaseConnectionWrapper, never() ).executeTargetTableDelete( bytes );
+  }
+
+  @Test
+  public void testCloseAppliesQueuedMutationsBeforeReleasingConnection() throws Exception {
+    when( hBaseConnectionWrapper.executeTargetTableMutations( anyListOf( TargetTableMutation.class ) ) )
+      .thenReturn( Collections.<Integer>emptyList() );
+    HBaseMutationBatch batch = hBaseTableWriteOperationManager.createMutationBatch( 10, 1024, null );
+    batch.createDelete( "deleteKey".getBytes( Charset.forName( "UTF-8" ) ) ).execute();
+
+    hBaseTableWriteOperationManager.close();
+
+    InOrder inOrder = inOrder( hBaseConnectionWrapper, hBaseConnectionHandle );
+    inOrder.verify( hBaseConnectionWrapper ).executeTargetTableMutations( anyListOf( TargetTableMutation.class ) );
+    inOrder.verify( hBaseConnectionHandle ).close();
+    try {
+      batch.createDelete( "otherKey".getBytes( Charset.forName( "UTF-8" ) ) ).execute();
+      fail( "expected the batch to be closed with the manager" );
+    } catch ( IOException e ) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testMutationBatchesAndFlushesShareOneThread() throws Exception {
+    final Set<Thread> threads = Collections.synchronizedSet( new HashSet<Thread>() );
+    doAnswer( invocation -> {
+      threads.add( Thread.currentThread() );
+      return Collections.<Integer>emptyList();
+    } ).when( hBaseConnectionWrapper ).executeTargetTableMutations( anyListOf( TargetTableMutation.class ) );
+    doAnswer( invocation -> {
+      threads.add( Thread.currentThread() );
+      return null;
+    } ).when( hBaseConnectionWrapper ).flushCommitsTargetTable();
+
+    HBaseMutationBatch first = hBaseTableWriteOperationManager.createMutationBatch( 1, 1024, null );
+    HBaseMutationBatch second = hBaseTableWriteOperationManager.createMutationBatch( 1, 1024, null );
+    first.createDelete( "first".getBytes( Charset.forName( "UTF-8" ) ) ).execute();
+    second.createDelete( "second".getBytes( Charset.forName( "UTF-8" ) ) ).execute();
+    hBaseTableWriteOperationManager.flushCommitsAsync().get();
+    first.flush();
+    second.flush();
+
+    verify( hBaseConnectionWrapper, times( 2 ) )
+      .executeTargetTableMutations( anyListOf( TargetTableMutation.class ) );
+    assertEquals( 1, threads.size() );
+    assertNotSame( Thread.currentThread(), threads.iterator().next() );
+    hBaseTableWriteOperationManager.close();
+  }
+
   @Test
   public void testClose() throws IOException {
     hBaseTableWriteOperationManager.close();
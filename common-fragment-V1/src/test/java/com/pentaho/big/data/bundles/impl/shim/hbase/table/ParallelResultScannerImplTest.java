@@ -0,0 +1,139 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package com.pentaho.big.data.bundles.impl.shim.hbase.table;
+
+import com.pentaho.big.data.bundles.impl.shim.hbase.HBaseConnectionWrapper;
+import com.pentaho.big.data.bundles.impl.shim.hbase.ResultImpl;
+import com.pentaho.big.data.bundles.impl.shim.hbase.connectionPool.HBaseConnectionHandle;
+import org.apache.hadoop.hbase.client.Result;
+import org.junit.Before;
+import org.junit.Test;
+import org.pentaho.hadoop.shim.api.internal.hbase.HBaseBytesUtilShim;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ParallelResultScannerImplTest {
+  private static final Charset UTF_8 = Charset.forName( "UTF-8" );
+  private HBaseBytesUtilShim hBaseBytesUtilShim;
+  private Map<String, HBaseConnectionHandle> handles;
+  private List<byte[][]> ranges;
+
+  @Before
+  public void setup() {
+    hBaseBytesUtilShim = mock( HBaseBytesUtilShim.class );
+    handles = new HashMap<>();
+    ranges = new ArrayList<>();
+    ranges.add( new byte[][] { bytes( "" ), bytes( "b" ) } );
+    ranges.add( new byte[][] { bytes( "b" ), bytes( "c" ) } );
+    ranges.add( new byte[][] { bytes( "c" ), bytes( "" ) } );
+  }
+
+  /**
+   * Stubs the scanners up front, Mockito stubbing is not meant to run on the scanner threads
+   */
+  private ParallelResultScannerImpl.RangeScannerFactory rowsPerRange( int rows ) throws Exception {
+    for ( String prefix : new String[] { "a", "b", "c" } ) {
+      HBaseConnectionHandle handle = mock( HBaseConnectionHandle.class );
+      HBaseConnectionWrapper wrapper = mock( HBaseConnectionWrapper.class );
+      when( handle.getConnection() ).thenReturn( wrapper );
+      Result[] results = new Result[ rows ];
+      Boolean[] hasNext = new Boolean[ rows ];
+      for ( int i = 0; i < rows; i++ ) {
+        results[ i ] = mock( Result.class );
+        when( results[ i ].getRow() ).thenReturn( bytes( prefix + i ) );
+        hasNext[ i ] = i + 1 < rows;
+      }
+      when( wrapper.resultSetNextRow() ).thenReturn( true, hasNext );
+      when( wrapper.getCurrentResult() ).thenReturn( results[ 0 ], Arrays.copyOfRange( results, 1, rows ) );
+      handles.put( prefix, handle );
+    }
+    return ( keyLowerBound, keyUpperBound ) ->
+      handles.get( keyLowerBound.length == 0 ? "a" : new String( keyLowerBound, UTF_8 ) );
+  }
+
+  @Test
+  public void testKeyOrdered() throws Exception {
+    ParallelResultScannerImpl scanner =
+      new ParallelResultScannerImpl( rowsPerRange( 3 ), ranges, 2, true, hBaseBytesUtilShim );
+    List<String> rows = new ArrayList<>();
+    ResultImpl result;
+    while ( ( result = scanner.next() ) != null ) {
+      rows.add( new String( result.getRow(), UTF_8 ) );
+    }
+    scanner.close();
+    assertEquals( "[a0, a1, a2, b0, b1, b2, c0, c1, c2]", rows.toString() );
+  }
+
+  @Test
+  public void testUnordered() throws Exception {
+    ParallelResultScannerImpl scanner =
+      new ParallelResultScannerImpl( rowsPerRange( 3 ), ranges, 3, false, hBaseBytesUtilShim );
+    Set<String> rows = new HashSet<>();
+    ResultImpl result;
+    while ( ( result = scanner.next() ) != null ) {
+      assertTrue( rows.add( new String( result.getRow(), UTF_8 ) ) );
+    }
+    assertEquals( 9, rows.size() );
+    assertNull( scanner.next() );
+    scanner.close();
+    assertEquals( 3, handles.size() );
+    for ( HBaseConnectionHandle handle : handles.values() ) {
+      verify( handle ).close();
+    }
+  }
+
+  @Test
+  public void testRangeFailure() throws Exception {
+    IOException exception = new IOException( "region moved" );
+    ParallelResultScannerImpl.RangeScannerFactory working = rowsPerRange( 2 );
+    ParallelResultScannerImpl scanner = new ParallelResultScannerImpl( ( keyLowerBound, keyUpperBound ) -> {
+      if ( keyLowerBound.length > 0 && keyLowerBound[ 0 ] == 'b' ) {
+        throw exception;
+      }
+      return working.open( keyLowerBound, keyUpperBound );
+    }, ranges, 2, true, hBaseBytesUtilShim );
+    assertNotNull( scanner.next() );
+    assertNotNull( scanner.next() );
+    try {
+      scanner.next();
+      fail( "Expected the failure of the second range" );
+    } catch ( IOException e ) {
+      assertEquals( exception, e );
+    }
+  }
+
+  private static byte[] bytes( String key ) {
+    return key.getBytes( UTF_8 );
+  }
+}
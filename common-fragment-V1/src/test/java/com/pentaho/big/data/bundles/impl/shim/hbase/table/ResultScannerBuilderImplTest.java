@@ -22,6 +22,8 @@
 
 package com.pentaho.big.data.bundles.impl.shim.hbase.table;
 
+import com.pentaho.big.data.bundles.impl.shim.hbase.HBaseConnectionWrapper;
+import com.pentaho.big.data.bundles.impl.shim.hbase.connectionPool.HBaseConnectionHandle;
 import com.pentaho.big.data.bundles.impl.shim.hbase.connectionPool.HBaseConnectionPool;
 import com.pentaho.big.data.bundles.impl.shim.hbase.meta.HBaseValueMetaInterfaceFactoryImpl;
 import org.junit.Before;
@@ -29,9 +31,16 @@ import org.junit.Test;
 import org.pentaho.hadoop.shim.api.internal.hbase.HBaseBytesUtilShim;
 
 import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * Created by bryan on 2/29/16.
@@ -72,4 +81,73 @@ public class ResultScannerBuilderImplTest {
     init();
     assertEquals( caching, resultScannerBuilder.getCaching() );
   }
+
+  @Test
+  public void testBuildSequential() throws Exception {
+    HBaseConnectionHandle connectionHandle = mock( HBaseConnectionHandle.class );
+    HBaseConnectionWrapper connectionWrapper = mock( HBaseConnectionWrapper.class );
+    when( connectionHandle.getConnection() ).thenReturn( connectionWrapper );
+    when( hBaseConnectionPool.getConnectionHandle( testTableName ) ).thenReturn( connectionHandle );
+    assertTrue( resultScannerBuilder.build() instanceof ResultScannerImpl );
+    verify( connectionWrapper ).newSourceTableScan( keyLowerBound, keyUpperBound, caching );
+    verify( connectionWrapper ).executeSourceTableScan();
+    verify( connectionWrapper, never() ).getSourceTableRegionStartKeys();
+  }
+
+  @Test
+  public void testBuildParallelSingleRegionFallsBackToSequential() throws Exception {
+    HBaseConnectionHandle connectionHandle = mock( HBaseConnectionHandle.class );
+    HBaseConnectionWrapper connectionWrapper = mock( HBaseConnectionWrapper.class );
+    when( connectionHandle.getConnection() ).thenReturn( connectionWrapper );
+    when( hBaseConnectionPool.getConnectionHandle( testTableName ) ).thenReturn( connectionHandle );
+    when( connectionWrapper.getSourceTableRegionStartKeys() ).thenReturn( Arrays.asList( new byte[ 0 ] ) );
+    resultScannerBuilder.setParallelism( 4, true );
+    assertTrue( resultScannerBuilder.build() instanceof ResultScannerImpl );
+    verify( connectionWrapper ).newSourceTableScan( keyLowerBound, keyUpperBound, caching );
+  }
+
+  @Test
+  public void testSplitKeyRangeWholeTable() {
+    List<byte[][]> ranges = ResultScannerBuilderImpl.splitKeyRange( null, null,
+      Arrays.asList( new byte[ 0 ], bytes( "g" ), bytes( "p" ) ) );
+    assertEquals( 3, ranges.size() );
+    assertRange( ranges.get( 0 ), "", "g" );
+    assertRange( ranges.get( 1 ), "g", "p" );
+    assertRange( ranges.get( 2 ), "p", "" );
+  }
+
+  @Test
+  public void testSplitKeyRangeBounded() {
+    List<byte[][]> ranges = ResultScannerBuilderImpl.splitKeyRange( bytes( "h" ), bytes( "q" ),
+      Arrays.asList( new byte[ 0 ], bytes( "g" ), bytes( "h" ), bytes( "m" ), bytes( "q" ), bytes( "x" ) ) );
+    assertEquals( 2, ranges.size() );
+    assertRange( ranges.get( 0 ), "h", "m" );
+    assertRange( ranges.get( 1 ), "m", "q" );
+  }
+
+  @Test
+  public void testSplitKeyRangeIgnoresUpperBoundWithoutLowerBound() {
+    List<byte[][]> ranges = ResultScannerBuilderImpl.splitKeyRange( null, bytes( "c" ),
+      Arrays.asList( new byte[ 0 ], bytes( "m" ) ) );
+    assertEquals( 2, ranges.size() );
+    assertRange( ranges.get( 1 ), "m", "" );
+  }
+
+  @Test
+  public void testSplitKeyRangeComparesUnsigned() {
+    byte[] highKey = new byte[] { (byte) 0xf0 };
+    List<byte[][]> ranges = ResultScannerBuilderImpl.splitKeyRange( bytes( "a" ), null,
+      Arrays.asList( new byte[ 0 ], highKey ) );
+    assertEquals( 2, ranges.size() );
+    assertArrayEquals( highKey, ranges.get( 1 )[ 0 ] );
+  }
+
+  private static byte[] bytes( String key ) {
+    return key.getBytes( UTF_8 );
+  }
+
+  private static void assertRange( byte[][] range, String lower, String upper ) {
+    assertArrayEquals( bytes( lower ), range[ 0 ] );
+    assertArrayEquals( bytes( upper ), range[ 1 ] );
+  }
 }
@@ -24,6 +24,7 @@ package org.pentaho.big.data.impl.shim.mapreduce;
 
 import org.apache.commons.vfs2.FileObject;
 import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapreduce.MRJobConfig;
 import org.apache.hadoop.security.Credentials;
 import org.junit.Before;
 import org.junit.FixMethodOrder;
@@ -73,16 +74,20 @@ import org.pentaho.hadoop.shim.api.internal.DistributedCacheUtil;
 import org.pentaho.hadoop.shim.api.internal.fs.FileSystem;
 import org.pentaho.hadoop.shim.api.internal.fs.Path;
 import org.pentaho.hadoop.shim.spi.HadoopShim;
+import org.pentaho.hadoop.mapreduce.MRUtil;
 
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -834,6 +839,71 @@ public class PentahoMapReduceJobBuilderImplTest {
     verify( distributedCacheUtil ).configureWithKettleEnvironment( conf, fileSystem, kettleEnvInstallDir );
   }
 
+  @Test
+  public void testStagedTransformationsAreLoadedByTasks() throws Exception {
+    String variableSpaceXml = "<variables>\u00e9</variables>";
+    Configuration conf = mock( Configuration.class );
+    JobConf jobConf = mock( JobConf.class );
+    when( conf.getAsDelegateConf( JobConf.class ) ).thenReturn( jobConf );
+    when( conf.get( PentahoMapReduceJobBuilderImpl.TRANSFORMATION_MAP_XML ) ).thenReturn( transXml );
+    when( conf.get( PentahoMapReduceJobBuilderImpl.VARIABLE_SPACE ) ).thenReturn( variableSpaceXml );
+
+    java.nio.file.Path staged = pentahoMapReduceJobBuilder.stageTransformationsForHadoop( conf );
+    try {
+      assertEquals( PentahoMapReduceJobBuilderImpl.STAGED_TRANSFORMATIONS_FILE, staged.getFileName().toString() );
+      verify( conf ).set( PentahoMapReduceJobBuilderImpl.TMP_FILES, staged.toUri().toString() );
+      verify( jobConf ).unset( PentahoMapReduceJobBuilderImpl.TRANSFORMATION_MAP_XML );
+      verify( jobConf ).unset( PentahoMapReduceJobBuilderImpl.VARIABLE_SPACE );
+      verify( jobConf, never() ).unset( PentahoMapReduceJobBuilderImpl.TRANSFORMATION_REDUCE_XML );
+      verify( conf ).set( PentahoMapReduceJobBuilderImpl.STAGED_TRANSFORMATIONS,
+        PentahoMapReduceJobBuilderImpl.STAGED_TRANSFORMATIONS_FILE );
+
+      // what a task sees once the file has been localized from the distributed cache
+      org.apache.hadoop.conf.Configuration taskConf = new org.apache.hadoop.conf.Configuration( false );
+      taskConf.set( PentahoMapReduceJobBuilderImpl.STAGED_TRANSFORMATIONS,
+        PentahoMapReduceJobBuilderImpl.STAGED_TRANSFORMATIONS_FILE );
+      taskConf.set( MRJobConfig.CACHE_LOCALFILES, staged.toString() );
+      MRUtil.loadStagedTransformations( taskConf );
+      assertEquals( transXml, taskConf.get( PentahoMapReduceJobBuilderImpl.TRANSFORMATION_MAP_XML ) );
+      assertEquals( variableSpaceXml, taskConf.get( PentahoMapReduceJobBuilderImpl.VARIABLE_SPACE ) );
+      assertNull( taskConf.get( PentahoMapReduceJobBuilderImpl.TRANSFORMATION_REDUCE_XML ) );
+    } finally {
+      Files.deleteIfExists( staged );
+      Files.deleteIfExists( staged.getParent() );
+    }
+  }
+
+  @Test
+  public void testSubmitDeletesLocalStagedTransformations() throws Exception {
+    Configuration conf = mock( Configuration.class );
+    JobConf jobConf = mock( JobConf.class );
+    when( jobConf.getCredentials() ).thenReturn( new Credentials() );
+    when( conf.getAsDelegateConf( any() ) ).thenReturn( jobConf );
+    when( conf.get( PentahoMapReduceJobBuilderImpl.PENTAHO_MAPREDUCE_PROPERTY_USE_DISTRIBUTED_CACHE ) )
+      .thenReturn( Boolean.toString( false ) );
+    when( conf.get( PentahoMapReduceJobBuilderImpl.PENTAHO_MAPREDUCE_PROPERTY_STAGE_TRANSFORMATIONS ) )
+      .thenReturn( Boolean.toString( true ) );
+    when( conf.get( PentahoMapReduceJobBuilderImpl.TRANSFORMATION_MAP_XML ) ).thenReturn( transXml );
+    final List<String> stagedFiles = new ArrayList<>();
+    doAnswer( invocation -> {
+      stagedFiles.add( (String) invocation.getArguments()[ 1 ] );
+      return null;
+    } ).when( conf ).set( eq( PentahoMapReduceJobBuilderImpl.TMP_FILES ), anyString() );
+    when( hadoopShim.submitJob( conf ) ).thenAnswer( invocation -> {
+      // the submission copies the file to the job's staging directory
+      assertTrue( Files.exists( Paths.get( new URI( stagedFiles.get( 0 ) ) ) ) );
+      return null;
+    } );
+
+    pentahoMapReduceJobBuilder.submit( conf, "" );
+
+    verify( hadoopShim ).submitJob( conf );
+    assertEquals( 1, stagedFiles.size() );
+    java.nio.file.Path staged = Paths.get( new URI( stagedFiles.get( 0 ) ) );
+    assertFalse( Files.exists( staged ) );
+    assertFalse( Files.exists( staged.getParent() ) );
+  }
+
   @Test( expected = IOException.class )
   public void testSubmitNoPmrArchive() throws IOException, ConfigurationException, URISyntaxException {
     Configuration conf = mock( Configuration.class );
@@ -0,0 +1,126 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.pentaho.hadoop.hbase.factory;
+
+import org.apache.hadoop.hbase.client.Connection;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class HBaseConnectionCacheTest {
+  private final AtomicInteger created = new AtomicInteger();
+
+  private Connection newConnection() {
+    created.incrementAndGet();
+    return mock( Connection.class );
+  }
+
+  @Test
+  public void testConnectionIsSharedPerKey() throws Exception {
+    HBaseConnectionCache cache = new HBaseConnectionCache( 0 );
+    HBaseConnectionCache.Lease first = cache.acquire( "cluster", this::newConnection );
+    HBaseConnectionCache.Lease second = cache.acquire( "cluster", this::newConnection );
+    HBaseConnectionCache.Lease other = cache.acquire( "other", this::newConnection );
+
+    assertSame( first.getConnection(), second.getConnection() );
+    assertNotSame( first.getConnection(), other.getConnection() );
+    assertEquals( 2, created.get() );
+    assertEquals( 2, cache.getLiveConnectionCount() );
+
+    Connection shared = first.getConnection();
+    first.close();
+    first.close();
+    verify( shared, never() ).close();
+    second.close();
+    verify( shared ).close();
+    other.close();
+  }
+
+  @Test
+  public void testIdleConnectionIsReusedBeforeTimeout() throws Exception {
+    HBaseConnectionCache cache = new HBaseConnectionCache( 60000 );
+    HBaseConnectionCache.Lease first = cache.acquire( "cluster", this::newConnection );
+    Connection connection = first.getConnection();
+    first.close();
+
+    HBaseConnectionCache.Lease second = cache.acquire( "cluster", this::newConnection );
+    assertSame( connection, second.getConnection() );
+    assertEquals( 1, created.get() );
+    verify( connection, never() ).close();
+    second.close();
+  }
+
+  @Test
+  public void testIdleConnectionIsClosedAfterTimeout() throws Exception {
+    HBaseConnectionCache cache = new HBaseConnectionCache( 10 );
+    HBaseConnectionCache.Lease lease = cache.acquire( "cluster", this::newConnection );
+    Connection connection = lease.getConnection();
+    lease.close();
+
+    long deadline = System.currentTimeMillis() + 5000;
+    while ( cache.getLiveConnectionCount() > 0 && System.currentTimeMillis() < deadline ) {
+      Thread.sleep( 10 );
+    }
+    assertEquals( 0, cache.getLiveConnectionCount() );
+    verify( connection ).close();
+  }
+
+  @Test
+  public void testClosedConnectionIsReplaced() throws Exception {
+    HBaseConnectionCache cache = new HBaseConnectionCache( 0 );
+    HBaseConnectionCache.Lease first = cache.acquire( "cluster", this::newConnection );
+    Connection stale = first.getConnection();
+    when( stale.isClosed() ).thenReturn( true );
+
+    HBaseConnectionCache.Lease second = cache.acquire( "cluster", this::newConnection );
+    assertNotSame( stale, second.getConnection() );
+    assertEquals( 2, created.get() );
+  }
+
+  @Test
+  public void testFailedCreationDoesNotLeakReference() throws Exception {
+    HBaseConnectionCache cache = new HBaseConnectionCache( 0 );
+    try {
+      cache.acquire( "cluster", () -> {
+        throw new IOException( "unreachable" );
+      } );
+      fail( "expected the creation failure" );
+    } catch ( IOException e ) {
+      assertEquals( "unreachable", e.getMessage() );
+    }
+    HBaseConnectionCache.Lease lease = cache.acquire( "cluster", this::newConnection );
+    assertEquals( 1, cache.getLiveConnectionCount() );
+    lease.close();
+    assertEquals( 0, cache.getLiveConnectionCount() );
+  }
+}
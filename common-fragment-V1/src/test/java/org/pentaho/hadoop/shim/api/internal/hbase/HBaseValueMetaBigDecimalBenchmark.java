@@ -0,0 +1,120 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.pentaho.hadoop.shim.api.internal.hbase;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.pentaho.hbase.shim.common.CommonHBaseBytesUtil;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Decode throughput of {@link HBaseValueMeta#decodeBigDecimal(byte[], HBaseBytesUtilShim)} for the sortable encoding
+ * written by {@link HBaseValueMeta#encodeBigDecimal(BigDecimal)}, compared with the string and serialized forms it
+ * still reads. Not part of the normal test run, as surefire only picks up *Test classes. Run it with
+ * <pre>
+ *   mvn test -Dtest=HBaseValueMetaBigDecimalBenchmark -DfailIfNoTests=false
+ * </pre>
+ * The system properties benchmark.operations (default 10,000,000), benchmark.warmups and benchmark.iterations size
+ * the run.
+ */
+public class HBaseValueMetaBigDecimalBenchmark {
+  private static final int OPERATIONS = Integer.getInteger( "benchmark.operations", 10_000_000 );
+  private static final int WARMUPS = Integer.getInteger( "benchmark.warmups", 1 );
+  private static final int ITERATIONS = Integer.getInteger( "benchmark.iterations", 3 );
+  private static final int VALUES = 4096;
+
+  private final HBaseBytesUtilShim bytesUtil = new CommonHBaseBytesUtil();
+  private BigDecimal[] values;
+  private BigDecimal expectedSum;
+
+  @Before
+  public void setUp() {
+    Random random = new Random( 42 );
+    values = new BigDecimal[ VALUES ];
+    for ( int i = 0; i < VALUES; i++ ) {
+      values[ i ] = new BigDecimal( new BigInteger( 20 + random.nextInt( 80 ), random ), random.nextInt( 20 ) - 5 );
+      if ( random.nextBoolean() ) {
+        values[ i ] = values[ i ].negate();
+      }
+    }
+    expectedSum = BigDecimal.ZERO;
+    for ( int i = 0; i < OPERATIONS; i++ ) {
+      expectedSum = expectedSum.add( values[ i % VALUES ] );
+    }
+  }
+
+  @Test
+  public void decodeSortable() throws Exception {
+    byte[][] encoded = new byte[ VALUES ][];
+    for ( int i = 0; i < VALUES; i++ ) {
+      encoded[ i ] = HBaseValueMeta.encodeBigDecimal( values[ i ] );
+    }
+    run( "sortable", encoded );
+  }
+
+  @Test
+  public void decodeString() {
+    byte[][] encoded = new byte[ VALUES ][];
+    for ( int i = 0; i < VALUES; i++ ) {
+      encoded[ i ] = bytesUtil.toBytes( values[ i ].toString() );
+    }
+    run( "string", encoded );
+  }
+
+  @Test
+  public void decodeSerialized() throws Exception {
+    byte[][] encoded = new byte[ VALUES ][];
+    for ( int i = 0; i < VALUES; i++ ) {
+      encoded[ i ] = HBaseValueMeta.encodeObject( values[ i ] );
+    }
+    run( "serialized", encoded );
+  }
+
+  private void run( String name, byte[][] encoded ) {
+    for ( int i = 0; i < WARMUPS; i++ ) {
+      decode( encoded );
+    }
+    for ( int i = 0; i < ITERATIONS; i++ ) {
+      long nanos = decode( encoded );
+      System.out.printf( "HBaseValueMeta.decodeBigDecimal %s: %,d values in %,d ms, %,.0f values/s%n", name,
+        OPERATIONS, nanos / 1_000_000, OPERATIONS * 1e9 / nanos );
+    }
+  }
+
+  private long decode( byte[][] encoded ) {
+    long start = System.nanoTime();
+    BigDecimal sum = BigDecimal.ZERO;
+    for ( int i = 0; i < OPERATIONS; i++ ) {
+      sum = sum.add( HBaseValueMeta.decodeBigDecimal( encoded[ i % VALUES ], bytesUtil ) );
+    }
+    long nanos = System.nanoTime() - start;
+    // keeps the decoded values in use, and checks them
+    assertEquals( 0, expectedSum.compareTo( sum ) );
+    return nanos;
+  }
+}
@@ -478,6 +478,25 @@ public class HBaseValueMetaTest extends HBaseValueMeta {
       decodeColumnValue( indexedStorageString.getBytes(), hbMeta, BYTE_BUFFER_UTIL ) );
   }
 
+  @Test
+  public void testLookupIndexedValue() {
+    HBaseValueMeta mappingMeta =
+      new HBaseValueMeta( "famliy1" + SEPARATOR + "testcol" + SEPARATOR + "anAlias", TYPE_STRING, -1, -1 );
+    assertEquals( -1, mappingMeta.lookupIndexedValue( "Value1" ) );
+
+    mappingMeta.setStorageType( STORAGE_TYPE_INDEXED );
+    mappingMeta.setIndex( new Object[] { " Value1", "Value2 ", "Value2" } );
+    assertEquals( 0, mappingMeta.lookupIndexedValue( "Value1  " ) );
+    assertEquals( 1, mappingMeta.lookupIndexedValue( "Value2" ) );
+    assertEquals( -1, mappingMeta.lookupIndexedValue( "Value3" ) );
+    assertEquals( -1, mappingMeta.lookupIndexedValue( null ) );
+
+    // a new index replaces the cached lookup
+    mappingMeta.setIndex( new Object[] { "Value3" } );
+    assertEquals( 0, mappingMeta.lookupIndexedValue( "Value3" ) );
+    assertEquals( -1, mappingMeta.lookupIndexedValue( "Value1" ) );
+  }
+
   @Test
   public void testDecodeColumnValueStringIndexedStorageIllegalValue() {
     String value = "Bogus";
@@ -617,7 +636,65 @@ public class HBaseValueMetaTest extends HBaseValueMeta {
   @Test
   public void testEncodeBigDecimal() throws Exception {
     assertArrayEquals( new byte[] { -84, -19, 0, 5, 112 }, encodeBigDecimal( null ) );
-    assertEquals( 290, encodeBigDecimal( new BigDecimal( 0 ) ).length );
+    assertNull( decodeBigDecimal( encodeBigDecimal( null ), BYTES_UTIL ) );
+    assertArrayEquals( new byte[] { SORTABLE_BIG_DECIMAL_MARKER, 2 }, encodeBigDecimal( new BigDecimal( 0 ) ) );
+    assertEquals( 7, encodeBigDecimal( new BigDecimal( 1 ) ).length );
+  }
+
+  @Test
+  public void testEncodeBigDecimalRoundTrip() throws Exception {
+    String[] values = { "0", "1", "-1", "10", "1.5", "-1.50", "0.000123", "-0.000123",
+      "12345678901234567890.0987654321", "-9E+300", "1E-300", "100200300", "100", "1E+3" };
+    for ( String value : values ) {
+      BigDecimal expected = new BigDecimal( value );
+      BigDecimal decoded = decodeBigDecimal( encodeBigDecimal( expected ), BYTES_UTIL );
+      assertEquals( value, 0, expected.compareTo( decoded ) );
+    }
+
+    // whole numbers keep a plain form, like the string and serialized forms
+    assertEquals( "100", decodeBigDecimal( encodeBigDecimal( new BigDecimal( "100" ) ), BYTES_UTIL ).toString() );
+    assertEquals( "1000", decodeBigDecimal( encodeBigDecimal( new BigDecimal( "1E+3" ) ), BYTES_UTIL ).toString() );
+    assertEquals( "100200300",
+      decodeBigDecimal( encodeBigDecimal( new BigDecimal( "100200300" ) ), BYTES_UTIL ).toString() );
+    assertEquals( "-100", decodeBigDecimal( encodeBigDecimal( new BigDecimal( "-100" ) ), BYTES_UTIL ).toString() );
+    assertEquals( "1.5", decodeBigDecimal( encodeBigDecimal( new BigDecimal( "1.50" ) ), BYTES_UTIL ).toString() );
+  }
+
+  @Test
+  public void testEncodeBigDecimalPreservesOrder() throws Exception {
+    BigDecimal[] ordered = { new BigDecimal( "-1E+10" ), new BigDecimal( "-100" ), new BigDecimal( "-12.5" ),
+      new BigDecimal( "-12" ), new BigDecimal( "-1.0001" ), new BigDecimal( "-1" ), new BigDecimal( "-0.5" ),
+      BigDecimal.ZERO, new BigDecimal( "0.001" ), new BigDecimal( "0.5" ), new BigDecimal( "1" ),
+      new BigDecimal( "1.0001" ), new BigDecimal( "12" ), new BigDecimal( "12.5" ), new BigDecimal( "100" ),
+      new BigDecimal( "1E+10" ) };
+    for ( int i = 1; i < ordered.length; i++ ) {
+      byte[] lower = encodeBigDecimal( ordered[ i - 1 ] );
+      byte[] upper = encodeBigDecimal( ordered[ i ] );
+      assertTrue( ordered[ i - 1 ] + " < " + ordered[ i ], compareUnsigned( lower, upper ) < 0 );
+    }
+  }
+
+  @Test
+  public void testDecodeBigDecimalStillReadsLegacyForms() throws Exception {
+    BigDecimal value = new BigDecimal( "-42.125" );
+    assertEquals( value, decodeBigDecimal( encodeObject( value ), BYTE_BUFFER_UTIL ) );
+    assertEquals( value, decodeBigDecimal( BYTE_BUFFER_UTIL.toBytes( "-42.125" ), BYTE_BUFFER_UTIL ) );
+    assertEquals( 0, value.compareTo( decodeBigDecimal( encodeBigDecimal( value ), BYTE_BUFFER_UTIL ) ) );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testDecodeSortableBigDecimalRejectsUnmarkedBytes() {
+    decodeSortableBigDecimal( new byte[] { 1, 2, 3 } );
+  }
+
+  private static int compareUnsigned( byte[] left, byte[] right ) {
+    for ( int i = 0; i < Math.min( left.length, right.length ); i++ ) {
+      int diff = ( left[ i ] & 0xFF ) - ( right[ i ] & 0xFF );
+      if ( diff != 0 ) {
+        return diff;
+      }
+    }
+    return left.length - right.length;
   }
 
   @Test
@@ -0,0 +1,136 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+package org.pentaho.hadoop.shim.common.format;
+
+import org.junit.Test;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoInputSplit;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoRecordReader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class ParallelSplitReaderTest {
+
+  private static class TestSplit implements IPentahoInputSplit {
+    final int number;
+    final int rows;
+
+    TestSplit( int number, int rows ) {
+      this.number = number;
+      this.rows = rows;
+    }
+  }
+
+  private static class TestInputFormat implements IPentahoInputFormat {
+    @Override
+    public IPentahoRecordReader createRecordReader( IPentahoInputSplit split ) {
+      TestSplit testSplit = (TestSplit) split;
+      if ( testSplit.rows < 0 ) {
+        throw new IllegalArgumentException( "broken split" );
+      }
+      RowMeta rowMeta = new RowMeta();
+      rowMeta.addValueMeta( new ValueMetaInteger( "value" ) );
+      List<RowMetaAndData> rows = new ArrayList<>();
+      for ( int i = 0; i < testSplit.rows; i++ ) {
+        rows.add( new RowMetaAndData( rowMeta, (long) testSplit.number * 100000 + i ) );
+      }
+      return new IPentahoRecordReader() {
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public Iterator<RowMetaAndData> iterator() {
+          return rows.iterator();
+        }
+      };
+    }
+  }
+
+  private static List<IPentahoInputSplit> splits( int... rows ) {
+    List<IPentahoInputSplit> splits = new ArrayList<>();
+    for ( int i = 0; i < rows.length; i++ ) {
+      splits.add( new TestSplit( i, rows[ i ] ) );
+    }
+    return splits;
+  }
+
+  private static List<Long> readAll( IPentahoRecordReader reader ) throws Exception {
+    List<Long> values = new ArrayList<>();
+    try {
+      for ( RowMetaAndData row : reader ) {
+        values.add( (Long) row.getData()[ 0 ] );
+      }
+    } finally {
+      reader.close();
+    }
+    return values;
+  }
+
+  @Test
+  public void testOrderedReadKeepsSplitOrder() throws Exception {
+    List<Long> values =
+      readAll( new ParallelSplitReader( new TestInputFormat(), splits( 2500, 0, 10, 3000 ), 3, true ) );
+
+    List<Long> expected = new ArrayList<>();
+    int[] rows = { 2500, 0, 10, 3000 };
+    for ( int s = 0; s < rows.length; s++ ) {
+      for ( int i = 0; i < rows[ s ]; i++ ) {
+        expected.add( (long) s * 100000 + i );
+      }
+    }
+    assertEquals( expected, values );
+  }
+
+  @Test
+  public void testUnorderedReadReturnsAllRows() throws Exception {
+    List<Long> values =
+      readAll( new ParallelSplitReader( new TestInputFormat(), splits( 2500, 0, 10, 3000 ), 3, false ) );
+
+    assertEquals( 5510, values.size() );
+    Collections.sort( values );
+    assertEquals( Long.valueOf( 0 ), values.get( 0 ) );
+    assertEquals( Long.valueOf( 3 * 100000 + 2999 ), values.get( values.size() - 1 ) );
+  }
+
+  @Test
+  public void testNoSplits() throws Exception {
+    IPentahoRecordReader reader =
+      new ParallelSplitReader( new TestInputFormat(), Collections.emptyList(), 2, true );
+    assertFalse( reader.iterator().hasNext() );
+    reader.close();
+  }
+
+  @Test( expected = IllegalStateException.class )
+  public void testSplitErrorIsPropagated() throws Exception {
+    readAll( new ParallelSplitReader( new TestInputFormat(), splits( 10, -1, 10 ), 2, false ) );
+  }
+}
@@ -22,15 +22,30 @@
 package org.pentaho.hadoop.shim.common.format.avro;
 
 import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.Mockito;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.plugins.PluginRegistry;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaPluginType;
 import org.pentaho.hadoop.shim.api.cluster.NamedCluster;
+import org.pentaho.hadoop.shim.api.format.AvroSpec;
 import org.pentaho.hadoop.shim.api.format.IAvroInputField;
 import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -47,6 +62,9 @@ public class PentahoAvroInputFormatTest {
 
   private PentahoAvroInputFormat format;
 
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
   @Before
   public void setUp() throws Exception {
     format = new PentahoAvroInputFormat( mock( NamedCluster.class ) );
@@ -105,6 +123,79 @@ public class PentahoAvroInputFormatTest {
     assertTrue( expectedFields.equals( actualFields ) );
   }
 
+  @Test
+  public void splitsOfOneFileReadEveryRecordOnce() throws Exception {
+    File file = tempFolder.newFile( "split.avro" );
+    writeIds( file, 0, 5000 );
+    setUpIdReader( file.getAbsolutePath() );
+    format.setSplitSize( 4096 );
+
+    List<IPentahoInputFormat.IPentahoInputSplit> splits = format.getSplits();
+    assertTrue( splits.size() > 2 );
+
+    List<Long> ids = new ArrayList<>();
+    for ( IPentahoInputFormat.IPentahoInputSplit split : splits ) {
+      try ( IPentahoInputFormat.IPentahoRecordReader reader = format.createRecordReader( split ) ) {
+        for ( RowMetaAndData row : reader ) {
+          ids.add( (Long) row.getData()[ 0 ] );
+        }
+      }
+    }
+    assertEquals( 5000, ids.size() );
+    for ( int i = 0; i < ids.size(); i++ ) {
+      assertEquals( Long.valueOf( i ), ids.get( i ) );
+    }
+  }
+
+  @Test
+  public void allFilesOfDirectoryAreRead() throws Exception {
+    File dir = tempFolder.newFolder( "avro-dir" );
+    writeIds( new File( dir, "part-1.avro" ), 100, 250 );
+    writeIds( new File( dir, "part-0.avro" ), 0, 100 );
+    setUpIdReader( dir.getAbsolutePath() );
+
+    assertEquals( 2, format.getSplits().size() );
+    long expected = 0;
+    try ( IPentahoInputFormat.IPentahoRecordReader reader = format.createRecordReader( null ) ) {
+      for ( RowMetaAndData row : reader ) {
+        assertEquals( expected++, row.getData()[ 0 ] );
+      }
+    }
+    assertEquals( 250, expected );
+  }
+
+  private void setUpIdReader( String fileName ) throws Exception {
+    PluginRegistry.addPluginType( ValueMetaPluginType.getInstance() );
+    PluginRegistry.init( true );
+    AvroInputField idField = new AvroInputField();
+    idField.setFormatFieldName( "id" );
+    idField.setPentahoFieldName( "id" );
+    idField.setAvroType( AvroSpec.DataType.LONG );
+    idField.setPentahoType( ValueMetaInterface.TYPE_INTEGER );
+    RowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaInteger( "id" ) );
+    format.setInputFields( Collections.singletonList( idField ) );
+    format.setOutputRowMeta( rowMeta );
+    format.setInputFile( fileName );
+  }
+
+  private static void writeIds( File file, long from, long to ) throws Exception {
+    Schema schema = new Schema.Parser().parse(
+      "{\"type\":\"record\",\"name\":\"row\",\"fields\":[{\"name\":\"id\",\"type\":\"long\"},"
+        + "{\"name\":\"name\",\"type\":\"string\"}]}" );
+    GenericDatumWriter<GenericRecord> datumWriter = new GenericDatumWriter<>( schema );
+    try ( DataFileWriter<GenericRecord> writer = new DataFileWriter<>( datumWriter ) ) {
+      writer.setSyncInterval( 512 );
+      writer.create( schema, file );
+      for ( long id = from; id < to; id++ ) {
+        GenericRecord record = new GenericData.Record( schema );
+        record.put( "id", id );
+        record.put( "name", "name" + id );
+        writer.append( record );
+      }
+    }
+  }
+
   private String getFilePath( String file ) {
     return getClass().getClassLoader().getSystemClassLoader().getResource( file ).getPath();
   }
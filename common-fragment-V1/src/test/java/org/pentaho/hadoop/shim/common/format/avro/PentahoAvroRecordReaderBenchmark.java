@@ -0,0 +1,144 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.pentaho.hadoop.shim.common.format.avro;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.plugins.PluginRegistry;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaPluginType;
+import org.pentaho.hadoop.shim.api.format.IAvroInputField;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Read throughput of {@link PentahoAvroRecordReader} over a generated local file with a wide flat schema. Not part of
+ * the normal test run, as surefire only picks up *Test classes. Run it with
+ * <pre>
+ *   mvn test -Dtest=PentahoAvroRecordReaderBenchmark -DfailIfNoTests=false
+ * </pre>
+ * The system properties benchmark.rows (default 1,000,000), benchmark.warmups and benchmark.iterations size the run.
+ */
+public class PentahoAvroRecordReaderBenchmark {
+  private static final int ROWS = Integer.getInteger( "benchmark.rows", 1_000_000 );
+  private static final int WARMUPS = Integer.getInteger( "benchmark.warmups", 1 );
+  private static final int ITERATIONS = Integer.getInteger( "benchmark.iterations", 3 );
+  private static final int COLUMNS = 20;
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private Schema schema;
+  private File file;
+  private List<IAvroInputField> fields;
+
+  @BeforeClass
+  public static void setUpClass() throws Exception {
+    PluginRegistry.addPluginType( ValueMetaPluginType.getInstance() );
+    PluginRegistry.init( true );
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    SchemaBuilder.FieldAssembler<Schema> assembler = SchemaBuilder.record( "wide" ).fields();
+    for ( int c = 0; c < COLUMNS; c++ ) {
+      assembler = assembler.requiredLong( "long" + c );
+    }
+    schema = assembler.requiredString( "text" ).requiredString( "day" ).optionalInt( "optional" ).endRecord();
+
+    file = tempFolder.newFile( "benchmark.avro" );
+    try ( DataFileWriter<GenericRecord> writer = new DataFileWriter<>( new GenericDatumWriter<>( schema ) ) ) {
+      writer.create( schema, file );
+      GenericRecord record = new GenericData.Record( schema );
+      for ( int r = 0; r < ROWS; r++ ) {
+        for ( int c = 0; c < COLUMNS; c++ ) {
+          record.put( "long" + c, (long) r * COLUMNS + c );
+        }
+        record.put( "text", "row" + r );
+        record.put( "day", "2020-01-" + ( r % 28 + 10 ) );
+        record.put( "optional", r % 2 == 0 ? null : r );
+        writer.append( record );
+      }
+    }
+
+    fields = new ArrayList<>();
+    fields.add( field( "optional", ValueMetaInterface.TYPE_INTEGER, null ) );
+    fields.add( field( "day", ValueMetaInterface.TYPE_DATE, "yyyy-MM-dd" ) );
+    fields.add( field( "text", ValueMetaInterface.TYPE_STRING, null ) );
+    for ( int c = 0; c < COLUMNS; c++ ) {
+      fields.add( field( "long" + c, ValueMetaInterface.TYPE_INTEGER, null ) );
+    }
+  }
+
+  private static AvroInputField field( String name, int pentahoType, String format ) {
+    AvroInputField field = new AvroInputField();
+    field.setFormatFieldName( name );
+    field.setPentahoFieldName( name );
+    field.setPentahoType( pentahoType );
+    field.setStringFormat( format );
+    return field;
+  }
+
+  @Test
+  public void readRows() throws Exception {
+    for ( int i = 0; i < WARMUPS; i++ ) {
+      read();
+    }
+    for ( int i = 0; i < ITERATIONS; i++ ) {
+      long nanos = read();
+      System.out.printf( "PentahoAvroRecordReader: %,d rows of %d fields in %,d ms, %,.0f rows/s%n", ROWS,
+        fields.size(), nanos / 1_000_000, ROWS * 1e9 / nanos );
+    }
+  }
+
+  private long read() throws Exception {
+    long start = System.nanoTime();
+    int rows = 0;
+    try ( DataFileStream<GenericRecord> stream =
+            new DataFileStream<>( new FileInputStream( file ), new GenericDatumReader<>( schema ) ) ) {
+      for ( RowMetaAndData row : new PentahoAvroRecordReader( stream, schema, fields ) ) {
+        rows++;
+      }
+    }
+    long nanos = System.nanoTime() - start;
+    assertEquals( ROWS, rows );
+    return nanos;
+  }
+}
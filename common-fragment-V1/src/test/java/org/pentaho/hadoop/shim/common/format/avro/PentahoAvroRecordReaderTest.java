@@ -0,0 +1,140 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.pentaho.hadoop.shim.common.format.avro;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.plugins.PluginRegistry;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaPluginType;
+import org.pentaho.hadoop.shim.api.format.IAvroInputField;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class PentahoAvroRecordReaderTest {
+  private static final int COLUMNS = 20;
+  private static final int ROWS = 1000;
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @BeforeClass
+  public static void setUpClass() throws Exception {
+    PluginRegistry.addPluginType( ValueMetaPluginType.getInstance() );
+    PluginRegistry.init( true );
+  }
+
+  private static AvroInputField field( String avroName, String pentahoName, int pentahoType, String format ) {
+    AvroInputField field = new AvroInputField();
+    field.setFormatFieldName( avroName );
+    field.setPentahoFieldName( pentahoName );
+    field.setPentahoType( pentahoType );
+    field.setStringFormat( format );
+    return field;
+  }
+
+  private File writeWideFile( Schema schema ) throws Exception {
+    File file = tempFolder.newFile( "wide.avro" );
+    try ( DataFileWriter<GenericRecord> writer = new DataFileWriter<>( new GenericDatumWriter<>( schema ) ) ) {
+      writer.create( schema, file );
+      for ( int r = 0; r < ROWS; r++ ) {
+        GenericRecord record = new GenericData.Record( schema );
+        for ( int c = 0; c < COLUMNS; c++ ) {
+          record.put( "long" + c, (long) r * COLUMNS + c );
+        }
+        record.put( "text", "row" + r );
+        record.put( "day", "2020-01-" + ( r % 28 + 10 ) );
+        record.put( "optional", r % 2 == 0 ? null : r );
+        writer.append( record );
+      }
+    }
+    return file;
+  }
+
+  @Test
+  public void readsWideFlatFileWithSharedRowMeta() throws Exception {
+    SchemaBuilder.FieldAssembler<Schema> assembler = SchemaBuilder.record( "wide" ).fields();
+    for ( int c = 0; c < COLUMNS; c++ ) {
+      assembler = assembler.requiredLong( "long" + c );
+    }
+    Schema schema = assembler.requiredString( "text" ).requiredString( "day" ).optionalInt( "optional" ).endRecord();
+    File file = writeWideFile( schema );
+
+    List<IAvroInputField> fields = new ArrayList<>();
+    fields.add( field( "optional", "optional", ValueMetaInterface.TYPE_INTEGER, null ) );
+    fields.add( field( "missing", "missing", ValueMetaInterface.TYPE_STRING, null ) );
+    fields.add( field( "day", "day", ValueMetaInterface.TYPE_DATE, "yyyy-MM-dd" ) );
+    fields.add( field( "text", "text", ValueMetaInterface.TYPE_STRING, null ) );
+    for ( int c = COLUMNS - 1; c >= 0; c-- ) {
+      fields.add( field( "long" + c, "f" + c, ValueMetaInterface.TYPE_STRING, null ) );
+    }
+
+    SimpleDateFormat dateFormat = new SimpleDateFormat( "yyyy-MM-dd" );
+    try ( DataFileStream<GenericRecord> stream =
+            new DataFileStream<>( new FileInputStream( file ), new GenericDatumReader<>( schema ) ) ) {
+      PentahoAvroRecordReader reader = new PentahoAvroRecordReader( stream, schema, fields );
+      Iterator<RowMetaAndData> rows = reader.iterator();
+      RowMetaAndData first = null;
+      int r = 0;
+      while ( rows.hasNext() ) {
+        RowMetaAndData row = rows.next();
+        if ( first == null ) {
+          first = row;
+        }
+        // the field missing from the schema is left out of the row
+        assertEquals( COLUMNS + 3, row.size() );
+        assertSame( first.getRowMeta(), row.getRowMeta() );
+        assertEquals( r % 2 == 0 ? null : Long.valueOf( r ), row.getData()[ 0 ] );
+        assertEquals( dateFormat.parse( "2020-01-" + ( r % 28 + 10 ) ), row.getData()[ 1 ] );
+        assertEquals( "row" + r, row.getData()[ 2 ] );
+        for ( int c = 0; c < COLUMNS; c++ ) {
+          assertEquals( String.valueOf( (long) r * COLUMNS + COLUMNS - 1 - c ), row.getData()[ 3 + c ] );
+        }
+        r++;
+      }
+      assertEquals( ROWS, r );
+      assertNull( first.getRowMeta().searchValueMeta( "missing" ) );
+      assertEquals( "yyyy-MM-dd", first.getRowMeta().getValueMeta( 1 ).getConversionMask() );
+    }
+  }
+}
@@ -0,0 +1,116 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+package org.pentaho.hadoop.shim.common.format.orc;
+
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.orc.TypeDescription;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.pentaho.di.core.plugins.PluginRegistry;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaPluginType;
+import org.pentaho.hadoop.shim.api.format.IOrcInputField;
+import org.pentaho.hadoop.shim.api.format.OrcSpec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class OrcBatchConverterTest {
+  private final TypeDescription schema = TypeDescription.fromString( "struct<id:bigint,name:string,flag:boolean>" );
+
+  @BeforeClass
+  public static void setUpClass() throws Exception {
+    PluginRegistry.addPluginType( ValueMetaPluginType.getInstance() );
+    PluginRegistry.init( true );
+  }
+
+  private static OrcInputField field( String name, OrcSpec.DataType orcType, int pentahoType ) {
+    OrcInputField field = new OrcInputField();
+    field.setFormatFieldName( name );
+    field.setPentahoFieldName( "pdi_" + name );
+    field.setOrcType( orcType );
+    field.setPentahoType( pentahoType );
+    return field;
+  }
+
+  @Test
+  public void convertsBatchColumnByColumn() {
+    List<IOrcInputField> orcFields = new OrcSchemaConverter().buildInputFields( schema );
+    List<IOrcInputField> dialogFields = Arrays.asList(
+      field( "name", OrcSpec.DataType.STRING, ValueMetaInterface.TYPE_STRING ),
+      field( "id", OrcSpec.DataType.BIGINT, ValueMetaInterface.TYPE_STRING ),
+      field( "flag", OrcSpec.DataType.BOOLEAN, ValueMetaInterface.TYPE_BOOLEAN ) );
+    Map<String, Integer> columns = new HashMap<>();
+    columns.put( "pdi_id", 0 );
+    columns.put( "pdi_name", 1 );
+    columns.put( "pdi_flag", 2 );
+
+    VectorizedRowBatch batch = schema.createRowBatch();
+    batch.size = 3;
+    LongColumnVector ids = (LongColumnVector) batch.cols[ 0 ];
+    ids.vector[ 0 ] = 1;
+    ids.vector[ 1 ] = 2;
+    ids.vector[ 2 ] = 3;
+    BytesColumnVector names = (BytesColumnVector) batch.cols[ 1 ];
+    names.initBuffer();
+    names.setVal( 0, "a".getBytes( StandardCharsets.UTF_8 ) );
+    names.noNulls = false;
+    names.isNull[ 1 ] = true;
+    names.setVal( 2, "c".getBytes( StandardCharsets.UTF_8 ) );
+    LongColumnVector flags = (LongColumnVector) batch.cols[ 2 ];
+    flags.isRepeating = true;
+    flags.vector[ 0 ] = 1;
+
+    OrcBatchConverter converter = new OrcBatchConverter( dialogFields, columns, orcFields );
+    Object[][] rows = converter.convert( batch );
+
+    assertEquals( 3, converter.getRowMeta().size() );
+    assertEquals( "pdi_name", converter.getRowMeta().getValueMeta( 0 ).getName() );
+    assertEquals( 3, rows.length );
+    assertEquals( "a", rows[ 0 ][ 0 ] );
+    assertNull( rows[ 1 ][ 0 ] );
+    assertEquals( "c", rows[ 2 ][ 0 ] );
+    assertEquals( "2", rows[ 1 ][ 1 ] );
+    assertSame( rows[ 0 ][ 2 ], rows[ 2 ][ 2 ] );
+    assertEquals( Boolean.TRUE, rows[ 2 ][ 2 ] );
+  }
+
+  @Test
+  public void emptyBatchGivesNoRows() {
+    List<IOrcInputField> orcFields = new OrcSchemaConverter().buildInputFields( schema );
+    Map<String, Integer> columns = new HashMap<>();
+    columns.put( "pdi_id", 0 );
+    OrcBatchConverter converter = new OrcBatchConverter(
+      Arrays.asList( field( "id", OrcSpec.DataType.BIGINT, ValueMetaInterface.TYPE_INTEGER ) ), columns, orcFields );
+
+    assertEquals( 0, converter.convert( schema.createRowBatch() ).length );
+  }
+}
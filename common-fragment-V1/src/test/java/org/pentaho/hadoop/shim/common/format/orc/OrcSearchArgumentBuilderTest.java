@@ -0,0 +1,99 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+package org.pentaho.hadoop.shim.common.format.orc;
+
+import org.apache.hadoop.hive.ql.io.sarg.PredicateLeaf;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument;
+import org.apache.hadoop.hive.serde2.io.HiveDecimalWritable;
+import org.apache.orc.TypeDescription;
+import org.junit.Test;
+import org.pentaho.hadoop.shim.api.format.InputFieldPredicate;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OrcSearchArgumentBuilderTest {
+  private final TypeDescription schema = TypeDescription.fromString(
+    "struct<id:bigint,name:string,tags:array<string>,amount:decimal(10,2),raw:binary>" );
+
+  private static OrcInputField field( String name ) {
+    OrcInputField field = new OrcInputField();
+    field.setFormatFieldName( name );
+    field.setPentahoFieldName( name );
+    return field;
+  }
+
+  @Test
+  public void noPredicatesGiveNoSearchArgument() {
+    assertNull( OrcSearchArgumentBuilder.build( null, schema ) );
+    assertNull( OrcSearchArgumentBuilder.build( Collections.emptyList(), schema ) );
+  }
+
+  @Test
+  public void unsupportedPredicatesAreDropped() {
+    assertNull( OrcSearchArgumentBuilder.build( Arrays.asList(
+      InputFieldPredicate.eq( field( "raw" ), "x" ),
+      InputFieldPredicate.eq( field( "missing" ), 1L ),
+      InputFieldPredicate.eq( field( "id" ), "not a number" ) ), schema ) );
+  }
+
+  @Test
+  public void predicatesAreCombinedWithTheFileTypes() {
+    List<InputFieldPredicate> predicates = Arrays.asList(
+      InputFieldPredicate.gtEq( field( "id" ), 10 ),
+      InputFieldPredicate.in( field( "name" ), "a", "b" ),
+      InputFieldPredicate.isNotNull( field( "amount" ) ),
+      InputFieldPredicate.eq( field( "raw" ), "x" ) );
+
+    SearchArgument sarg = OrcSearchArgumentBuilder.build( predicates, schema );
+
+    List<PredicateLeaf> leaves = sarg.getLeaves();
+    assertEquals( 3, leaves.size() );
+    assertEquals( "id", leaves.get( 0 ).getColumnName() );
+    assertEquals( PredicateLeaf.Operator.LESS_THAN, leaves.get( 0 ).getOperator() );
+    assertEquals( 10L, leaves.get( 0 ).getLiteral() );
+    assertEquals( PredicateLeaf.Operator.IN, leaves.get( 1 ).getOperator() );
+    assertEquals( Arrays.asList( "a", "b" ), leaves.get( 1 ).getLiteralList() );
+    assertEquals( PredicateLeaf.Type.DECIMAL, leaves.get( 2 ).getType() );
+    assertTrue( sarg.getExpression().toString().startsWith( "(and" ) );
+  }
+
+  @Test
+  public void decimalLiteralsAreConverted() {
+    Object literal = OrcSearchArgumentBuilder.toLiteral( PredicateLeaf.Type.DECIMAL, new BigDecimal( "12.50" ) );
+    assertEquals( new BigDecimal( "12.5" ),
+      ( (HiveDecimalWritable) literal ).getHiveDecimal().bigDecimalValue().stripTrailingZeros() );
+  }
+
+  @Test
+  public void columnNamesAreIndexedByColumnId() {
+    assertArrayEquals( new String[] { null, "id", "name", "tags", null, "amount", "raw" },
+      OrcSearchArgumentBuilder.columnNames( schema ) );
+  }
+}
@@ -21,16 +21,36 @@
  ******************************************************************************/
 package org.pentaho.hadoop.shim.common.format.orc;
 
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.orc.OrcFile;
+import org.apache.orc.TypeDescription;
+import org.apache.orc.Writer;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.pentaho.di.core.RowMetaAndData;
 import org.pentaho.di.core.logging.KettleLogStore;
+import org.pentaho.di.core.row.ValueMetaInterface;
 import org.pentaho.di.core.util.Assert;
 import org.pentaho.hadoop.shim.api.cluster.NamedCluster;
 import org.pentaho.hadoop.shim.api.format.IOrcInputField;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat;
+import org.pentaho.hadoop.shim.api.format.InputFieldPredicate;
+import org.pentaho.hadoop.shim.api.format.OrcSpec;
+import org.pentaho.hadoop.shim.common.format.ParallelSplitReader;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
 /**
@@ -40,6 +60,9 @@ public class PentahoOrcInputFormatTest {
   private PentahoOrcInputFormat pentahoOrcInputFormat;
   private List<IOrcInputField> mockSchemaDescription;
 
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
   @Before
   public void setup() throws Exception {
     KettleLogStore.init();
@@ -64,4 +87,89 @@ public class PentahoOrcInputFormatTest {
     Assert.assertNotNull( new PentahoOrcInputFormat( null ),
       "null named cluster is allowed for non-hadoop filesystems." );
   }
+
+  @Test
+  public void testProjectionAndFilterPushdown() throws Exception {
+    String file = tempFolder.getRoot().getAbsolutePath() + "/pushdown.orc";
+    writeIds( file, 0, 5000 );
+
+    OrcInputField idField = idField();
+    pentahoOrcInputFormat.setInputFile( file );
+    pentahoOrcInputFormat.setSchema( Collections.singletonList( idField ) );
+    pentahoOrcInputFormat.setFilter( Collections.singletonList( InputFieldPredicate.eq( idField, 4500L ) ) );
+
+    int rows = 0;
+    boolean found = false;
+    IPentahoInputFormat.IPentahoRecordReader reader = pentahoOrcInputFormat.createRecordReader( null );
+    for ( RowMetaAndData row : reader ) {
+      assertEquals( 1, row.size() );
+      found |= Long.valueOf( 4500L ).equals( row.getData()[ 0 ] );
+      rows++;
+    }
+    reader.close();
+
+    assertTrue( found );
+    assertEquals( 1000, rows );
+  }
+
+  @Test
+  public void testAllFilesOfDirectoryAreSplitAndRead() throws Exception {
+    String dir = tempFolder.newFolder( "partitioned" ).getAbsolutePath();
+    writeIds( dir + "/part-0.orc", 0, 1500 );
+    writeIds( dir + "/part-1.orc", 1500, 2500 );
+    pentahoOrcInputFormat.setInputFile( dir );
+    pentahoOrcInputFormat.setSchema( Collections.singletonList( idField() ) );
+
+    List<IPentahoInputFormat.IPentahoInputSplit> splits = pentahoOrcInputFormat.getSplits();
+    assertEquals( 2, splits.size() );
+    assertTrue( splits.get( 0 ).toString().contains( "part-0.orc" ) );
+
+    long expected = 0;
+    try ( IPentahoInputFormat.IPentahoRecordReader reader = pentahoOrcInputFormat.createRecordReader( null ) ) {
+      for ( RowMetaAndData row : reader ) {
+        assertEquals( expected++, row.getData()[ 0 ] );
+      }
+    }
+    assertEquals( 2500, expected );
+
+    long rows = 0;
+    ParallelSplitReader parallelReader = (ParallelSplitReader) pentahoOrcInputFormat.createParallelRecordReader( 2,
+      false );
+    for ( RowMetaAndData row : parallelReader ) {
+      rows++;
+    }
+    parallelReader.close();
+    assertEquals( 2500, rows );
+    List<ParallelSplitReader.SplitMetrics> metrics = parallelReader.getSplitMetrics();
+    assertEquals( 2, metrics.size() );
+    assertEquals( 2500, metrics.stream().mapToLong( ParallelSplitReader.SplitMetrics::getRows ).sum() );
+    assertTrue( metrics.stream().allMatch( metric -> metric.getBytes() > 0 ) );
+  }
+
+  private static OrcInputField idField() {
+    OrcInputField idField = new OrcInputField();
+    idField.setFormatFieldName( "id" );
+    idField.setPentahoFieldName( "id" );
+    idField.setOrcType( OrcSpec.DataType.BIGINT );
+    idField.setPentahoType( ValueMetaInterface.TYPE_INTEGER );
+    return idField;
+  }
+
+  private static void writeIds( String file, long from, long to ) throws Exception {
+    TypeDescription schema = TypeDescription.fromString( "struct<id:bigint,name:string>" );
+    Writer writer = OrcFile.createWriter( new Path( file ),
+      OrcFile.writerOptions( new Configuration() ).setSchema( schema ).rowIndexStride( 1000 ) );
+    VectorizedRowBatch batch = schema.createRowBatch();
+    for ( long id = from; id < to; id++ ) {
+      int row = batch.size++;
+      ( (LongColumnVector) batch.cols[ 0 ] ).vector[ row ] = id;
+      ( (BytesColumnVector) batch.cols[ 1 ] ).setVal( row, ( "name" + id ).getBytes( StandardCharsets.UTF_8 ) );
+      if ( batch.size == batch.getMaxSize() ) {
+        writer.addRowBatch( batch );
+        batch.reset();
+      }
+    }
+    writer.addRowBatch( batch );
+    writer.close();
+  }
 }
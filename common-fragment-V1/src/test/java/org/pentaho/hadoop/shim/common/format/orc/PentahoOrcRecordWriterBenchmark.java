@@ -0,0 +1,159 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+package org.pentaho.hadoop.shim.common.format.orc;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.orc.OrcFile;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.logging.KettleLogStore;
+import org.pentaho.di.core.plugins.PluginRegistry;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaBoolean;
+import org.pentaho.di.core.row.value.ValueMetaDate;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaNumber;
+import org.pentaho.di.core.row.value.ValueMetaPluginType;
+import org.pentaho.di.core.row.value.ValueMetaString;
+import org.pentaho.hadoop.shim.api.format.IPentahoOutputFormat;
+import org.pentaho.hadoop.shim.api.format.OrcSpec;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Throughput of {@link PentahoOrcRecordWriter} over synthetic rows, row by row and through writeBatch. Not part of the
+ * normal test run, as surefire only picks up *Test classes. Run it with
+ * <pre>
+ *   mvn test -Dtest=PentahoOrcRecordWriterBenchmark -DfailIfNoTests=false
+ * </pre>
+ * The system properties benchmark.rows (default 10,000,000), benchmark.warmups and benchmark.iterations size the run.
+ */
+public class PentahoOrcRecordWriterBenchmark {
+  private static final int ROWS = Integer.getInteger( "benchmark.rows", 10_000_000 );
+  private static final int WARMUPS = Integer.getInteger( "benchmark.warmups", 1 );
+  private static final int ITERATIONS = Integer.getInteger( "benchmark.iterations", 3 );
+  private static final int BLOCK_SIZE = 1024;
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private PentahoOrcOutputFormat orcOutputFormat;
+  private RowMeta rowMeta;
+  private Object[][] block;
+
+  @BeforeClass
+  public static void setUpClass() throws Exception {
+    PluginRegistry.addPluginType( ValueMetaPluginType.getInstance() );
+    PluginRegistry.init( true );
+    KettleLogStore.init();
+  }
+
+  @Before
+  public void setUp() {
+    orcOutputFormat = new PentahoOrcOutputFormat();
+    orcOutputFormat.setFields( Arrays.asList(
+      field( "id", OrcSpec.DataType.BIGINT, ValueMetaInterface.TYPE_INTEGER ),
+      field( "name", OrcSpec.DataType.STRING, ValueMetaInterface.TYPE_STRING ),
+      field( "amount", OrcSpec.DataType.DOUBLE, ValueMetaInterface.TYPE_NUMBER ),
+      field( "created", OrcSpec.DataType.DATE, ValueMetaInterface.TYPE_DATE ),
+      field( "active", OrcSpec.DataType.BOOLEAN, ValueMetaInterface.TYPE_BOOLEAN ) ) );
+    rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaInteger( "id" ) );
+    rowMeta.addValueMeta( new ValueMetaString( "name" ) );
+    rowMeta.addValueMeta( new ValueMetaNumber( "amount" ) );
+    rowMeta.addValueMeta( new ValueMetaDate( "created" ) );
+    rowMeta.addValueMeta( new ValueMetaBoolean( "active" ) );
+
+    // generated up front, so the timings only cover the writer
+    block = new Object[ BLOCK_SIZE ][];
+    for ( int i = 0; i < BLOCK_SIZE; i++ ) {
+      block[ i ] = new Object[] { (long) i, i % 16 == 0 ? null : "name" + i, i * 1.25,
+        new Date( 1_500_000_000_000L + i * 86_400_000L ), i % 2 == 0 };
+    }
+  }
+
+  private static OrcOutputField field( String name, OrcSpec.DataType orcType, int pentahoType ) {
+    OrcOutputField field = new OrcOutputField();
+    field.setFormatFieldName( name );
+    field.setPentahoFieldName( name );
+    field.setFormatType( orcType.getId() );
+    field.setPentahoType( pentahoType );
+    field.setAllowNull( true );
+    return field;
+  }
+
+  @Test
+  public void writeRows() throws Exception {
+    run( "write", false );
+  }
+
+  @Test
+  public void writeBatches() throws Exception {
+    run( "writeBatch", true );
+  }
+
+  private void run( String name, boolean batches ) throws Exception {
+    for ( int i = 0; i < WARMUPS; i++ ) {
+      write( batches );
+    }
+    for ( int i = 0; i < ITERATIONS; i++ ) {
+      long nanos = write( batches );
+      System.out.printf( "PentahoOrcRecordWriter %s: %,d rows in %,d ms, %,.0f rows/s%n", name, ROWS,
+        nanos / 1_000_000, ROWS * 1e9 / nanos );
+    }
+  }
+
+  private long write( boolean batches ) throws Exception {
+    String file = tempFolder.getRoot().getAbsolutePath() + "/benchmark.orc";
+    orcOutputFormat.setOutputFile( file, true );
+
+    long start = System.nanoTime();
+    IPentahoOutputFormat.IPentahoRecordWriter writer = orcOutputFormat.createRecordWriter();
+    int written = 0;
+    while ( written < ROWS ) {
+      int count = Math.min( BLOCK_SIZE, ROWS - written );
+      if ( batches ) {
+        writer.writeBatch( rowMeta, count == BLOCK_SIZE ? block : Arrays.copyOf( block, count ) );
+      } else {
+        for ( int i = 0; i < count; i++ ) {
+          writer.write( new RowMetaAndData( rowMeta, block[ i ] ) );
+        }
+      }
+      written += count;
+    }
+    writer.close();
+    long nanos = System.nanoTime() - start;
+
+    assertEquals( ROWS,
+      OrcFile.createReader( new Path( file ), OrcFile.readerOptions( new Configuration() ) ).getNumberOfRows() );
+    return nanos;
+  }
+}
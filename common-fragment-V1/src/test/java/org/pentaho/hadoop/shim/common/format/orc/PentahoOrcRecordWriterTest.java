@@ -0,0 +1,131 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+package org.pentaho.hadoop.shim.common.format.orc;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.orc.OrcFile;
+import org.apache.orc.Reader;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.logging.KettleLogStore;
+import org.pentaho.di.core.plugins.PluginRegistry;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaPluginType;
+import org.pentaho.di.core.row.value.ValueMetaString;
+import org.pentaho.hadoop.shim.api.format.IPentahoOutputFormat;
+import org.pentaho.hadoop.shim.api.format.OrcSpec;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+public class PentahoOrcRecordWriterTest {
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private PentahoOrcOutputFormat orcOutputFormat;
+  private RowMeta rowMeta;
+
+  @BeforeClass
+  public static void setUpClass() throws Exception {
+    PluginRegistry.addPluginType( ValueMetaPluginType.getInstance() );
+    PluginRegistry.init( true );
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    KettleLogStore.init();
+    orcOutputFormat = new PentahoOrcOutputFormat();
+    orcOutputFormat.setFields( Arrays.asList(
+      field( "id", OrcSpec.DataType.BIGINT, ValueMetaInterface.TYPE_INTEGER ),
+      field( "name", OrcSpec.DataType.STRING, ValueMetaInterface.TYPE_STRING ) ) );
+    rowMeta = new RowMeta();
+    // input row has the fields in another order, plus one which isn't written
+    rowMeta.addValueMeta( new ValueMetaString( "other" ) );
+    rowMeta.addValueMeta( new ValueMetaString( "name" ) );
+    rowMeta.addValueMeta( new ValueMetaInteger( "id" ) );
+  }
+
+  private static OrcOutputField field( String name, OrcSpec.DataType orcType, int pentahoType ) {
+    OrcOutputField field = new OrcOutputField();
+    field.setFormatFieldName( name );
+    field.setPentahoFieldName( name );
+    field.setFormatType( orcType.getId() );
+    field.setPentahoType( pentahoType );
+    field.setAllowNull( true );
+    return field;
+  }
+
+  @Test
+  public void writesRowsAndBatchesAcrossRowBatchBoundaries() throws Exception {
+    String file = tempFolder.getRoot().getAbsolutePath() + "/batches.orc";
+    orcOutputFormat.setOutputFile( file, false );
+    orcOutputFormat.setBatchSize( 7 );
+    orcOutputFormat.setRowIndexStride( 100 );
+    orcOutputFormat.setBloomFilterColumns( Collections.singletonList( "id" ) );
+    orcOutputFormat.setBloomFilterFpp( 0.01 );
+
+    Object[][] rows = new Object[ 249 ][];
+    for ( int i = 0; i < rows.length; i++ ) {
+      rows[ i ] = new Object[] { "x", i % 10 == 0 ? null : "name" + i, (long) i };
+    }
+    IPentahoOutputFormat.IPentahoRecordWriter writer = orcOutputFormat.createRecordWriter();
+    writer.writeBatch( rowMeta, rows );
+    writer.write( new RowMetaAndData( rowMeta, "x", "last", 249L ) );
+    writer.close();
+
+    Reader reader = OrcFile.createReader( new Path( file ), OrcFile.readerOptions( new Configuration() ) );
+    assertEquals( 250, reader.getNumberOfRows() );
+    assertEquals( 100, reader.getRowIndexStride() );
+
+    OrcInputField idField = new OrcInputField();
+    idField.setFormatFieldName( "id" );
+    idField.setPentahoFieldName( "id" );
+    idField.setPentahoType( ValueMetaInterface.TYPE_INTEGER );
+    OrcInputField nameField = new OrcInputField();
+    nameField.setFormatFieldName( "name" );
+    nameField.setPentahoFieldName( "name" );
+    nameField.setPentahoType( ValueMetaInterface.TYPE_STRING );
+    PentahoOrcInputFormat inputFormat = new PentahoOrcInputFormat( null );
+    inputFormat.setInputFile( file );
+    inputFormat.setSchema( Arrays.asList( idField, nameField ) );
+    long expected = 0;
+    for ( RowMetaAndData row : inputFormat.createRecordReader( null ) ) {
+      assertEquals( expected, row.getData()[ 0 ] );
+      if ( expected == 249 ) {
+        assertEquals( "last", row.getData()[ 1 ] );
+      } else {
+        assertEquals( expected % 10 == 0 ? null : "name" + expected, row.getData()[ 1 ] );
+      }
+      expected++;
+    }
+    assertEquals( 250, expected );
+  }
+}
@@ -26,6 +26,8 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.ValueMetaInterface;
 import org.pentaho.hadoop.shim.api.format.IParquetInputField;
 import org.pentaho.hadoop.shim.common.ConfigurationProxy;
 
@@ -88,4 +90,30 @@ public class ParquetConverterTest {
     String marshallKettleSchema = new ParquetInputFieldList( kettleSchema ).marshall();
     Assert.assertEquals( marshallKettleSchema, expectedKettleSchema );
   }
+
+  @Test
+  public void conversionPlanResolvesRowMetaAndConversionMaskOnce() {
+    List<IParquetInputField> fields =
+      ParquetUtils.createSchema( ValueMetaInterface.TYPE_STRING, ValueMetaInterface.TYPE_STRING );
+    fields.get( 1 ).setStringFormat( "#,###" );
+
+    RowMeta rowMeta = null;
+    switch ( provider ) {
+      case "APACHE":
+        rowMeta = new org.pentaho.hadoop.shim.common.format.parquet.delegate.apache.ParquetConverter( fields )
+          .buildConversionPlan().getRowMeta();
+        break;
+      case "TWITTER":
+        rowMeta = new org.pentaho.hadoop.shim.common.format.parquet.delegate.twitter.ParquetConverter( fields )
+          .buildConversionPlan().getRowMeta();
+        break;
+      default:
+        Assert.fail( "Invalid provider name used." );
+    }
+
+    Assert.assertEquals( 2, rowMeta.size() );
+    Assert.assertEquals( ValueMetaInterface.TYPE_STRING, rowMeta.getValueMeta( 0 ).getType() );
+    Assert.assertEquals( ValueMetaInterface.TYPE_STRING, rowMeta.getValueMeta( 1 ).getType() );
+    Assert.assertEquals( "#,###", rowMeta.getValueMeta( 1 ).getConversionMask() );
+  }
 }
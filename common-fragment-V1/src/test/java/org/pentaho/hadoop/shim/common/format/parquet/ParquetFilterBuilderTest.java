@@ -0,0 +1,186 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+package org.pentaho.hadoop.shim.common.format.parquet;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapreduce.lib.input.FileSplit;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetRecordReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaString;
+import org.pentaho.hadoop.shim.api.format.IParquetInputField;
+import org.pentaho.hadoop.shim.api.format.InputFieldPredicate;
+import org.pentaho.hadoop.shim.api.format.ParquetSpec;
+import org.pentaho.hadoop.shim.common.format.parquet.delegate.apache.ParquetFilterBuilder;
+import org.pentaho.hadoop.shim.common.format.parquet.delegate.apache.PentahoParquetRecordReader;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class ParquetFilterBuilderTest {
+  private static final long ABOVE_INT_MAX = 3_000_000_000L;
+  private static final int ROWS = 5000;
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private static List<InputFieldPredicate> gt( ParquetSpec.DataType type, Object value ) {
+    return gt( "f", type, value );
+  }
+
+  private static List<InputFieldPredicate> gt( String name, ParquetSpec.DataType type, Object value ) {
+    IParquetInputField field = new ParquetInputField( name, type, name, ValueMetaInterface.TYPE_INTEGER );
+    return Collections.singletonList( InputFieldPredicate.gt( field, value ) );
+  }
+
+  @Test
+  public void testSignedIntegersArePushedDown() {
+    assertNotNull( ParquetFilterBuilder.build( gt( ParquetSpec.DataType.INT_32, 5L ) ) );
+    assertNotNull( ParquetFilterBuilder.build( gt( ParquetSpec.DataType.INT_64, ABOVE_INT_MAX ) ) );
+    assertNotNull( ParquetFilterBuilder.build( gt( ParquetSpec.DataType.UINT_16, 5L ) ) );
+    assertNotNull(
+      org.pentaho.hadoop.shim.common.format.parquet.delegate.twitter.ParquetFilterBuilder
+        .build( gt( ParquetSpec.DataType.INT_32, 5L ) ) );
+  }
+
+  @Test
+  public void testUnsignedIntegersAreNotPushedDown() {
+    // unsigned values above the signed maximum are stored as negative numbers and would be dropped by the filter
+    assertNull( ParquetFilterBuilder.build( gt( ParquetSpec.DataType.UINT_32, ABOVE_INT_MAX ) ) );
+    assertNull( ParquetFilterBuilder.build( gt( ParquetSpec.DataType.UINT_32, 5L ) ) );
+    assertNull( ParquetFilterBuilder.build( gt( ParquetSpec.DataType.UINT_64, ABOVE_INT_MAX ) ) );
+    assertNull(
+      org.pentaho.hadoop.shim.common.format.parquet.delegate.twitter.ParquetFilterBuilder
+        .build( gt( ParquetSpec.DataType.UINT_32, ABOVE_INT_MAX ) ) );
+    assertNull(
+      org.pentaho.hadoop.shim.common.format.parquet.delegate.twitter.ParquetFilterBuilder
+        .build( gt( ParquetSpec.DataType.UINT_64, ABOVE_INT_MAX ) ) );
+  }
+
+  @SuppressWarnings( "unchecked" )
+  @Test
+  public void testSkippedRowGroupsAreCountedOnlyWhenAskedFor() {
+    AtomicInteger counted = new AtomicInteger();
+    PentahoParquetRecordReader reader = new PentahoParquetRecordReader( mock( ParquetRecordReader.class ), () -> {
+      counted.incrementAndGet();
+      return 2L;
+    } );
+    assertEquals( 0, counted.get() );
+    assertEquals( 2L, reader.getSkippedRowGroups() );
+    assertEquals( 2L, reader.getSkippedRowGroups() );
+    assertEquals( 1, counted.get() );
+  }
+
+  @Test
+  public void testSkippedRowGroupsFollowRowGroupMidpointsApache() throws Exception {
+    String file = tempFolder.getRoot().getAbsolutePath() + "/apache.parquet";
+    try ( org.apache.parquet.hadoop.ParquetWriter<RowMetaAndData> writer =
+            new org.apache.parquet.hadoop.ParquetWriter<>( new Path( file ),
+              new org.pentaho.hadoop.shim.common.format.parquet.delegate.apache.PentahoParquetWriteSupport(
+                ParquetUtils.createOutputFields( ParquetSpec.DataType.INT_64 ) ),
+              org.apache.parquet.hadoop.metadata.CompressionCodecName.UNCOMPRESSED, 1024, 256 ) ) {
+      for ( RowMetaAndData row : rows() ) {
+        writer.write( row );
+      }
+    }
+    org.apache.parquet.filter2.compat.FilterCompat.Filter filter = org.apache.parquet.filter2.compat.FilterCompat
+      .get( ParquetFilterBuilder.build( gt( "Age", ParquetSpec.DataType.INT_64, (long) ROWS ) ) );
+
+    assertSkippedRowGroupsFollowMidpoints( file,
+      split -> ParquetFilterBuilder.countSkippedRowGroups( new Configuration(), split, filter ) );
+  }
+
+  @Test
+  public void testSkippedRowGroupsFollowRowGroupMidpointsTwitter() throws Exception {
+    String file = tempFolder.getRoot().getAbsolutePath() + "/twitter.parquet";
+    parquet.hadoop.ParquetWriter<RowMetaAndData> writer = new parquet.hadoop.ParquetWriter<>( new Path( file ),
+      new org.pentaho.hadoop.shim.common.format.parquet.delegate.twitter.PentahoParquetWriteSupport(
+        ParquetUtils.createOutputFields( ParquetSpec.DataType.INT_64 ) ),
+      parquet.hadoop.metadata.CompressionCodecName.UNCOMPRESSED, 1024, 256 );
+    try {
+      for ( RowMetaAndData row : rows() ) {
+        writer.write( row );
+      }
+    } finally {
+      writer.close();
+    }
+    parquet.filter2.compat.FilterCompat.Filter filter = parquet.filter2.compat.FilterCompat.get(
+      org.pentaho.hadoop.shim.common.format.parquet.delegate.twitter.ParquetFilterBuilder
+        .build( gt( "Age", ParquetSpec.DataType.INT_64, (long) ROWS ) ) );
+
+    assertSkippedRowGroupsFollowMidpoints( file,
+      split -> org.pentaho.hadoop.shim.common.format.parquet.delegate.twitter.ParquetFilterBuilder
+        .countSkippedRowGroups( new Configuration(), split, filter ) );
+  }
+
+  private static List<RowMetaAndData> rows() {
+    RowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaString( "Name" ) );
+    rowMeta.addValueMeta( new ValueMetaInteger( "Age" ) );
+    List<RowMetaAndData> rows = new ArrayList<>();
+    for ( long i = 0; i < ROWS; i++ ) {
+      rows.add( new RowMetaAndData( rowMeta, "name" + i, i ) );
+    }
+    return rows;
+  }
+
+  private interface SkippedRowGroupsCounter {
+    long count( FileSplit split ) throws Exception;
+  }
+
+  /**
+   * Splits the file just after the second row group starts, before its midpoint. The filter drops every row group, so
+   * each split counts the row groups whose midpoint it holds: the first one, and all the others.
+   */
+  private static void assertSkippedRowGroupsFollowMidpoints( String file, SkippedRowGroupsCounter counter )
+    throws Exception {
+    List<BlockMetaData> blocks = ParquetFileReader
+      .readFooter( new Configuration(), new Path( file ), ParquetMetadataConverter.NO_FILTER ).getBlocks();
+    assertTrue( "row groups: " + blocks.size(), blocks.size() >= 3 );
+    BlockMetaData second = blocks.get( 1 );
+    assertTrue( second.getCompressedSize() > 2 );
+    long splitAt = second.getStartingPos() + 1;
+    long length = new File( file ).length();
+
+    assertEquals( 1, counter.count( new FileSplit( new Path( file ), 0, splitAt, new String[ 0 ] ) ) );
+    assertEquals( blocks.size() - 1,
+      counter.count( new FileSplit( new Path( file ), splitAt, length - splitAt, new String[ 0 ] ) ) );
+  }
+}
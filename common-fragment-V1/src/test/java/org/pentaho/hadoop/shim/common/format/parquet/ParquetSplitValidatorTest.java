@@ -0,0 +1,51 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+package org.pentaho.hadoop.shim.common.format.parquet;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ParquetSplitValidatorTest {
+
+  @Test
+  public void testFilesWithoutDeltaByteArrayAreSplittable() {
+    assertFalse( ParquetSplitValidator.requiresSequentialReads( "parquet-mr version 1.6.0 (build abcd)", false ) );
+    assertFalse( ParquetSplitValidator.requiresSequentialReads( null, false ) );
+  }
+
+  @Test
+  public void testOldParquetMrWithDeltaByteArrayRequiresSequentialReads() {
+    assertTrue( ParquetSplitValidator.requiresSequentialReads( "parquet-mr version 1.6.0 (build abcd)", true ) );
+    assertTrue( ParquetSplitValidator.requiresSequentialReads( "parquet-mr version 1.7.0", true ) );
+    assertTrue( ParquetSplitValidator.requiresSequentialReads( "parquet-mr", true ) );
+    assertTrue( ParquetSplitValidator.requiresSequentialReads( "", true ) );
+  }
+
+  @Test
+  public void testFixedOrOtherWritersAreSplittable() {
+    assertFalse( ParquetSplitValidator.requiresSequentialReads( "parquet-mr version 1.8.1 (build abcd)", true ) );
+    assertFalse( ParquetSplitValidator.requiresSequentialReads( "parquet-mr version 1.10.0", true ) );
+    assertFalse( ParquetSplitValidator.requiresSequentialReads( "parquet-cpp version 1.4.0", true ) );
+  }
+}
@@ -28,6 +28,7 @@ import java.sql.Timestamp;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
@@ -57,6 +58,7 @@ import org.pentaho.hadoop.shim.api.format.IParquetInputField;
 import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoInputSplit;
 import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoRecordReader;
 import org.pentaho.hadoop.shim.api.format.IPentahoParquetInputFormat;
+import org.pentaho.hadoop.shim.api.format.InputFieldPredicate;
 import org.pentaho.hadoop.shim.common.format.parquet.delegate.apache.PentahoApacheInputFormat;
 import org.pentaho.hadoop.shim.common.format.parquet.delegate.twitter.PentahoTwitterInputFormat;
 
@@ -168,6 +170,48 @@ public class PentahoParquetInputFormatTest {
         || exception.getCause() instanceof IOException );
   }
 
+  @Test
+  public void testFilterPushdown() throws Exception {
+    String file = "parquet/1_uncompressed_nodict.par";
+    List<? extends IParquetInputField> fileFields =
+      pentahoParquetInputFormat.readSchema( getClass().getClassLoader().getResource( file ).toExternalForm() );
+    IParquetInputField fint = fileFields.get( 4 );
+    List<IParquetInputField> readSchema = new ArrayList<>();
+    readSchema.add( fint );
+
+    pentahoParquetInputFormat.setFilter( Collections.singletonList( InputFieldPredicate.gtEq( fint, 3L ) ) );
+    List<RowMetaAndData> rows = readFile( file, readSchema );
+    Assert.assertEquals( 2, rows.size() );
+    Assert.assertEquals( 3L, rows.get( 0 ).getData()[ 0 ] );
+    Assert.assertEquals( 4L, rows.get( 1 ).getData()[ 0 ] );
+
+    pentahoParquetInputFormat.setFilter( Collections.singletonList( InputFieldPredicate.gt( fint, 4L ) ) );
+    Assert.assertEquals( 0, readFile( file, readSchema ).size() );
+
+    pentahoParquetInputFormat.setFilter( Collections.emptyList() );
+    Assert.assertEquals( 4, readFile( file, readSchema ).size() );
+  }
+
+  @Test
+  public void testParallelReadWithSplitFiles() throws Exception {
+    String file = "parquet/2_uncompressed_nodict.par";
+    List<? extends IParquetInputField> fileFields =
+      pentahoParquetInputFormat.readSchema( getClass().getClassLoader().getResource( file ).toExternalForm() );
+    List<IParquetInputField> readSchema = new ArrayList<>();
+    readSchema.add( fileFields.get( 1 ) );
+    pentahoParquetInputFormat.setInputFile( getClass().getClassLoader().getResource( file ).toExternalForm() );
+    pentahoParquetInputFormat.setSchema( readSchema );
+    pentahoParquetInputFormat.setSplitSize( 1024 );
+    pentahoParquetInputFormat.setSplitFiles( true );
+
+    List<Object> values = new ArrayList<>();
+    IPentahoRecordReader reader = pentahoParquetInputFormat.createParallelRecordReader( 2, true );
+    reader.forEach( row -> values.add( row.getData()[ 0 ] ) );
+    reader.close();
+
+    Assert.assertEquals( Arrays.asList( "John", "Paul", "George", "Ringo" ), values );
+  }
+
   private void readData( String file ) throws Exception {
     RowMeta expectedRowMeta = new RowMeta();
     expectedRowMeta.addValueMeta( new ValueMetaNumber( "fnum" ) );
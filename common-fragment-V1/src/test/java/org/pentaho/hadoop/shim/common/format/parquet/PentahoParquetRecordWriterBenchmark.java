@@ -0,0 +1,193 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+package org.pentaho.hadoop.shim.common.format.parquet;
+
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.TaskType;
+import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaNumber;
+import org.pentaho.di.core.row.value.ValueMetaString;
+import org.pentaho.hadoop.shim.api.format.IPentahoOutputFormat;
+import org.pentaho.hadoop.shim.api.format.ParquetSpec;
+import org.pentaho.hadoop.shim.common.ConfigurationProxy;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Throughput of the apache and twitter Parquet record writers for 10, 100 and 500 column schemas, row by row and
+ * through writeBatch. Not part of the normal test run, as surefire only picks up *Test classes. Run it with
+ * <pre>
+ *   mvn test -Dtest=PentahoParquetRecordWriterBenchmark -DfailIfNoTests=false
+ * </pre>
+ * The system properties benchmark.rows (default 100,000 per run), benchmark.warmups and benchmark.iterations size the
+ * run.
+ */
+@RunWith( Parameterized.class )
+public class PentahoParquetRecordWriterBenchmark {
+  private static final int ROWS = Integer.getInteger( "benchmark.rows", 100_000 );
+  private static final int WARMUPS = Integer.getInteger( "benchmark.warmups", 1 );
+  private static final int ITERATIONS = Integer.getInteger( "benchmark.iterations", 3 );
+  private static final int BLOCK_SIZE = 1024;
+
+  @Parameterized.Parameters( name = "{0} {1} columns" )
+  public static Iterable<Object[]> data() {
+    return Arrays.asList( new Object[][] {
+      { "APACHE", 10 }, { "APACHE", 100 }, { "APACHE", 500 },
+      { "TWITTER", 10 }, { "TWITTER", 100 }, { "TWITTER", 500 } } );
+  }
+
+  @Parameterized.Parameter
+  public String provider;
+
+  @Parameterized.Parameter( 1 )
+  public int columns;
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void writeRows() throws Exception {
+    run( "write", false );
+  }
+
+  @Test
+  public void writeBatches() throws Exception {
+    run( "writeBatch", true );
+  }
+
+  private void run( String name, boolean batches ) throws Exception {
+    List<ParquetOutputField> fields = new ArrayList<>();
+    RowMeta rowMeta = new RowMeta();
+    // generated up front, so the timings only cover the writer
+    Object[][] block = new Object[ BLOCK_SIZE ][ columns ];
+    for ( int c = 0; c < columns; c++ ) {
+      String fieldName = "f" + c;
+      ParquetOutputField field = new ParquetOutputField();
+      field.setFormatFieldName( fieldName );
+      field.setPentahoFieldName( fieldName );
+      field.setAllowNull( true );
+      switch ( c % 3 ) {
+        case 0:
+          field.setFormatType( ParquetSpec.DataType.INT_64 );
+          rowMeta.addValueMeta( new ValueMetaInteger( fieldName ) );
+          break;
+        case 1:
+          field.setFormatType( ParquetSpec.DataType.UTF8 );
+          rowMeta.addValueMeta( new ValueMetaString( fieldName ) );
+          break;
+        default:
+          field.setFormatType( ParquetSpec.DataType.DOUBLE );
+          rowMeta.addValueMeta( new ValueMetaNumber( fieldName ) );
+      }
+      fields.add( field );
+      for ( int r = 0; r < BLOCK_SIZE; r++ ) {
+        block[ r ][ c ] = c % 3 == 0 ? (Object) ( (long) r * columns + c )
+          : c % 3 == 1 ? "value" + r % 100 : (Object) ( r * 1.25 + c );
+      }
+    }
+
+    for ( int i = 0; i < WARMUPS; i++ ) {
+      write( fields, rowMeta, block, batches );
+    }
+    for ( int i = 0; i < ITERATIONS; i++ ) {
+      long nanos = write( fields, rowMeta, block, batches );
+      System.out.printf( "PentahoParquetRecordWriter %s %d columns %s: %,d rows in %,d ms, %,.0f rows/s%n", provider,
+        columns, name, ROWS, nanos / 1_000_000, ROWS * 1e9 / nanos );
+    }
+  }
+
+  private long write( List<ParquetOutputField> fields, RowMeta rowMeta, Object[][] block, boolean batches )
+    throws Exception {
+    File outputDir = tempFolder.newFolder();
+    ConfigurationProxy conf = new ConfigurationProxy();
+    conf.set( "fs.defaultFS", "file:///" );
+    Job job = Job.getInstance( conf );
+    org.apache.hadoop.fs.Path outputPath = new org.apache.hadoop.fs.Path( outputDir.getAbsolutePath() );
+    if ( "APACHE".equals( provider ) ) {
+      org.apache.parquet.hadoop.ParquetOutputFormat.setOutputPath( job, outputPath );
+    } else {
+      parquet.hadoop.ParquetOutputFormat.setOutputPath( job, outputPath );
+    }
+    TaskAttemptContextImpl task =
+      new TaskAttemptContextImpl( job.getConfiguration(), new TaskAttemptID( "qq", 111, TaskType.MAP, 11, 11 ) );
+
+    long start = System.nanoTime();
+    IPentahoOutputFormat.IPentahoRecordWriter writer = createWriter( task, fields );
+    int written = 0;
+    while ( written < ROWS ) {
+      int count = Math.min( BLOCK_SIZE, ROWS - written );
+      if ( batches ) {
+        writer.writeBatch( rowMeta, count == BLOCK_SIZE ? block : Arrays.copyOf( block, count ) );
+      } else {
+        for ( int i = 0; i < count; i++ ) {
+          writer.write( new RowMetaAndData( rowMeta, block[ i ] ) );
+        }
+      }
+      written += count;
+    }
+    writer.close();
+    long nanos = System.nanoTime() - start;
+
+    try ( Stream<Path> files = Files.walk( outputDir.toPath() ) ) {
+      assertTrue( files.anyMatch( f -> f.toString().endsWith( ".parquet" ) ) );
+    }
+    return nanos;
+  }
+
+  private IPentahoOutputFormat.IPentahoRecordWriter createWriter( TaskAttemptContextImpl task,
+                                                                  List<ParquetOutputField> fields ) throws Exception {
+    switch ( provider ) {
+      case "APACHE":
+        org.apache.parquet.hadoop.ParquetOutputFormat<RowMetaAndData> apacheOutputFormat =
+          new org.apache.parquet.hadoop.ParquetOutputFormat<>(
+            new org.pentaho.hadoop.shim.common.format.parquet.delegate.apache.PentahoParquetWriteSupport( fields ) );
+        return new org.pentaho.hadoop.shim.common.format.parquet.delegate.apache.PentahoParquetRecordWriter(
+          (org.apache.parquet.hadoop.ParquetRecordWriter<RowMetaAndData>) apacheOutputFormat.getRecordWriter( task ),
+          task );
+      case "TWITTER":
+        parquet.hadoop.ParquetOutputFormat<RowMetaAndData> twitterOutputFormat =
+          new parquet.hadoop.ParquetOutputFormat<>(
+            new org.pentaho.hadoop.shim.common.format.parquet.delegate.twitter.PentahoParquetWriteSupport( fields ) );
+        return new org.pentaho.hadoop.shim.common.format.parquet.delegate.twitter.PentahoParquetRecordWriter(
+          (parquet.hadoop.ParquetRecordWriter<RowMetaAndData>) twitterOutputFormat.getRecordWriter( task ), task );
+      default:
+        throw new IllegalArgumentException( "Invalid provider name used: " + provider );
+    }
+  }
+}
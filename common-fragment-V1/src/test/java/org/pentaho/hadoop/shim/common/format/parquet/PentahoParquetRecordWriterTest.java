@@ -41,13 +41,17 @@ import org.pentaho.hadoop.shim.common.ConfigurationProxy;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.pentaho.hadoop.shim.common.format.parquet.delegate.apache.PentahoApacheInputFormat;
 import org.pentaho.hadoop.shim.common.format.parquet.delegate.twitter.PentahoTwitterInputFormat;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.mockito.Mockito.mock;
 
 @RunWith( Parameterized.class )
@@ -67,6 +71,7 @@ public class PentahoParquetRecordWriterTest {
   private static Path tempFile = null;
   private static final String PARQUET_FILE_NAME = "/test.parquet";
   private static TaskAttemptContextImpl task = null;
+  private Object recordWriterObject;
 
   @Before
   public void setUp() throws Exception {
@@ -95,10 +100,52 @@ public class PentahoParquetRecordWriterTest {
 
   @Test
   public void recordWriterCreateFile() throws Exception {
+    IPentahoOutputFormat.IPentahoRecordWriter writer = createWriter();
+    RowMeta rowMeta = createRowMeta( "Name", "Age" );
 
-    IPentahoOutputFormat.IPentahoRecordWriter writer = null;
-    Object recordWriterObject = null;
+    switch ( testType ) {
+      case "DATA":
+        writer.write( createRow( rowMeta, "Alex", "87" ) );
+        writer.writeBatch( rowMeta, new Object[][] { { "Bob", "42" }, { "Eve", "23" } } );
+        break;
+      case "NULL":
+        writer.write( createRow( rowMeta, null, null ) );
+        writer.writeBatch( rowMeta, new Object[][] { { null, null }, { null, null } } );
+        break;
+      default:
+        org.junit.Assert.fail( "Invalid test type used." );
+    }
+    closeWriter();
 
+    switch ( testType ) {
+      case "DATA":
+        assertEquals( Arrays.asList( "Alex/87", "Bob/42", "Eve/23" ), readWrittenRows() );
+        break;
+      case "NULL":
+        for ( Path file : getWrittenFiles() ) {
+          Assert.assertTrue( Files.size( file ) > 0 );
+        }
+        break;
+      default:
+        org.junit.Assert.fail( "Invalid test type used." );
+    }
+  }
+
+  @Test
+  public void recordWriterRebindsFieldsForEachRowMeta() throws Exception {
+    IPentahoOutputFormat.IPentahoRecordWriter writer = createWriter();
+    RowMeta nameFirst = createRowMeta( "Name", "Age" );
+    RowMeta ageFirst = createRowMeta( "Age", "Name" );
+
+    writer.write( createRow( nameFirst, "Alex", "87" ) );
+    writer.writeBatch( ageFirst, new Object[][] { { "42", "Bob" } } );
+    writer.write( createRow( nameFirst, "Eve", "23" ) );
+    closeWriter();
+
+    assertEquals( Arrays.asList( "Alex/87", "Bob/42", "Eve/23" ), readWrittenRows() );
+  }
+
+  private IPentahoOutputFormat.IPentahoRecordWriter createWriter() throws Exception {
     switch ( provider ) {
       case "APACHE":
         org.apache.parquet.hadoop.api.WriteSupport apacheSupport =
@@ -110,9 +157,8 @@ public class PentahoParquetRecordWriterTest {
           (org.apache.parquet.hadoop.ParquetRecordWriter<RowMetaAndData>) apacheNativeParquetOutputFormat
             .getRecordWriter( task );
         recordWriterObject = apacheRecordWriter;
-        writer = new org.pentaho.hadoop.shim.common.format.parquet.delegate.apache.PentahoParquetRecordWriter(
+        return new org.pentaho.hadoop.shim.common.format.parquet.delegate.apache.PentahoParquetRecordWriter(
           apacheRecordWriter, task );
-        break;
       case "TWITTER":
         parquet.hadoop.api.WriteSupport twitterSupport =
           new org.pentaho.hadoop.shim.common.format.parquet.delegate.twitter.PentahoParquetWriteSupport(
@@ -122,32 +168,15 @@ public class PentahoParquetRecordWriterTest {
         parquet.hadoop.ParquetRecordWriter<RowMetaAndData> twitterRecordWriter =
           (parquet.hadoop.ParquetRecordWriter<RowMetaAndData>) twitterNativeParquetOutputFormat.getRecordWriter( task );
         recordWriterObject = twitterRecordWriter;
-        writer = new org.pentaho.hadoop.shim.common.format.parquet.delegate.twitter.PentahoParquetRecordWriter(
+        return new org.pentaho.hadoop.shim.common.format.parquet.delegate.twitter.PentahoParquetRecordWriter(
           twitterRecordWriter, task );
-        break;
       default:
         org.junit.Assert.fail( "Invalid provider name used." );
+        return null;
     }
+  }
 
-    RowMetaAndData row = new RowMetaAndData();
-    RowMeta rowMeta = new RowMeta();
-    rowMeta.addValueMeta( new ValueMetaString( "Name" ) );
-    rowMeta.addValueMeta( new ValueMetaString( "Age" ) );
-    row.setRowMeta( rowMeta );
-
-    switch ( testType ) {
-      case "DATA":
-        row.setData( new Object[] { "Alex", "87" } );
-        break;
-      case "NULL":
-        row.setData( new Object[] { null, null } );
-        break;
-      default:
-        org.junit.Assert.fail( "Invalid test type used." );
-    }
-
-    writer.write( row );
-
+  private void closeWriter() throws Exception {
     switch ( provider ) {
       case "APACHE":
         ( (org.apache.parquet.hadoop.ParquetRecordWriter<RowMetaAndData>) recordWriterObject ).close( task );
@@ -158,31 +187,47 @@ public class PentahoParquetRecordWriterTest {
       default:
         org.junit.Assert.fail( "Invalid provider name used." );
     }
+  }
 
-    Files.walk( Paths.get( tempFile.toString() ) )
-      .filter( Files::isRegularFile )
-      .forEach( ( f ) -> {
-        String file = f.toString();
-        if ( file.endsWith( "parquet" ) ) {
-          try {
-            switch ( testType ) {
-              case "DATA":
-                IPentahoInputFormat.IPentahoRecordReader recordReader =
-                  readCreatedParquetFile( Paths.get( file ).toUri().toString() );
-                recordReader.forEach(
-                  rowMetaAndData -> Assert.assertTrue( rowMetaAndData.size() == 2 ) );
-                break;
-              case "NULL":
-                Assert.assertTrue( Files.size( Paths.get( file ) ) > 0 );
-                break;
-              default:
-                org.junit.Assert.fail( "Invalid test type used." );
-            }
-          } catch ( Exception e ) {
-            e.printStackTrace();
-          }
+  private static RowMeta createRowMeta( String... names ) {
+    RowMeta rowMeta = new RowMeta();
+    for ( String name : names ) {
+      rowMeta.addValueMeta( new ValueMetaString( name ) );
+    }
+    return rowMeta;
+  }
+
+  private static RowMetaAndData createRow( RowMeta rowMeta, Object... data ) {
+    RowMetaAndData row = new RowMetaAndData();
+    row.setRowMeta( rowMeta );
+    row.setData( data );
+    return row;
+  }
+
+  private List<Path> getWrittenFiles() throws Exception {
+    try ( Stream<Path> files = Files.walk( tempFile ) ) {
+      List<Path> written = files.filter( Files::isRegularFile )
+        .filter( f -> f.toString().endsWith( "parquet" ) )
+        .collect( Collectors.toList() );
+      assertFalse( written.isEmpty() );
+      return written;
+    }
+  }
+
+  /**
+   * @return each row read back from the written files as "Name/Age"
+   */
+  private List<String> readWrittenRows() throws Exception {
+    List<String> rows = new ArrayList<>();
+    for ( Path file : getWrittenFiles() ) {
+      try ( IPentahoInputFormat.IPentahoRecordReader recordReader =
+              readCreatedParquetFile( file.toUri().toString() ) ) {
+        for ( RowMetaAndData row : recordReader ) {
+          rows.add( row.getString( "Name", null ) + "/" + row.getString( "Age", null ) );
         }
-      } );
+      }
+    }
+    return rows;
   }
 
   private IPentahoInputFormat.IPentahoRecordReader readCreatedParquetFile( String parquetFilePath ) throws Exception {
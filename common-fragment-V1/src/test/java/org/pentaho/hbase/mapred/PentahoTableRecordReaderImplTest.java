@@ -0,0 +1,96 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+package org.pentaho.hbase.mapred;
+
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.pentaho.hbase.factory.HBaseTable;
+
+import java.util.NavigableSet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PentahoTableRecordReaderImplTest {
+
+  private static final byte[] FAMILY = Bytes.toBytes( "family" );
+  private static final byte[] OTHER_FAMILY = Bytes.toBytes( "other" );
+  private static final byte[] COLUMN = Bytes.toBytes( "column" );
+
+  @Test
+  public void testConfigureScanWithInputColumns() {
+    Scan scan = new Scan();
+
+    PentahoTableRecordReaderImpl.configureScanWithInputColumns( scan,
+      new byte[][] { Bytes.toBytes( "family:column" ), Bytes.toBytes( "other" ) } );
+
+    assertEquals( 2, scan.getFamilyMap().size() );
+    NavigableSet<byte[]> columns = scan.getFamilyMap().get( FAMILY );
+    assertEquals( 1, columns.size() );
+    assertArrayEquals( COLUMN, columns.first() );
+    assertTrue( scan.getFamilyMap().containsKey( OTHER_FAMILY ) );
+    assertNull( scan.getFamilyMap().get( OTHER_FAMILY ) );
+  }
+
+  @Test
+  public void testNextCopiesResult() throws Exception {
+    byte[] row = Bytes.toBytes( "row1" );
+    byte[] value = Bytes.toBytes( "value1" );
+    ResultScanner scanner = mock( ResultScanner.class );
+    when( scanner.next() ).thenReturn( Result.create( new Cell[] { new KeyValue( row, FAMILY, COLUMN, value ) } ),
+      (Result) null );
+    HBaseTable table = mock( HBaseTable.class );
+    when( table.getScanner( any( Scan.class ) ) ).thenReturn( scanner );
+
+    PentahoTableRecordReaderImpl reader = new PentahoTableRecordReaderImpl();
+    reader.setHTable( table );
+    reader.setInputColumns( new byte[][] { Bytes.toBytes( "family:column" ) } );
+    reader.setStartRow( row );
+    reader.init();
+
+    ArgumentCaptor<Scan> scan = ArgumentCaptor.forClass( Scan.class );
+    verify( table ).getScanner( scan.capture() );
+    assertArrayEquals( COLUMN, scan.getValue().getFamilyMap().get( FAMILY ).first() );
+
+    ImmutableBytesWritable key = reader.createKey();
+    Result result = reader.createValue();
+    assertTrue( reader.next( key, result ) );
+    assertArrayEquals( row, key.get() );
+    assertArrayEquals( row, result.getRow() );
+    assertArrayEquals( value, result.getValue( FAMILY, COLUMN ) );
+    assertFalse( reader.next( key, result ) );
+  }
+}
@@ -16,16 +16,62 @@
  ******************************************************************************/
 package org.pentaho.hbase.shim.common;
 
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.filter.ByteArrayComparable;
+import org.apache.hadoop.hbase.filter.CompareFilter;
+import org.apache.hadoop.hbase.filter.Filter;
+import org.apache.hadoop.hbase.filter.FilterList;
+import org.apache.hadoop.hbase.filter.SingleColumnValueFilter;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Before;
+import org.junit.BeforeClass;
 import org.junit.Test;
-import org.pentaho.hbase.shim.common.CommonHBaseConnection;
+import org.pentaho.di.core.logging.KettleLogStore;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.variables.VariableSpace;
+import org.pentaho.di.core.variables.Variables;
+import org.pentaho.hadoop.shim.api.internal.hbase.ColumnFilter;
+import org.pentaho.hadoop.shim.api.internal.hbase.HBaseValueMeta;
+import org.pentaho.hadoop.shim.api.internal.hbase.Mapping;
+import org.pentaho.hbase.factory.HBaseAdmin;
+import org.pentaho.hbase.factory.HBaseTable;
 
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 /**
  * Created by Vasilina_Terehova on 4/10/2018.
  */
 public class CommonHBaseConnectionTest {
 
+  private CommonHBaseConnection connection;
+  private HBaseValueMeta amount;
+  private Variables vars;
+
+  @BeforeClass
+  public static void beforeClass() throws Exception {
+    KettleLogStore.init();
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    connection = spy( new HBaseConnectionImpl() );
+    amount = new HBaseValueMeta( "family,column,amount", ValueMetaInterface.TYPE_INTEGER, -1, -1 );
+    amount.setIsLongOrDouble( true );
+    vars = new Variables();
+    vars.setVariable( "limit", "42" );
+  }
+
   @Test
   public void testMajorVersion() {
     assertEquals( 7, (int) CommonHBaseConnection.getMajorVersionNumber( "Mapr 78" ) );
@@ -47,4 +93,115 @@ public class CommonHBaseConnectionTest {
     assertEquals( false, CommonHBaseConnection.isMapR60OrAboveShim( "Mapr5" ) );
     assertEquals( true, CommonHBaseConnection.isMapR60OrAboveShim( "Mapr 7" ) );
   }
+
+  @Test
+  public void testColumnFilterIsReusedForSameDefinition() throws Exception {
+    Filter first = addToNewScan( columnFilter( ColumnFilter.ComparisonType.GREATER_THAN, "${limit}", true, null ),
+      amount );
+    Filter second = addToNewScan( columnFilter( ColumnFilter.ComparisonType.GREATER_THAN, "42", true, null ), amount );
+
+    assertSame( first, second );
+    verify( connection, times( 1 ) ).createColumnFilter( any( ColumnFilter.class ), any( HBaseValueMeta.class ),
+      any( VariableSpace.class ), anyString() );
+  }
+
+  @Test
+  public void testColumnFilterIsRebuiltWhenDefinitionChanges() throws Exception {
+    Filter filter = addToNewScan( columnFilter( ColumnFilter.ComparisonType.GREATER_THAN, "${limit}", true, null ),
+      amount );
+
+    assertNotSame( filter,
+      addToNewScan( columnFilter( ColumnFilter.ComparisonType.LESS_THAN, "${limit}", true, null ), amount ) );
+    assertNotSame( filter,
+      addToNewScan( columnFilter( ColumnFilter.ComparisonType.GREATER_THAN, "${limit}", false, null ), amount ) );
+    assertNotSame( filter,
+      addToNewScan( columnFilter( ColumnFilter.ComparisonType.GREATER_THAN, "${limit}", true, "#,##0" ), amount ) );
+    vars.setVariable( "limit", "43" );
+    assertNotSame( filter,
+      addToNewScan( columnFilter( ColumnFilter.ComparisonType.GREATER_THAN, "${limit}", true, null ), amount ) );
+
+    verify( connection, times( 5 ) ).createColumnFilter( any( ColumnFilter.class ), any( HBaseValueMeta.class ),
+      any( VariableSpace.class ), anyString() );
+  }
+
+  @Test
+  public void testColumnFilterCacheIsBounded() throws Exception {
+    for ( int i = 0; i < CommonHBaseConnection.MAX_COLUMN_FILTERS; i++ ) {
+      addToNewScan( columnFilter( ColumnFilter.ComparisonType.EQUAL, Integer.toString( i ), true, null ), amount );
+    }
+    Filter overflow =
+      addToNewScan( columnFilter( ColumnFilter.ComparisonType.EQUAL, "-1", true, null ), amount );
+
+    assertNotSame( overflow,
+      addToNewScan( columnFilter( ColumnFilter.ComparisonType.EQUAL, "-1", true, null ), amount ) );
+    assertSame( addToNewScan( columnFilter( ColumnFilter.ComparisonType.EQUAL, "0", true, null ), amount ),
+      addToNewScan( columnFilter( ColumnFilter.ComparisonType.EQUAL, "0", true, null ), amount ) );
+    verify( connection, times( CommonHBaseConnection.MAX_COLUMN_FILTERS + 2 ) ).createColumnFilter(
+      any( ColumnFilter.class ), any( HBaseValueMeta.class ), any( VariableSpace.class ), anyString() );
+  }
+
+  @Test
+  public void testColumnFilterMatchesFilterByMapping() throws Exception {
+    HBaseValueMeta value = new HBaseValueMeta( "family,column,value", ValueMetaInterface.TYPE_INTEGER, -1, -1 );
+    value.setIsLongOrDouble( true );
+    ColumnFilter cf = columnFilter( ColumnFilter.ComparisonType.GREATER_THAN, "${limit}", true, null );
+    cf.setFieldAlias( "value" );
+
+    FilterList expected = new FilterList( FilterList.Operator.MUST_PASS_ALL );
+    connection.addFilterByMapping( expected, CompareFilter.CompareOp.GREATER,
+      connection.getByteArrayComparableClass(), connection.getNumericComparator( cf, value, vars, "42" ),
+      Mapping.TupleMapping.VALUE );
+
+    // built, then taken from the cache
+    for ( int i = 0; i < 2; i++ ) {
+      addToNewScan( cf, value );
+      assertArrayEquals( expected.toByteArray(), connection.m_sourceScan.getFilter().toByteArray() );
+    }
+  }
+
+  @Test
+  public void testColumnFilterMatchesSingleColumnValueFilter() throws Exception {
+    ColumnFilter cf = columnFilter( ColumnFilter.ComparisonType.GREATER_THAN, "${limit}", true, null );
+
+    ByteArrayComparable comparator = (ByteArrayComparable) connection.getNumericComparator( cf, amount, vars, "42" );
+    SingleColumnValueFilter scvf = new SingleColumnValueFilter( Bytes.toBytes( "family" ), Bytes.toBytes( "column" ),
+      CompareFilter.CompareOp.GREATER, comparator );
+    scvf.setFilterIfMissing( true );
+    FilterList expected = new FilterList( FilterList.Operator.MUST_PASS_ALL, scvf );
+
+    for ( int i = 0; i < 2; i++ ) {
+      addToNewScan( cf, amount );
+      assertArrayEquals( expected.toByteArray(), connection.m_sourceScan.getFilter().toByteArray() );
+    }
+  }
+
+  @Test
+  public void testNewSourceTableScanSetsCaching() throws Exception {
+    connection.m_admin = mock( HBaseAdmin.class );
+    connection.m_sourceTable = mock( HBaseTable.class );
+
+    connection.newSourceTableScan( null, null, 100 );
+
+    assertEquals( 100, connection.m_sourceScan.getCaching() );
+  }
+
+  private ColumnFilter columnFilter( ColumnFilter.ComparisonType op, String constant, boolean signed, String format ) {
+    ColumnFilter cf = new ColumnFilter( "amount" );
+    cf.setComparisonOperator( op );
+    cf.setConstant( constant );
+    cf.setSignedComparison( signed );
+    cf.setFormat( format );
+    return cf;
+  }
+
+  /**
+   * Adds the column filter to a new scan, the way a lookup re-opens its scan, and returns the filter the scan got
+   */
+  private Filter addToNewScan( ColumnFilter cf, HBaseValueMeta columnMeta ) throws Exception {
+    connection.m_sourceScan = new Scan();
+    connection.addColumnFilterToScan( cf, columnMeta, vars, false );
+    List<Filter> filters = ( (FilterList) connection.m_sourceScan.getFilter() ).getFilters();
+    assertEquals( 1, filters.size() );
+    return filters.get( 0 );
+  }
 }
@@ -0,0 +1,79 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.pentaho.hbase.shim.common;
+
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class DeserializedBooleanComparatorTest {
+
+  @Test
+  public void testCompareStrings() {
+    DeserializedBooleanComparator comparator = new DeserializedBooleanComparator( false );
+    assertEquals( 0, comparator.compareTo( Bytes.toBytes( "no" ) ) );
+    assertEquals( 0, comparator.compareTo( Bytes.toBytes( "False" ) ) );
+    assertEquals( -1, comparator.compareTo( Bytes.toBytes( "Y" ) ) );
+    assertEquals( -1, comparator.compareTo( Bytes.toBytes( "true" ) ) );
+    assertEquals( 0, comparator.compareTo( Bytes.toBytes( "maybe" ) ) );
+  }
+
+  @Test
+  public void testCompareNumbers() {
+    DeserializedBooleanComparator comparator = new DeserializedBooleanComparator( true );
+    assertEquals( 0, comparator.compareTo( new byte[] { 1 } ) );
+    assertEquals( 1, comparator.compareTo( Bytes.toBytes( (short) 0 ) ) );
+    assertEquals( 0, comparator.compareTo( Bytes.toBytes( 1.0f ) ) );
+    assertEquals( 1, comparator.compareTo( Bytes.toBytes( 0L ) ) );
+    assertEquals( 0, comparator.compareTo( Bytes.toBytes( 1.0d ) ) );
+    assertEquals( 0, comparator.compareTo( Bytes.toBytes( 7 ) ) );
+  }
+
+  @Test
+  public void testCompareWithOffset() {
+    DeserializedBooleanComparator comparator = new DeserializedBooleanComparator( false );
+    byte[] cell = Bytes.toBytes( "xxYESxx" );
+    assertEquals( -1, comparator.compareTo( cell, 2, 3 ) );
+    assertEquals( 0, comparator.compareTo( cell, 0, 2 ) );
+  }
+
+  @Test
+  public void testStaticDecoders() {
+    assertEquals( Boolean.TRUE, DeserializedBooleanComparator.decodeBoolFromString( Bytes.toBytes( "t" ) ) );
+    assertNull( DeserializedBooleanComparator.decodeBoolFromString( Bytes.toBytes( "yess" ) ) );
+    assertEquals( Boolean.FALSE, DeserializedBooleanComparator.decodeBoolFromNumber( Bytes.toBytes( 0 ) ) );
+    assertNull( DeserializedBooleanComparator.decodeBoolFromNumber( Bytes.toBytes( 2L ) ) );
+  }
+
+  @Test
+  public void testSerializationRoundTrip() {
+    byte[] serialized = new DeserializedBooleanComparator( true ).toByteArray();
+    assertArrayEquals( new byte[] { 1 }, serialized );
+    DeserializedBooleanComparator parsed =
+      (DeserializedBooleanComparator) DeserializedBooleanComparator.parseFrom( serialized );
+    assertEquals( Boolean.TRUE, parsed.m_value );
+  }
+}
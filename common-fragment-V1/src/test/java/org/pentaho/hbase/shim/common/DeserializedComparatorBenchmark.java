@@ -0,0 +1,168 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+package org.pentaho.hbase.shim.common;
+
+import org.apache.hadoop.hbase.filter.ByteArrayComparable;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Throughput and allocation rate of {@link DeserializedNumericComparator} and {@link DeserializedBooleanComparator}
+ * comparing synthetic cells the way a region server does, through compareTo( byte[], int, int ) at an offset inside a
+ * larger array. Not part of the normal test run, as surefire only picks up *Test classes. Run it with
+ * <pre>
+ *   mvn test -Dtest=DeserializedComparatorBenchmark -DfailIfNoTests=false
+ * </pre>
+ * The system properties benchmark.cells (default 10,000,000), benchmark.warmups and benchmark.iterations size the run.
+ */
+public class DeserializedComparatorBenchmark {
+  private static final int CELLS = Integer.getInteger( "benchmark.cells", 10_000_000 );
+  private static final int WARMUPS = Integer.getInteger( "benchmark.warmups", 1 );
+  private static final int ITERATIONS = Integer.getInteger( "benchmark.iterations", 3 );
+  private static final int DISTINCT_CELLS = 4096;
+  private static final int SLOT_SIZE = 16;
+  // cells start part way into each slot, as they do inside a region server's block
+  private static final int CELL_OFFSET = 5;
+
+  private static final com.sun.management.ThreadMXBean THREADS =
+    (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  @Test
+  public void compareLongs() {
+    Random random = new Random( 42 );
+    run( "long", new DeserializedNumericComparator( true, true, 0L ),
+      cells( ( block, offset ) -> Bytes.putLong( block, offset, random.nextLong() ) ), Bytes.SIZEOF_LONG );
+  }
+
+  @Test
+  public void compareInts() {
+    Random random = new Random( 42 );
+    run( "int", new DeserializedNumericComparator( true, false, 0L ),
+      cells( ( block, offset ) -> Bytes.putInt( block, offset, random.nextInt() ) ), Bytes.SIZEOF_INT );
+  }
+
+  @Test
+  public void compareShorts() {
+    Random random = new Random( 42 );
+    run( "short", new DeserializedNumericComparator( true, false, 0L ),
+      cells( ( block, offset ) -> Bytes.putShort( block, offset, (short) random.nextInt() ) ), Bytes.SIZEOF_SHORT );
+  }
+
+  @Test
+  public void compareFloats() {
+    Random random = new Random( 42 );
+    run( "float", new DeserializedNumericComparator( false, false, 0.5d ),
+      cells( ( block, offset ) -> Bytes.putFloat( block, offset, random.nextFloat() ) ), Bytes.SIZEOF_FLOAT );
+  }
+
+  @Test
+  public void compareDoubles() {
+    Random random = new Random( 42 );
+    run( "double", new DeserializedNumericComparator( false, true, 0.5d ),
+      cells( ( block, offset ) -> Bytes.putDouble( block, offset, random.nextDouble() ) ), Bytes.SIZEOF_DOUBLE );
+  }
+
+  @Test
+  public void compareBooleanStrings() {
+    String[] words = { "Y", "n", "YES", "no", "True", "FALSE", "t", "F", "1", "0" };
+    byte[] block = new byte[ DISTINCT_CELLS * SLOT_SIZE ];
+    int[] lengths = new int[ DISTINCT_CELLS ];
+    for ( int i = 0; i < DISTINCT_CELLS; i++ ) {
+      byte[] word = Bytes.toBytes( words[ i % words.length ] );
+      System.arraycopy( word, 0, block, i * SLOT_SIZE + CELL_OFFSET, word.length );
+      lengths[ i ] = word.length;
+    }
+    run( "boolean string", new DeserializedBooleanComparator( true ), block, lengths );
+  }
+
+  @Test
+  public void compareBooleanNumbers() {
+    int[] widths = { Bytes.SIZEOF_BYTE, Bytes.SIZEOF_SHORT, Bytes.SIZEOF_INT, Bytes.SIZEOF_LONG };
+    byte[] block = new byte[ DISTINCT_CELLS * SLOT_SIZE ];
+    int[] lengths = new int[ DISTINCT_CELLS ];
+    for ( int i = 0; i < DISTINCT_CELLS; i++ ) {
+      int offset = i * SLOT_SIZE + CELL_OFFSET;
+      int width = widths[ i % widths.length ];
+      // 0 or 1 in the last byte of a big endian number of the given width
+      block[ offset + width - 1 ] = (byte) ( i / widths.length % 2 );
+      lengths[ i ] = width;
+    }
+    run( "boolean number", new DeserializedBooleanComparator( true ), block, lengths );
+  }
+
+  private interface CellWriter {
+    void write( byte[] block, int offset );
+  }
+
+  private static byte[] cells( CellWriter writer ) {
+    byte[] block = new byte[ DISTINCT_CELLS * SLOT_SIZE ];
+    for ( int i = 0; i < DISTINCT_CELLS; i++ ) {
+      writer.write( block, i * SLOT_SIZE + CELL_OFFSET );
+    }
+    return block;
+  }
+
+  private static void run( String name, ByteArrayComparable comparator, byte[] block, int width ) {
+    int[] lengths = new int[ DISTINCT_CELLS ];
+    Arrays.fill( lengths, width );
+    run( name, comparator, block, lengths );
+  }
+
+  private static void run( String name, ByteArrayComparable comparator, byte[] block, int[] lengths ) {
+    for ( int i = 0; i < WARMUPS; i++ ) {
+      compare( comparator, block, lengths );
+    }
+    long threadId = Thread.currentThread().getId();
+    boolean measureAllocation = THREADS.isThreadAllocatedMemorySupported() && THREADS.isThreadAllocatedMemoryEnabled();
+    for ( int i = 0; i < ITERATIONS; i++ ) {
+      long allocatedBefore = measureAllocation ? THREADS.getThreadAllocatedBytes( threadId ) : 0;
+      long start = System.nanoTime();
+      long result = compare( comparator, block, lengths );
+      long nanos = System.nanoTime() - start;
+      long allocated = measureAllocation ? THREADS.getThreadAllocatedBytes( threadId ) - allocatedBefore : -1;
+
+      double bytesPerCell = (double) allocated / CELLS;
+      System.out.printf( "%s %s: %,d cells in %,d ms, %,.0f cells/s, %s bytes allocated per cell (checksum %d)%n",
+        comparator.getClass().getSimpleName(), name, CELLS, nanos / 1_000_000, CELLS * 1e9 / nanos,
+        measureAllocation ? String.format( "%.3f", bytesPerCell ) : "n/a", result );
+      if ( measureAllocation ) {
+        // compared in place, so nothing is allocated per cell
+        assertTrue( name + " allocates " + bytesPerCell + " bytes per cell", bytesPerCell < 1 );
+      }
+    }
+  }
+
+  private static long compare( ByteArrayComparable comparator, byte[] block, int[] lengths ) {
+    long result = 0;
+    for ( int i = 0; i < CELLS; i++ ) {
+      int cell = i % DISTINCT_CELLS;
+      result += comparator.compareTo( block, cell * SLOT_SIZE + CELL_OFFSET, lengths[ cell ] );
+    }
+    return result;
+  }
+}
@@ -0,0 +1,91 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.pentaho.hbase.shim.common;
+
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DeserializedNumericComparatorTest {
+
+  @Test
+  public void testCompareIntegerWidths() {
+    DeserializedNumericComparator comparator = new DeserializedNumericComparator( true, true, -5L );
+    assertEquals( 0, comparator.compareTo( Bytes.toBytes( -5L ) ) );
+    assertTrue( comparator.compareTo( Bytes.toBytes( 3 ) ) < 0 );
+    assertTrue( comparator.compareTo( Bytes.toBytes( (short) -7 ) ) > 0 );
+  }
+
+  @Test
+  public void testCompareFloatingPointWidths() {
+    DeserializedNumericComparator comparator = new DeserializedNumericComparator( false, true, 1.5d );
+    assertEquals( 0, comparator.compareTo( Bytes.toBytes( 1.5d ) ) );
+    assertEquals( 0, comparator.compareTo( Bytes.toBytes( 1.5f ) ) );
+    assertTrue( comparator.compareTo( Bytes.toBytes( -2.0d ) ) > 0 );
+    assertTrue( comparator.compareTo( Bytes.toBytes( 2.0f ) ) < 0 );
+  }
+
+  @Test
+  public void testCompareWithOffset() {
+    DeserializedNumericComparator comparator = new DeserializedNumericComparator( true, true, 10L );
+    byte[] cell = Bytes.add( new byte[] { 9, 9, 9 }, Bytes.toBytes( 10L ), new byte[] { 9 } );
+    assertEquals( 0, comparator.compareTo( cell, 3, Bytes.SIZEOF_LONG ) );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testCompareTooShortValue() {
+    new DeserializedNumericComparator( true, true, 1L ).compareTo( new byte[] { 1 } );
+  }
+
+  @Test
+  public void testToByteArrayMatchesDataOutputLayout() throws Exception {
+    DeserializedNumericComparator comparator = new DeserializedNumericComparator( false, false, 2.25d );
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    comparator.write( new DataOutputStream( bytes ) );
+    assertArrayEquals( bytes.toByteArray(), comparator.toByteArray() );
+  }
+
+  @Test
+  public void testParseFromRoundTrip() {
+    DeserializedNumericComparator integer = (DeserializedNumericComparator) DeserializedNumericComparator
+      .parseFrom( new DeserializedNumericComparator( true, false, 42L ).toByteArray() );
+    assertTrue( integer.m_isInteger );
+    assertEquals( 42L, integer.m_longValue );
+
+    DeserializedNumericComparator floating = (DeserializedNumericComparator) DeserializedNumericComparator
+      .parseFrom( new DeserializedNumericComparator( false, true, -0.5d ).toByteArray() );
+    assertTrue( floating.m_isLongOrDouble );
+    assertEquals( -0.5d, floating.m_doubleValue, 0d );
+  }
+
+  @Test( expected = RuntimeException.class )
+  public void testParseFromTruncated() {
+    DeserializedNumericComparator.parseFrom( new byte[] { 1, 1, 0 } );
+  }
+}
@@ -0,0 +1,236 @@
+/*******************************************************************************
+ *
+ * Pentaho Big Data
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.pentaho.hadoop.mapreduce;
+
+import org.pentaho.di.core.BaseRowSet;
+import org.pentaho.di.core.Const;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.trans.RowProducer;
+import org.pentaho.di.trans.Trans;
+import org.pentaho.di.trans.step.StepInterface;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Row set that hands rows from a single producer to the injector step in blocks, so that the producer and the step
+ * synchronize once per block instead of once per row.
+ * <p>
+ * The producer fills a block without any locking and queues it once it is full. When the consuming step runs out of
+ * rows it marks itself idle, and the producer then queues its partially filled block with the next row so the step
+ * does not wait for a block to fill up. Whatever is left when the row set is marked done is handed over as well.
+ */
+public class BatchingRowSet extends BaseRowSet {
+
+  /**
+   * Number of records injected into the transformation per block, {@code 1} or less injects them one by one
+   */
+  public static final String STRING_INJECTOR_BLOCK_SIZE = "pmr.injector.blocksize";
+
+  private final int blockSize;
+
+  private final BlockingQueue<Object[][]> blocks;
+
+  //  rows in queued blocks
+  private final AtomicInteger queuedRows = new AtomicInteger();
+
+  //  set by the consumer when it found no rows, cleared once a block was handed over
+  private volatile boolean idle;
+
+  //  the partial block left over when the producer marked the row set done
+  private volatile Object[][] lastBlock;
+
+  //  producer side
+  private Object[][] pending;
+
+  private int pendingSize;
+
+  //  consumer side
+  private Object[][] current;
+
+  private int position;
+
+  /**
+   * @param blockSize  maximum number of rows per block
+   * @param bufferSize approximate number of rows the row set holds before the producer blocks
+   */
+  public BatchingRowSet( int blockSize, int bufferSize ) {
+    super();
+    if ( blockSize < 1 ) {
+      throw new IllegalArgumentException( "Block size must be positive: " + blockSize );
+    }
+    this.blockSize = blockSize;
+    this.blocks = new ArrayBlockingQueue<Object[][]>( Math.max( 2, bufferSize / blockSize ) );
+    this.pending = new Object[ blockSize ][];
+  }
+
+  /**
+   * Like {@link Trans#addRowProducer(String, int)}, but injects the rows into the first copy of the step through a
+   * {@link BatchingRowSet}. Only suitable for transformations running with the normal, multi threaded engine.
+   *
+   * @param trans     the prepared transformation
+   * @param stepName  name of the step to inject rows into
+   * @param blockSize maximum number of rows per block
+   * @return a row producer for the step
+   * @throws KettleException when the step can not be found
+   */
+  public static RowProducer addRowProducer( Trans trans, String stepName, int blockSize ) throws KettleException {
+    StepInterface stepInterface = trans.getStepInterface( stepName, 0 );
+    if ( stepInterface == null ) {
+      throw new KettleException( "Unable to find thread with name " + stepName + " and copy number 0" );
+    }
+    BatchingRowSet rowSet = new BatchingRowSet( blockSize, trans.getTransMeta().getSizeRowset() );
+    stepInterface.addRowSetToInputRowSets( rowSet );
+    return new RowProducer( stepInterface, rowSet );
+  }
+
+  @Override
+  public boolean putRow( RowMetaInterface rowMeta, Object[] rowData ) {
+    return putRowWait( rowMeta, rowData, Const.TIMEOUT_PUT_MILLIS, TimeUnit.MILLISECONDS );
+  }
+
+  @Override
+  public boolean putRowWait( RowMetaInterface rowMeta, Object[] rowData, long time, TimeUnit tu ) {
+    this.rowMeta = rowMeta;
+    if ( pendingSize == blockSize && !offerPending( time, tu ) ) {
+      return false;
+    }
+    pending[ pendingSize++ ] = rowData;
+    if ( pendingSize == blockSize || idle ) {
+      // a full queue is fine here, the block is retried with the next row
+      offerPending( 0, TimeUnit.MILLISECONDS );
+    }
+    return true;
+  }
+
+  private boolean offerPending( long time, TimeUnit tu ) {
+    Object[][] block = pendingSize == blockSize ? pending : Arrays.copyOf( pending, pendingSize );
+    queuedRows.addAndGet( block.length );
+    try {
+      if ( !blocks.offer( block, time, tu ) ) {
+        queuedRows.addAndGet( -block.length );
+        return false;
+      }
+    } catch ( InterruptedException e ) {
+      queuedRows.addAndGet( -block.length );
+      return false;
+    }
+    if ( block == pending ) {
+      pending = new Object[ blockSize ][];
+    }
+    pendingSize = 0;
+    idle = false;
+    return true;
+  }
+
+  @Override
+  public void setDone() {
+    if ( pendingSize > 0 && !offerPending( 0, TimeUnit.MILLISECONDS ) ) {
+      // never block here, the consumer picks the rest up once it sees the row set is done
+      lastBlock = Arrays.copyOf( pending, pendingSize );
+      pendingSize = 0;
+    }
+    super.setDone();
+  }
+
+  @Override
+  public Object[] getRow() {
+    return getRowWait( Const.TIMEOUT_GET_MILLIS, TimeUnit.MILLISECONDS );
+  }
+
+  @Override
+  public Object[] getRowImmediate() {
+    if ( current != null && position < current.length ) {
+      return next();
+    }
+    return nextBlock( blocks.poll() ) ? next() : null;
+  }
+
+  @Override
+  public Object[] getRowWait( long timeout, TimeUnit tu ) {
+    if ( current != null && position < current.length ) {
+      return next();
+    }
+    Object[][] block = blocks.poll();
+    if ( block == null ) {
+      idle = true;
+      try {
+        block = blocks.poll( timeout, tu );
+      } catch ( InterruptedException e ) {
+        return null;
+      }
+    }
+    return nextBlock( block ) ? next() : null;
+  }
+
+  private boolean nextBlock( Object[][] block ) {
+    if ( block != null ) {
+      queuedRows.addAndGet( -block.length );
+    } else if ( isDone() ) {
+      // everything the producer queued before it was done is visible now
+      block = blocks.poll();
+      if ( block != null ) {
+        queuedRows.addAndGet( -block.length );
+      } else {
+        block = lastBlock;
+        lastBlock = null;
+      }
+    }
+    if ( block == null ) {
+      idle = true;
+      return false;
+    }
+    current = block;
+    position = 0;
+    idle = false;
+    return true;
+  }
+
+  private Object[] next() {
+    Object[] row = current[ position ];
+    current[ position++ ] = null;
+    return row;
+  }
+
+  @Override
+  public int size() {
+    Object[][] block = current;
+    Object[][] last = lastBlock;
+    return queuedRows.get() + ( block == null ? 0 : Math.max( 0, block.length - position ) )
+      + ( last == null ? 0 : last.length );
+  }
+
+  @Override
+  public void clear() {
+    blocks.clear();
+    queuedRows.set( 0 );
+    pendingSize = 0;
+    lastBlock = null;
+    current = null;
+    position = 0;
+  }
+}
@@ -242,14 +242,17 @@ public class GenericTransReduce<K extends WritableComparable<?>, V extends Itera
     setDebugStatus( reporter, "Locating output step: " + outputStepName );
     StepInterface outputStep = trans.findRunThread( outputStepName );
     if ( outputStep != null ) {
-      rowCollector = new OutputCollectorRowListener( output, outClassK, outClassV, reporter, log.isDebug() );
+      rowCollector = new OutputCollectorRowListener( output, outClassK, outClassV, reporter, log.isDebug(),
+        reuseOutputWritables );
       outputStep.addRowListener( rowCollector );
 
       injectorRowMeta = new RowMeta();
       setDebugStatus( reporter, "Locating input step: " + inputStepName );
       if ( inputStepName != null ) {
         // Setup row injection
-        rowProducer = trans.addRowProducer( inputStepName, 0 );
+        rowProducer = injectorBlockSize > 1 && !isSingleThreaded()
+          ? BatchingRowSet.addRowProducer( trans, inputStepName, injectorBlockSize )
+          : trans.addRowProducer( inputStepName, 0 );
         StepInterface inputStep = rowProducer.getStepInterface();
         StepMetaInterface inputStepMeta = inputStep.getStepMeta().getStepMetaInterface();
 
@@ -22,29 +22,45 @@
 
 package org.pentaho.hadoop.mapreduce;
 
+import com.thoughtworks.xstream.XStream;
 import org.apache.commons.lang.StringUtils;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.mapred.JobConf;
 import org.pentaho.di.core.Const;
 import org.pentaho.di.core.KettleEnvironment;
 import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.logging.LogLevel;
 import org.pentaho.di.core.logging.LoggingObjectType;
 import org.pentaho.di.core.logging.SimpleLoggingObject;
 import org.pentaho.di.core.variables.VariableSpace;
+import org.pentaho.di.core.variables.Variables;
 import org.pentaho.di.i18n.BaseMessages;
 import org.pentaho.di.trans.Trans;
 import org.pentaho.di.trans.TransConfiguration;
-import org.pentaho.di.trans.TransExecutionConfiguration;
 import org.pentaho.di.trans.TransMeta;
 import org.pentaho.di.trans.TransMeta.TransformationType;
+import org.pentaho.di.trans.step.StepMeta;
+import org.pentaho.di.trans.steps.missing.MissingTrans;
 
 import org.pentaho.di.core.logging.LogChannel;
 import org.pentaho.di.core.logging.LogChannelInterface;
 
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
 public class MRUtil {
 
@@ -65,18 +81,90 @@ public class MRUtil {
    */
   public static final String PROPERTY_PENTAHO_KETTLE_HOME = "pentaho.kettle.home";
 
+  /**
+   * Hadoop Configuration for reusing transformations and variable spaces parsed by earlier tasks in the same JVM, e.g.
+   * with uber tasks or JVM reuse. Enabled unless set to {@code false}.
+   */
+  public static final String PROPERTY_PENTAHO_TEMPLATE_CACHE = "pentaho.pmr.template.cache";
+
+  /**
+   * Hadoop Configuration naming the file in the distributed cache the job builder moved the transformations and the
+   * variable space to. See {@link #loadStagedTransformations(Configuration)}.
+   */
+  public static final String PROPERTY_PENTAHO_STAGED_TRANSFORMATIONS = "pmr.staged.transformations";
+
+  private static final int STAGED_TRANSFORMATIONS_VERSION = 1;
+
+  private static final int MAX_TEMPLATES = 16;
+
+  private static final Map<String, TransTemplate> TRANS_TEMPLATES = newTemplateCache();
+
+  private static final Map<String, VariableSpace> VARIABLE_SPACE_TEMPLATES = newTemplateCache();
+
+  /**
+   * A parsed transformation together with the log level of its execution configuration.
+   */
+  private static class TransTemplate {
+    private final TransMeta transMeta;
+    private final LogLevel logLevel;
+
+    private TransTemplate( TransConfiguration transConfiguration ) {
+      this.transMeta = transConfiguration.getTransMeta();
+      this.logLevel = transConfiguration.getTransExecutionConfiguration().getLogLevel();
+    }
+
+    /**
+     * @return a copy of the transformation that does not share its variable space with the template
+     */
+    private TransMeta newTransMeta() {
+      synchronized ( transMeta ) {
+        TransMeta copy = (TransMeta) transMeta.clone();
+        Variables variables = new Variables();
+        variables.copyVariablesFrom( transMeta );
+        copy.shareVariablesWith( variables );
+        return copy;
+      }
+    }
+  }
+
+  private static <V> Map<String, V> newTemplateCache() {
+    return Collections.synchronizedMap( new LinkedHashMap<String, V>( 16, 0.75f, true ) {
+      @Override
+      protected boolean removeEldestEntry( Map.Entry<String, V> eldest ) {
+        return size() > MAX_TEMPLATES;
+      }
+    } );
+  }
+
   public static Trans getTrans( final Configuration conf, final String transXml, boolean singleThreaded )
     throws KettleException {
     initKettleEnvironment( conf );
 
-    TransConfiguration transConfiguration = TransConfiguration.fromXML( transXml );
-    TransMeta transMeta = transConfiguration.getTransMeta();
+    long start = System.currentTimeMillis();
+    String digest = isTemplateCacheEnabled( conf ) ? getDigest( transXml ) : null;
+    TransTemplate template = digest != null ? TRANS_TEMPLATES.get( digest ) : null;
+    boolean parsed = template == null;
+    if ( parsed ) {
+      template = new TransTemplate( TransConfiguration.fromXML( transXml ) );
+      // steps of plugins that were not loaded yet are parsed again once the plugins are there
+      if ( digest != null && hasMissingPlugins( template.transMeta ) ) {
+        digest = null;
+      }
+      if ( digest != null ) {
+        TRANS_TEMPLATES.put( digest, template );
+      }
+    }
+    // a cached template is never handed out itself, tasks change the transformation they run
+    TransMeta transMeta = digest != null ? template.newTransMeta() : template.transMeta;
+    if ( log.isDetailed() ) {
+      log.logDetailed( "Transformation " + transMeta.getName() + ( parsed ? " parsed" : " copied from cache" )
+        + " in " + ( System.currentTimeMillis() - start ) + " ms" );
+    }
     String carteObjectId = UUID.randomUUID().toString();
     SimpleLoggingObject servletLoggingObject =
       new SimpleLoggingObject( "HADOOP_MAPPER", LoggingObjectType.CARTE, null ); //$NON-NLS-1$
     servletLoggingObject.setContainerObjectId( carteObjectId );
-    TransExecutionConfiguration executionConfiguration = transConfiguration.getTransExecutionConfiguration();
-    servletLoggingObject.setLogLevel( executionConfiguration.getLogLevel() );
+    servletLoggingObject.setLogLevel( template.logLevel );
 
     if ( singleThreaded ) {
       // Set the type to single threaded in case the user forgot...
@@ -94,6 +182,112 @@ public class MRUtil {
     return new Trans( transMeta, servletLoggingObject );
   }
 
+  /**
+   * Deserializes the variable space the job builder stored in the configuration. With the template cache enabled the
+   * XML is only parsed once per JVM and every call returns a new copy.
+   *
+   * @param conf             Configuration to check whether the template cache is enabled
+   * @param xmlVariableSpace  XStream serialized variable space
+   * @return the variable space
+   */
+  public static VariableSpace getVariableSpace( final Configuration conf, final String xmlVariableSpace ) {
+    if ( !isTemplateCacheEnabled( conf ) ) {
+      return (VariableSpace) new XStream().fromXML( xmlVariableSpace );
+    }
+    String digest = getDigest( xmlVariableSpace );
+    VariableSpace template = VARIABLE_SPACE_TEMPLATES.get( digest );
+    if ( template == null ) {
+      template = (VariableSpace) new XStream().fromXML( xmlVariableSpace );
+      VARIABLE_SPACE_TEMPLATES.put( digest, template );
+    }
+    Variables variableSpace = new Variables();
+    variableSpace.copyVariablesFrom( template );
+    return variableSpace;
+  }
+
+  /**
+   * Loads the transformations and the variable space the job builder staged in the distributed cache back into the
+   * configuration, so they can be read as if they had been submitted with the job. Does nothing if the job did not
+   * stage them. The file is written by PentahoMapReduceJobBuilderImpl.writeStagedTransformations, which isn't on the
+   * task's classpath, so the format is read here on its own.
+   *
+   * @param conf Configuration of the task
+   * @throws IOException if the staged file can not be found or read
+   */
+  public static void loadStagedTransformations( final Configuration conf ) throws IOException {
+    String name = conf.get( PROPERTY_PENTAHO_STAGED_TRANSFORMATIONS );
+    if ( StringUtils.isEmpty( name ) ) {
+      return;
+    }
+    File staged = findStagedTransformations( conf, name );
+    try ( DataInputStream in =
+            new DataInputStream( new GZIPInputStream( new BufferedInputStream( new FileInputStream( staged ) ) ) ) ) {
+      int version = in.readInt();
+      if ( version != STAGED_TRANSFORMATIONS_VERSION ) {
+        throw new IOException( "Unsupported version " + version + " of staged transformations " + staged );
+      }
+      for ( int i = in.readInt(); i > 0; i-- ) {
+        String property = in.readUTF();
+        byte[] value = new byte[ in.readInt() ];
+        in.readFully( value );
+        conf.set( property, new String( value, StandardCharsets.UTF_8 ) );
+      }
+    }
+  }
+
+  private static File findStagedTransformations( Configuration conf, String name ) throws IOException {
+    // cached files are linked into the working directory of the task under their name
+    File staged = new File( getWorkingDir(), name );
+    if ( staged.isFile() ) {
+      return staged;
+    }
+    org.apache.hadoop.fs.Path[] localCacheFiles =
+      org.apache.hadoop.mapreduce.filecache.DistributedCache.getLocalCacheFiles( conf );
+    if ( localCacheFiles != null ) {
+      for ( org.apache.hadoop.fs.Path localCacheFile : localCacheFiles ) {
+        if ( name.equals( localCacheFile.getName() ) ) {
+          return new File( localCacheFile.toUri().getPath() );
+        }
+      }
+    }
+    throw new IOException( "Staged transformations " + name + " not found in the distributed cache" );
+  }
+
+  /**
+   * Drop all transformations and variable spaces cached for reuse by later tasks.
+   */
+  public static void clearTemplateCache() {
+    TRANS_TEMPLATES.clear();
+    VARIABLE_SPACE_TEMPLATES.clear();
+  }
+
+  private static boolean isTemplateCacheEnabled( Configuration conf ) {
+    return conf == null || conf.getBoolean( PROPERTY_PENTAHO_TEMPLATE_CACHE, true );
+  }
+
+  private static boolean hasMissingPlugins( TransMeta transMeta ) {
+    for ( StepMeta stepMeta : transMeta.getSteps() ) {
+      if ( stepMeta.getStepMetaInterface() instanceof MissingTrans ) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String getDigest( String xml ) {
+    try {
+      byte[] digest = MessageDigest.getInstance( "SHA-256" ).digest( xml.getBytes( StandardCharsets.UTF_8 ) );
+      StringBuilder hex = new StringBuilder( digest.length * 2 );
+      for ( byte b : digest ) {
+        hex.append( Character.forDigit( ( b >> 4 ) & 0xF, 16 ) ).append( Character.forDigit( b & 0xF, 16 ) );
+      }
+      return hex.toString();
+    } catch ( NoSuchAlgorithmException e ) {
+      // every Java platform has to support SHA-256
+      throw new IllegalStateException( e );
+    }
+  }
+
   /**
    * Initialize the Kettle environment with settings from the provided configuration
    *
@@ -27,9 +27,12 @@ import org.apache.hadoop.mapred.Reporter;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.exception.KettleStepException;
 import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaInterface;
 import org.pentaho.di.trans.step.RowAdapter;
 import org.pentaho.hadoop.mapreduce.PentahoMapRunnable.Counter;
+import org.pentaho.hadoop.mapreduce.converter.TypeConversionException;
 import org.pentaho.hadoop.mapreduce.converter.TypeConverterFactory;
+import org.pentaho.hadoop.mapreduce.converter.spi.IReusingTypeConverter;
 import org.pentaho.hadoop.mapreduce.converter.spi.ITypeConverter;
 
 import org.pentaho.di.core.logging.LogChannel;
@@ -40,6 +43,13 @@ import org.pentaho.di.core.logging.LogChannelInterface;
  */
 public class OutputCollectorRowListener<K, V> extends RowAdapter {
 
+  /**
+   * Reuse one output key and one output value instance for all rows instead of allocating new ones per row. Only safe
+   * when the {@link OutputCollector} serializes the pair in {@code collect}, as the collectors Hadoop hands to map and
+   * reduce tasks do.
+   */
+  public static final String STRING_REUSE_WRITABLES = "pmr.output.reusewritables";
+
   private static LogChannelInterface log = new LogChannel( OutputCollectorRowListener.class.getName() );
 
   private boolean debug;
@@ -58,13 +68,37 @@ public class OutputCollectorRowListener<K, V> extends RowAdapter {
 
   private TypeConverterFactory typeConverterFactory;
 
+  private boolean reuseWritables;
+
+  //  ordinals and converters are pinned to the row meta and runtime value classes they were resolved for
+  private RowMetaInterface convertersRowMeta;
+
+  private Class<?> keyConverterFrom;
+
+  private ITypeConverter keyConverter;
+
+  private Class<?> valueConverterFrom;
+
+  private ITypeConverter valueConverter;
+
+  //  instances handed out by the last conversion, overwritten by the next one when reuseWritables is set
+  private Object reusableKey;
+
+  private Object reusableValue;
+
   public OutputCollectorRowListener( OutputCollector<K, V> output, Class<K> outClassK, Class<V> outClassV,
                                      Reporter reporter, boolean debug ) {
+    this( output, outClassK, outClassV, reporter, debug, false );
+  }
+
+  public OutputCollectorRowListener( OutputCollector<K, V> output, Class<K> outClassK, Class<V> outClassV,
+                                     Reporter reporter, boolean debug, boolean reuseWritables ) {
     this.output = output;
     this.outClassK = outClassK;
     this.outClassV = outClassV;
     this.reporter = reporter;
     this.debug = debug;
+    this.reuseWritables = reuseWritables;
 
     this.typeConverterFactory = new TypeConverterFactory();
 
@@ -80,8 +114,11 @@ public class OutputCollectorRowListener<K, V> extends RowAdapter {
        * Column 2: Value (convert to outClassV)
        */
       if ( row != null && !rowMeta.isEmpty() && rowMeta.size() >= 2 ) {
-        if ( outOrdinals == null ) {
+        if ( outOrdinals == null || rowMeta != convertersRowMeta ) {
           outOrdinals = new OutKeyValueOrdinals( rowMeta );
+          convertersRowMeta = rowMeta;
+          keyConverter = null;
+          valueConverter = null;
 
           if ( outOrdinals.getKeyOrdinal() < 0 || outOrdinals.getValueOrdinal() < 0 ) {
             throw new KettleException(
@@ -103,10 +140,13 @@ public class OutputCollectorRowListener<K, V> extends RowAdapter {
           setDebugStatus( reporter, "out class: " + outClassK );
         }
 
-        ITypeConverter converter = typeConverterFactory
-          .getConverter(
-            row[ outOrdinals.getKeyOrdinal() ] == null ? null : row[ outOrdinals.getKeyOrdinal() ].getClass(),
-            outClassK );
+        Object key = row[ outOrdinals.getKeyOrdinal() ];
+        Class<?> keyClass = key == null ? null : key.getClass();
+        if ( keyConverter == null || keyClass != keyConverterFrom ) {
+          keyConverter = typeConverterFactory.getConverter( keyClass, outClassK );
+          keyConverterFrom = keyClass;
+          reusableKey = null;
+        }
         if ( log.isDebug() ) {
           setDebugStatus( reporter, "ordinals key: " + outOrdinals.getKeyOrdinal() );
           setDebugStatus( reporter, "rowMeta: " + rowMeta );
@@ -115,8 +155,7 @@ public class OutputCollectorRowListener<K, V> extends RowAdapter {
           setDebugStatus( reporter, "key: " + row[ outOrdinals.getKeyOrdinal() ] );
         }
 
-        Object outKey =
-          converter.convert( rowMeta.getValueMeta( outOrdinals.getKeyOrdinal() ), row[ outOrdinals.getKeyOrdinal() ] );
+        Object outKey = convert( keyConverter, rowMeta.getValueMeta( outOrdinals.getKeyOrdinal() ), key, reusableKey );
 
         if ( log.isDebug() ) {
           setDebugStatus( reporter,
@@ -125,9 +164,13 @@ public class OutputCollectorRowListener<K, V> extends RowAdapter {
               : row[ outOrdinals.getValueOrdinal() ].getClass() ) + "] [to:" + outClassV
               + "]" ); //$NON-NLS-1$ //$NON-NLS-2$
         }
-        ITypeConverter valueConverter = typeConverterFactory.getConverter(
-          row[ outOrdinals.getValueOrdinal() ] == null ? null : row[ outOrdinals.getValueOrdinal() ].getClass(),
-          outClassV );
+        Object value = row[ outOrdinals.getValueOrdinal() ];
+        Class<?> valueClass = value == null ? null : value.getClass();
+        if ( valueConverter == null || valueClass != valueConverterFrom ) {
+          valueConverter = typeConverterFactory.getConverter( valueClass, outClassV );
+          valueConverterFrom = valueClass;
+          reusableValue = null;
+        }
         if ( log.isDebug() ) {
           setDebugStatus( reporter, "ordinals value: " + outOrdinals.getValueOrdinal() );
           setDebugStatus( reporter, "rowMeta: " + rowMeta );
@@ -135,8 +178,8 @@ public class OutputCollectorRowListener<K, V> extends RowAdapter {
           setDebugStatus( reporter, "meta: " + rowMeta.getValueMeta( outOrdinals.getValueOrdinal() ) );
           setDebugStatus( reporter, "value: " + row[ outOrdinals.getValueOrdinal() ] );
         }
-        Object outVal = valueConverter
-          .convert( rowMeta.getValueMeta( outOrdinals.getValueOrdinal() ), row[ outOrdinals.getValueOrdinal() ] );
+        Object outVal =
+          convert( valueConverter, rowMeta.getValueMeta( outOrdinals.getValueOrdinal() ), value, reusableValue );
 
         if ( outKey != null && outVal != null ) {
           if ( log.isDebug() ) {
@@ -151,6 +194,10 @@ public class OutputCollectorRowListener<K, V> extends RowAdapter {
           @SuppressWarnings( "unchecked" )
           V v = (V) outVal;
           output.collect( k, v );
+          if ( reuseWritables ) {
+            reusableKey = outKey;
+            reusableValue = outVal;
+          }
         } else {
           if ( outKey == null ) {
             if ( log.isDebug() ) {
@@ -194,6 +241,15 @@ public class OutputCollectorRowListener<K, V> extends RowAdapter {
     }
   }
 
+  @SuppressWarnings( "unchecked" )
+  private Object convert( ITypeConverter converter, ValueMetaInterface meta, Object obj, Object reuse )
+    throws TypeConversionException {
+    if ( reuseWritables && converter instanceof IReusingTypeConverter ) {
+      return ( (IReusingTypeConverter) converter ).convert( meta, obj, reuse );
+    }
+    return converter.convert( meta, obj );
+  }
+
   /**
    * Set the reporter status if {@code debug == true}.
    */
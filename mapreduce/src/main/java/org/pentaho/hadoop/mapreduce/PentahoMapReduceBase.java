@@ -22,7 +22,6 @@
 
 package org.pentaho.hadoop.mapreduce;
 
-import com.thoughtworks.xstream.XStream;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.mapred.MapReduceBase;
@@ -98,6 +97,8 @@ public class PentahoMapReduceBase<K, V> extends MapReduceBase {
   protected OutputCollectorRowListener<K, V> rowCollector;
   protected boolean combineSingleThreaded;
   protected boolean reduceSingleThreaded;
+  protected boolean reuseOutputWritables;
+  protected int injectorBlockSize;
 
   public PentahoMapReduceBase() throws KettleException {
   }
@@ -109,6 +110,12 @@ public class PentahoMapReduceBase<K, V> extends MapReduceBase {
 
     //debug = "true".equalsIgnoreCase( job.get( "debug" ) ); //$NON-NLS-1$
 
+    try {
+      MRUtil.loadStagedTransformations( job );
+    } catch ( IOException e ) {
+      throw new RuntimeException( "Error loading staged transformations", e ); //$NON-NLS-1$
+    }
+
     transMapXml = job.get( "transformation-map-xml" );
     transCombinerXml = job.get( "transformation-combiner-xml" );
     transReduceXml = job.get( "transformation-reduce-xml" );
@@ -120,22 +127,20 @@ public class PentahoMapReduceBase<K, V> extends MapReduceBase {
     reduceInputStepName = job.get( "transformation-reduce-input-stepname" );
     reduceOutputStepName = job.get( "transformation-reduce-output-stepname" );
     reduceSingleThreaded = isReducerSingleThreaded( job );
+    reuseOutputWritables = job.getBoolean( OutputCollectorRowListener.STRING_REUSE_WRITABLES, false );
+    injectorBlockSize = job.getInt( BatchingRowSet.STRING_INJECTOR_BLOCK_SIZE, 0 );
     String xmlVariableSpace = job.get( "variableSpace" );
 
     if ( !Const.isEmpty( xmlVariableSpace ) ) {
       setDebugStatus( "PentahoMapReduceBase. variableSpace was retrieved from the job.  The contents: " );
 
       //  deserialize from xml to variable space
-      XStream xStream = new XStream();
-
-      if ( xStream != null ) {
-        setDebugStatus( "PentahoMapReduceBase: Setting classes variableSpace property.: " );
-        variableSpace = (VariableSpace) xStream.fromXML( xmlVariableSpace );
+      setDebugStatus( "PentahoMapReduceBase: Setting classes variableSpace property.: " );
+      variableSpace = MRUtil.getVariableSpace( job, xmlVariableSpace );
 
-        for ( String variableName : variableSpace.listVariables() ) {
-          if ( variableName.startsWith( KETTLE_VARIABLE_PREFIX ) ) {
-            System.setProperty( variableName, variableSpace.getVariable( variableName ) );
-          }
+      for ( String variableName : variableSpace.listVariables() ) {
+        if ( variableName.startsWith( KETTLE_VARIABLE_PREFIX ) ) {
+          System.setProperty( variableName, variableSpace.getVariable( variableName ) );
         }
       }
     } else {
@@ -22,7 +22,6 @@
 
 package org.pentaho.hadoop.mapreduce;
 
-import com.thoughtworks.xstream.XStream;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.mapred.MapRunnable;
@@ -40,7 +39,10 @@ import org.pentaho.di.core.row.RowMeta;
 import org.pentaho.di.core.variables.VariableSpace;
 import org.pentaho.di.core.variables.Variables;
 import org.pentaho.di.trans.RowProducer;
+import org.pentaho.di.trans.SingleThreadedTransExecutor;
 import org.pentaho.di.trans.Trans;
+import org.pentaho.di.trans.TransMeta;
+import org.pentaho.di.trans.TransMeta.TransformationType;
 import org.pentaho.di.trans.step.BaseStepMeta;
 import org.pentaho.di.trans.step.StepInterface;
 import org.pentaho.di.trans.step.StepMeta;
@@ -67,12 +69,26 @@ import java.util.concurrent.TimeUnit;
 public class PentahoMapRunnable<K1, V1, K2, V2> implements MapRunnable<K1, V1, K2, V2> {
   public static final String KETTLE_PMR_PLUGIN_TIMEOUT = "KETTLE_PMR_PLUGIN_TIMEOUT";
 
+  /**
+   * Run the mapper transformation with the single threaded engine inside the map task, like reducers and combiners can
+   */
+  public static final String STRING_MAP_SINGLE_THREADED = "pmr.mapper.singlethreaded";
+
+  /**
+   * Number of input records injected between two iterations of the single threaded engine
+   */
+  public static final String STRING_MAP_SINGLE_THREADED_BATCH_SIZE = "pmr.mapper.singlethreaded.batchsize";
+
+  public static final int DEFAULT_MAP_SINGLE_THREADED_BATCH_SIZE = 1000;
+
   private static LogChannelInterface log = new LogChannel( PentahoMapRunnable.class.getName() );
 
   private long pluginWaitTimeout;
 
   protected static enum Counter {
-    INPUT_RECORDS, OUTPUT_RECORDS, OUT_RECORD_WITH_NULL_KEY, OUT_RECORD_WITH_NULL_VALUE
+    INPUT_RECORDS, OUTPUT_RECORDS, OUT_RECORD_WITH_NULL_KEY, OUT_RECORD_WITH_NULL_VALUE,
+    // time spent feeding input to the mapper transformation; INPUT_RECORDS / MAP_MILLIS compares the engines
+    MAP_MILLIS, SINGLE_THREADED_MAP_MILLIS
   }
 
   protected String transMapXml;
@@ -102,6 +118,17 @@ public class PentahoMapRunnable<K1, V1, K2, V2> implements MapRunnable<K1, V1, K
 
   protected OutputCollectorRowListener<K2, V2> rowCollector;
 
+  //  true if the mapper transformation runs with the single threaded engine
+  protected boolean mapSingleThreaded;
+
+  protected int mapSingleThreadedBatchSize = DEFAULT_MAP_SINGLE_THREADED_BATCH_SIZE;
+
+  //  true if the output collector may receive the same key and value instances for every record
+  protected boolean reuseOutputWritables;
+
+  //  records handed to the injector step per block, injected one by one if 1 or less
+  protected int injectorBlockSize;
+
   private final String ENVIRONMENT_VARIABLE_PREFIX = "java.system.";
   private final String KETTLE_VARIABLE_PREFIX = "KETTLE_";
 
@@ -113,6 +140,12 @@ public class PentahoMapRunnable<K1, V1, K2, V2> implements MapRunnable<K1, V1, K
 
     //debug = "true".equalsIgnoreCase( job.get( "debug" ) ); //$NON-NLS-1$
 
+    try {
+      MRUtil.loadStagedTransformations( job );
+    } catch ( IOException e ) {
+      throw new RuntimeException( "Error loading staged transformations", e ); //$NON-NLS-1$
+    }
+
     transMapXml = job.get( "transformation-map-xml" );
     transReduceXml = job.get( "transformation-reduce-xml" );
     mapInputStepName = job.get( "transformation-map-input-stepname" );
@@ -121,6 +154,12 @@ public class PentahoMapRunnable<K1, V1, K2, V2> implements MapRunnable<K1, V1, K
     reduceOutputStepName = job.get( "transformation-reduce-output-stepname" );
     String xmlVariableSpace = job.get( "variableSpace" );
 
+    mapSingleThreadedBatchSize = Math.max( 1,
+      job.getInt( STRING_MAP_SINGLE_THREADED_BATCH_SIZE, DEFAULT_MAP_SINGLE_THREADED_BATCH_SIZE ) );
+
+    reuseOutputWritables = job.getBoolean( OutputCollectorRowListener.STRING_REUSE_WRITABLES, false );
+    injectorBlockSize = job.getInt( BatchingRowSet.STRING_INJECTOR_BLOCK_SIZE, 0 );
+
     outClassK = (Class<K2>) job.getMapOutputKeyClass();
     outClassV = (Class<V2>) job.getMapOutputValueClass();
 
@@ -129,10 +168,8 @@ public class PentahoMapRunnable<K1, V1, K2, V2> implements MapRunnable<K1, V1, K
       setDebugStatus( xmlVariableSpace );
 
       //  deserialize from xml to variable space
-      XStream xStream = new XStream();
-
       setDebugStatus( "PentahoMapRunnable(): Setting classes variableSpace property.: " );
-      variableSpace = (VariableSpace) xStream.fromXML( xmlVariableSpace );
+      variableSpace = MRUtil.getVariableSpace( job, xmlVariableSpace );
 
       for ( String variableName : variableSpace.listVariables() ) {
         if ( variableName.startsWith( KETTLE_VARIABLE_PREFIX ) ) {
@@ -252,12 +289,37 @@ public class PentahoMapRunnable<K1, V1, K2, V2> implements MapRunnable<K1, V1, K
 
     try {
       setDebugStatus( "Creating a transformation for a map." );
-      trans = MRUtil.getTrans( conf, transMapXml, false );
+      boolean singleThreaded = isMapperSingleThreaded( conf );
+      trans = MRUtil.getTrans( conf, transMapXml, singleThreaded );
+      if ( singleThreaded && !supportsSingleThreaded( trans.getTransMeta() ) ) {
+        log.logBasic( "Not all steps of the mapper transformation can run single threaded, using the normal engine" );
+        trans = MRUtil.getTrans( conf, transMapXml, false );
+        singleThreaded = false;
+      }
+      mapSingleThreaded = singleThreaded;
     } catch ( KettleException ke ) {
       throw new RuntimeException( "Error loading transformation", ke ); //$NON-NLS-1$
     }
   }
 
+  private boolean isMapperSingleThreaded( final Configuration conf ) {
+    return "true".equalsIgnoreCase( conf.get( STRING_MAP_SINGLE_THREADED ) );
+  }
+
+  private static boolean supportsSingleThreaded( TransMeta transMeta ) {
+    for ( StepMeta stepMeta : transMeta.getSteps() ) {
+      TransformationType[] types = stepMeta.getStepMetaInterface().getSupportedTransformationTypes();
+      if ( types == null || !Arrays.asList( types ).contains( TransformationType.SingleThreaded ) ) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public boolean isMapSingleThreaded() {
+    return mapSingleThreaded;
+  }
+
   public String getTransMapXml() {
     return transMapXml;
   }
@@ -355,6 +417,15 @@ public class PentahoMapRunnable<K1, V1, K2, V2> implements MapRunnable<K1, V1, K
     }
   }
 
+  private void reportThroughput( Reporter reporter, long records, long elapsedMillis ) {
+    reporter.incrCounter( Counter.INPUT_RECORDS, records );
+    reporter.incrCounter( mapSingleThreaded ? Counter.SINGLE_THREADED_MAP_MILLIS : Counter.MAP_MILLIS,
+      elapsedMillis );
+    log.logBasic( "Mapper transformation processed " + records + " records in " + elapsedMillis + " ms ("
+      + ( elapsedMillis > 0 ? records * 1000 / elapsedMillis : records ) + " records/s, "
+      + ( mapSingleThreaded ? "single threaded" : "normal" ) + " engine)" );
+  }
+
   public void run( RecordReader<K1, V1> input, final OutputCollector<K2, V2> output, final Reporter reporter )
     throws IOException {
     try {
@@ -416,7 +487,8 @@ public class PentahoMapRunnable<K1, V1, K2, V2> implements MapRunnable<K1, V1, K
         setDebugStatus( reporter, "Locating output step: " + mapOutputStepName );
         StepInterface outputStep = trans.findRunThread( mapOutputStepName );
         if ( outputStep != null ) {
-          rowCollector = new OutputCollectorRowListener( output, outClassK, outClassV, reporter, log.isDebug() );
+          rowCollector = new OutputCollectorRowListener( output, outClassK, outClassV, reporter, log.isDebug(),
+            reuseOutputWritables );
           //          rowCollector = OutputCollectorRowListener.build(output, outputRowMeta, outClassK, outClassV,
           // reporter, debug);
           outputStep.addRowListener( rowCollector );
@@ -430,7 +502,10 @@ public class PentahoMapRunnable<K1, V1, K2, V2> implements MapRunnable<K1, V1, K
           setDebugStatus( reporter, "Locating input step: " + mapInputStepName );
           if ( mapInputStepName != null ) {
             // Setup row injection
-            rowProducer = trans.addRowProducer( mapInputStepName, 0 );
+            // the single threaded engine drains the injector between batches, blocks would only get in the way
+            rowProducer = injectorBlockSize > 1 && !mapSingleThreaded
+              ? BatchingRowSet.addRowProducer( trans, mapInputStepName, injectorBlockSize )
+              : trans.addRowProducer( mapInputStepName, 0 );
             StepInterface inputStep = rowProducer.getStepInterface();
             StepMetaInterface inputStepMeta = inputStep.getStepMeta().getStepMetaInterface();
 
@@ -464,7 +539,22 @@ public class PentahoMapRunnable<K1, V1, K2, V2> implements MapRunnable<K1, V1, K
             }
 
             trans.startThreads();
+            SingleThreadedTransExecutor executor = null;
+            if ( mapSingleThreaded ) {
+              executor = new SingleThreadedTransExecutor( trans );
+              // This validates whether or not a step is capable of running in Single Threaded mode.
+              if ( !executor.init() ) {
+                throw new KettleException(
+                  "Unable to initialize the single threaded transformation, check the log for details." );
+              }
+            }
+
+            long start = System.currentTimeMillis();
+            long records = 0;
             if ( rowProducer != null ) {
+              // the injector's row set must never fill up between two iterations, nothing would drain it
+              int batchSize = Math.min( mapSingleThreadedBatchSize, trans.getTransMeta().getSizeRowset() );
+              int pending = 0;
 
               while ( input.next( key, value ) ) {
                 if ( inOrdinals != null ) {
@@ -473,12 +563,27 @@ public class PentahoMapRunnable<K1, V1, K2, V2> implements MapRunnable<K1, V1, K
                 } else {
                   injectValue( key, inConverterK, value, inConverterV, injectorRowMeta, rowProducer, reporter );
                 }
+                records++;
+
+                if ( executor != null && ++pending >= batchSize ) {
+                  executor.oneIteration();
+                  pending = 0;
+                }
               }
 
               rowProducer.finished();
             }
 
-            trans.waitUntilFinished();
+            if ( executor != null ) {
+              // let every step see the end of its input and flush what it still holds
+              while ( executor.oneIteration() ) {
+                // keep iterating until all steps are done
+              }
+              executor.dispose();
+            } else {
+              trans.waitUntilFinished();
+            }
+            reportThroughput( reporter, records, System.currentTimeMillis() - start );
             setDebugStatus( reporter, "Mapper transformation has finished" );
             if ( trans.getErrors() > 0 ) {
               setDebugStatus( "Errors detected for mapper transformation" );
@@ -27,12 +27,12 @@ import org.pentaho.di.core.row.ValueMetaInterface;
 import org.pentaho.di.i18n.BaseMessages;
 import org.pentaho.hadoop.mapreduce.converter.TypeConversionException;
 import org.pentaho.hadoop.mapreduce.converter.TypeConverterFactory;
-import org.pentaho.hadoop.mapreduce.converter.spi.ITypeConverter;
+import org.pentaho.hadoop.mapreduce.converter.spi.IReusingTypeConverter;
 
 /**
  * Converts any Kettle object to an {@link BooleanWritable} object
  */
-public class KettleTypeToBooleanWritableConverter implements ITypeConverter<Object, BooleanWritable> {
+public class KettleTypeToBooleanWritableConverter implements IReusingTypeConverter<Object, BooleanWritable> {
   @Override
   public boolean canConvert( Class from, Class to ) {
     return TypeConverterFactory.isKettleType( from ) && BooleanWritable.class.equals( to );
@@ -40,8 +40,14 @@ public class KettleTypeToBooleanWritableConverter implements ITypeConverter<Obje
 
   @Override
   public BooleanWritable convert( ValueMetaInterface meta, Object obj ) throws TypeConversionException {
+    return convert( meta, obj, null );
+  }
+
+  @Override
+  public BooleanWritable convert( ValueMetaInterface meta, Object obj, BooleanWritable reuse )
+    throws TypeConversionException {
     try {
-      BooleanWritable result = new BooleanWritable();
+      BooleanWritable result = reuse == null ? new BooleanWritable() : reuse;
       result.set( meta.getBoolean( obj ) );
       return result;
     } catch ( Exception ex ) {
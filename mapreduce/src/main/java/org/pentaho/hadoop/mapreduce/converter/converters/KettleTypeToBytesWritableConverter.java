@@ -27,12 +27,12 @@ import org.pentaho.di.core.row.ValueMetaInterface;
 import org.pentaho.di.i18n.BaseMessages;
 import org.pentaho.hadoop.mapreduce.converter.TypeConversionException;
 import org.pentaho.hadoop.mapreduce.converter.TypeConverterFactory;
-import org.pentaho.hadoop.mapreduce.converter.spi.ITypeConverter;
+import org.pentaho.hadoop.mapreduce.converter.spi.IReusingTypeConverter;
 
 /**
  * Converts any Kettle object to an {@link BytesWritable} object
  */
-public class KettleTypeToBytesWritableConverter implements ITypeConverter<Object, BytesWritable> {
+public class KettleTypeToBytesWritableConverter implements IReusingTypeConverter<Object, BytesWritable> {
   @Override
   public boolean canConvert( Class from, Class to ) {
     return TypeConverterFactory.isKettleType( from ) && BytesWritable.class.equals( to );
@@ -40,8 +40,14 @@ public class KettleTypeToBytesWritableConverter implements ITypeConverter<Object
 
   @Override
   public BytesWritable convert( ValueMetaInterface meta, Object obj ) throws TypeConversionException {
+    return convert( meta, obj, null );
+  }
+
+  @Override
+  public BytesWritable convert( ValueMetaInterface meta, Object obj, BytesWritable reuse )
+    throws TypeConversionException {
     try {
-      BytesWritable result = new BytesWritable();
+      BytesWritable result = reuse == null ? new BytesWritable() : reuse;
       byte[] binary = meta.getBinary( obj );
       result.set( binary, 0, binary.length );
       return result;
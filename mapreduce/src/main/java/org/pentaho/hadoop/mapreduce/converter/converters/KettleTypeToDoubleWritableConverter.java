@@ -28,12 +28,12 @@ import org.pentaho.di.core.row.ValueMetaInterface;
 import org.pentaho.di.i18n.BaseMessages;
 import org.pentaho.hadoop.mapreduce.converter.TypeConversionException;
 import org.pentaho.hadoop.mapreduce.converter.TypeConverterFactory;
-import org.pentaho.hadoop.mapreduce.converter.spi.ITypeConverter;
+import org.pentaho.hadoop.mapreduce.converter.spi.IReusingTypeConverter;
 
 /**
  * Converts any Kettle object to an {@link DoubleWritable} object
  */
-public class KettleTypeToDoubleWritableConverter implements ITypeConverter<Object, DoubleWritable> {
+public class KettleTypeToDoubleWritableConverter implements IReusingTypeConverter<Object, DoubleWritable> {
   @Override
   public boolean canConvert( Class from, Class to ) {
     return TypeConverterFactory.isKettleType( from ) && DoubleWritable.class.equals( to );
@@ -41,8 +41,14 @@ public class KettleTypeToDoubleWritableConverter implements ITypeConverter<Objec
 
   @Override
   public DoubleWritable convert( ValueMetaInterface meta, Object obj ) throws TypeConversionException {
+    return convert( meta, obj, null );
+  }
+
+  @Override
+  public DoubleWritable convert( ValueMetaInterface meta, Object obj, DoubleWritable reuse )
+    throws TypeConversionException {
     try {
-      DoubleWritable result = new DoubleWritable();
+      DoubleWritable result = reuse == null ? new DoubleWritable() : reuse;
       result.set( meta.getNumber( obj ) );
       return result;
     } catch ( KettleValueException ex ) {
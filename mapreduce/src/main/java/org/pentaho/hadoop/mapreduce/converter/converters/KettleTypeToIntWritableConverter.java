@@ -28,12 +28,12 @@ import org.pentaho.di.core.row.ValueMetaInterface;
 import org.pentaho.di.i18n.BaseMessages;
 import org.pentaho.hadoop.mapreduce.converter.TypeConversionException;
 import org.pentaho.hadoop.mapreduce.converter.TypeConverterFactory;
-import org.pentaho.hadoop.mapreduce.converter.spi.ITypeConverter;
+import org.pentaho.hadoop.mapreduce.converter.spi.IReusingTypeConverter;
 
 /**
  * Converts any Kettle object to an {@link IntWritable} object
  */
-public class KettleTypeToIntWritableConverter implements ITypeConverter<Object, IntWritable> {
+public class KettleTypeToIntWritableConverter implements IReusingTypeConverter<Object, IntWritable> {
   @Override
   public boolean canConvert( Class from, Class to ) {
     return TypeConverterFactory.isKettleType( from ) && IntWritable.class.equals( to );
@@ -41,8 +41,13 @@ public class KettleTypeToIntWritableConverter implements ITypeConverter<Object,
 
   @Override
   public IntWritable convert( ValueMetaInterface meta, Object obj ) throws TypeConversionException {
+    return convert( meta, obj, null );
+  }
+
+  @Override
+  public IntWritable convert( ValueMetaInterface meta, Object obj, IntWritable reuse ) throws TypeConversionException {
     try {
-      IntWritable result = new IntWritable();
+      IntWritable result = reuse == null ? new IntWritable() : reuse;
       result.set( meta.getInteger( obj ).intValue() );
       return result;
     } catch ( KettleValueException ex ) {
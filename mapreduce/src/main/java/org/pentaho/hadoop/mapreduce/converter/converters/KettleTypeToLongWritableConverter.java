@@ -28,12 +28,12 @@ import org.pentaho.di.core.row.ValueMetaInterface;
 import org.pentaho.di.i18n.BaseMessages;
 import org.pentaho.hadoop.mapreduce.converter.TypeConversionException;
 import org.pentaho.hadoop.mapreduce.converter.TypeConverterFactory;
-import org.pentaho.hadoop.mapreduce.converter.spi.ITypeConverter;
+import org.pentaho.hadoop.mapreduce.converter.spi.IReusingTypeConverter;
 
 /**
  * Converts any Kettle object to a {@link LongWritable} object
  */
-public class KettleTypeToLongWritableConverter implements ITypeConverter<Object, LongWritable> {
+public class KettleTypeToLongWritableConverter implements IReusingTypeConverter<Object, LongWritable> {
   @Override
   public boolean canConvert( Class from, Class to ) {
     return TypeConverterFactory.isKettleType( from ) && LongWritable.class.equals( to );
@@ -41,8 +41,14 @@ public class KettleTypeToLongWritableConverter implements ITypeConverter<Object,
 
   @Override
   public LongWritable convert( ValueMetaInterface meta, Object obj ) throws TypeConversionException {
+    return convert( meta, obj, null );
+  }
+
+  @Override
+  public LongWritable convert( ValueMetaInterface meta, Object obj, LongWritable reuse )
+    throws TypeConversionException {
     try {
-      LongWritable result = new LongWritable();
+      LongWritable result = reuse == null ? new LongWritable() : reuse;
       result.set( meta.getInteger( obj ) );
       return result;
     } catch ( KettleValueException ex ) {
@@ -28,12 +28,12 @@ import org.pentaho.di.core.row.ValueMetaInterface;
 import org.pentaho.di.i18n.BaseMessages;
 import org.pentaho.hadoop.mapreduce.converter.TypeConversionException;
 import org.pentaho.hadoop.mapreduce.converter.TypeConverterFactory;
-import org.pentaho.hadoop.mapreduce.converter.spi.ITypeConverter;
+import org.pentaho.hadoop.mapreduce.converter.spi.IReusingTypeConverter;
 
 /**
  * Converts any Kettle object to a {@link Text} object
  */
-public class KettleTypeToTextConverter implements ITypeConverter<Object, Text> {
+public class KettleTypeToTextConverter implements IReusingTypeConverter<Object, Text> {
   @Override
   public boolean canConvert( Class from, Class to ) {
     return TypeConverterFactory.isKettleType( from ) && Text.class.equals( to );
@@ -41,8 +41,13 @@ public class KettleTypeToTextConverter implements ITypeConverter<Object, Text> {
 
   @Override
   public Text convert( ValueMetaInterface meta, Object obj ) throws TypeConversionException {
+    return convert( meta, obj, null );
+  }
+
+  @Override
+  public Text convert( ValueMetaInterface meta, Object obj, Text reuse ) throws TypeConversionException {
     try {
-      Text text = new Text();
+      Text text = reuse == null ? new Text() : reuse;
       text.set( meta.getString( obj ) );
       return text;
     } catch ( KettleValueException ex ) {
@@ -26,12 +26,12 @@ import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.Text;
 import org.pentaho.di.core.row.ValueMetaInterface;
 import org.pentaho.hadoop.mapreduce.converter.TypeConversionException;
-import org.pentaho.hadoop.mapreduce.converter.spi.ITypeConverter;
+import org.pentaho.hadoop.mapreduce.converter.spi.IReusingTypeConverter;
 
 /**
  * Converts {@link LongWritable} objects to {@link Text} objects
  */
-public class LongWritableToTextConverter implements ITypeConverter<LongWritable, Text> {
+public class LongWritableToTextConverter implements IReusingTypeConverter<LongWritable, Text> {
   @Override
   public boolean canConvert( Class from, Class to ) {
     return LongWritable.class.equals( from ) && Text.class.equals( to );
@@ -39,7 +39,12 @@ public class LongWritableToTextConverter implements ITypeConverter<LongWritable,
 
   @Override
   public Text convert( ValueMetaInterface meta, LongWritable obj ) throws TypeConversionException {
-    Text result = new Text();
+    return convert( meta, obj, null );
+  }
+
+  @Override
+  public Text convert( ValueMetaInterface meta, LongWritable obj, Text reuse ) throws TypeConversionException {
+    Text result = reuse == null ? new Text() : reuse;
     result.set( String.valueOf( obj.get() ) );
     return result;
   }
@@ -0,0 +1,49 @@
+/*******************************************************************************
+ *
+ * Pentaho Big Data
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.pentaho.hadoop.mapreduce.converter.spi;
+
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.hadoop.mapreduce.converter.TypeConversionException;
+
+/**
+ * A type converter that can write its result into an instance returned from a previous conversion instead of
+ * allocating a new one for every call. Only safe when the caller is done with the previous result before converting
+ * again, e.g. because {@link org.apache.hadoop.mapred.OutputCollector#collect(Object, Object)} has already serialized
+ * it.
+ *
+ * @param <F> Type this converter can convert from
+ * @param <T> Type this converter can convert to
+ */
+public interface IReusingTypeConverter<F, T> extends ITypeConverter<F, T> {
+  /**
+   * Convert an object with some metadata to the destination type, reusing {@code reuse} when possible.
+   *
+   * @param meta  Metadata for the object provided. This provides hints and formatting to aid in conversion.
+   * @param obj   Object to convert
+   * @param reuse Result of a previous conversion to overwrite; may be {@code null}
+   * @return Converted object, either {@code reuse} or a new instance when {@code reuse} was {@code null}
+   * @throws org.pentaho.hadoop.mapreduce.converter.TypeConversionException Error encountered when converting {@code
+   *                                                                        obj} to type {@code T}
+   */
+  public T convert( ValueMetaInterface meta, F obj, T reuse ) throws TypeConversionException;
+}
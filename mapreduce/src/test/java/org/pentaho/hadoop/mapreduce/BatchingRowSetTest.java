@@ -0,0 +1,158 @@
+/*******************************************************************************
+ *
+ * Pentaho Big Data
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.pentaho.hadoop.mapreduce;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.RowMetaInterface;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class BatchingRowSetTest {
+
+  private RowMetaInterface rowMeta;
+
+  @Before
+  public void setUp() {
+    rowMeta = new RowMeta();
+  }
+
+  private static Object[] row( long i ) {
+    return new Object[] { i };
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testBlockSizeMustBePositive() {
+    new BatchingRowSet( 0, 100 );
+  }
+
+  @Test
+  public void testRowsAreHandedOverPerBlock() {
+    BatchingRowSet rowSet = new BatchingRowSet( 3, 100 );
+
+    rowSet.putRow( rowMeta, row( 0 ) );
+    rowSet.putRow( rowMeta, row( 1 ) );
+    assertNull( rowSet.getRowImmediate() );
+
+    rowSet.putRow( rowMeta, row( 2 ) );
+    assertEquals( 3, rowSet.size() );
+    for ( long i = 0; i < 3; i++ ) {
+      assertEquals( i, rowSet.getRowImmediate()[ 0 ] );
+    }
+    assertNull( rowSet.getRowImmediate() );
+    assertEquals( 0, rowSet.size() );
+    assertSame( rowMeta, rowSet.getRowMeta() );
+  }
+
+  @Test
+  public void testIdleConsumerGetsPartialBlock() {
+    BatchingRowSet rowSet = new BatchingRowSet( 100, 1000 );
+
+    rowSet.putRow( rowMeta, row( 0 ) );
+    // nothing queued yet, the consumer is idle now
+    assertNull( rowSet.getRowWait( 1, TimeUnit.MILLISECONDS ) );
+
+    rowSet.putRow( rowMeta, row( 1 ) );
+    assertEquals( 0L, rowSet.getRowImmediate()[ 0 ] );
+    assertEquals( 1L, rowSet.getRowImmediate()[ 0 ] );
+  }
+
+  @Test
+  public void testDoneHandsOverRemainingRows() {
+    BatchingRowSet rowSet = new BatchingRowSet( 4, 8 );
+
+    // fill the queue so the partial block can't be queued any more
+    for ( long i = 0; i < 10; i++ ) {
+      assertTrue( rowSet.putRow( rowMeta, row( i ) ) );
+    }
+    assertFalse( rowSet.isDone() );
+    rowSet.setDone();
+    assertTrue( rowSet.isDone() );
+    assertEquals( 10, rowSet.size() );
+
+    for ( long i = 0; i < 10; i++ ) {
+      assertEquals( i, rowSet.getRowWait( 1, TimeUnit.MILLISECONDS )[ 0 ] );
+    }
+    assertNull( rowSet.getRowWait( 1, TimeUnit.MILLISECONDS ) );
+    assertEquals( 0, rowSet.size() );
+  }
+
+  @Test
+  public void testProducerBlocksWhenFull() {
+    BatchingRowSet rowSet = new BatchingRowSet( 2, 4 );
+
+    for ( long i = 0; i < 6; i++ ) {
+      assertTrue( rowSet.putRowWait( rowMeta, row( i ), 1, TimeUnit.MILLISECONDS ) );
+    }
+    // two blocks queued and a third, full one pending
+    assertEquals( 4, rowSet.size() );
+    assertFalse( rowSet.putRowWait( rowMeta, row( 6 ), 1, TimeUnit.MILLISECONDS ) );
+
+    assertEquals( 0L, rowSet.getRowImmediate()[ 0 ] );
+    assertTrue( rowSet.putRowWait( rowMeta, row( 6 ), 1, TimeUnit.MILLISECONDS ) );
+    assertEquals( 5, rowSet.size() );
+  }
+
+  @Test
+  public void testConcurrentProducer() throws Exception {
+    final BatchingRowSet rowSet = new BatchingRowSet( 16, 64 );
+    final int rows = 10000;
+    Thread producer = new Thread( new Runnable() {
+      @Override
+      public void run() {
+        for ( long i = 0; i < rows; i++ ) {
+          while ( !rowSet.putRow( rowMeta, row( i ) ) ) {
+            // retry like RowProducer does
+          }
+        }
+        rowSet.setDone();
+      }
+    } );
+    producer.start();
+
+    long expected = 0;
+    while ( true ) {
+      Object[] row = rowSet.getRowWait( 10, TimeUnit.MILLISECONDS );
+      if ( row == null ) {
+        if ( rowSet.isDone() ) {
+          row = rowSet.getRowWait( 1, TimeUnit.MILLISECONDS );
+          if ( row == null ) {
+            break;
+          }
+        } else {
+          continue;
+        }
+      }
+      assertEquals( expected++, row[ 0 ] );
+    }
+    producer.join();
+    assertEquals( rows, expected );
+  }
+}
@@ -0,0 +1,40 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+package org.pentaho.hadoop.mapreduce;
+
+import org.pentaho.di.core.annotations.Step;
+import org.pentaho.di.trans.TransMeta.TransformationType;
+import org.pentaho.di.trans.steps.dummytrans.DummyTransMeta;
+
+/**
+ * A dummy step that, like blocking steps, can only run on the normal (multi threaded) engine.
+ */
+@Step( id = NormalEngineOnlyDummyMeta.ID, name = "Normal engine only dummy",
+  description = "Dummy step without single threaded engine support", categoryDescription = "Testing" )
+public class NormalEngineOnlyDummyMeta extends DummyTransMeta {
+  public static final String ID = "NormalEngineOnlyDummy";
+
+  @Override
+  public TransformationType[] getSupportedTransformationTypes() {
+    return new TransformationType[] { TransformationType.Normal };
+  }
+}
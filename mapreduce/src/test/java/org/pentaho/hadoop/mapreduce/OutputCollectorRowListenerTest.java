@@ -0,0 +1,128 @@
+/*******************************************************************************
+ *
+ * Pentaho Big Data
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.pentaho.hadoop.mapreduce;
+
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapred.OutputCollector;
+import org.apache.hadoop.mapred.Reporter;
+import org.junit.Before;
+import org.junit.Test;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMeta;
+import org.pentaho.di.core.row.ValueMetaInterface;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+
+public class OutputCollectorRowListenerTest {
+
+  private List<Object> keys;
+
+  private List<Object> values;
+
+  private List<String> collected;
+
+  private OutputCollector<Text, LongWritable> output;
+
+  private RowMetaInterface rowMeta;
+
+  @Before
+  public void setUp() {
+    keys = new ArrayList<Object>();
+    values = new ArrayList<Object>();
+    collected = new ArrayList<String>();
+    output = new OutputCollector<Text, LongWritable>() {
+      @Override
+      public void collect( Text key, LongWritable value ) {
+        keys.add( key );
+        values.add( value );
+        collected.add( key + "=" + value );
+      }
+    };
+
+    rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMeta( "outKey", ValueMetaInterface.TYPE_STRING ) );
+    rowMeta.addValueMeta( new ValueMeta( "outValue", ValueMetaInterface.TYPE_INTEGER ) );
+  }
+
+  @Test
+  public void testNewInstancesPerRowByDefault() throws Exception {
+    OutputCollectorRowListener<Text, LongWritable> listener =
+      new OutputCollectorRowListener<Text, LongWritable>( output, Text.class, LongWritable.class,
+        mock( Reporter.class ), false );
+
+    listener.rowWrittenEvent( rowMeta, new Object[] { "a", 1L } );
+    listener.rowWrittenEvent( rowMeta, new Object[] { "b", 2L } );
+
+    assertEquals( new Text( "a" ), keys.get( 0 ) );
+    assertEquals( new LongWritable( 2 ), values.get( 1 ) );
+    assertNotSame( keys.get( 0 ), keys.get( 1 ) );
+    assertNotSame( values.get( 0 ), values.get( 1 ) );
+    assertNull( listener.getException() );
+  }
+
+  @Test
+  public void testReuseWritables() throws Exception {
+    OutputCollectorRowListener<Text, LongWritable> listener =
+      new OutputCollectorRowListener<Text, LongWritable>( output, Text.class, LongWritable.class,
+        mock( Reporter.class ), false, true );
+
+    listener.rowWrittenEvent( rowMeta, new Object[] { "a", 1L } );
+    listener.rowWrittenEvent( rowMeta, new Object[] { "b", 2L } );
+
+    assertSame( keys.get( 0 ), keys.get( 1 ) );
+    assertSame( values.get( 0 ), values.get( 1 ) );
+    assertEquals( "a=1", collected.get( 0 ) );
+    assertEquals( "b=2", collected.get( 1 ) );
+  }
+
+  @Test
+  public void testConverterFollowsRuntimeClass() throws Exception {
+    OutputCollectorRowListener<Text, LongWritable> listener =
+      new OutputCollectorRowListener<Text, LongWritable>( output, Text.class, LongWritable.class,
+        mock( Reporter.class ), false, true );
+
+    listener.rowWrittenEvent( rowMeta, new Object[] { "a", 1L } );
+    // same row meta, but the value is null now and needs a different converter
+    listener.rowWrittenEvent( rowMeta, new Object[] { "b", null } );
+    listener.rowWrittenEvent( rowMeta, new Object[] { "c", 2L } );
+
+    RowMetaInterface otherMeta = new RowMeta();
+    otherMeta.addValueMeta( new ValueMeta( "outValue", ValueMetaInterface.TYPE_INTEGER ) );
+    otherMeta.addValueMeta( new ValueMeta( "outKey", ValueMetaInterface.TYPE_INTEGER ) );
+    listener.rowWrittenEvent( otherMeta, new Object[] { 3L, 4L } );
+
+    assertEquals( "a=1", collected.get( 0 ) );
+    assertEquals( "c=2", collected.get( 1 ) );
+    assertEquals( "4=3", collected.get( 2 ) );
+    assertEquals( 3, collected.size() );
+  }
+}
@@ -30,11 +30,15 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.pentaho.di.core.KettleEnvironment;
+import org.pentaho.di.core.annotations.Step;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.logging.LogLevel;
 import org.pentaho.di.core.logging.LoggingRegistry;
+import org.pentaho.di.core.plugins.PluginRegistry;
+import org.pentaho.di.core.plugins.StepPluginType;
 import org.pentaho.di.trans.TransConfiguration;
 import org.pentaho.di.trans.TransMeta;
+import org.pentaho.di.trans.step.StepMeta;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
@@ -44,7 +48,11 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static org.junit.Assert.*;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 /**
  * @author Tatsiana_Kasiankova
@@ -79,6 +87,8 @@ public class PentahoMapRunnableTest {
   @BeforeClass
   public static void before() throws KettleException {
     KettleEnvironment.init();
+    PluginRegistry.getInstance()
+      .registerPluginClass( NormalEngineOnlyDummyMeta.class.getName(), StepPluginType.class, Step.class );
     combinerTransExecutionConfig = MRTestUtil.getTransExecConfig( MRTestUtil.getTransMeta( MAP_TRANS_META_NAME ) );
   }
 
@@ -219,4 +229,61 @@ public class PentahoMapRunnableTest {
     }
     assertEquals( logChannels + EXPECTED_CHANNELS_PER_RUN, LoggingRegistry.getInstance().getMap().size() );
   }
+
+  @Test
+  public void testSingleThreadedMapper() throws Exception {
+    transMeta = new TransMeta(
+      getClass().getResource( MRTestUtil.PATH_TO_WORDCOUNT_MAPPER_TEST_TRANSFORMATION ).toURI().getPath() );
+    mrJobConfig.set( PentahoMapRunnable.STRING_MAP_SINGLE_THREADED, "true" );
+    // smaller than the input so that rows are pushed through in several iterations
+    mrJobConfig.setInt( PentahoMapRunnable.STRING_MAP_SINGLE_THREADED_BATCH_SIZE, 2 );
+    MRTestUtil.configJobMapBaseCase( transMeta, mrJobConfig, mapRunnable );
+    assertTrue( mapRunnable.isMapSingleThreaded() );
+
+    List<String> wordsToCount = Arrays.asList( "word1", "word2", "word1", "word3", "word1" );
+    reader = new MockRecordReader( wordsToCount );
+    mapRunnable.run( reader, outputCollectorMock, reporterMock );
+    outputCollectorMock.close();
+
+    assertNull( "Exception thrown", mapRunnable.getException() );
+    assertEquals( 3, outputCollectorMock.getCollection().size() );
+    assertEquals( 3, outputCollectorMock.getCollection().get( new Text( "word1" ) ).size() );
+    verify( reporterMock ).incrCounter( PentahoMapRunnable.Counter.INPUT_RECORDS, 5L );
+    verify( reporterMock ).incrCounter( eq( PentahoMapRunnable.Counter.SINGLE_THREADED_MAP_MILLIS ), anyLong() );
+    verify( reporterMock, never() ).incrCounter( eq( PentahoMapRunnable.Counter.MAP_MILLIS ), anyLong() );
+  }
+
+  @Test
+  public void testSingleThreadedMapperFallsBackToNormalEngine() throws Exception {
+    transMeta = new TransMeta(
+      getClass().getResource( MRTestUtil.PATH_TO_WORDCOUNT_MAPPER_TEST_TRANSFORMATION ).toURI().getPath() );
+    // swap the output step for one the single threaded engine can't run
+    StepMeta outputStep = transMeta.findStep( MRTestUtil.OUTPUT_STEP );
+    outputStep.setStepID( NormalEngineOnlyDummyMeta.ID );
+    outputStep.setStepMetaInterface( new NormalEngineOnlyDummyMeta() );
+    mrJobConfig.set( PentahoMapRunnable.STRING_MAP_SINGLE_THREADED, "true" );
+    MRTestUtil.configJobMapBaseCase( transMeta, mrJobConfig, mapRunnable );
+    assertFalse( mapRunnable.isMapSingleThreaded() );
+
+    List<String> wordsToCount = Arrays.asList( "word1", "word2", "word1", "word3", "word1" );
+    reader = new MockRecordReader( wordsToCount );
+    mapRunnable.run( reader, outputCollectorMock, reporterMock );
+    outputCollectorMock.close();
+
+    assertNull( "Exception thrown", mapRunnable.getException() );
+    assertEquals( 3, outputCollectorMock.getCollection().size() );
+    assertEquals( 3, outputCollectorMock.getCollection().get( new Text( "word1" ) ).size() );
+    verify( reporterMock ).incrCounter( PentahoMapRunnable.Counter.INPUT_RECORDS, 5L );
+    verify( reporterMock ).incrCounter( eq( PentahoMapRunnable.Counter.MAP_MILLIS ), anyLong() );
+    verify( reporterMock, never() )
+      .incrCounter( eq( PentahoMapRunnable.Counter.SINGLE_THREADED_MAP_MILLIS ), anyLong() );
+  }
+
+  @Test
+  public void testMapperIsMultiThreadedByDefault() throws Exception {
+    transMeta = new TransMeta(
+      getClass().getResource( MRTestUtil.PATH_TO_WORDCOUNT_MAPPER_TEST_TRANSFORMATION ).toURI().getPath() );
+    MRTestUtil.configJobMapBaseCase( transMeta, mrJobConfig, mapRunnable );
+    assertFalse( mapRunnable.isMapSingleThreaded() );
+  }
 }
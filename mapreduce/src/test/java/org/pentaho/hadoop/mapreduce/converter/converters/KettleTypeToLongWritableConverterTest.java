@@ -85,4 +85,16 @@ public class KettleTypeToLongWritableConverterTest {
     }
 
   }
+
+  @Test
+  public void convertReusing() throws Exception {
+    KettleTypeToLongWritableConverter c = new KettleTypeToLongWritableConverter();
+    ValueMeta integerMeta =
+      new ValueMeta( "test", ValueMetaInterface.TYPE_INTEGER, ValueMetaInterface.STORAGE_TYPE_NORMAL );
+
+    LongWritable reuse = new LongWritable( 1 );
+    assertSame( reuse, c.convert( integerMeta, Long.valueOf( 100 ), reuse ) );
+    assertEquals( new LongWritable( 100 ), reuse );
+    assertNotSame( reuse, c.convert( integerMeta, Long.valueOf( 100 ) ) );
+  }
 }
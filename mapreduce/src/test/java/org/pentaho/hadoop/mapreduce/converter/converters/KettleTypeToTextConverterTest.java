@@ -85,4 +85,18 @@ public class KettleTypeToTextConverterTest {
     }
 
   }
+
+  @Test
+  public void convertReusing() throws Exception {
+    KettleTypeToTextConverter c = new KettleTypeToTextConverter();
+    ValueMeta integerMeta =
+      new ValueMeta( "test", ValueMetaInterface.TYPE_INTEGER, ValueMetaInterface.STORAGE_TYPE_NORMAL );
+
+    Text first = c.convert( integerMeta, Long.valueOf( 100 ), null );
+    assertEquals( new Text( "100" ), first );
+
+    Text second = c.convert( integerMeta, Long.valueOf( 7 ), first );
+    assertSame( first, second );
+    assertEquals( new Text( "7" ), second );
+  }
 }
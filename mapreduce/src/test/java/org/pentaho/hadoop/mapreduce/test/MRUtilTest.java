@@ -22,6 +22,7 @@
 
 package org.pentaho.hadoop.mapreduce.test;
 
+import com.thoughtworks.xstream.XStream;
 import org.apache.hadoop.conf.Configuration;
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -31,6 +32,8 @@ import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.logging.KettleLogStore;
 import org.pentaho.di.core.plugins.PluginRegistry;
 import org.pentaho.di.core.row.value.ValueMetaPluginType;
+import org.pentaho.di.core.variables.VariableSpace;
+import org.pentaho.di.core.variables.Variables;
 import org.pentaho.di.trans.Trans;
 import org.pentaho.di.trans.TransConfiguration;
 import org.pentaho.di.trans.TransExecutionConfiguration;
@@ -38,6 +41,8 @@ import org.pentaho.di.trans.TransMeta;
 import org.pentaho.di.trans.TransMeta.TransformationType;
 import org.pentaho.hadoop.mapreduce.MRUtil;
 
+import java.io.IOException;
+
 import static org.junit.Assert.*;
 
 /**
@@ -63,6 +68,7 @@ public class MRUtilTest {
   @Before
   public void setUp() {
     c = new Configuration();
+    MRUtil.clearTemplateCache();
   }
 
   @Test
@@ -126,6 +132,60 @@ public class MRUtilTest {
     assertEquals( TransMeta.TransformationType.SingleThreaded, trans.getTransMeta().getTransformationType() );
   }
 
+  @Test
+  public void createTrans_copiesCachedTemplate() throws Exception {
+    String xml = transExecConfig.getXML();
+    Trans singleThreaded = MRUtil.getTrans( c, xml, true );
+    singleThreaded.getTransMeta().setVariable( "task.variable", "first" );
+
+    Trans normal = MRUtil.getTrans( c, xml, false );
+    assertNotSame( singleThreaded.getTransMeta(), normal.getTransMeta() );
+    assertEquals( transMeta.getName(), normal.getTransMeta().getName() );
+    assertEquals( TransformationType.SingleThreaded, singleThreaded.getTransMeta().getTransformationType() );
+    assertEquals( TransformationType.Normal, normal.getTransMeta().getTransformationType() );
+    assertNull( normal.getTransMeta().getVariable( "task.variable" ) );
+  }
+
+  @Test
+  public void createTrans_templateCacheDisabled() throws Exception {
+    c.setBoolean( MRUtil.PROPERTY_PENTAHO_TEMPLATE_CACHE, false );
+    String xml = transExecConfig.getXML();
+
+    Trans first = MRUtil.getTrans( c, xml, false );
+    Trans second = MRUtil.getTrans( c, xml, true );
+    assertNotSame( first.getTransMeta(), second.getTransMeta() );
+    assertEquals( TransformationType.Normal, first.getTransMeta().getTransformationType() );
+    assertEquals( TransformationType.SingleThreaded, second.getTransMeta().getTransformationType() );
+  }
+
+  @Test
+  public void getVariableSpace_returnsCopies() {
+    Variables variables = new Variables();
+    variables.setVariable( "KETTLE_TEST", "value" );
+    String xml = new XStream().toXML( variables );
+
+    VariableSpace first = MRUtil.getVariableSpace( c, xml );
+    first.setVariable( "Internal.Hadoop.TaskId", "task_1" );
+    VariableSpace second = MRUtil.getVariableSpace( c, xml );
+
+    assertNotSame( first, second );
+    assertEquals( "value", second.getVariable( "KETTLE_TEST" ) );
+    assertNull( second.getVariable( "Internal.Hadoop.TaskId" ) );
+  }
+
+  @Test
+  public void loadStagedTransformations_notStaged() throws Exception {
+    c.set( "transformation-map-xml", "<transformation/>" );
+    MRUtil.loadStagedTransformations( c );
+    assertEquals( "<transformation/>", c.get( "transformation-map-xml" ) );
+  }
+
+  @Test( expected = IOException.class )
+  public void loadStagedTransformations_missing() throws Exception {
+    c.set( MRUtil.PROPERTY_PENTAHO_STAGED_TRANSFORMATIONS, "missing-pmr-transformations.gz" );
+    MRUtil.loadStagedTransformations( c );
+  }
+
   private static TransMeta getTestTransMeta() {
     TransMeta transMeta = new TransMeta();
     transMeta.setName( "Test transformation" );
@@ -55,10 +55,17 @@ public interface IPentahoAvroInputFormat extends IPentahoInputFormat {
   void setInputSchemaFile( String schemaFile ) throws Exception;
 
   /**
-   * Split size, bytes.
+   * Split size, bytes. Files larger than this are split at Avro sync markers when their file system can seek. When
+   * not set, each file is a split.
    */
   void setSplitSize( long blockSize ) throws Exception;
 
+  /**
+   * Read the splits of all files on a bounded pool of threads. When ordered, rows are returned in split order,
+   * otherwise in the order they are read.
+   */
+  IPentahoRecordReader createParallelRecordReader( int threads, boolean ordered );
+
   String getInputStreamFieldName();
 
   void setInputStreamFieldName( String inputStreamFieldName );
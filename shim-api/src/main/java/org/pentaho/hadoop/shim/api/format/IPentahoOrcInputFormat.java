@@ -39,4 +39,24 @@ public interface IPentahoOrcInputFormat extends IPentahoInputFormat {
    */
   void setInputFile( String file );
 
+  /**
+   * Set predicates which are pushed down to the reader, combined with AND. Stripes and row groups whose statistics or
+   * bloom filters show that no row can match are skipped, but rows of the remaining row groups aren't filtered one by
+   * one, so callers should keep their own filtering. Predicates which can't be expressed for the column's ORC type
+   * are ignored. An empty list clears the filter.
+   */
+  void setFilter( List<InputFieldPredicate> predicates );
+
+  /**
+   * Set the maximum size of a split. Splits always hold whole stripes, so a stripe larger than this is a split of its
+   * own. When not set, each stripe is a split.
+   */
+  void setSplitSize( long splitSize );
+
+  /**
+   * Read the splits of all files on a bounded pool of threads. When ordered, rows are returned in split order,
+   * otherwise in the order they are read.
+   */
+  IPentahoRecordReader createParallelRecordReader( int threads, boolean ordered );
+
 }
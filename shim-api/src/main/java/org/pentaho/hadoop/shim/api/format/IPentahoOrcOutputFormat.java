@@ -27,12 +27,15 @@ public interface IPentahoOrcOutputFormat extends IPentahoOutputFormat, IPvfsAlia
   int DEFAULT_COMPRESS_SIZE = 256; // In kilobytes
   int DEFAULT_STRIPE_SIZE = 64; // In megabytes
   int DEFAULT_ROW_INDEX_STRIDE = 10000; // In rows
+  int DEFAULT_BATCH_SIZE = 1024; // In rows
 
   String STRIPE_SIZE_KEY = "orc.stripe.size";
   String COMPRESSION_KEY = "orc.compress";
   String COMPRESS_SIZE_KEY = "orc.compress.size";
   String ROW_INDEX_STRIDE_KEY = "orc.row.index.stride";
   String CREATE_INDEX_KEY = "orc.create.index";
+  String BLOOM_FILTER_COLUMNS_KEY = "orc.bloom.filter.columns";
+  String BLOOM_FILTER_FPP_KEY = "orc.bloom.filter.fpp";
 
   enum COMPRESSION {
     NONE, SNAPPY, ZLIB, LZO
@@ -50,4 +53,19 @@ public interface IPentahoOrcOutputFormat extends IPentahoOutputFormat, IPvfsAlia
 
   void setCompressSize( int kilobytes );
 
+  /**
+   * Set the ORC columns which get a bloom filter in the row index. An empty list removes them.
+   */
+  void setBloomFilterColumns( List<String> columns );
+
+  /**
+   * Set the false positive probability of the bloom filters, between 0 and 1.
+   */
+  void setBloomFilterFpp( double fpp );
+
+  /**
+   * Set the number of rows buffered before they are handed to the ORC writer.
+   */
+  void setBatchSize( int rows );
+
 }
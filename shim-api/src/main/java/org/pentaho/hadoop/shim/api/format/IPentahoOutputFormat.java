@@ -22,13 +22,33 @@
 package org.pentaho.hadoop.shim.api.format;
 
 import java.io.Closeable;
+import java.util.List;
 
 import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.row.RowMetaInterface;
 
 public interface IPentahoOutputFormat {
   IPentahoRecordWriter createRecordWriter() throws Exception;
 
   public interface IPentahoRecordWriter extends Closeable {
     void write( RowMetaAndData row ) throws Exception;
+
+    /**
+     * Write several rows at once.
+     */
+    default void writeBatch( List<RowMetaAndData> rows ) throws Exception {
+      for ( RowMetaAndData row : rows ) {
+        write( row );
+      }
+    }
+
+    /**
+     * Write several rows sharing one row meta. Writers don't keep references to the row arrays after the call.
+     */
+    default void writeBatch( RowMetaInterface rowMeta, Object[][] rows ) throws Exception {
+      for ( Object[] row : rows ) {
+        write( new RowMetaAndData( rowMeta, row ) );
+      }
+    }
   }
 }
@@ -49,4 +49,31 @@ public interface IPentahoParquetInputFormat extends IPentahoInputFormat {
    * Split size, bytes.
    */
   void setSplitSize( long blockSize ) throws Exception;
+
+  /**
+   * Allow files to be split by row groups, up to the split size. Footers are validated and files written with the
+   * PARQUET-246 DELTA_BYTE_ARRAY problem are still read by a single split. Disabled by default.
+   */
+  void setSplitFiles( boolean splitFiles ) throws Exception;
+
+  /**
+   * Read all splits on a bounded pool of threads. When ordered, rows are returned in split order, otherwise in the
+   * order they are read.
+   */
+  IPentahoRecordReader createParallelRecordReader( int threads, boolean ordered ) throws Exception;
+
+  /**
+   * Set predicates which are pushed down to the reader, combined with AND. Row groups whose statistics or
+   * dictionaries show that no row can match are skipped, and the remaining rows are filtered by the reader.
+   * Predicates which can't be expressed for the field's Parquet type are ignored, so callers should keep their own
+   * filtering. An empty list clears the filter.
+   */
+  void setFilter( List<InputFieldPredicate> predicates ) throws Exception;
+
+  interface IPentahoParquetRecordReader extends IPentahoRecordReader {
+    /**
+     * Number of row groups in this reader's split which were skipped by the filter.
+     */
+    long getSkippedRowGroups();
+  }
 }
@@ -0,0 +1,113 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+package org.pentaho.hadoop.shim.api.format;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Simple comparison predicate on an input field which format readers can push down to skip data that can't match.
+ * Values are expressed in the PDI type of the field (Long, Double, String, Boolean, BigDecimal, Date).
+ */
+public class InputFieldPredicate {
+
+  public enum Operator {
+    EQ, NE, LT, LE, GT, GE, IN, IS_NULL, IS_NOT_NULL
+  }
+
+  private final IFormatInputField field;
+  private final Operator operator;
+  private final List<Object> values;
+
+  private InputFieldPredicate( IFormatInputField field, Operator operator, List<Object> values ) {
+    if ( field == null || field.getFormatFieldName() == null ) {
+      throw new IllegalArgumentException( "Predicate field should have a format field name" );
+    }
+    this.field = field;
+    this.operator = operator;
+    this.values = Collections.unmodifiableList( values );
+  }
+
+  public static InputFieldPredicate eq( IFormatInputField field, Object value ) {
+    return new InputFieldPredicate( field, Operator.EQ, Collections.singletonList( value ) );
+  }
+
+  public static InputFieldPredicate notEq( IFormatInputField field, Object value ) {
+    return new InputFieldPredicate( field, Operator.NE, Collections.singletonList( value ) );
+  }
+
+  public static InputFieldPredicate lt( IFormatInputField field, Object value ) {
+    return new InputFieldPredicate( field, Operator.LT, Collections.singletonList( value ) );
+  }
+
+  public static InputFieldPredicate ltEq( IFormatInputField field, Object value ) {
+    return new InputFieldPredicate( field, Operator.LE, Collections.singletonList( value ) );
+  }
+
+  public static InputFieldPredicate gt( IFormatInputField field, Object value ) {
+    return new InputFieldPredicate( field, Operator.GT, Collections.singletonList( value ) );
+  }
+
+  public static InputFieldPredicate gtEq( IFormatInputField field, Object value ) {
+    return new InputFieldPredicate( field, Operator.GE, Collections.singletonList( value ) );
+  }
+
+  public static InputFieldPredicate in( IFormatInputField field, Object... values ) {
+    if ( values.length == 0 ) {
+      throw new IllegalArgumentException( "IN predicate requires at least one value" );
+    }
+    return new InputFieldPredicate( field, Operator.IN, Arrays.asList( values ) );
+  }
+
+  public static InputFieldPredicate isNull( IFormatInputField field ) {
+    return new InputFieldPredicate( field, Operator.IS_NULL, Collections.emptyList() );
+  }
+
+  public static InputFieldPredicate isNotNull( IFormatInputField field ) {
+    return new InputFieldPredicate( field, Operator.IS_NOT_NULL, Collections.emptyList() );
+  }
+
+  public IFormatInputField getField() {
+    return field;
+  }
+
+  public Operator getOperator() {
+    return operator;
+  }
+
+  /**
+   * Single comparison value, for all operators except IN, IS_NULL and IS_NOT_NULL.
+   */
+  public Object getValue() {
+    return values.isEmpty() ? null : values.get( 0 );
+  }
+
+  public List<Object> getValues() {
+    return values;
+  }
+
+  @Override
+  public String toString() {
+    return field.getFormatFieldName() + " " + operator + " " + values;
+  }
+}
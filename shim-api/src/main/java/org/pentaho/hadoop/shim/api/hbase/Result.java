@@ -22,6 +22,8 @@
 
 package org.pentaho.hadoop.shim.api.hbase;
 
+import org.pentaho.hadoop.shim.api.hbase.meta.HBaseColumnHandle;
+
 import java.util.NavigableMap;
 
 /**
@@ -36,5 +38,7 @@ public interface Result {
 
   byte[] getValue( String colFamilyName, String colName, boolean colNameIsBinary );
 
+  byte[] getValue( HBaseColumnHandle column );
+
   boolean isEmpty();
 }
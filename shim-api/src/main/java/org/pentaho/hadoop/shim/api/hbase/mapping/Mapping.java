@@ -22,6 +22,7 @@
 
 package org.pentaho.hadoop.shim.api.hbase.mapping;
 
+import org.pentaho.hadoop.shim.api.hbase.meta.HBaseColumnHandle;
 import org.pentaho.hadoop.shim.api.hbase.meta.HBaseValueMetaInterface;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.exception.KettleXMLException;
@@ -84,6 +85,11 @@ public interface Mapping {
 
   Object decodeKeyValue( byte[] rawval ) throws KettleException;
 
+  /**
+   * Creates a handle on a column that is not mapped, e.g. a column of a tuple mapping
+   */
+  HBaseColumnHandle createColumnHandle( String columnFamily, String columnName, boolean colNameIsBinary );
+
   enum TupleMapping {
     KEY( "KEY" ),
     FAMILY( "Family" ),
@@ -0,0 +1,39 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.pentaho.hadoop.shim.api.hbase.meta;
+
+/**
+ * A column family and column name together with their encoded bytes. The names are encoded once when the handle is
+ * created, so reading or writing the column through {@link org.pentaho.hadoop.shim.api.hbase.Result#getValue(
+ * HBaseColumnHandle)} and {@link org.pentaho.hadoop.shim.api.hbase.table.HBasePut#addColumn(HBaseColumnHandle,
+ * byte[])} does no string encoding per row. Get the handles before looping over rows.
+ */
+public interface HBaseColumnHandle {
+  String getColumnFamily();
+
+  String getColumnName();
+
+  byte[] getColumnFamilyBytes();
+
+  byte[] getColumnNameBytes();
+}
@@ -47,6 +47,11 @@ public interface HBaseValueMetaInterface extends ValueMetaInterface {
 
   void setColumnFamily( String family );
 
+  /**
+   * @return a handle on the mapped column with its family and name already encoded
+   */
+  HBaseColumnHandle getColumnHandle();
+
   void setHBaseTypeFromString( String hbaseType ) throws IllegalArgumentException;
 
   String getHBaseTypeDesc();
@@ -0,0 +1,65 @@
+/*! ******************************************************************************
+ *
+ * Pentaho Data Integration
+ *
+ * Copyright (C) 2020 by Hitachi Vantara : http://www.pentaho.com
+ *
+ *******************************************************************************
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.pentaho.hadoop.shim.api.hbase.table;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Accumulates puts and deletes and submits them to the table in batches. Executing a put or delete created by the
+ * batch only queues it; a batch is submitted in the background once it reaches its mutation count or byte threshold,
+ * and callers block when too many batches are still waiting to be submitted.
+ */
+public interface HBaseMutationBatch extends Closeable {
+  HBasePut createPut( byte[] key );
+
+  HBaseDelete createDelete( byte[] key );
+
+  /**
+   * Submits the queued mutations and waits until every submitted batch has completed.
+   */
+  void flush() throws IOException;
+
+  /**
+   * Submits the queued mutations without waiting for them to be applied. The caller only blocks if too many batches
+   * are already waiting to be submitted.
+   *
+   * @return completes once every batch submitted so far has been applied, or exceptionally with the first failure
+   */
+  CompletableFuture<Void> flushAsync();
+
+  /**
+   * Receives the outcome of every submitted batch.
+   */
+  interface Listener {
+    /**
+     * @param mutations     the number of mutations in the batch
+     * @param bytes         the estimated size of the batch
+     * @param elapsedMillis the time the submission took
+     * @param failedKeys    the row keys of the mutations that could not be applied
+     */
+    void batchCompleted( int mutations, long bytes, long elapsedMillis, List<byte[]> failedKeys );
+  }
+}
@@ -22,6 +22,8 @@
 
 package org.pentaho.hadoop.shim.api.hbase.table;
 
+import org.pentaho.hadoop.shim.api.hbase.meta.HBaseColumnHandle;
+
 import java.io.IOException;
 
 /**
@@ -33,6 +35,8 @@ public interface HBasePut {
   void addColumn( String columnFamily, String columnName, boolean colNameIsBinary, byte[] colValue ) throws
     IOException;
 
+  void addColumn( HBaseColumnHandle column, byte[] colValue ) throws IOException;
+
   String createColumnName( String... parts );
 
   void execute() throws IOException;
@@ -22,6 +22,7 @@
 
 package org.pentaho.hadoop.shim.api.hbase.table;
 
+import org.pentaho.hadoop.shim.api.hbase.Result;
 import org.pentaho.hadoop.shim.api.hbase.mapping.Mapping;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.logging.LogChannelInterface;
@@ -61,5 +62,32 @@ public interface HBaseTable extends Closeable {
 
   boolean keyExists( byte[] key ) throws IOException;
 
+  /**
+   * Fetches several rows at once, with multi-gets grouped by region server instead of one round trip per key
+   *
+   * @param keys the row keys to fetch
+   * @return one result per key, in order, null where the table has no row with that key
+   */
+  List<Result> get( List<byte[]> keys ) throws IOException;
+
+  /**
+   * Checks the existence of several rows at once
+   *
+   * @param keys the row keys to check
+   * @return for each key, in order, whether the table has a row with that key
+   */
+  boolean[] existsAll( List<byte[]> keys ) throws IOException;
+
+  /**
+   * Keeps up to maxRows recently fetched rows, including the keys found to be missing, for lookup workloads that
+   * repeat keys. Cached rows are answered by {@link #get(List)}, {@link #existsAll(List)} and
+   * {@link #keyExists(byte[])} without a round trip until they are older than ttlMillis. Existence checks are cached
+   * too, and answer later existence checks. Writes do not invalidate the cache.
+   *
+   * @param maxRows   the maximum number of cached rows, 0 to disable the cache
+   * @param ttlMillis how long a cached row stays valid, forever if not positive
+   */
+  void setRowCache( int maxRows, long ttlMillis );
+
   HBaseTableWriteOperationManager createWriteOperationManager( Long writeBufferSize ) throws IOException;
 }
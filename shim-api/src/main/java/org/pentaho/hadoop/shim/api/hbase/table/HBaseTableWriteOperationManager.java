@@ -24,6 +24,7 @@ package org.pentaho.hadoop.shim.api.hbase.table;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Created by bryan on 1/26/16.
@@ -36,4 +37,23 @@ public interface HBaseTableWriteOperationManager extends Closeable {
   HBaseDelete createDelete( byte[] key );
 
   void flushCommits() throws IOException;
+
+  /**
+   * Flushes the write buffer on a background thread so the caller can keep producing mutations while the buffer
+   * drains. At most one flush runs at a time; a request made while another flush is still waiting to start shares that
+   * flush. Closing the manager waits for outstanding flushes.
+   *
+   * @return completes once the buffer has been flushed, or exceptionally with an IOException if the flush failed
+   */
+  CompletableFuture<Void> flushCommitsAsync();
+
+  /**
+   * Creates a batch writing to this table. Mutations must not be mixed with puts and deletes created directly by
+   * this manager while the batch is open. Batches still open when the manager is closed are flushed and closed with it.
+   *
+   * @param maxMutations the number of queued mutations that triggers a submission
+   * @param maxBytes     the estimated size of queued mutations that triggers a submission
+   * @param listener     notified of every submitted batch, or null to fail on the first failed mutation
+   */
+  HBaseMutationBatch createMutationBatch( int maxMutations, long maxBytes, HBaseMutationBatch.Listener listener );
 }
@@ -40,5 +40,15 @@ public interface ResultScannerBuilder {
 
   void setCaching( int cacheSize );
 
+  /**
+   * Splits the key range along the region boundaries of the table and scans up to <code>parallelism</code> regions
+   * at the same time. The default of 1 is a single sequential scan.
+   *
+   * @param parallelism the number of concurrent region scanners
+   * @param keyOrdered  whether results must come back in row key order; unordered results are returned as soon as
+   *                    any scanner produces them
+   */
+  void setParallelism( int parallelism, boolean keyOrdered );
+
   ResultScanner build() throws IOException;
 }